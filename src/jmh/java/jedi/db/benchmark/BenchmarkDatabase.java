@@ -0,0 +1,113 @@
+package jedi.db.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import jedi.db.connection.DataSource;
+import jedi.db.models.QuerySet;
+
+/**
+ * Banco de dados H2 em memória dos benchmarks (ver
+ * src/jmh/resources/jedi.properties).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+final class BenchmarkDatabase {
+
+   private static final int BATCH_SIZE = 1000;
+   private static final long NASCIMENTO = 315532800000L;
+
+   private BenchmarkDatabase() {
+
+   }
+
+   /**
+    * Recria a tabela pessoas vazia.
+    */
+   static void reset() throws SQLException {
+      try (Connection connection = DataSource.getConnection(); Statement statement = connection.createStatement()) {
+         statement.execute("DROP TABLE IF EXISTS pessoas");
+         statement.execute(
+               "CREATE TABLE pessoas (" +
+               "id INT AUTO_INCREMENT PRIMARY KEY, " +
+               "nome VARCHAR(100), " +
+               "idade INT, " +
+               "salario DECIMAL(12, 2), " +
+               "nascimento TIMESTAMP, " +
+               "ativo BOOLEAN)");
+         if (!connection.getAutoCommit()) {
+            connection.commit();
+         }
+      }
+   }
+
+   /**
+    * Insere os registros diretamente pelo JDBC, fora do código medido.
+    */
+   static void populate(int rows) throws SQLException {
+      String sql = "INSERT INTO pessoas (nome, idade, salario, nascimento, ativo) VALUES (?, ?, ?, ?, ?)";
+      try (Connection connection = DataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+         for (int i = 1; i <= rows; i++) {
+            Pessoa pessoa = pessoa(i);
+            statement.setString(1, pessoa.getNome());
+            statement.setInt(2, pessoa.getIdade());
+            statement.setBigDecimal(3, pessoa.getSalario());
+            statement.setTimestamp(4, new Timestamp(pessoa.getNascimento().getTime()));
+            statement.setBoolean(5, pessoa.isAtivo());
+            statement.addBatch();
+            if (i % BATCH_SIZE == 0) {
+               statement.executeBatch();
+            }
+         }
+         statement.executeBatch();
+         if (!connection.getAutoCommit()) {
+            connection.commit();
+         }
+      }
+   }
+
+   /**
+    * @return a quantidade de registros da tabela pessoas.
+    */
+   static int count() throws SQLException {
+      try (Connection connection = DataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM pessoas")) {
+         resultSet.next();
+         return resultSet.getInt(1);
+      }
+   }
+
+   /**
+    * @return o i-ésimo modelo, ainda não persistido.
+    */
+   static Pessoa pessoa(int i) {
+      return new Pessoa(
+            String.format("Pessoa %d", i),
+            18 + i % 60,
+            BigDecimal.valueOf(100000 + i, 2),
+            new Date(NASCIMENTO + i * 86400000L),
+            i % 2 == 0);
+   }
+
+   /**
+    * @return uma lista com os modelos de 1 a rows, ainda não persistidos.
+    */
+   static QuerySet<Pessoa> pessoas(int rows) {
+      QuerySet<Pessoa> pessoas = new QuerySet<>();
+      pessoas.setEntity(Pessoa.class);
+      for (int i = 1; i <= rows; i++) {
+         pessoas.add(pessoa(i));
+      }
+      return pessoas;
+   }
+
+}
@@ -0,0 +1,66 @@
+package jedi.db.benchmark;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jedi.db.models.Manager;
+
+/**
+ * Conversão dos registros em modelos (Manager.all e Manager.filter).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HydrationBenchmark {
+
+   @Param({ "1000", "100000" })
+   public int rows;
+
+   private Manager manager;
+
+   @Setup(Level.Trial)
+   public void setUp() throws SQLException {
+      BenchmarkDatabase.reset();
+      BenchmarkDatabase.populate(rows);
+      manager = new Manager(Pessoa.class, false);
+   }
+
+   @Benchmark
+   public void all(Blackhole blackhole) {
+      for (Pessoa pessoa : manager.<Pessoa> all()) {
+         blackhole.consume(pessoa);
+      }
+   }
+
+   /**
+    * Cerca de metade dos registros.
+    */
+   @Benchmark
+   public void filter(Blackhole blackhole) {
+      for (Pessoa pessoa : manager.<Pessoa> filter("idade__gte=48")) {
+         blackhole.consume(pessoa);
+      }
+   }
+
+}
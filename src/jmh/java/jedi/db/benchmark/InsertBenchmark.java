@@ -0,0 +1,98 @@
+package jedi.db.benchmark;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jedi.db.models.QuerySet;
+
+/**
+ * Inserção de um modelo (Model.insert) e de uma lista em lote
+ * (QuerySet.save).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsertBenchmark {
+
+   private int i;
+   // Registros que as chamadas da iteração corrente devem ter inserido.
+   private final AtomicLong inserted = new AtomicLong();
+
+   /**
+    * Lista de modelos novos, recriada a cada chamada de save.
+    */
+   @State(Scope.Thread)
+   public static class Batch {
+
+      @Param({ "1000" })
+      public int batchSize;
+
+      private QuerySet<Pessoa> pessoas;
+
+      @Setup(Level.Invocation)
+      public void setUp() {
+         pessoas = BenchmarkDatabase.pessoas(batchSize);
+      }
+
+   }
+
+   /**
+    * Esvazia a tabela a cada iteração, para que o tamanho dela não
+    * influencie as medições.
+    */
+   @Setup(Level.Iteration)
+   public void setUp() throws SQLException {
+      BenchmarkDatabase.reset();
+      inserted.set(0);
+   }
+
+   /**
+    * Confere se as chamadas da iteração inseriram todos os registros, para
+    * que uma inserção que falhe (e apenas imprima o erro) não seja medida
+    * como se tivesse ocorrido.
+    */
+   @TearDown(Level.Iteration)
+   public void tearDown() throws SQLException {
+      int rows = BenchmarkDatabase.count();
+      if (rows != inserted.get()) {
+         throw new IllegalStateException(String.format("A tabela pessoas tem %d registros, mas %d foram inseridos.", rows, inserted.get()));
+      }
+   }
+
+   @Benchmark
+   public Pessoa insert() {
+      Pessoa pessoa = BenchmarkDatabase.pessoa(++i);
+      pessoa.insert();
+      inserted.incrementAndGet();
+      return pessoa;
+   }
+
+   @Benchmark
+   public QuerySet<Pessoa> save(Batch batch) {
+      inserted.addAndGet(batch.pessoas.size());
+      return batch.pessoas.save();
+   }
+
+}
@@ -0,0 +1,48 @@
+package jedi.db.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jedi.db.util.FieldLookup;
+
+/**
+ * Tradução das condições de pesquisa (field lookups) para SQL.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LookupBenchmark {
+
+   @Param({
+      "pessoa.idade__gte=30",
+      "pessoa.nome__icontains=Ana",
+      "pessoa.cidade.nome__istartswith=Sao",
+      "pessoa.nome__!startswith=Sao",
+      "pessoa.idade__in=[20, 30, 40]",
+      "pessoa.idade__range=(20, 40)"
+   })
+   public String lookup;
+
+   @Benchmark
+   public String translateWhere() {
+      return FieldLookup.translateWhere(lookup);
+   }
+
+}
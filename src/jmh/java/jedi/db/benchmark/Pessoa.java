@@ -0,0 +1,91 @@
+package jedi.db.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import jedi.db.models.BooleanField;
+import jedi.db.models.CharField;
+import jedi.db.models.DateTimeField;
+import jedi.db.models.DecimalField;
+import jedi.db.models.IntegerField;
+import jedi.db.models.Model;
+
+/**
+ * Modelo usado nos benchmarks (tabela pessoas).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class Pessoa extends Model {
+
+   private static final long serialVersionUID = 1L;
+
+   @CharField(max_length = 100)
+   private String nome;
+
+   @IntegerField
+   private int idade;
+
+   @DecimalField(scale = 12, precision = 2)
+   private BigDecimal salario;
+
+   @DateTimeField
+   private Date nascimento;
+
+   @BooleanField
+   private boolean ativo;
+
+   public Pessoa() {
+
+   }
+
+   public Pessoa(String nome, int idade, BigDecimal salario, Date nascimento, boolean ativo) {
+      this.nome = nome;
+      this.idade = idade;
+      this.salario = salario;
+      this.nascimento = nascimento;
+      this.ativo = ativo;
+   }
+
+   public String getNome() {
+      return nome;
+   }
+
+   public void setNome(String nome) {
+      this.nome = nome;
+   }
+
+   public int getIdade() {
+      return idade;
+   }
+
+   public void setIdade(int idade) {
+      this.idade = idade;
+   }
+
+   public BigDecimal getSalario() {
+      return salario;
+   }
+
+   public void setSalario(BigDecimal salario) {
+      this.salario = salario;
+   }
+
+   public Date getNascimento() {
+      return nascimento;
+   }
+
+   public void setNascimento(Date nascimento) {
+      this.nascimento = nascimento;
+   }
+
+   public boolean isAtivo() {
+      return ativo;
+   }
+
+   public void setAtivo(boolean ativo) {
+      this.ativo = ativo;
+   }
+
+}
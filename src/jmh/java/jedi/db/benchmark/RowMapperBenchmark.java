@@ -0,0 +1,120 @@
+package jedi.db.benchmark;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jedi.db.connection.DataSource;
+import jedi.db.engine.JediEngine;
+import jedi.db.models.Model;
+import jedi.db.models.ModelRowMapper;
+import jedi.db.models.RowMapper;
+import jedi.db.util.TableUtil;
+
+/**
+ * Conversão do mesmo ResultSet pelo ModelRowMapper e pelo laço reflexivo
+ * anterior a ele (Field.set com getObject pelo nome da coluna), que serve
+ * de referência.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RowMapperBenchmark {
+
+   private static final String SQL = "SELECT * FROM pessoas";
+
+   @Param({ "1000", "100000" })
+   public int rows;
+
+   private Connection connection;
+
+   @Setup(Level.Trial)
+   public void setUp() throws SQLException {
+      BenchmarkDatabase.reset();
+      BenchmarkDatabase.populate(rows);
+      connection = DataSource.getConnection();
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() throws SQLException {
+      connection.close();
+   }
+
+   @Benchmark
+   public void rowMapper(Blackhole blackhole) throws SQLException {
+      try (PreparedStatement statement = connection.prepareStatement(SQL); ResultSet resultSet = statement.executeQuery()) {
+         RowMapper<Pessoa> mapper = ModelRowMapper.of(Pessoa.class, resultSet);
+         while (resultSet.next()) {
+            blackhole.consume(mapper.map(resultSet));
+         }
+      }
+   }
+
+   @Benchmark
+   public void reflective(Blackhole blackhole) throws Exception {
+      try (PreparedStatement statement = connection.prepareStatement(SQL); ResultSet resultSet = statement.executeQuery()) {
+         while (resultSet.next()) {
+            blackhole.consume(reflect(resultSet));
+         }
+      }
+   }
+
+   /**
+    * Laço de conversão usado pelo Manager antes do ModelRowMapper.
+    */
+   private static Pessoa reflect(ResultSet resultSet) throws Exception {
+      Pessoa pessoa = Pessoa.class.newInstance();
+      if (resultSet.getObject("id") != null) {
+         Field id = Model.class.getDeclaredField("id");
+         id.setAccessible(true);
+         id.set(pessoa, resultSet.getObject(id.getName()));
+      }
+      List<Field> fields = JediEngine.getAllFields(Pessoa.class);
+      for (Field field : fields) {
+         field.setAccessible(true);
+         if (!JediEngine.isJediField(field)) {
+            continue;
+         }
+         if (field.getName().equals("serialVersionUID") || field.getName().equalsIgnoreCase("objects")) {
+            continue;
+         }
+         Object columnValue = resultSet.getObject(TableUtil.getColumnName(field.getName()));
+         if (columnValue instanceof Timestamp) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(((Timestamp) columnValue).getTime());
+            columnValue = calendar.getTime();
+         }
+         field.set(pessoa, columnValue);
+      }
+      return pessoa;
+   }
+
+}
@@ -0,0 +1,80 @@
+package jedi.db.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jedi.db.models.QuerySet;
+
+/**
+ * Serialização de modelos e listas em JSON, XML e CSV (sem acesso ao banco
+ * de dados).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+   @Param({ "1000" })
+   public int rows;
+
+   private Pessoa pessoa;
+   private QuerySet<Pessoa> pessoas;
+
+   @Setup
+   public void setUp() {
+      pessoas = BenchmarkDatabase.pessoas(rows);
+      for (int i = 0; i < pessoas.size(); i++) {
+         pessoas.get(i).setId(i + 1);
+      }
+      pessoa = pessoas.get(0);
+   }
+
+   @Benchmark
+   public String modelToJSON() {
+      return pessoa.toJSON();
+   }
+
+   @Benchmark
+   public String modelToXML() {
+      return pessoa.toXML();
+   }
+
+   @Benchmark
+   public String modelToCSV() {
+      return pessoa.toCSV();
+   }
+
+   @Benchmark
+   public String querySetToJSON() {
+      return pessoas.toJSON();
+   }
+
+   @Benchmark
+   public String querySetToXML() {
+      return pessoas.toXML();
+   }
+
+   @Benchmark
+   public String querySetToCSV() {
+      return pessoas.toCSV();
+   }
+
+}
@@ -0,0 +1,47 @@
+package jedi.db.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jedi.db.util.TableUtil;
+
+/**
+ * Conversão de nomes de classes e campos em nomes de tabelas e colunas.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableUtilBenchmark {
+
+   // Campos não finais, para que o JIT não trate os argumentos como
+   // constantes.
+   private Class<?> modelClass = Pessoa.class;
+   private String fieldName = "dataNascimento";
+
+   @Benchmark
+   public String getTableName() {
+      return TableUtil.getTableName(modelClass);
+   }
+
+   @Benchmark
+   public String getColumnName() {
+      return TableUtil.getColumnName(fieldName);
+   }
+
+}
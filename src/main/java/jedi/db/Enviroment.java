@@ -11,5 +11,48 @@ public enum Enviroment {
    TEST,
    STAGE,
    PRODUCTION,
-   PROD
+   PROD;
+
+   /**
+    * @return o ambiente correspondente ao nome (sem diferenciar
+    *         maiúsculas) ou null se o nome não for reconhecido.
+    */
+   public static Enviroment of(String name) {
+      name = name == null ? "" : name.trim().toUpperCase();
+      for (Enviroment enviroment : values()) {
+         if (enviroment.name().equals(name)) {
+            return enviroment.normalize();
+         }
+      }
+      return null;
+   }
+
+   /**
+    * @return o ambiente sem abreviação (DEV é DEVELOPMENT e PROD é
+    *         PRODUCTION).
+    */
+   public Enviroment normalize() {
+      if (this == DEV) {
+         return DEVELOPMENT;
+      } else if (this == PROD) {
+         return PRODUCTION;
+      }
+      return this;
+   }
+
+   /**
+    * @return os prefixos aceitos nas propriedades do ambiente (ex.: prod. e
+    *         production.).
+    */
+   public String[] getPrefixes() {
+      switch (normalize()) {
+         case DEVELOPMENT:
+            return new String[] { "development", "dev" };
+         case PRODUCTION:
+            return new String[] { "production", "prod" };
+         default:
+            return new String[] { name().toLowerCase() };
+      }
+   }
+
 }
@@ -1,6 +1,11 @@
 package jedi.db;
 
+import java.util.concurrent.Callable;
+
+import jedi.db.connection.UnitOfWork;
 import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.models.IdentityMap;
 
 /**
  * Classe principal ou de execução do Jedi ORM Framework.
@@ -27,4 +32,51 @@ public abstract class Jedi {
          e.printStackTrace();
       }
    }
+   
+   /**
+    * Executa as operações em uma única transação, com uma conexão associada
+    * à thread corrente e um único commit ao final. Durante a transação cada
+    * registro é carregado uma única vez (ver IdentityMap).
+    * 
+    * <pre>
+    * Jedi.transaction(() -> {
+    *    autor.save();
+    *    livro.save();
+    * });
+    * </pre>
+    * 
+    * @param work
+    *           as operações da transação
+    * @throws DatabaseException
+    *            se alguma operação falhar (a transação é desfeita)
+    * @see UnitOfWork
+    */
+   public static void transaction(Runnable work) {
+      transaction(() -> {
+         work.run();
+         return null;
+      });
+   }
+   
+   /**
+    * Executa as operações em uma única transação e retorna o resultado.
+    * 
+    * @see #transaction(Runnable)
+    */
+   public static <T> T transaction(Callable<T> work) {
+      try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+         IdentityMap identityMap = IdentityMap.begin();
+         try {
+            T result = work.call();
+            unitOfWork.commit();
+            return result;
+         } finally {
+            identityMap.close();
+         }
+      } catch (RuntimeException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new DatabaseException(e);
+      }
+   }
 }
@@ -43,6 +43,7 @@ import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_USE_LOCAL_SESSION_S
 import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_USE_LOCAL_TRANSACTION_STATE;
 import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_USE_SERVER_PREPARED_STATEMENTS;
 import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_VALIDATION_TIMEOUT;
+import static jedi.db.engine.JediEngine.DATABASE_POOL_VALIDATE_ON_BORROW;
 import static jedi.db.engine.JediEngine.DATABASE_PORT;
 import static jedi.db.engine.JediEngine.DATABASE_UNICODE;
 import static jedi.db.engine.JediEngine.DATABASE_USER;
@@ -56,12 +57,17 @@ import java.beans.PropertyVetoException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 import com.zaxxer.hikari.HikariDataSource;
 
 import jedi.db.engine.JediEngine;
+import jedi.db.sql.Dialect;
 
 /**
  * @author thiago-amm
@@ -71,12 +77,29 @@ import jedi.db.engine.JediEngine;
  */
 public class DataSource {
    
-   //   TODO - Criar perfis de conexão para os ambientes dev, test, stage, prod.
-   //   TODO - O DataSource deve devolver a conexão de acordo com o perfil.
+   // As configurações do pool seguem o ambiente ativo (jedi.env, JEDI_ENV
+   // ou env.active), aplicado por JediEngine.loadJediProperties.
+   
+   /**
+    * Nome do banco de dados principal, o definido pelas propriedades
+    * database.* do jedi.properties.
+    */
+   public static final String DEFAULT = "default";
+   /**
+    * Nome que indica uma das réplicas de leitura.
+    */
+   public static final String REPLICA = "replica";
    
    private static ComboPooledDataSource c3p0;
    private static HikariDataSource hikari;
    private static String url = "";
+   private static String driver = "";
+   private static String user = "";
+   private static String password = "";
+   private static Dialect dialect = Dialect.of(DATABASE_ENGINE);
+   // Bancos nomeados (datasource.<nome>.*), criados no primeiro uso.
+   private static final Map<String, Named> DATASOURCES = new ConcurrentHashMap<>();
+   private static final AtomicInteger NEXT_REPLICA = new AtomicInteger();
    
    static {
       if (JEDI_PROPERTIES_LOADED) {
@@ -84,14 +107,14 @@ public class DataSource {
          String engine = DATABASE_ENGINE;
          String host = DATABASE_HOST;
          String port = DATABASE_PORT;
-         String user = DATABASE_USER;
-         String password = DATABASE_PASSWORD;
+         user = DATABASE_USER;
+         password = DATABASE_PASSWORD;
          String database = DATABASE_NAME;
          Boolean autoReconnect = DATABASE_AUTO_RECONNECT;
          Boolean autoReconnectForPools = DATABASE_AUTO_RECONNECT_FOR_POOLS;
          Boolean useSSL = DATABASE_USE_SSL;
          Boolean verifyServerCertificate = DATABASE_VERIFY_SERVER_CERTIFICATE;
-         String driver = "";
+         dialect = Dialect.of(engine);
          // Egine
          if (!engine.isEmpty()) {
             // Host
@@ -153,26 +176,34 @@ public class DataSource {
                   password);
             } else if (engine.equals("postgresql")) {
                driver = "org.postgresql.Driver";
+               url = String.format("jdbc:postgresql://%s:%s/%s", host, port, database);
             } else if (engine.equals("oracle")) {
                driver = "oracle.jdbc.driver.OracleDriver";
+               url = String.format("jdbc:oracle:thin:@%s:%s:%s", host, port, database);
             } else if (engine.equals("h2")) {
                driver = "org.h2.Driver";
+               url = String.format("jdbc:h2:~/%s", database);
             }
             
-            if (verifyServerCertificate != null) {
-               url += String.format("&verifyServerCertificate=%s", verifyServerCertificate);
-            }
-            
-            if (useSSL != null) {
-               url += String.format("&useSSL=%s", useSSL);
-            }
-            
-            if (autoReconnect != null) {
-               url += String.format("&autoReconnect=%s", autoReconnect);
-            }
-            
-            if (autoReconnectForPools != null) {
-               url += String.format("&autoReconnectForPools=%s", autoReconnectForPools);
+            if (!JediEngine.DATABASE_URL.isEmpty()) {
+               // URL informada no jedi.properties (ex.: H2 em memória nos testes).
+               url = JediEngine.DATABASE_URL;
+            } else if (engine.equals("mysql")) {
+               if (verifyServerCertificate != null) {
+                  url += String.format("&verifyServerCertificate=%s", verifyServerCertificate);
+               }
+               
+               if (useSSL != null) {
+                  url += String.format("&useSSL=%s", useSSL);
+               }
+               
+               if (autoReconnect != null) {
+                  url += String.format("&autoReconnect=%s", autoReconnect);
+               }
+               
+               if (autoReconnectForPools != null) {
+                  url += String.format("&autoReconnectForPools=%s", autoReconnectForPools);
+               }
             }
             
             if (DATABASE_POOL_ENGINE.equals(C3P0)) {
@@ -196,6 +227,7 @@ public class DataSource {
                
                c3p0.setIdleConnectionTestPeriod(DATABASE_IDLE_TEST_PERIOD);
                c3p0.setCheckoutTimeout(DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT);
+               c3p0.setTestConnectionOnCheckout(DATABASE_POOL_VALIDATE_ON_BORROW);
                c3p0.setAutoCommitOnClose(AUTO_COMMIT.isValue());
                c3p0.setUser(user);
                c3p0.setPassword(password);
@@ -208,7 +240,7 @@ public class DataSource {
             } else if (DATABASE_POOL_ENGINE.equals(HIKARI)) {
                hikari = new HikariDataSource();
                hikari.setDriverClassName(driver);
-               hikari.setJdbcUrl(url.substring(0, url.indexOf("?")));
+               hikari.setJdbcUrl(url.contains("?") ? url.substring(0, url.indexOf("?")) : url);
                hikari.setUsername(user);
                hikari.setPassword(password);
                
@@ -254,27 +286,258 @@ public class DataSource {
    public static Connection getConnection() {
       Connection connection = null;
       try {
-         Class.forName("com.mysql.jdbc.Driver");
+         loadDriver();
          if (JediEngine.Pool.equals(C3P0)) {
             connection = c3p0.getConnection();
          } else if (JediEngine.Pool.equals(HIKARI)) {
             connection = hikari.getConnection();
          } else {
-            connection = DriverManager.getConnection(url);
+            connection = DriverManager.getConnection(url, user, password);
             connection.setAutoCommit(JediEngine.AUTO_COMMIT.value());
          }
-      } catch (ClassNotFoundException e) {
-         e.printStackTrace();
       } catch (SQLException e) {
          e.printStackTrace();
       }
       return connection;
    }
    
+   /**
+    * Valida uma conexão antes de reutilizá-la, apenas se
+    * database.pool.validate.on.borrow estiver habilitado. Por padrão a
+    * validade das conexões fica a cargo do pool (Hikari e c3p0), evitando
+    * uma ida ao banco a cada operação.
+    * 
+    * @return se a conexão pode ser reutilizada
+    */
+   public static boolean validate(Connection connection) {
+      if (!DATABASE_POOL_VALIDATE_ON_BORROW) {
+         return true;
+      }
+      try {
+         return connection.isValid(DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT);
+      } catch (SQLException e) {
+         return false;
+      }
+   }
+   
+   /**
+    * Carrega a classe do driver do engine configurado. Drivers JDBC 4 são
+    * registrados automaticamente, então a ausência da classe não impede a
+    * conexão pela URL.
+    */
+   private static void loadDriver() {
+      try {
+         Class.forName(driver.isEmpty() ? "com.mysql.jdbc.Driver" : driver);
+      } catch (ClassNotFoundException e) {
+      }
+   }
+   
    public static Connection connection() {
       return getConnection();
    }
    
+   /**
+    * Retorna uma conexão com o banco de dados nomeado no jedi.properties
+    * (datasource.&lt;nome&gt;.*). O nome default indica o banco principal
+    * e replica, uma das réplicas de leitura.
+    * 
+    * @param name
+    *           nome do banco de dados
+    * @return a conexão
+    */
+   public static Connection using(String name) {
+      name = name == null ? "" : name.trim().toLowerCase();
+      if (name.isEmpty() || name.equals(DEFAULT)) {
+         return getConnection();
+      }
+      if (name.equals(REPLICA) && !JediEngine.DATABASE_DATASOURCES.containsKey(name)) {
+         return replica();
+      }
+      if (!JediEngine.DATABASE_DATASOURCES.containsKey(name)) {
+         throw new IllegalArgumentException(String.format("O banco de dados %s não foi definido no jedi.properties.", name));
+      }
+      try {
+         return DATASOURCES.computeIfAbsent(name, Named::new).getConnection();
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+      return null;
+   }
+   
+   /**
+    * @return o dialeto do banco de dados principal.
+    */
+   public static Dialect getDialect() {
+      return dialect;
+   }
+   
+   /**
+    * @param name
+    *           nome do banco de dados (null ou default para o principal)
+    * @return o dialeto do banco de dados nomeado. As réplicas usam o
+    *         dialeto do banco principal.
+    */
+   public static Dialect getDialect(String name) {
+      name = name == null ? "" : name.trim().toLowerCase();
+      Properties properties = JediEngine.DATABASE_DATASOURCES.get(name);
+      if (properties == null) {
+         return dialect;
+      }
+      Named named = DATASOURCES.get(name);
+      return named != null ? named.dialect : Dialect.of(properties.getProperty("engine", DATABASE_ENGINE));
+   }
+   
+   /**
+    * @return se há réplicas de leitura configuradas.
+    */
+   public static boolean hasReplicas() {
+      return !JediEngine.DATABASE_REPLICAS.isEmpty();
+   }
+   
+   /**
+    * Retorna uma conexão para leitura: uma das réplicas, escolhida de forma
+    * alternada (round_robin) ou pela menor quantidade de conexões em uso
+    * (least_loaded), ou o banco principal se não houver réplicas ou se
+    * nenhuma estiver disponível.
+    * 
+    * @return a conexão
+    */
+   public static Connection replica() {
+      List<String> replicas = JediEngine.DATABASE_REPLICAS;
+      int size = replicas.size();
+      if (size == 0) {
+         return getConnection();
+      }
+      int first = Math.floorMod(NEXT_REPLICA.getAndIncrement(), size);
+      if (JediEngine.DATABASE_REPLICA_ROUTING.equals("least_loaded")) {
+         int load = Integer.MAX_VALUE;
+         for (int i = 0; i < size; i++) {
+            int replicaLoad = DATASOURCES.computeIfAbsent(replicas.get(i), Named::new).load();
+            if (replicaLoad < load) {
+               load = replicaLoad;
+               first = i;
+            }
+         }
+      }
+      for (int i = 0; i < size; i++) {
+         String name = replicas.get((first + i) % size);
+         try {
+            Connection connection = DATASOURCES.computeIfAbsent(name, Named::new).getConnection();
+            if (connection != null) {
+               return connection;
+            }
+         } catch (SQLException e) {
+            // Réplica indisponível: tenta a próxima.
+            e.printStackTrace();
+         }
+      }
+      return getConnection();
+   }
+   
+   /**
+    * Banco de dados nomeado. Usa o mesmo gerenciador de pool do banco
+    * principal (c3p0, Hikari ou nenhum), com as configurações próprias de
+    * endereço, credenciais e tamanho do pool.
+    */
+   private static final class Named {
+      
+      private final String url;
+      private final String user;
+      private final String password;
+      private final String driver;
+      private final Dialect dialect;
+      private final javax.sql.DataSource pool;
+      
+      private Named(String name) {
+         Properties properties = JediEngine.DATABASE_DATASOURCES.get(name);
+         String engine = properties.getProperty("engine", DATABASE_ENGINE).toLowerCase();
+         String host = properties.getProperty("host", DATABASE_HOST);
+         String port = properties.getProperty("port", DATABASE_PORT);
+         String database = properties.getProperty("name", DATABASE_NAME);
+         user = properties.getProperty("user", DATABASE_USER);
+         password = properties.getProperty("password", DATABASE_PASSWORD);
+         dialect = Dialect.of(engine);
+         driver = dialect.getDriver();
+         port = port.isEmpty() ? dialect.getDefaultPort() : port;
+         url = properties.getProperty("url", dialect.url(host, port, database));
+         int poolSize = Integer.parseInt(properties.getProperty("pool.size", String.valueOf(DATABASE_POOL_HIKARI_MAX_SIZE)));
+         boolean readOnly = JediEngine.DATABASE_REPLICAS.contains(name);
+         if (DATABASE_POOL_ENGINE.equals(HIKARI)) {
+            HikariDataSource hikari = new HikariDataSource();
+            hikari.setPoolName(String.format("jedi-%s", name));
+            hikari.setDriverClassName(driver);
+            hikari.setJdbcUrl(url);
+            hikari.setUsername(user);
+            hikari.setPassword(password);
+            hikari.setAutoCommit(AUTO_COMMIT.value());
+            hikari.setReadOnly(readOnly);
+            hikari.setMaximumPoolSize(poolSize);
+            hikari.setMinimumIdle(Math.min(DATABASE_POOL_HIKARI_MINIMUM_IDLE, poolSize));
+            hikari.setConnectionTimeout(DATABASE_POOL_HIKARI_CONNECTION_TIMEOUT);
+            hikari.setMaxLifetime(DATABASE_POOL_HIKARI_MAX_LIFETIME);
+            hikari.setValidationTimeout(DATABASE_POOL_HIKARI_VALIDATION_TIMEOUT);
+            hikari.addDataSourceProperty("cachePrepStmts", DATABASE_POOL_HIKARI_CACHE_PREPARED_STATEMENTS);
+            hikari.addDataSourceProperty("useServerPrepStmts", DATABASE_POOL_HIKARI_USE_SERVER_PREPARED_STATEMENTS);
+            hikari.addDataSourceProperty("prepStmtCacheSize", DATABASE_POOL_HIKARI_PREPARED_STATEMENTS_CACHE_SIZE);
+            hikari.addDataSourceProperty("prepStmtCacheSqlLimit", DATABASE_POOL_HIKARI_PREPARED_STATEMENTS_CACHE_SQL_LIMIT);
+            pool = hikari;
+         } else if (DATABASE_POOL_ENGINE.equals(C3P0)) {
+            ComboPooledDataSource c3p0 = new ComboPooledDataSource();
+            c3p0.setDataSourceName(String.format("jedi-%s", name));
+            c3p0.setJdbcUrl(url);
+            c3p0.setUser(user);
+            c3p0.setPassword(password);
+            c3p0.setInitialPoolSize(Math.min(DATABASE_INITIAL_POOL_SIZE, poolSize));
+            c3p0.setMinPoolSize(Math.min(DATABASE_MIN_POOL_SIZE, poolSize));
+            c3p0.setMaxPoolSize(poolSize);
+            c3p0.setAcquireIncrement(DATABASE_ACQUIRE_INCREMENT);
+            c3p0.setMaxStatements(DATABASE_MAX_STATEMENTS);
+            c3p0.setCheckoutTimeout(DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT);
+            c3p0.setTestConnectionOnCheckout(DATABASE_POOL_VALIDATE_ON_BORROW);
+            c3p0.setAutoCommitOnClose(AUTO_COMMIT.isValue());
+            try {
+               c3p0.setDriverClass(driver);
+            } catch (PropertyVetoException e) {
+               e.printStackTrace();
+            }
+            pool = c3p0;
+         } else {
+            pool = null;
+         }
+      }
+      
+      private Connection getConnection() throws SQLException {
+         if (pool != null) {
+            return pool.getConnection();
+         }
+         try {
+            Class.forName(driver);
+         } catch (ClassNotFoundException e) {
+            // Drivers JDBC 4 são registrados pelo DriverManager.
+         }
+         Connection connection = DriverManager.getConnection(url, user, password);
+         connection.setAutoCommit(AUTO_COMMIT.value());
+         return connection;
+      }
+      
+      /**
+       * @return a quantidade de conexões em uso no pool (0 sem pool).
+       */
+      private int load() {
+         try {
+            if (pool instanceof HikariDataSource) {
+               return ((HikariDataSource) pool).getHikariPoolMXBean().getActiveConnections();
+            } else if (pool instanceof ComboPooledDataSource) {
+               return ((ComboPooledDataSource) pool).getNumBusyConnectionsDefaultUser();
+            }
+         } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+         }
+         return 0;
+      }
+      
+   }
+   
    /**
     * @return Connection Returns a connection to a database.
     */
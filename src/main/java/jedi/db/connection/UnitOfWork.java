@@ -0,0 +1,242 @@
+package jedi.db.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jedi.db.exceptions.DatabaseException;
+
+/**
+ * Unidade de trabalho: associa uma única conexão à thread corrente.
+ * <p>
+ * Enquanto a unidade estiver aberta, as operações de Model e Manager usam
+ * essa conexão (em vez de obter uma do pool a cada operação), não fazem
+ * commit nem fecham a conexão. As escritas são enviadas na ordem em que
+ * ocorrem e confirmadas uma única vez em {@link #commit()}.
+ *
+ * <pre>
+ * try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+ *    autor.save();
+ *    livro.save();
+ *    unitOfWork.commit();
+ * }
+ * </pre>
+ *
+ * Unidades abertas dentro de outra participam da mesma transação: apenas a
+ * mais externa confirma ou desfaz. Uma unidade interna fechada sem commit
+ * (ou uma operação que falhe) faz a transação inteira ser desfeita.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see jedi.db.Jedi#transaction(Runnable)
+ */
+public class UnitOfWork implements AutoCloseable {
+
+   private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+   private final UnitOfWork parent;
+   private final UnitOfWork root;
+   private Connection connection;
+   private boolean autoCommit;
+   private boolean rollbackOnly;
+   private boolean completed;
+   private boolean closed;
+   private List<Runnable> callbacks;
+
+   private UnitOfWork(UnitOfWork parent) {
+      this.parent = parent;
+      this.root = parent == null ? this : parent.root;
+   }
+
+   /**
+    * Abre uma unidade de trabalho na thread corrente ou participa da que
+    * já estiver aberta.
+    */
+   public static UnitOfWork begin() {
+      UnitOfWork unitOfWork = new UnitOfWork(CURRENT.get());
+      if (unitOfWork.parent == null) {
+         Connection connection = DataSource.getConnection();
+         if (connection == null) {
+            throw new DatabaseException("Não foi possível obter uma conexão para a unidade de trabalho.");
+         }
+         try {
+            unitOfWork.autoCommit = connection.getAutoCommit();
+            if (unitOfWork.autoCommit) {
+               connection.setAutoCommit(false);
+            }
+         } catch (SQLException e) {
+            close(connection);
+            throw new DatabaseException(e);
+         }
+         unitOfWork.connection = connection;
+      }
+      CURRENT.set(unitOfWork);
+      return unitOfWork;
+   }
+
+   /**
+    * @return a unidade de trabalho aberta na thread corrente ou null.
+    */
+   public static UnitOfWork current() {
+      return CURRENT.get();
+   }
+
+   /**
+    * @return se há uma unidade de trabalho aberta na thread corrente.
+    */
+   public static boolean isActive() {
+      return CURRENT.get() != null;
+   }
+
+   /**
+    * @return a conexão da unidade de trabalho aberta na thread corrente ou
+    *         null.
+    */
+   public static Connection currentConnection() {
+      UnitOfWork unitOfWork = CURRENT.get();
+      return unitOfWork == null ? null : unitOfWork.getConnection();
+   }
+
+   /**
+    * @return se o objeto é a conexão da unidade de trabalho corrente, que
+    *         não deve ser confirmada nem fechada pela operação.
+    */
+   public static boolean owns(Object o) {
+      return o != null && o == currentConnection();
+   }
+
+   /**
+    * Marca a unidade de trabalho corrente (se houver) para ser desfeita.
+    */
+   public static void markRollbackOnly() {
+      UnitOfWork unitOfWork = CURRENT.get();
+      if (unitOfWork != null) {
+         unitOfWork.setRollbackOnly();
+      }
+   }
+
+   /**
+    * Executa a ação ao final da unidade de trabalho mais externa (após o
+    * commit ou rollback) ou imediatamente se não houver unidade aberta.
+    */
+   public static void afterCompletion(Runnable action) {
+      UnitOfWork unitOfWork = CURRENT.get();
+      if (unitOfWork == null) {
+         action.run();
+         return;
+      }
+      UnitOfWork root = unitOfWork.root;
+      if (root.callbacks == null) {
+         root.callbacks = new ArrayList<>();
+      }
+      root.callbacks.add(action);
+   }
+
+   public Connection getConnection() {
+      return root.connection;
+   }
+
+   public boolean isRollbackOnly() {
+      return root.rollbackOnly;
+   }
+
+   public void setRollbackOnly() {
+      root.rollbackOnly = true;
+   }
+
+   /**
+    * Confirma a transação. Em uma unidade interna apenas registra que o
+    * trecho terminou com sucesso.
+    *
+    * @throws DatabaseException
+    *            se a transação foi marcada para ser desfeita ou o commit
+    *            falhar
+    */
+   public void commit() {
+      if (completed || closed) {
+         return;
+      }
+      completed = true;
+      if (parent != null) {
+         return;
+      }
+      if (rollbackOnly) {
+         rollback(connection);
+         throw new DatabaseException("A transação foi desfeita porque uma das operações falhou.");
+      }
+      try {
+         connection.commit();
+      } catch (SQLException e) {
+         rollback(connection);
+         throw new DatabaseException(e);
+      }
+   }
+
+   /**
+    * Desfaz a transação. Em uma unidade interna marca a transação inteira
+    * para ser desfeita.
+    */
+   public void rollback() {
+      if (completed || closed) {
+         return;
+      }
+      completed = true;
+      if (parent == null) {
+         rollback(connection);
+      } else {
+         setRollbackOnly();
+      }
+   }
+
+   /**
+    * Encerra a unidade de trabalho, desfazendo o que não foi confirmado, e
+    * devolve a conexão ao pool quando for a unidade mais externa.
+    */
+   @Override
+   public void close() {
+      if (closed) {
+         return;
+      }
+      rollback();
+      closed = true;
+      if (parent != null) {
+         CURRENT.set(parent);
+         return;
+      }
+      CURRENT.remove();
+      try {
+         if (autoCommit) {
+            connection.setAutoCommit(true);
+         }
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+      close(connection);
+      connection = null;
+      if (callbacks != null) {
+         for (Runnable callback : callbacks) {
+            callback.run();
+         }
+         callbacks = null;
+      }
+   }
+
+   private static void rollback(Connection connection) {
+      try {
+         connection.rollback();
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+   }
+
+   private static void close(Connection connection) {
+      try {
+         connection.close();
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+   }
+
+}
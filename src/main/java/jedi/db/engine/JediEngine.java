@@ -10,6 +10,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -20,7 +21,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -33,6 +36,7 @@ import jedi.app.JediApp;
 import jedi.app.loader.JediAppLoader;
 import jedi.db.CharSet;
 import jedi.db.Collation;
+import jedi.db.Enviroment;
 import jedi.db.Privilege;
 import jedi.db.connection.DataSource;
 import jedi.db.exceptions.MultipleObjectsReturnedException;
@@ -55,11 +59,13 @@ import jedi.db.models.IntegerField;
 import jedi.db.models.Manager;
 import jedi.db.models.ManyToManyField;
 import jedi.db.models.Model;
+import jedi.db.models.ModelRowMapper;
 import jedi.db.models.Models;
 import jedi.db.models.OneToOneField;
 import jedi.db.models.PoolEngine;
 import jedi.db.models.Query;
 import jedi.db.models.QuerySet;
+import jedi.db.models.RowMapper;
 import jedi.db.models.Table;
 import jedi.db.models.TextField;
 import jedi.db.models.TimeField;
@@ -154,6 +160,16 @@ public abstract class JediEngine {
    public static String DATABASE_ENVIRONMENTS_TEST = "test";
    public static String DATABASE_ENVIRONMENTS_STAGE = "stage";
    public static String DATABASE_ENVIRONMENTS_PRODUCTION = "production";
+   /**
+    * Ambiente ativo, definido por jedi.env, JEDI_ENV ou env.active (null
+    * quando nenhum foi informado).
+    */
+   public static Enviroment ENVIRONMENT = null;
+   /**
+    * URL JDBC completa, usada em vez da montada a partir de engine, host,
+    * port e name (ex.: jdbc:h2:mem:test;DB_CLOSE_DELAY=-1).
+    */
+   public static String DATABASE_URL = "";
    public static String DATABASE_ENGINE = "mysql";
    public static String DATABASE_HOST = "localhost";
    public static String DATABASE_PORT = "3306";
@@ -223,6 +239,7 @@ public abstract class JediEngine {
    public static Integer DATABASE_MAX_STATEMENTS = 500;
    public static Integer DATABASE_POOL_HIKARI_PREPARED_STATEMENTS_CACHE_SIZE = 500;
    public static Integer DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT = 10;
+   public static Boolean DATABASE_POOL_VALIDATE_ON_BORROW = false;
    public static Integer DATABASE_POOL_HIKARI_CONNECTION_TIMEOUT = 30000;
    public static Integer DATABASE_POOL_HIKARI_INITIALIZE_FAIL_TIMEOUT = 1;
 //   public static Integer DATABASE_MAX_IDLE_TIME = 600000;
@@ -232,8 +249,53 @@ public abstract class JediEngine {
    public static Integer DATABASE_MAX_CONNECTION_AGE = 1800000;
    public static Integer DATABASE_POOL_HIKARI_MAX_LIFETIME = 1800000;
    public static Integer DATABASE_POOL_HIKARI_VALIDATION_TIMEOUT = 5000;
+   /**
+    * Fetch size dos cursores abertos por Manager.stream. Quando nulo usa
+    * Integer.MIN_VALUE no MySQL (streaming linha a linha) e 1000 nos demais.
+    */
+   public static Integer DATABASE_FETCH_SIZE = null;
+   /**
+    * Quantidade máxima de traduções de field lookups mantidas em cache.
+    */
+   public static Integer DATABASE_LOOKUP_CACHE_SIZE = 1024;
+   /**
+    * Habilita o cache de resultados de consultas em todos os Managers (ver
+    * jedi.db.models.QueryCache). Quando falso, apenas os Managers obtidos
+    * com cached() usam o cache.
+    */
+   public static Boolean DATABASE_QUERY_CACHE = false;
+   /**
+    * Memória máxima estimada, em megabytes, do cache de resultados.
+    */
+   public static Integer DATABASE_QUERY_CACHE_MAX_MEMORY = 16;
+   /**
+    * Quantidade de registros enviados em cada executeBatch por
+    * Manager.bulkCreate e QuerySet.save.
+    */
+   public static Integer DATABASE_BATCH_SIZE = 1000;
+   /**
+    * Bancos de dados nomeados (datasource.&lt;nome&gt;.host, .port, .name,
+    * .user, .password, .engine, .url, .pool.size), cada um com o seu pool,
+    * usados por Manager.using(nome).
+    */
+   public static Map<String, Properties> DATABASE_DATASOURCES = new LinkedHashMap<>();
+   /**
+    * Bancos nomeados que são réplicas de leitura do banco principal.
+    */
+   public static List<String> DATABASE_REPLICAS = new ArrayList<>();
+   /**
+    * Escolha da réplica a cada leitura: round_robin ou least_loaded.
+    */
+   public static String DATABASE_REPLICA_ROUTING = "round_robin";
    public static String DATABASE_POOL_HIKARI_CONNECTION_TEST_QUERY = "SELECT 1 FROM DUAL";
    public static FetchType FETCH_TYPE = FetchType.EAGER;
+   /**
+    * Preenche as chaves estrangeiras LAZY com uma referência (instância do
+    * modelo associado com apenas o id) em vez de null. A referência é
+    * carregada por Model.get, Model.load e pelos getters gerados pelo Jedi;
+    * getters escritos à mão devem chamar load() antes de ler os campos.
+    */
+   public static Boolean DATABASE_LAZY_REFERENCES = false;
    public static CascadeType CASCADE_TYPE = CascadeType.ALL;
    public static List<String> INSTALLED_APPS = new ArrayList<>();
    // List of maps with table names and models.
@@ -1262,6 +1324,88 @@ public abstract class JediEngine {
       return null;
    }
    
+   /**
+    * Identifica o ambiente ativo (propriedade de sistema jedi.env, variável
+    * de ambiente JEDI_ENV ou chave env.active do jedi.properties) e aplica
+    * sobre o jedi.properties as propriedades do ambiente, lidas do arquivo
+    * jedi-&lt;ambiente&gt;.properties e das chaves com o prefixo do ambiente
+    * (ex.: prod.pool.hikari.max.size = 50 ou test.engine = h2).
+    * 
+    * @return as chaves definidas pelo ambiente
+    */
+   private static Set<String> loadEnvironment() throws IOException {
+      Set<String> keys = new HashSet<>();
+      String name = System.getProperty("jedi.env", System.getenv("JEDI_ENV"));
+      for (String key : JEDI_PROPERTIES.stringPropertyNames()) {
+         String lowerKey = key.toLowerCase().trim();
+         if (name == null && (lowerKey.equals("env.active") || lowerKey.equals("environment.active") ||
+               lowerKey.equals("db.env.active") || lowerKey.equals("database.env.active"))) {
+            name = JEDI_PROPERTIES.getProperty(key);
+         }
+      }
+      ENVIRONMENT = Enviroment.of(name);
+      if (ENVIRONMENT == null) {
+         return keys;
+      }
+      Properties environment = new Properties();
+      for (String prefix : ENVIRONMENT.getPrefixes()) {
+         InputStream file = JediEngine.class.getClassLoader().getResourceAsStream(String.format("jedi-%s.properties", prefix));
+         if (file != null) {
+            try {
+               environment.load(file);
+            } finally {
+               file.close();
+            }
+         }
+      }
+      for (String key : JEDI_PROPERTIES.stringPropertyNames()) {
+         for (String prefix : ENVIRONMENT.getPrefixes()) {
+            if (key.toLowerCase().startsWith(prefix + ".")) {
+               environment.setProperty(key.substring(prefix.length() + 1), JEDI_PROPERTIES.getProperty(key));
+            }
+         }
+      }
+      Set<String> overridden = new HashSet<>();
+      for (String key : environment.stringPropertyNames()) {
+         overridden.add(canonicalKey(key));
+      }
+      // Remove as formas equivalentes (engine, db.engine, database.engine)
+      // das chaves redefinidas, para que o valor do ambiente prevaleça.
+      for (String key : JEDI_PROPERTIES.stringPropertyNames()) {
+         if (overridden.contains(canonicalKey(key))) {
+            JEDI_PROPERTIES.remove(key);
+         }
+      }
+      for (String key : environment.stringPropertyNames()) {
+         JEDI_PROPERTIES.setProperty(key.toLowerCase().trim(), environment.getProperty(key));
+         keys.add(key.toLowerCase().trim());
+      }
+      return keys;
+   }
+   
+   /**
+    * @return a chave sem o prefixo db. ou database.
+    */
+   private static String canonicalKey(String key) {
+      return key.toLowerCase().trim().replaceFirst("^(db|database)\\.", "");
+   }
+   
+   /**
+    * @return o sufixo do nome do banco de dados no ambiente (DATABASE_ENVIRONMENTS_*).
+    */
+   public static String getEnvironmentSuffix(Enviroment environment) {
+      switch (environment.normalize()) {
+         case DEVELOPMENT:
+            return DATABASE_ENVIRONMENTS_DEVELOPMENT;
+         case TEST:
+            return DATABASE_ENVIRONMENTS_TEST;
+         case STAGE:
+            return DATABASE_ENVIRONMENTS_STAGE;
+         default:
+            return DATABASE_ENVIRONMENTS_PRODUCTION;
+      }
+   }
+   
    public static void loadJediProperties() {
       try {
          String exceptionMessage = "";
@@ -1282,6 +1426,7 @@ public abstract class JediEngine {
          }
          JEDI_PROPERTIES = new Properties();
          JEDI_PROPERTIES.load(JEDI_PROPERTIES_FILE);
+         Set<String> environmentKeys = loadEnvironment();
          for (Object o : JEDI_PROPERTIES.keySet()) {
             String key = o.toString().toLowerCase().trim();
             String value = JEDI_PROPERTIES.getProperty(key);
@@ -1649,6 +1794,11 @@ public abstract class JediEngine {
                   key.equals("db.pool.checkout") ||
                   key.equals("database.pool.checkout")) {
                DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT = Integer.parseInt(value);
+            } else if (
+                  key.equals("pool.validate.on.borrow") ||
+                  key.equals("db.pool.validate.on.borrow") ||
+                  key.equals("database.pool.validate.on.borrow")) {
+               DATABASE_POOL_VALIDATE_ON_BORROW = Boolean.parseBoolean(value);
             } else if (
                   key.equals("pool.connection.timeout") ||
                   key.equals("db.pool.connection.timeout") ||
@@ -1868,6 +2018,36 @@ public abstract class JediEngine {
                } else if (value.equals("lazy")) {
                   FETCH_TYPE = FetchType.LAZY;
                }
+            } else if (
+                  key.equals("lazy.references") ||
+                  key.equals("db.lazy.references") ||
+                  key.equals("database.lazy.references")) {
+               DATABASE_LAZY_REFERENCES = Boolean.parseBoolean(value);
+            } else if (
+                  key.equals("fetch.size") ||
+                  key.equals("db.fetch.size") ||
+                  key.equals("database.fetch.size")) {
+               DATABASE_FETCH_SIZE = value.equals("min") ? Integer.MIN_VALUE : Integer.parseInt(value);
+            } else if (
+                  key.equals("lookup.cache.size") ||
+                  key.equals("db.lookup.cache.size") ||
+                  key.equals("database.lookup.cache.size")) {
+               DATABASE_LOOKUP_CACHE_SIZE = Integer.parseInt(value);
+            } else if (
+                  key.equals("query.cache") ||
+                  key.equals("db.query.cache") ||
+                  key.equals("database.query.cache")) {
+               DATABASE_QUERY_CACHE = Boolean.parseBoolean(value);
+            } else if (
+                  key.equals("query.cache.max.memory") ||
+                  key.equals("db.query.cache.max.memory") ||
+                  key.equals("database.query.cache.max.memory")) {
+               DATABASE_QUERY_CACHE_MAX_MEMORY = Integer.parseInt(value);
+            } else if (
+                  key.equals("batch.size") ||
+                  key.equals("db.batch.size") ||
+                  key.equals("database.batch.size")) {
+               DATABASE_BATCH_SIZE = Integer.parseInt(value);
             } else if (
                   key.equals("cascade") || 
                   key.equals("db.cascade") ||
@@ -2051,6 +2231,37 @@ public abstract class JediEngine {
                   boolean mavenWebApp = Boolean.parseBoolean(value);
                   MAVEN_PROJECT = mavenWebApp;
                   MAVEN_WEB_APP = mavenWebApp;
+            } else if (
+                  key.equals("url") ||
+                  key.equals("db.url") ||
+                  key.equals("database.url")) {
+               // A URL pode conter partes que diferenciam maiúsculas.
+               DATABASE_URL = JEDI_PROPERTIES.getProperty(o.toString()).trim();
+            } else if (
+                  key.equals("replicas") ||
+                  key.equals("db.replicas") ||
+                  key.equals("database.replicas")) {
+               DATABASE_REPLICAS.clear();
+               for (String replica : value.split(",")) {
+                  if (!replica.trim().isEmpty()) {
+                     DATABASE_REPLICAS.add(replica.trim());
+                  }
+               }
+            } else if (
+                  key.equals("replica.routing") ||
+                  key.equals("db.replica.routing") ||
+                  key.equals("database.replica.routing")) {
+               DATABASE_REPLICA_ROUTING = value;
+            } else if (key.matches("(db\\.|database\\.)?datasource\\.\\w+\\..+")) {
+               // datasource.<nome>.<propriedade>: o valor é mantido como
+               // informado (senhas e URLs diferenciam maiúsculas).
+               String[] parts = key.replaceFirst("^(db\\.|database\\.)?datasource\\.", "").split("\\.", 2);
+               Properties datasource = DATABASE_DATASOURCES.get(parts[0]);
+               if (datasource == null) {
+                  datasource = new Properties();
+                  DATABASE_DATASOURCES.put(parts[0], datasource);
+               }
+               datasource.setProperty(parts[1], JEDI_PROPERTIES.getProperty(o.toString()).trim());
             } else {
                
             }
@@ -2063,6 +2274,22 @@ public abstract class JediEngine {
                APP_LIBS_DIR = LIB_DIR;
             }
          }
+         if (ENVIRONMENT != null && DATABASE_ENVIRONMENTS && !environmentKeys.contains("db") &&
+               !environmentKeys.contains("database") && !environmentKeys.contains("db.database") &&
+               !environmentKeys.contains("db.name") && !environmentKeys.contains("database.name")) {
+            // Mesmo nome usado por createdb: <banco>_<ambiente>.
+            String suffix = String.format("_%s", getEnvironmentSuffix(ENVIRONMENT));
+            if (!DATABASE_NAME.isEmpty() && !DATABASE_NAME.endsWith(suffix)) {
+               DATABASE_NAME += suffix;
+            }
+         }
+         for (String replica : DATABASE_REPLICAS) {
+            if (!DATABASE_DATASOURCES.containsKey(replica)) {
+               exceptionMessage = String.format("ATENÇÃO: A réplica %s informada em replicas ", replica);
+               exceptionMessage += String.format("não foi definida no jedi.properties (datasource.%s.*)!", replica);
+               throw new IllegalArgumentException(exceptionMessage);
+            }
+         }
          JEDI_PROPERTIES_LOADED = true;
          JEDI_PROPERTIES_FILE.close();
          if (DATABASE_ENGINE.equals("mysql")) {
@@ -3521,114 +3748,12 @@ public abstract class JediEngine {
       list.setEntity(clazz);
       if (resultSet != null && clazz != null) {
          try {
-            T model = null;
+            RowMapper<T> mapper = ModelRowMapper.of(clazz, resultSet.getMetaData());
             while (resultSet.next()) {
-               model = clazz.newInstance();
-               List<Field> fields = new ArrayList<>();
-               Field id = jedi.db.models.Model.class.getDeclaredField("id");
-               id.setAccessible(true);
-               fields.add(id);
-               for (Field field : getAllFields(clazz)) {
-                  field.setAccessible(true);
-                  fields.add(field);
-               }
-               for (Field field : fields) {
-                  OneToOneField oofa = field.getAnnotation(OneToOneField.class);
-                  ForeignKeyField fkfa = field.getAnnotation(ForeignKeyField.class);
-                  ManyToManyField mmfa = field.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Class associatedModelClass = null;
-                  Manager manager = null;
-                  if (oofa != null || fkfa != null) {
-                     if (oofa != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oofa.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? fkfa.fetch_type() : fetchType;
-                     }
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        associatedModelClass = Class.forName(field.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        String columnName = null;
-                        Object o = null;
-                        try {
-                           columnName = TableUtil.getColumnName(field.getType().getSimpleName());
-                           o = resultSet.getObject(String.format("%s_id", columnName));
-                        } catch (SQLException e) {
-                           columnName = TableUtil.getColumnName(field.getName());
-                           o = resultSet.getObject(String.format("%s_id", columnName));
-                        }
-                        Model associatedModel = manager.get("id", o);
-                        field.set(model, associatedModel);
-                     } else {
-                        field.set(model, null);
-                     }
-                  } else if (mmfa != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? mmfa.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        if (!JediEngine.isJediModel(mmfa.through())) {
-                           continue;
-                        }
-                        Class superClazz = null;
-                        Class _clazz = null;
-                        String referencedModel = null;
-                        String referencedTable = null;
-                        referencedModel = mmfa.model().getSimpleName();
-                        referencedModel = Model.class.getSimpleName().equals(referencedModel) ? "" : referencedModel;
-                        if (referencedModel.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 _clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 referencedModel = _clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        referencedTable = mmfa.references();
-                        if (referencedTable == null || referencedTable.trim().isEmpty()) {
-                           if (_clazz != null) {
-                              referencedTable = TableUtil.getTableName(_clazz);
-                           } else {
-                              referencedTable = TableUtil.getTableName(referencedModel);
-                           }
-                        }
-                        String packageName = _clazz.getPackage().getName();
-                        associatedModelClass = Class.forName(String.format("%s.%s", packageName, referencedModel));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet associatedModelsQuerySet = manager.raw(
-                           String.format(
-                              "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                              referencedTable,
-                              referencedModel.toLowerCase(),
-                              TableUtil.getTableName(clazz),
-                              referencedTable,
-                              TableUtil.getColumnName(model.getClass()),
-                              model.getId()),
-                           associatedModelClass);
-                        field.set(model, associatedModelsQuerySet);
-                     } else {
-                        field.set(model, null);
-                     }
-                  } else {
-                     field.set(model, resultSet.getObject(TableUtil.getColumnName(field)));
-                  }
-               }
-               model.setPersisted(true);
-               list.add(model);
+               list.add(mapper.map(resultSet));
             }
          } catch (SQLException e) {
             e.printStackTrace();
-         } catch (InstantiationException e) {
-            e.printStackTrace();
-         } catch (IllegalAccessException e) {
-            e.printStackTrace();
-         } catch (NoSuchFieldException e) {
-            e.printStackTrace();
-         } catch (SecurityException e) {
-            e.printStackTrace();
-         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
          } catch (ObjectDoesNotExistException e) {
             e.printStackTrace();
          } catch (MultipleObjectsReturnedException e) {
@@ -3663,143 +3788,7 @@ public abstract class JediEngine {
     * @return Uma lista de models.
     */
    public static <T extends Model> QuerySet<T> _convert(ResultSet resultSet, Class<T> class_) {
-      // Cria uma lista vazia.
-      QuerySet<T> list = new QuerySet<>();
-      // Verifica se os parâmetros são validos.
-      if (resultSet != null && class_ != null) {
-         try {
-            T model = null;
-            // Percorre o ResultSet.
-            while (resultSet.next()) {
-               // Cria uma instância da classe passada como parâmetro.
-               model = class_.newInstance();
-               // Cria uma lista para armazenar os atributos da classe.
-               List<Field> fields = new ArrayList<>();
-               // Obtém os atributos e os configura como acessíveis.
-               Field id = jedi.db.models.Model.class.getDeclaredField("id");
-               id.setAccessible(true);
-               fields.add(id);
-               for (Field field : getAllFields(class_)) {
-                  field.setAccessible(true);
-                  fields.add(field);
-               }
-               // Percorre os atributos da classe.
-               for (Field field : fields) {
-                  // Obtém de um atributo as anotações que representam
-                  // associações entre modelos:
-                  // one-to-one
-                  OneToOneField oofa = field.getAnnotation(OneToOneField.class);
-                  // many-to-one
-                  ForeignKeyField fkfa = field.getAnnotation(ForeignKeyField.class);
-                  // many-to-many
-                  ManyToManyField mmfa = field.getAnnotation(ManyToManyField.class);
-                  // Obtém o tipo de recuperação (fetch type) de dados padrão do
-                  // ORM.
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  // Cria uma referência para classe de modelo associado.
-                  Class associatedModelClass = null;
-                  // Cria um gerenciador de modelos.
-                  Manager manager = null;
-                  // Verifica qual a associação é feita pelo atributo.
-                  if (oofa != null || fkfa != null) {
-                     // Obtém o fetch type da anotação de associação.
-                     if (oofa != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oofa.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? fkfa.fetch_type() : fetchType;
-                     }
-                     // Tipo de recuperação impaciente (automática).
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        associatedModelClass = Class.forName(field.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        String columnName = TableUtil.getColumnName(field.getType().getSimpleName());
-                        Object o = resultSet.getObject(String.format("%s_id", columnName));
-                        Model associatedModel = manager.get("id", o);
-                        field.set(model, associatedModel);
-                     } else { // Tipo de recuperação preguiçosa (manual ou sob
-                        // demanda).
-                        field.set(model, null);
-                     }
-                  } else if (mmfa != null) { // Associação many-to-many
-                     // Obtém o tipo de recuperação de dados na associação.
-                     fetchType = fetchType.equals(FetchType.NONE) ? mmfa.fetch_type() : fetchType;
-                     // Tipo de recuperação impaciente (automática).
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        // Verifica se a associação many-to-many é feita
-                        // por uma classe definida pelo usuário.
-                        if (!JediEngine.isJediModel(mmfa.through())) {
-                           continue;
-                        }
-                        Class superClass = null;
-                        Class _class = null;
-                        String referencedModel = null;
-                        String referencedTable = null;
-                        referencedModel = mmfa.model().getSimpleName();
-                        referencedModel = Model.class.getSimpleName().equals(referencedModel) ? "" : referencedModel;
-                        if (referencedModel.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClass = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClass == Model.class) {
-                                 _class = (Class) genericType.getActualTypeArguments()[0];
-                                 referencedModel = _class.getSimpleName();
-                              }
-                           }
-                        }
-                        referencedTable = mmfa.references();
-                        if (referencedTable == null || referencedTable.trim().isEmpty()) {
-                           if (_class != null) {
-                              referencedTable = TableUtil.getTableName(_class);
-                           } else {
-                              referencedTable = TableUtil.getTableName(referencedModel);
-                           }
-                        }
-                        String packageName = _class.getPackage().getName();
-                        associatedModelClass = Class.forName(String.format("%s.%s", packageName, referencedModel));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet associatedModelsQuerySet = manager.raw(
-                           String.format(
-                              "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                              referencedTable,
-                              referencedModel.toLowerCase(),
-                              TableUtil.getTableName(class_),
-                              referencedTable,
-                              TableUtil.getColumnName(model.getClass()),
-                              model.getId()),
-                           associatedModelClass);
-                        field.set(model, associatedModelsQuerySet);
-                     } else { // Tipo de recuperação preguiçosa (manual ou sob
-                        // demanda).
-                        field.set(model, null);
-                     }
-                  } else {
-                     field.set(model, resultSet.getObject(TableUtil.getColumnName(field)));
-                  }
-               }
-               model.setPersisted(true);
-               list.add(model);
-               // list.forEach(o -> System.out.println(o.repr()));
-            }
-         } catch (SQLException e) {
-            e.printStackTrace();
-         } catch (InstantiationException e) {
-            e.printStackTrace();
-         } catch (IllegalAccessException e) {
-            e.printStackTrace();
-         } catch (NoSuchFieldException e) {
-            e.printStackTrace();
-         } catch (SecurityException e) {
-            e.printStackTrace();
-         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-         } catch (ObjectDoesNotExistException e) {
-            e.printStackTrace();
-         } catch (MultipleObjectsReturnedException e) {
-            e.printStackTrace();
-         }
-      }
-      return list;
+      return convert(resultSet, class_);
    }
    
    public static final class scripts {
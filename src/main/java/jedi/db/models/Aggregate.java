@@ -0,0 +1,111 @@
+package jedi.db.models;
+
+import static jedi.db.sql.Sql.AVG;
+import static jedi.db.sql.Sql.COUNT;
+import static jedi.db.sql.Sql.MAX;
+import static jedi.db.sql.Sql.MIN;
+import static jedi.db.sql.Sql.SUM;
+
+import jedi.db.exceptions.DatabaseException;
+
+/**
+ * Função de agregação (SUM, AVG, MIN, MAX ou COUNT) calculada no banco de
+ * dados por {@link Manager#aggregate(Aggregate...)} e
+ * {@link QueryValues#annotate(Aggregate...)}.
+ * <p>
+ * O resultado fica no nome informado em {@link #as(String)} ou, por padrão,
+ * em campo__funcao (ex.: preco__sum).
+ *
+ * <pre>
+ * Map&lt;String, Object&gt; totais = Pedido.objects.filter("status=pago").aggregate(sum("valor"), count());
+ * List&lt;Map&lt;String, Object&gt;&gt; porCidade = Cliente.objects.values("cidade").annotate(count().as("clientes"));
+ * </pre>
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class Aggregate {
+
+   private final String function;
+   private final String field;
+   private String alias;
+   private boolean distinct;
+
+   public Aggregate(String function, String field) {
+      this.function = function;
+      this.field = field == null || field.trim().isEmpty() ? "id" : field.trim();
+   }
+
+   public static Aggregate sum(String field) {
+      return new Aggregate(SUM, field);
+   }
+
+   public static Aggregate avg(String field) {
+      return new Aggregate(AVG, field);
+   }
+
+   public static Aggregate min(String field) {
+      return new Aggregate(MIN, field);
+   }
+
+   public static Aggregate max(String field) {
+      return new Aggregate(MAX, field);
+   }
+
+   public static Aggregate count(String field) {
+      return new Aggregate(COUNT, field);
+   }
+
+   public static Aggregate count() {
+      return count("id");
+   }
+
+   /**
+    * Define o nome do resultado.
+    */
+   public Aggregate as(String alias) {
+      if (alias == null || !alias.matches("[A-Za-z_]\\w*")) {
+         throw new DatabaseException(String.format("Nome de agregação inválido: %s.", alias));
+      }
+      this.alias = alias;
+      return this;
+   }
+
+   /**
+    * Considera apenas os valores distintos do campo.
+    */
+   public Aggregate distinct() {
+      this.distinct = true;
+      return this;
+   }
+
+   public String getFunction() {
+      return function;
+   }
+
+   public String getField() {
+      return field;
+   }
+
+   public String getAlias() {
+      return alias != null ? alias : String.format("%s__%s", field, function.toLowerCase());
+   }
+
+   public boolean isDistinct() {
+      return distinct;
+   }
+
+   /**
+    * @return a expressão SQL da agregação sobre a coluna.
+    */
+   String sql(String column) {
+      return String.format("%s(%s%s)", function, distinct ? "DISTINCT " : "", column);
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%s(%s%s) AS %s", function, distinct ? "DISTINCT " : "", field, getAlias());
+   }
+
+}
@@ -0,0 +1,30 @@
+package jedi.db.models;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Habilita o cache de segundo nível do modelo: os registros obtidos pelo id
+ * (Manager.get("id", valor) e as chaves estrangeiras EAGER) ficam em
+ * memória até serem alterados ou excluídos.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see ModelCache
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+   /**
+    * Quantidade máxima de registros; os usados há mais tempo são
+    * descartados.
+    */
+   public int maxSize() default 1000;
+   /**
+    * Tempo de vida dos registros em segundos (0 para não expirar).
+    */
+   public long ttl() default 0;
+}
@@ -0,0 +1,320 @@
+package jedi.db.models;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.util.TableUtil;
+
+/**
+ * Descritor imutável de um campo de modelo.
+ * <p>
+ * Guarda tudo o que os caminhos de leitura e escrita precisam saber sobre
+ * o campo (coluna, anotação, fetch type, cascade type, valor padrão) e os
+ * handles de acesso, evitando reflexão e expressões regulares por registro.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see ModelMetadata
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class FieldMetadata {
+
+   private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+   private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+   private final Field field;
+   private final String name;
+   private final Class<?> type;
+   private final String columnName;
+   private final String databaseColumnName;
+   private final Annotation annotation;
+   private final Class<? extends Annotation> annotationClass;
+   private final FetchType fetchType;
+   private final CascadeType cascadeType;
+   private final String defaultValue;
+   private final boolean unique;
+   private final boolean oneToOne;
+   private final boolean foreignKey;
+   private final boolean manyToMany;
+   private final Class<? extends Model> associatedModelClass;
+   private final String associatedModelName;
+   private final String references;
+   private final Class<? extends Model> throughModelClass;
+   private final MethodHandle getter;
+   private final MethodHandle setter;
+
+   FieldMetadata(Field field) {
+      field.setAccessible(true);
+      this.field = field;
+      this.name = field.getName();
+      this.type = field.getType();
+      this.columnName = TableUtil.getColumnName(field);
+      Annotation annotation = null;
+      for (Class class_ : JediEngine.JEDI_FIELD_ANNOTATION_CLASSES) {
+         annotation = field.getAnnotation(class_);
+         if (annotation != null) {
+            break;
+         }
+      }
+      this.annotation = annotation;
+      this.annotationClass = annotation == null ? null : annotation.annotationType();
+      this.defaultValue = JediEngine.getDefaultValue(annotation);
+      this.unique = unique(annotation);
+      this.oneToOne = annotationClass == OneToOneField.class;
+      this.foreignKey = annotationClass == ForeignKeyField.class;
+      this.manyToMany = annotationClass == ManyToManyField.class;
+      this.databaseColumnName = oneToOne || foreignKey ? String.format("%s_id", columnName) : columnName;
+      Class<? extends Model> associatedModelClass = null;
+      String associatedModelName = "";
+      String references = "";
+      Class<? extends Model> throughModelClass = null;
+      if (oneToOne) {
+         OneToOneField oneToOneField = (OneToOneField) annotation;
+         this.fetchType = oneToOneField.fetch_type();
+         this.cascadeType = oneToOneField.cascade_type();
+         associatedModelClass = (Class<? extends Model>) type;
+         references = oneToOneField.references();
+      } else if (foreignKey) {
+         ForeignKeyField foreignKeyField = (ForeignKeyField) annotation;
+         this.fetchType = foreignKeyField.fetch_type();
+         this.cascadeType = foreignKeyField.cascade_type();
+         associatedModelClass = (Class<? extends Model>) type;
+         references = foreignKeyField.references();
+      } else if (manyToMany) {
+         ManyToManyField manyToManyField = (ManyToManyField) annotation;
+         this.fetchType = manyToManyField.fetch_type();
+         this.cascadeType = manyToManyField.cascade_type();
+         if (manyToManyField.model() != Model.class) {
+            associatedModelClass = manyToManyField.model();
+         } else {
+            Type genericType = field.getGenericType();
+            if (genericType instanceof ParameterizedType) {
+               Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+               if (argument instanceof Class && ((Class) argument).getSuperclass() == Model.class) {
+                  associatedModelClass = (Class<? extends Model>) argument;
+               }
+            }
+         }
+         references = manyToManyField.references();
+         if (references == null || references.trim().isEmpty()) {
+            references = associatedModelClass == null ? "" : TableUtil.getTableName(associatedModelClass);
+         }
+         throughModelClass = manyToManyField.through() == Model.class ? null : manyToManyField.through();
+      } else {
+         this.fetchType = null;
+         this.cascadeType = null;
+      }
+      if (associatedModelClass != null) {
+         associatedModelName = associatedModelClass.getSimpleName();
+      }
+      this.associatedModelClass = associatedModelClass;
+      this.associatedModelName = associatedModelName;
+      this.references = references == null ? "" : references.trim();
+      this.throughModelClass = throughModelClass;
+      try {
+         MethodHandles.Lookup lookup = MethodHandles.lookup();
+         this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+         this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+      } catch (IllegalAccessException e) {
+         throw new DatabaseException(String.format("Não foi possível acessar o campo %s.", field), e);
+      }
+   }
+
+   public Field getField() {
+      return field;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   private static boolean unique(Annotation annotation) {
+      if (annotation == null) {
+         return false;
+      }
+      try {
+         return Boolean.TRUE.equals(annotation.annotationType().getMethod("unique").invoke(annotation));
+      } catch (ReflectiveOperationException e) {
+         return false;
+      }
+   }
+
+   public Class<?> getType() {
+      return type;
+   }
+
+   /**
+    * @return o nome da coluna derivado do nome do campo.
+    */
+   public String getColumnName() {
+      return columnName;
+   }
+
+   /**
+    * @return o nome da coluna na tabela do modelo (com o sufixo _id nas
+    *         associações OneToOne e ForeignKey).
+    */
+   public String getDatabaseColumnName() {
+      return databaseColumnName;
+   }
+
+   public Annotation getAnnotation() {
+      return annotation;
+   }
+
+   public Class<? extends Annotation> getAnnotationClass() {
+      return annotationClass;
+   }
+
+   public String getDefaultValue() {
+      return defaultValue;
+   }
+
+   /**
+    * @return verdadeiro se a anotação do campo declarar unique = true.
+    */
+   public boolean isUnique() {
+      return unique;
+   }
+
+   /**
+    * Resolve o fetch type efetivo do campo: a configuração global
+    * prevalece sobre a anotação, exceto quando for NONE.
+    */
+   public FetchType getFetchType() {
+      FetchType global = JediEngine.FETCH_TYPE;
+      return global == null || global.equals(FetchType.NONE) ? fetchType : global;
+   }
+
+   /**
+    * Resolve o cascade type efetivo do campo, seguindo a mesma regra do
+    * fetch type.
+    */
+   public CascadeType getCascadeType() {
+      CascadeType global = JediEngine.CASCADE_TYPE;
+      return global == null || global.equals(CascadeType.NONE) ? cascadeType : global;
+   }
+
+   public boolean isEager() {
+      return FetchType.EAGER.equals(getFetchType());
+   }
+
+   public boolean isLazy() {
+      return FetchType.LAZY.equals(getFetchType());
+   }
+
+   public boolean isOneToOne() {
+      return oneToOne;
+   }
+
+   public boolean isForeignKey() {
+      return foreignKey;
+   }
+
+   public boolean isManyToMany() {
+      return manyToMany;
+   }
+
+   public boolean isAssociation() {
+      return oneToOne || foreignKey || manyToMany;
+   }
+
+   public boolean isList() {
+      return List.class == type || QuerySet.class == type;
+   }
+
+   public Class<? extends Model> getAssociatedModelClass() {
+      return associatedModelClass;
+   }
+
+   public String getAssociatedModelName() {
+      return associatedModelName;
+   }
+
+   public String getReferences() {
+      return references;
+   }
+
+   public Class<? extends Model> getThroughModelClass() {
+      return throughModelClass;
+   }
+
+   public MethodHandle getGetter() {
+      return getter;
+   }
+
+   public MethodHandle getSetter() {
+      return setter;
+   }
+
+   public Object get(Object target) {
+      try {
+         return getter.invokeExact(target);
+      } catch (Throwable t) {
+         throw new DatabaseException(t);
+      }
+   }
+
+   /**
+    * Atribui o valor ao campo, convertendo números e booleanos para o tipo
+    * declarado (ex.: BigDecimal do Oracle para int). Valores nulos em campos
+    * primitivos mantêm o valor padrão do campo.
+    */
+   public void set(Object target, Object value) {
+      value = coerce(value);
+      if (value == null && type.isPrimitive()) {
+         return;
+      }
+      try {
+         setter.invokeExact(target, value);
+      } catch (Throwable t) {
+         throw new DatabaseException(t);
+      }
+   }
+
+   private Object coerce(Object value) {
+      if (value == null || type.isInstance(value)) {
+         return value;
+      }
+      if (value instanceof Number) {
+         Number number = (Number) value;
+         if (type == int.class || type == Integer.class) {
+            return number.intValue();
+         } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+         } else if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+         } else if (type == float.class || type == Float.class) {
+            return number.floatValue();
+         } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+         } else if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+         } else if (type == boolean.class || type == Boolean.class) {
+            return number.intValue() != 0;
+         } else if (type == BigDecimal.class) {
+            return new BigDecimal(number.toString());
+         } else if (type == BigInteger.class) {
+            return new BigInteger(number.toString());
+         }
+      }
+      return value;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("%s.%s", field.getDeclaringClass().getSimpleName(), name);
+   }
+
+}
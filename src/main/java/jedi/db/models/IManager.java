@@ -4,6 +4,7 @@ import java.io.File;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import jedi.db.exceptions.MultipleObjectsReturnedException;
 import jedi.db.exceptions.ObjectDoesNotExistException;
@@ -23,11 +24,13 @@ public interface IManager {
    
    IManager bulkCreate(Model... models);
    
+   IManager bulkCreate(List<? extends Model> models);
+   
    IManager save(Model... models);
    
    IManager save(List<Model> models);
    
-   void using(String database);
+   Manager using(String database);
    
    boolean getAutoCloseConnection();
    
@@ -59,12 +62,20 @@ public interface IManager {
    
    <T extends Model> QuerySet<T> all();
    
+   IManager selectRelated(String... fields);
+   
+   IManager prefetchRelated(String... fields);
+   
    <T extends Model> QuerySet<T> _filter(String... fields);
    
    <T extends Model> QuerySet<T> filter(String... fieldsLookups);
    
    <T extends Model> QuerySet<T> filter(String query);
    
+   <T extends Model> ModelCursor<T> cursor(String... fieldsLookups);
+   
+   <T extends Model> Stream<T> stream(String... fieldsLookups);
+   
    <T extends Model> QuerySet<T> _exclude(String... fields);
    
    <T extends Model> QuerySet<T> where(String criteria, Object... values);
@@ -81,6 +92,18 @@ public interface IManager {
    
    <T extends Model> QuerySet<T> only(String... fields);
    
+   Map<String, Object> aggregate(Aggregate... aggregates);
+   
+   <T extends Model> QueryValues<T> values(String... fields);
+   
+   Number sum(String field, String... conditions);
+   
+   Number avg(String field, String... conditions);
+   
+   <V> V min(String field, String... conditions);
+   
+   <V> V max(String field, String... conditions);
+   
    <T extends Model> QuerySet<T> run(String sql);
    
    <T extends Model> QuerySet<T> paginate(Integer limit, Integer offset, String where);
@@ -133,6 +156,12 @@ public interface IManager {
    
    <T extends Model> IManager delete(Model... models);
    
+   IManager delete(List<? extends Model> models);
+   
+   int delete(String... conditions);
+   
+   int update(String[] fields, String... conditions);
+   
    <T extends Model> IManager delete();
    
    <T extends Model> QuerySet<T> query(String sql, Class<T> clazz);
@@ -175,6 +204,14 @@ public interface IManager {
    
    <T extends Model> QuerySet<T> page(QueryPageNumber pageNumber);
    
+   <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder, String... filters);
+   
+   <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, String... filters);
+   
+   <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder);
+   
+   <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize);
+   
    <T extends Model> QuerySet<T> reversePage(QueryPageStart pageStart, QueryPageSize pageSize, QueryPageOrder pageOrder, String... filters);
    
    <T extends Model> QuerySet<T> reversePage(QueryPageStart pageStart, QueryPageSize pageSize, String... filters);
@@ -211,4 +248,10 @@ public interface IManager {
    
    <T extends Model> QuerySet<T> reversePage(QueryPageNumber pageNumber);
    
+   <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder, String... filters);
+   
+   <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize, String... filters);
+   
+   <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize);
+   
 }
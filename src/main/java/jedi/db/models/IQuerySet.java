@@ -1,6 +1,7 @@
 package jedi.db.models;
 
 import java.util.List;
+import java.util.Map;
 
 import jedi.types.Block;
 import jedi.types.Function;
@@ -24,6 +25,8 @@ public interface IQuerySet<T extends Model> {
    
    public QuerySet<T> delete();
    
+   public int update(String... fields);
+   
    public int count();
    
    public QuerySet<T> all();
@@ -62,6 +65,14 @@ public interface IQuerySet<T extends Model> {
    
    public QuerySet<T> distinct();
    
+   public QuerySet<T> only(String... fields);
+   
+   public QuerySet<T> defer(String... fields);
+   
+   public Map<String, Object> aggregate(Aggregate... aggregates);
+   
+   public QueryValues<T> values(String... fields);
+   
    public T earliest();
    
    public T latest();
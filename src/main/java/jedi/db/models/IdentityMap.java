@@ -0,0 +1,166 @@
+package jedi.db.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapa de identidade: enquanto estiver aberto na thread corrente, cada
+ * registro (classe do modelo, id) é convertido em modelo uma única vez e
+ * as consultas seguintes retornam a mesma instância.
+ * <p>
+ * Evita que uma página de pedidos crie (e consulte) um cliente por pedido
+ * quando vários pedidos são do mesmo cliente. O escopo típico é uma
+ * requisição ou uma transação ({@link jedi.db.Jedi#transaction(Runnable)}
+ * abre um mapa automaticamente).
+ *
+ * <pre>
+ * try (IdentityMap identityMap = IdentityMap.begin()) {
+ *    List&lt;Pedido&gt; pedidos = Pedido.objects.all();
+ * }
+ * </pre>
+ *
+ * Mapas abertos dentro de outro compartilham as instâncias do mais
+ * externo. Os cursores (Manager.stream) não registram os modelos, para não
+ * reter todos os registros lidos.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class IdentityMap implements AutoCloseable {
+
+   private static final ThreadLocal<IdentityMap> CURRENT = new ThreadLocal<>();
+
+   private final IdentityMap parent;
+   private final Map<Class<?>, Map<Integer, Model>> models;
+   private boolean closed;
+
+   private IdentityMap(IdentityMap parent) {
+      this.parent = parent;
+      this.models = parent == null ? new HashMap<>() : parent.models;
+   }
+
+   /**
+    * Abre um mapa de identidade na thread corrente ou participa do que já
+    * estiver aberto.
+    */
+   public static IdentityMap begin() {
+      IdentityMap identityMap = new IdentityMap(CURRENT.get());
+      CURRENT.set(identityMap);
+      return identityMap;
+   }
+
+   /**
+    * @return o mapa de identidade aberto na thread corrente ou null.
+    */
+   public static IdentityMap current() {
+      return CURRENT.get();
+   }
+
+   public static boolean isActive() {
+      return CURRENT.get() != null;
+   }
+
+   /**
+    * Remove o modelo do mapa corrente (se houver).
+    */
+   public static void evict(Class<? extends Model> modelClass, int id) {
+      IdentityMap identityMap = CURRENT.get();
+      if (identityMap != null) {
+         identityMap.remove(modelClass, id);
+      }
+   }
+
+   /**
+    * Remove os modelos da classe do mapa corrente (se houver), para que
+    * sejam consultados de novo após alterações em massa.
+    */
+   public static void clear(Class<? extends Model> modelClass) {
+      IdentityMap identityMap = CURRENT.get();
+      if (identityMap != null) {
+         identityMap.models.remove(modelClass);
+      }
+   }
+
+   /**
+    * Desativa o mapa corrente até {@link #resume(IdentityMap)}.
+    *
+    * @return o mapa desativado ou null.
+    */
+   static IdentityMap suspend() {
+      IdentityMap identityMap = CURRENT.get();
+      if (identityMap != null) {
+         CURRENT.remove();
+      }
+      return identityMap;
+   }
+
+   static void resume(IdentityMap identityMap) {
+      if (identityMap != null) {
+         CURRENT.set(identityMap);
+      }
+   }
+
+   /**
+    * @return a instância do registro ou null se ainda não foi carregada.
+    */
+   @SuppressWarnings("unchecked")
+   public <T extends Model> T get(Class<T> modelClass, int id) {
+      Map<Integer, Model> instances = models.get(modelClass);
+      return instances == null ? null : (T) instances.get(id);
+   }
+
+   /**
+    * Registra o modelo, se o registro ainda não tiver uma instância.
+    *
+    * @return a instância registrada do registro.
+    */
+   @SuppressWarnings("unchecked")
+   public <T extends Model> T put(T model) {
+      if (model == null || model.id <= 0) {
+         return model;
+      }
+      Model instance = models.computeIfAbsent(model.getClass(), c -> new HashMap<>()).putIfAbsent(model.id, model);
+      return instance == null ? model : (T) instance;
+   }
+
+   public void remove(Class<? extends Model> modelClass, int id) {
+      Map<Integer, Model> instances = models.get(modelClass);
+      if (instances != null) {
+         instances.remove(id);
+      }
+   }
+
+   public void clear() {
+      models.clear();
+   }
+
+   /**
+    * @return a quantidade de modelos registrados.
+    */
+   public int size() {
+      int size = 0;
+      for (Map<Integer, Model> instances : models.values()) {
+         size += instances.size();
+      }
+      return size;
+   }
+
+   /**
+    * Fecha o mapa; o mais externo descarta as instâncias registradas.
+    */
+   @Override
+   public void close() {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      if (parent != null) {
+         CURRENT.set(parent);
+         return;
+      }
+      CURRENT.remove();
+      models.clear();
+   }
+
+}
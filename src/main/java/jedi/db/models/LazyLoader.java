@@ -0,0 +1,208 @@
+package jedi.db.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Carregamento sob demanda das associações FetchType.LAZY.
+ * <p>
+ * Com a propriedade lazy.references (JediEngine.DATABASE_LAZY_REFERENCES)
+ * habilitada, uma chave estrangeira LAZY recebe uma referência: uma
+ * instância do modelo associado que contém apenas o id e cujos demais
+ * campos ficam adiados. Sem ela, o campo fica null. Um ManyToManyField LAZY
+ * recebe um QuerySet com a consulta pendente.
+ * <p>
+ * O QuerySet é lido em qualquer acesso a ele. A referência é lida apenas por
+ * Model.get, Model.load e pelos getters gerados pelo Jedi, pois não há
+ * proxies: um getter escrito à mão que retorne o campo diretamente deve
+ * chamar load() antes, como os gerados.
+ * <p>
+ * As referências e os QuerySets lidos na mesma consulta são agrupados por
+ * campo, de modo que o primeiro acesso carrega todo o grupo com consultas
+ * IN (...), em vez de uma consulta por registro.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+final class LazyLoader {
+
+   private static final int CHUNK_SIZE = 1000;
+   private static final ConcurrentMap<Class<?>, List<String>> FIELD_NAMES = new ConcurrentHashMap<>();
+
+   private final Class<? extends Model> modelClass;
+   private final FieldMetadata field;
+   // Referências do modelo associado (chaves estrangeiras).
+   private List<Model> references;
+   // QuerySets pendentes pelo id do modelo dono (ManyToMany).
+   private Map<Integer, QuerySet> querySets;
+
+   private LazyLoader(Class<? extends Model> modelClass, List<Model> references) {
+      this.modelClass = modelClass;
+      this.field = null;
+      this.references = references;
+   }
+
+   private LazyLoader(Class<? extends Model> modelClass, FieldMetadata field, Map<Integer, QuerySet> querySets) {
+      this.modelClass = modelClass;
+      this.field = field;
+      this.querySets = querySets;
+   }
+
+   /**
+    * @return a referência LAZY ao registro do modelo.
+    */
+   static Model reference(ModelMetadata metadata, int id) {
+      Model reference = metadata.newInstance();
+      reference.id = id;
+      reference.defer(FIELD_NAMES.computeIfAbsent(reference.getClass(), c -> {
+         List<String> names = new ArrayList<>();
+         for (FieldMetadata field : metadata.getFields()) {
+            names.add(field.getName());
+         }
+         return names;
+      }));
+      reference.setPersisted(true);
+      reference.setLoader(of(reference));
+      return reference;
+   }
+
+   /**
+    * @return o carregador de uma única referência.
+    */
+   static LazyLoader of(Model reference) {
+      return new LazyLoader(reference.getClass(), new ArrayList<>(Collections.singletonList(reference)));
+   }
+
+   /**
+    * @return o QuerySet LAZY dos modelos que atendem à condição.
+    */
+   static QuerySet querySet(Class<? extends Model> modelClass, String predicate) {
+      return new QuerySet(new LazyQuery(new Manager(modelClass, false), modelClass).condition(predicate));
+   }
+
+   /**
+    * Agrupa, por campo, as referências e os QuerySets LAZY dos modelos lidos
+    * em uma mesma consulta. Referências ao mesmo registro passam a ser a
+    * mesma instância.
+    */
+   static void link(Class<? extends Model> entity, List<? extends Model> models) {
+      if (entity == null || models == null || models.size() < 2) {
+         return;
+      }
+      for (FieldMetadata field : ModelMetadata.of(entity).getFields()) {
+         if (!field.isLazy()) {
+            continue;
+         }
+         if (field.isManyToMany()) {
+            Map<Integer, QuerySet> querySets = new LinkedHashMap<>();
+            for (Model model : models) {
+               Object value = model == null ? null : field.get(model);
+               if (value instanceof QuerySet && ((QuerySet) value).lazy()) {
+                  querySets.put(model.id, (QuerySet) value);
+               }
+            }
+            if (querySets.size() > 1) {
+               LazyLoader loader = new LazyLoader(entity, field, querySets);
+               for (QuerySet querySet : querySets.values()) {
+                  querySet.setLoader(loader);
+               }
+            }
+         } else if (field.isForeignKey() || field.isOneToOne()) {
+            Map<Integer, Model> references = new LinkedHashMap<>();
+            for (Model model : models) {
+               Object value = model == null ? null : field.get(model);
+               if (value instanceof Model && ((Model) value).getLoader() != null) {
+                  Model reference = (Model) value;
+                  Model previous = references.putIfAbsent(reference.id, reference);
+                  if (previous != null && previous != reference) {
+                     field.set(model, previous);
+                  }
+               }
+            }
+            if (references.size() > 1) {
+               LazyLoader loader = new LazyLoader(field.getAssociatedModelClass(), new ArrayList<>(references.values()));
+               for (Model reference : references.values()) {
+                  reference.setLoader(loader);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Carrega todo o grupo.
+    */
+   void load() {
+      if (references != null) {
+         loadReferences();
+      } else if (querySets != null) {
+         loadQuerySets();
+      }
+   }
+
+   private void loadReferences() {
+      List<Model> pending = new ArrayList<>();
+      for (Model reference : references) {
+         if (reference.getLoader() == this) {
+            reference.setLoader(null);
+         }
+         if (reference.isDeferred()) {
+            pending.add(reference);
+         }
+      }
+      references = null;
+      if (pending.isEmpty()) {
+         return;
+      }
+      Manager manager = new Manager(modelClass, false);
+      String tableName = ModelMetadata.of(modelClass).getTableName();
+      int chunkSize = Math.max(1, Math.min(CHUNK_SIZE, manager.dialect().getMaxInListSize()));
+      Map<Integer, Model> models = new HashMap<>();
+      for (int i = 0; i < pending.size(); i += chunkSize) {
+         StringBuilder ids = new StringBuilder();
+         for (Model reference : pending.subList(i, Math.min(i + chunkSize, pending.size()))) {
+            ids.append(ids.length() > 0 ? ", " : "").append(reference.id);
+         }
+         QuerySet<Model> querySet = manager.select(String.format("SELECT * FROM %s WHERE id IN (%s)", tableName, ids));
+         for (Model model : querySet) {
+            models.put(model.id, model);
+         }
+      }
+      for (Model reference : pending) {
+         Model model = models.get(reference.id);
+         if (model != null) {
+            reference.fill(model);
+         } else {
+            // Registro excluído: não há o que carregar.
+            reference.defer(null);
+         }
+      }
+   }
+
+   private void loadQuerySets() {
+      Map<Integer, QuerySet> pending = new LinkedHashMap<>();
+      for (Map.Entry<Integer, QuerySet> entry : querySets.entrySet()) {
+         if (entry.getValue().lazy()) {
+            pending.put(entry.getKey(), entry.getValue());
+         }
+      }
+      querySets = null;
+      if (pending.isEmpty()) {
+         return;
+      }
+      Map<Integer, List<Model>> models = new Manager(modelClass, false).manyToMany(field, pending.keySet());
+      for (Map.Entry<Integer, QuerySet> entry : pending.entrySet()) {
+         List<Model> associated = models.get(entry.getKey());
+         entry.getValue().resolve(associated == null ? Collections.emptyList() : associated);
+      }
+   }
+
+}
@@ -0,0 +1,452 @@
+package jedi.db.models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.util.TableUtil;
+
+/**
+ * Consulta pendente de um QuerySet.
+ * <p>
+ * Acumula filtros, exclusões, ordenação, limite, deslocamento e distinct
+ * sem acessar o banco de dados. A instrução SELECT só é gerada e executada
+ * quando o QuerySet é percorrido, contado ou fatiado. Cada operação
+ * retorna uma nova consulta, de modo que um QuerySet pendente pode ser
+ * reutilizado como base de outros. Com only ou defer a consulta traz
+ * apenas parte das colunas; as demais ficam adiadas nos modelos.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see QuerySet
+ */
+final class LazyQuery<T extends Model> {
+
+   private final Manager manager;
+   private final Class<T> entity;
+   private final List<String> where;
+   private final List<String> orderBy;
+   private Integer limit;
+   private int offset;
+   private boolean distinct;
+   // Campos carregados pela consulta (null indica todos).
+   private Set<String> fields;
+
+   LazyQuery(Manager manager, Class<T> entity) {
+      this(manager, entity, new ArrayList<>(), new ArrayList<>());
+   }
+
+   private LazyQuery(Manager manager, Class<T> entity, List<String> where, List<String> orderBy) {
+      this.manager = manager;
+      this.entity = entity;
+      this.where = where;
+      this.orderBy = orderBy;
+   }
+
+   private LazyQuery<T> copy() {
+      LazyQuery<T> query = new LazyQuery<>(manager, entity, new ArrayList<>(where), new ArrayList<>(orderBy));
+      query.limit = limit;
+      query.offset = offset;
+      query.distinct = distinct;
+      query.fields = fields == null ? null : new LinkedHashSet<>(fields);
+      return query;
+   }
+
+   Class<T> getEntity() {
+      return entity;
+   }
+
+   LazyQuery<T> filter(String... fields) {
+      return where(false, fields);
+   }
+
+   LazyQuery<T> exclude(String... fields) {
+      return where(true, fields);
+   }
+
+   private LazyQuery<T> where(boolean negated, String... fields) {
+      LazyQuery<T> query = copy();
+      List<String> conditions = new ArrayList<>();
+      if (fields != null) {
+         for (String field : fields) {
+            if (field != null && !field.trim().isEmpty()) {
+               conditions.add(field);
+            }
+         }
+      }
+      if (!conditions.isEmpty()) {
+         // Com limite ou deslocamento o novo filtro se aplica ao resultado
+         // já fatiado, como aconteceria com o QuerySet em memória.
+         // A ordenação, o distinct e os campos carregados são mantidos.
+         if (limit != null || offset > 0) {
+            query = new LazyQuery<>(manager, entity, new ArrayList<>(), new ArrayList<>(orderBy));
+            query.distinct = distinct;
+            query.fields = this.fields == null ? null : new LinkedHashSet<>(this.fields);
+            query.where.add(String.format("id IN (SELECT id FROM (%s) jedi_slice)", idSql()));
+         }
+         String predicate = manager.whereSql(conditions.toArray(new String[0])).replaceFirst("^\\s*WHERE\\s+", "");
+         query.where.add(negated ? String.format("NOT (%s)", predicate) : String.format("(%s)", predicate));
+      }
+      return query;
+   }
+
+   /**
+    * Acrescenta uma condição já traduzida para SQL.
+    */
+   LazyQuery<T> condition(String predicate) {
+      LazyQuery<T> query = copy();
+      query.where.add(String.format("(%s)", predicate));
+      return query;
+   }
+
+   /**
+    * Define a ordenação, substituindo a anterior. O prefixo - indica ordem
+    * decrescente.
+    */
+   LazyQuery<T> orderBy(String... fields) {
+      LazyQuery<T> query = copy();
+      query.orderBy.clear();
+      if (fields != null) {
+         for (String field : fields) {
+            for (String name : field == null ? new String[0] : field.split(",")) {
+               if (!name.trim().isEmpty()) {
+                  query.orderBy.add(name.trim());
+               }
+            }
+         }
+      }
+      return query;
+   }
+
+   /**
+    * Inverte a ordenação (pelo id, se nenhuma tiver sido definida).
+    */
+   LazyQuery<T> reverse() {
+      LazyQuery<T> query = copy();
+      query.orderBy.clear();
+      if (orderBy.isEmpty()) {
+         query.orderBy.add("-id");
+      }
+      for (String field : orderBy) {
+         query.orderBy.add(field.startsWith("-") ? field.substring(1) : "-" + field);
+      }
+      return query;
+   }
+
+   boolean isOrdered() {
+      return !orderBy.isEmpty();
+   }
+
+   LazyQuery<T> offset(int offset) {
+      return slice(offset, null);
+   }
+
+   LazyQuery<T> limit(int limit) {
+      return slice(0, limit);
+   }
+
+   /**
+    * Restringe a consulta aos registros de start (inclusive) a end
+    * (exclusive), relativos ao resultado atual.
+    */
+   LazyQuery<T> slice(Integer start, Integer end) {
+      LazyQuery<T> query = copy();
+      int from = start == null ? 0 : Math.max(start, 0);
+      query.offset = offset + from;
+      Integer size = end == null ? null : Math.max(end - from, 0);
+      if (limit != null) {
+         int remaining = Math.max(limit - from, 0);
+         size = size == null ? remaining : Math.min(size, remaining);
+      }
+      query.limit = size;
+      return query;
+   }
+
+   LazyQuery<T> distinct() {
+      LazyQuery<T> query = copy();
+      query.distinct = true;
+      return query;
+   }
+
+   /**
+    * Carrega apenas os campos informados (e o id), substituindo a seleção
+    * anterior.
+    */
+   LazyQuery<T> only(String... fields) {
+      LazyQuery<T> query = copy();
+      query.fields = new LinkedHashSet<>();
+      for (String field : names(fields)) {
+         query.fields.add(field);
+      }
+      return query;
+   }
+
+   /**
+    * Adia os campos informados, somando-os aos já adiados. Sem campos,
+    * volta a carregar todos.
+    */
+   LazyQuery<T> defer(String... fields) {
+      LazyQuery<T> query = copy();
+      List<String> names = names(fields);
+      if (names.isEmpty()) {
+         query.fields = null;
+         return query;
+      }
+      if (query.fields == null) {
+         query.fields = new LinkedHashSet<>();
+         for (FieldMetadata field : ModelMetadata.of(entity).getFields()) {
+            if (!field.isManyToMany()) {
+               query.fields.add(field.getName());
+            }
+         }
+      }
+      query.fields.removeAll(names);
+      return query;
+   }
+
+   private List<String> names(String... fields) {
+      List<String> names = new ArrayList<>();
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      for (String field : fields == null ? new String[0] : fields) {
+         for (String name : field == null ? new String[0] : field.split(",")) {
+            name = name.trim();
+            if (name.isEmpty() || name.equals("id")) {
+               continue;
+            }
+            FieldMetadata fieldMetadata = metadata.getField(name);
+            if (fieldMetadata == null || fieldMetadata.isManyToMany()) {
+               throw new DatabaseException(String.format("O modelo %s não possui o campo %s.", entity.getSimpleName(), name));
+            }
+            names.add(name);
+         }
+      }
+      return names;
+   }
+
+   /**
+    * @return a instrução SELECT correspondente à consulta.
+    */
+   String sql() {
+      String sql = manager.selectRelated(String.format("SELECT * FROM %s%s", manager.getTableName(), whereSql()));
+      if (fields != null) {
+         sql = sql.replaceFirst(String.format("^SELECT (%s\\.)?\\*", Pattern.quote(manager.getTableName())), Matcher.quoteReplacement("SELECT " + columnsSql()));
+      }
+      if (distinct) {
+         sql = sql.replaceFirst("^SELECT ", "SELECT DISTINCT ");
+      }
+      return sql + orderBySql() + limitSql();
+   }
+
+   private String columnsSql() {
+      String tableName = manager.getTableName();
+      StringBuilder columns = new StringBuilder(String.format("%s.id", tableName));
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      for (String name : fields) {
+         columns.append(String.format(", %s.%s", tableName, metadata.getField(name).getDatabaseColumnName()));
+      }
+      return columns.toString();
+   }
+
+   private String idSql() {
+      return String.format("SELECT %sid FROM %s%s%s%s", distinct ? "DISTINCT " : "", manager.getTableName(), whereSql(), orderBySql(), limitSql());
+   }
+
+   private String whereSql() {
+      return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+   }
+
+   private String orderBySql() {
+      if (orderBy.isEmpty()) {
+         return "";
+      }
+      List<String> columns = new ArrayList<>();
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      for (String field : orderBy) {
+         boolean descending = field.startsWith("-");
+         String name = descending ? field.substring(1) : field;
+         FieldMetadata fieldMetadata = metadata.getField(name);
+         String column = name.equals("id") ? "id" : fieldMetadata == null ? TableUtil.getColumnName(name) : fieldMetadata.getDatabaseColumnName();
+         columns.add(descending ? column + " DESC" : column);
+      }
+      return " ORDER BY " + String.join(", ", columns);
+   }
+
+   private String limitSql() {
+      if (limit == null && offset <= 0) {
+         return "";
+      }
+      return manager.dialect().limit(limit, offset);
+   }
+
+   /**
+    * Executa a consulta.
+    */
+   QuerySet<T> fetch() {
+      if (limit != null && limit == 0) {
+         QuerySet<T> querySet = new QuerySet<>();
+         querySet.setEntity(entity);
+         return querySet;
+      }
+      return manager.select(sql());
+   }
+
+   /**
+    * Atualiza os registros da consulta com uma única instrução UPDATE, sem
+    * carregá-los.
+    * 
+    * @return a quantidade de registros alterados ou -1 em caso de erro.
+    */
+   int update(String... fields) {
+      if (limit != null && limit == 0) {
+         return 0;
+      }
+      return manager.updateWhere(fields, rowsSql());
+   }
+
+   /**
+    * Exclui os registros da consulta com uma única instrução DELETE, sem
+    * carregá-los. Se o modelo sobrescrever onPreDelete ou onPostDelete, os
+    * registros são carregados para que os métodos sejam chamados.
+    * 
+    * @return a quantidade de registros excluídos ou -1 em caso de erro.
+    */
+   int delete() {
+      if (limit != null && limit == 0) {
+         return 0;
+      }
+      if (ModelMetadata.of(entity).hasDeleteHooks()) {
+         QuerySet<T> models = fetch();
+         manager.delete(models);
+         return models.size();
+      }
+      return manager.deleteWhere(rowsSql());
+   }
+
+   /**
+    * @return a cláusula WHERE que seleciona na tabela os registros da
+    *         consulta, para um UPDATE ou DELETE.
+    */
+   private String rowsSql() {
+      // O UPDATE e o DELETE não aceitam ORDER BY e LIMIT em todos os
+      // bancos; o fatiamento é feito pela tabela derivada.
+      if (limit != null || offset > 0) {
+         return String.format(" WHERE id IN (SELECT id FROM (%s) jedi_slice)", idSql());
+      }
+      return whereSql();
+   }
+
+   /**
+    * Conta os registros da consulta com SELECT COUNT, sem carregá-los.
+    */
+   int count() {
+      if (limit != null && limit == 0) {
+         return 0;
+      }
+      if (!distinct && limit == null && offset <= 0) {
+         return manager.selectCount(String.format("SELECT COUNT(*) FROM %s%s", manager.getTableName(), whereSql()));
+      }
+      return manager.selectCount(String.format("SELECT COUNT(*) FROM (%s) jedi_count", idSql()));
+   }
+
+   /**
+    * Calcula as agregações sobre os registros da consulta, em uma única
+    * linha retornada pelo banco de dados.
+    */
+   Map<String, Object> aggregate(Aggregate... aggregates) {
+      List<Map<String, Object>> rows = annotate(new String[0], new String[0], aggregates);
+      return rows.isEmpty() ? new LinkedHashMap<>() : rows.get(0);
+   }
+
+   /**
+    * Calcula as agregações agrupadas pelos campos informados.
+    * 
+    * @param orderBy
+    *           ordenação dos grupos, por campos agrupados ou nomes de
+    *           agregações
+    */
+   List<Map<String, Object>> annotate(String[] groupBy, String[] orderBy, Aggregate... aggregates) {
+      List<String> labels = new ArrayList<>();
+      String sql = annotateSql(groupBy, orderBy, labels, aggregates);
+      if (labels.isEmpty()) {
+         return new ArrayList<>();
+      }
+      return manager.selectRows(sql, labels);
+   }
+
+   String annotateSql(String[] groupBy, String[] orderBy, Aggregate... aggregates) {
+      return annotateSql(groupBy, orderBy, new ArrayList<>(), aggregates);
+   }
+
+   private String annotateSql(String[] groupBy, String[] orderBy, List<String> labels, Aggregate... aggregates) {
+      List<String> groups = new ArrayList<>();
+      List<String> columns = new ArrayList<>();
+      for (String field : groupBy == null ? new String[0] : groupBy) {
+         for (String name : field == null ? new String[0] : field.split(",")) {
+            if (!name.trim().isEmpty()) {
+               groups.add(column(name.trim()));
+               labels.add(name.trim());
+            }
+         }
+      }
+      columns.addAll(groups);
+      for (Aggregate aggregate : aggregates == null ? new Aggregate[0] : aggregates) {
+         columns.add(String.format("%s AS %s", aggregate.sql(column(aggregate.getField())), aggregate.getAlias()));
+         labels.add(aggregate.getAlias());
+      }
+      // Com limite, deslocamento ou distinct agrega o resultado fatiado.
+      String where = limit != null || offset > 0 || distinct ?
+            String.format(" WHERE id IN (SELECT id FROM (%s) jedi_values)", idSql()) : whereSql();
+      String sql = String.format("SELECT %s FROM %s%s", String.join(", ", columns), manager.getTableName(), where);
+      if (!groups.isEmpty()) {
+         sql += " GROUP BY " + String.join(", ", groups);
+         List<String> order = new ArrayList<>();
+         for (String field : orderBy == null ? new String[0] : orderBy) {
+            for (String name : field == null ? new String[0] : field.split(",")) {
+               name = name.trim();
+               if (name.isEmpty()) {
+                  continue;
+               }
+               boolean descending = name.startsWith("-");
+               name = descending ? name.substring(1) : name;
+               int index = labels.indexOf(name);
+               if (index < 0) {
+                  throw new DatabaseException(String.format("A ordenação por %s não corresponde a um campo agrupado ou agregação.", name));
+               }
+               String column = index < groups.size() ? groups.get(index) : name;
+               order.add(descending ? column + " DESC" : column);
+            }
+         }
+         if (!order.isEmpty()) {
+            sql += " ORDER BY " + String.join(", ", order);
+         }
+      }
+      return sql;
+   }
+
+   /**
+    * @return a coluna do campo.
+    */
+   private String column(String name) {
+      if (name.equals("id")) {
+         return "id";
+      }
+      FieldMetadata fieldMetadata = ModelMetadata.of(entity).getField(name);
+      if (fieldMetadata == null || fieldMetadata.isManyToMany()) {
+         throw new DatabaseException(String.format("O modelo %s não possui o campo %s.", entity.getSimpleName(), name));
+      }
+      return fieldMetadata.getDatabaseColumnName();
+   }
+
+   @Override
+   public String toString() {
+      return sql();
+   }
+
+}
@@ -2,7 +2,6 @@ package jedi.db.models;
 
 import static jedi.db.engine.JediEngine.AUTO_CLOSE;
 import static jedi.db.engine.JediEngine.AUTO_COMMIT;
-import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT;
 import static jedi.db.models.QueryPage.pageSize;
 import static jedi.db.models.QueryPage.pageStart;
 
@@ -12,33 +11,39 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import jedi.db.connection.DataSource;
+import jedi.db.connection.UnitOfWork;
 import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
 import jedi.db.exceptions.DoesNotExistException;
 import jedi.db.exceptions.MultipleObjectsReturnedException;
 import jedi.db.exceptions.ObjectDoesNotExistException;
+import jedi.db.sql.Dialect;
+import jedi.db.sql.PreparedSql;
 import jedi.db.util.FieldLookup;
 import jedi.db.util.TableUtil;
 import jedi.types.DateTime;
@@ -59,6 +64,13 @@ public class Manager implements IManager {
    private static final QuerySet<? extends Model> EMPTY_QUERYSET = new QuerySet<>();
    private static final List<?> EMPTY_LIST = new ArrayList<>();
    private static final List<List<Map<String, Object>>> EMPTY_RESULT_SET = new ArrayList<>();
+   private static final int PREFETCH_CHUNK_SIZE = 1000;
+   private static final Pattern LIKE_DATETIME_PATTERN = Pattern.compile(Regex.LIKE_DATETIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+   private static final Pattern LIKE_DATE_PATTERN = Pattern.compile(Regex.LIKE_DATE.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+   private static final Pattern LIKE_TIME_PATTERN = Pattern.compile(Regex.LIKE_TIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+   private static final Pattern LIKE_SQL_DATETIME_PATTERN = Pattern.compile(Regex.LIKE_SQL_DATETIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+   private static final Pattern LIKE_SQL_DATE_PATTERN = Pattern.compile(Regex.LIKE_SQL_DATE.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+   private static final Pattern LIKE_SQL_TIME_PATTERN = Pattern.compile(Regex.LIKE_SQL_TIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
    
    private boolean autoCloseConnection = JediEngine.AUTO_CLOSE.isValue();
    
@@ -66,8 +78,19 @@ public class Manager implements IManager {
    private String entityName;
    private String exceptionMessage;
    private Connection connection;
+   // Banco de dados escolhido por using (null para o roteamento automático).
+   private String database;
+   // Banco de origem da conexão atual (null para conexões recebidas).
+   private String connectionSource;
+   // Dialeto do banco, resolvido no primeiro uso.
+   private Dialect dialect;
    private List<List<Map<String, Object>>> resultSet = new ArrayList<>();
    private StringBuilder sql = new StringBuilder();
+   private RowMapper<? extends Model> rowMapper;
+   private List<String> selectRelated = new ArrayList<>();
+   private List<String> prefetchRelated = new ArrayList<>();
+   // Uso do cache de resultados (null segue JediEngine.DATABASE_QUERY_CACHE).
+   private Boolean queryCache;
    
    public Class<? extends Model> entity;
    
@@ -91,16 +114,21 @@ public class Manager implements IManager {
       this.autoCloseConnection = autoCloseConnection;
       if (entity != null && Model.class.isAssignableFrom(entity)) {
          this.entity = entity;
-         tableName = TableUtil.getTableName(this.entity);
-         entityName = this.entity.getSimpleName().toLowerCase();
+         ModelMetadata metadata = ModelMetadata.of(entity);
+         tableName = metadata.getTableName();
+         entityName = metadata.getEntityName();
       }
-      if (connected()) {
+      if (connection != null) {
          this.connection = connection;
       } else {
          if (!JediEngine.JEDI_PROPERTIES_LOADED) {
             JediEngine.loadJediProperties();
          }
-         this.connection = DataSource.getConnection();
+         // Na unidade de trabalho a conexão é obtida em connect.
+         if (!UnitOfWork.isActive()) {
+            this.connection = DataSource.getConnection();
+         }
+         this.connectionSource = DataSource.DEFAULT;
       }
    }
    
@@ -108,7 +136,9 @@ public class Manager implements IManager {
       this.autoCloseConnection = autoCloseConnection;
       if (entity != null && Model.class.isAssignableFrom(entity)) {
          this.entity = entity;
-         tableName = TableUtil.getTableName(this.entity);
+         ModelMetadata metadata = ModelMetadata.of(entity);
+         tableName = metadata.getTableName();
+         entityName = metadata.getEntityName();
       }
    }
    
@@ -118,6 +148,7 @@ public class Manager implements IManager {
    
    public void setConnection(Connection connection) {
       this.connection = connection;
+      this.connectionSource = null;
    }
    
    public Connection connection() {
@@ -144,203 +175,278 @@ public class Manager implements IManager {
       this.autoCloseConnection = autoCloseConnection;
    }
    
+   public RowMapper<? extends Model> getRowMapper() {
+      return rowMapper;
+   }
+   
+   public void setRowMapper(RowMapper<? extends Model> rowMapper) {
+      this.rowMapper = rowMapper;
+   }
+   
+   public Manager rowMapper(RowMapper<? extends Model> rowMapper) {
+      this.rowMapper = rowMapper;
+      return this;
+   }
+   
+   /**
+    * Retorna um QuerySet com todos os registros da entidade. A consulta só
+    * é executada quando o QuerySet é percorrido, contado ou fatiado.
+    */
+   public <T extends Model> QuerySet<T> all() {
+      return new QuerySet<T>(new LazyQuery<T>(copy(), (Class<T>) this.entity));
+   }
+   
    /**
-    * Busca por todos os registros de uma entidade no banco de dados.
+    * Retorna um Manager que traz as associações OneToOne e ForeignKey
+    * informadas na mesma consulta, através de LEFT JOIN, em vez de uma
+    * consulta por registro.
+    * <p>
+    * Usado por all, filter, exclude, orderBy e page.
     * 
-    * @param modelClass
-    * @return
+    * @param fields
+    *           nomes dos campos de associação
+    * @return um novo Manager
     */
-   private <T extends Model> QuerySet<T> all(Class<T> modelClass) {
-      QuerySet<T> querySet = new QuerySet<T>();
-      querySet.setEntity((Class<T>) this.entity);
+   @Override
+   public Manager selectRelated(String... fields) {
+      Manager manager = copy();
+      if (fields != null) {
+         for (String field : fields) {
+            FieldMetadata fieldMetadata = ModelMetadata.of(entity).getField(field == null ? null : field.trim());
+            if (fieldMetadata == null || !(fieldMetadata.isOneToOne() || fieldMetadata.isForeignKey())) {
+               throw new IllegalArgumentException(
+                     String.format("%s não é um campo OneToOneField ou ForeignKeyField de %s.", field, entity.getSimpleName()));
+            }
+            if (!manager.selectRelated.contains(fieldMetadata.getName())) {
+               manager.selectRelated.add(fieldMetadata.getName());
+            }
+         }
+      }
+      return manager;
+   }
+   
+   /**
+    * Retorna um Manager que carrega as associações informadas em lote: após
+    * a consulta principal é feita uma única consulta com IN (...) por
+    * associação (em blocos de {@value #PREFETCH_CHUNK_SIZE} ids) e os
+    * modelos são associados em memória.
+    * <p>
+    * Aceita campos ManyToMany, OneToOne e ForeignKey. Usado por all, filter,
+    * exclude, orderBy e page.
+    * 
+    * @param fields
+    *           nomes dos campos de associação
+    * @return um novo Manager
+    */
+   @Override
+   public Manager prefetchRelated(String... fields) {
+      Manager manager = copy();
+      if (fields != null) {
+         for (String field : fields) {
+            FieldMetadata fieldMetadata = ModelMetadata.of(entity).getField(field == null ? null : field.trim());
+            if (fieldMetadata == null || !fieldMetadata.isAssociation()) {
+               throw new IllegalArgumentException(
+                     String.format("%s não é um campo de associação de %s.", field, entity.getSimpleName()));
+            }
+            if (!manager.prefetchRelated.contains(fieldMetadata.getName())) {
+               manager.prefetchRelated.add(fieldMetadata.getName());
+            }
+         }
+      }
+      return manager;
+   }
+   
+   private Manager copy() {
+      Manager manager = new Manager(entity, autoCloseConnection);
+      manager.rowMapper = rowMapper;
+      manager.selectRelated.addAll(selectRelated);
+      manager.prefetchRelated.addAll(prefetchRelated);
+      manager.database = database;
+      manager.queryCache = queryCache;
+      return manager;
+   }
+   
+   /**
+    * Acrescenta à consulta as junções pedidas em selectRelated. As colunas
+    * do modelo associado são renomeadas para campo__coluna dentro de uma
+    * tabela derivada, evitando ambiguidade com as colunas do WHERE e do
+    * ORDER BY.
+    */
+   String selectRelated(String sql) {
+      if (selectRelated.isEmpty() || sql == null) {
+         return sql;
+      }
+      Matcher matcher = Pattern
+            .compile(String.format("^\\s*SELECT\\s+\\*\\s+FROM\\s+%s(\\s+AS\\s+(\\w+))?\\b", Pattern.quote(tableName)), Pattern.CASE_INSENSITIVE)
+            .matcher(sql);
+      if (!matcher.find()) {
+         return sql;
+      }
+      String alias = matcher.group(2) == null ? tableName : matcher.group(2);
+      StringBuilder columns = new StringBuilder(String.format("%s.*", alias));
+      StringBuilder joins = new StringBuilder();
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      for (String name : selectRelated) {
+         FieldMetadata field = metadata.getField(name);
+         ModelMetadata related = ModelMetadata.of(field.getAssociatedModelClass());
+         String relatedAlias = String.format("jedi_%s", field.getColumnName());
+         String prefix = String.format("%s__", field.getColumnName());
+         StringBuilder relatedColumns = new StringBuilder(String.format("id AS %sid", prefix));
+         for (FieldMetadata relatedField : related.getFields()) {
+            if (!relatedField.isManyToMany()) {
+               relatedColumns.append(
+                     String.format(", %s AS %s%s", relatedField.getDatabaseColumnName(), prefix, relatedField.getDatabaseColumnName()));
+            }
+         }
+         columns.append(String.format(", %s.*", relatedAlias));
+         joins.append(
+               String.format(
+                     " LEFT JOIN (SELECT %s FROM %s) %s ON %s.%sid = %s.%s",
+                     relatedColumns,
+                     related.getTableName(),
+                     relatedAlias,
+                     relatedAlias,
+                     prefix,
+                     alias,
+                     field.getDatabaseColumnName()));
+      }
+      return String.format(
+            "SELECT %s FROM %s%s%s%s",
+            columns,
+            tableName,
+            matcher.group(1) == null ? "" : matcher.group(1),
+            joins,
+            sql.substring(matcher.end()));
+   }
+   
+   /**
+    * Carrega em lote as associações pedidas em prefetchRelated e agrupa as
+    * associações LAZY dos modelos lidos.
+    */
+   private <T extends Model> void prefetch(QuerySet<T> querySet) {
+      LazyLoader.link(entity, querySet);
+      if (prefetchRelated.isEmpty() || querySet == null || querySet.isEmpty()) {
+         return;
+      }
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      for (String name : prefetchRelated) {
+         FieldMetadata field = metadata.getField(name);
+         if (field.isManyToMany()) {
+            prefetchManyToMany(querySet, metadata, field);
+         } else {
+            prefetchForeignKey(querySet, field);
+         }
+      }
+   }
+   
+   private <T extends Model> void prefetchForeignKey(QuerySet<T> querySet, FieldMetadata field) {
+      Class associatedModelClass = field.getAssociatedModelClass();
+      Set<Integer> distinctIds = new LinkedHashSet<>();
+      for (T model : querySet) {
+         Model reference = (Model) field.get(model);
+         if (reference != null) {
+            distinctIds.add(reference.getId());
+         }
+      }
+      List<Integer> ids = new ArrayList<>(distinctIds);
+      Map<Integer, Model> associatedModels = new HashMap<>();
+      Manager manager = new Manager(associatedModelClass);
+      for (int i = 0; i < ids.size(); i += PREFETCH_CHUNK_SIZE) {
+         List<Integer> chunk = ids.subList(i, Math.min(i + PREFETCH_CHUNK_SIZE, ids.size()));
+         String sql = String.format("SELECT * FROM %s WHERE id IN (%s)", TableUtil.getTableName(associatedModelClass), join(chunk));
+         for (Object associatedModel : manager.raw(sql, associatedModelClass)) {
+            associatedModels.put(((Model) associatedModel).getId(), (Model) associatedModel);
+         }
+      }
+      for (T model : querySet) {
+         Model reference = (Model) field.get(model);
+         if (reference != null) {
+            field.set(model, associatedModels.get(reference.getId()));
+         }
+      }
+   }
+   
+   private <T extends Model> void prefetchManyToMany(QuerySet<T> querySet, ModelMetadata metadata, FieldMetadata field) {
+      if (field.getAssociatedModelClass() == null) {
+         return;
+      }
+      List<Integer> ids = new ArrayList<>();
+      for (T model : querySet) {
+         ids.add(model.getId());
+      }
+      Map<Integer, List<Model>> associatedModels = manyToMany(field, ids);
+      for (T model : querySet) {
+         QuerySet associatedQuerySet = new QuerySet();
+         associatedQuerySet.setEntity(field.getAssociatedModelClass());
+         associatedQuerySet.addAll(associatedModels.get(model.getId()));
+         field.set(model, associatedQuerySet);
+      }
+   }
+   
+   /**
+    * Carrega, em blocos de {@value #PREFETCH_CHUNK_SIZE} ids, os modelos
+    * associados pelo campo ManyToMany aos registros da entidade.
+    * 
+    * @return os modelos associados pelo id de cada registro.
+    */
+   Map<Integer, List<Model>> manyToMany(FieldMetadata field, Collection<Integer> ids) {
+      ModelMetadata metadata = ModelMetadata.of(entity);
+      Class associatedModelClass = field.getAssociatedModelClass();
+      String references = TableUtil.getTableName(field.getReferences());
+      String intermediateTableName = field.getThroughModelClass() == null
+            ? String.format("%s_%s", metadata.getTableName(), references)
+            : TableUtil.getTableName(field.getThroughModelClass());
+      Map<Integer, List<Model>> associatedModels = new HashMap<>();
+      for (Integer id : ids) {
+         associatedModels.put(id, new ArrayList<>());
+      }
+      List<Integer> idList = new ArrayList<>(associatedModels.keySet());
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       try {
-         String sql = "SELECT * FROM";
-         tableName = TableUtil.getTableName(modelClass);
-         sql = String.format("%s %s", sql, tableName);
-         if (JediEngine.DEBUG) {
-            System.out.println(sql + ";\n");
-         }
-         connect();
-         statement = connection.prepareStatement(sql);
-         resultSet = statement.executeQuery();
-         if (!resultSet.next()) {
-            return querySet;
-         }
-         resultSet.beforeFirst();
-         while (resultSet.next()) {
-            Object obj = entity.newInstance();
-            Field id = jedi.db.models.Model.class.getDeclaredField("id");
-            id.setAccessible(true);
-            // Oracle returns BigDecimal object.
-            if (connection.toString().startsWith("oracle")) {
-               id.set(
-                     obj,
-                     ((java.math.BigDecimal) resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1))).intValue());
-            } else {
-               // MySQL and PostgreSQL returns a Integer object.
-               id.set(obj, resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)));
+         connect(true);
+         for (int i = 0; i < idList.size(); i += PREFETCH_CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(i, Math.min(i + PREFETCH_CHUNK_SIZE, idList.size()));
+            String sql = String.format(
+                  "SELECT j.%s_id AS jedi_prefetch_id, a.* FROM %s a JOIN %s j ON j.%s_id = a.id WHERE j.%s_id IN (%s)",
+                  metadata.getColumnName(),
+                  references,
+                  intermediateTableName,
+                  TableUtil.getColumnName(field.getAssociatedModelName()),
+                  metadata.getColumnName(),
+                  join(chunk));
+            if (JediEngine.DEBUG) {
+               System.out.println(sql + ";\n");
             }
-            List<Field> _fields = JediEngine.getAllFields(this.entity);
-            for (Field field : _fields) {
-               field.setAccessible(true);
-               if (!JediEngine.isJediField(field)) {
-                  continue;
-               }
-               if (field.toString().substring(field.toString().lastIndexOf('.') + 1).equals("serialVersionUID")) {
-                  continue;
-               }
-               if (field.getName().equalsIgnoreCase("objects")) {
-                  continue;
-               }
-               oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-               foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-               manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-               FetchType fetchType = JediEngine.FETCH_TYPE;
-               Manager manager = null;
-               if (manyToManyFieldAnnotation != null) {
-                  fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     String packageName = this.entity.getPackage().getName();
-                     String model = manyToManyFieldAnnotation.model().getSimpleName();
-                     model = Model.class.getSimpleName().equals(model) ? "" : model;
-                     Class superClazz = null;
-                     Class clazz = null;
-                     if (model.isEmpty()) {
-                        ParameterizedType genericType = null;
-                        if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                           genericType = (ParameterizedType) field.getGenericType();
-                           superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                           if (superClazz == Model.class) {
-                              clazz = (Class) genericType.getActualTypeArguments()[0];
-                              model = clazz.getSimpleName();
-                           }
-                        }
-                     }
-                     String references = manyToManyFieldAnnotation.references();
-                     if (references == null || references.trim().isEmpty()) {
-                        if (clazz != null) {
-                           references = TableUtil.getTableName(clazz);
-                        } else {
-                           references = TableUtil.getTableName(model);
-                        }
-                     }
-                     String intermediateModelclassName = String.format("%s.%s", packageName, model);
-                     Class associatedModelClass = Class.forName(intermediateModelclassName);
-                     manager = new Manager(associatedModelClass);
-                     QuerySet querySetAssociatedModels = null;
-                     String intermediateModelName = manyToManyFieldAnnotation.through().getSimpleName();
-                     intermediateModelName = Model.class.getSimpleName().equals(intermediateModelName) ? "" : intermediateModelName;
-                     if (intermediateModelName != null && !intermediateModelName.trim().isEmpty()) {
-                        intermediateModelclassName = String.format("%s.%s", packageName, intermediateModelName);
-                        Class intermediateModelClass = Class.forName(intermediateModelclassName);
-                        String intermediateTableName = ((Model) intermediateModelClass.newInstance()).getTableName();
-                        querySetAssociatedModels = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    intermediateTableName,
-                                    TableUtil.getColumnName(obj.getClass()),
-                                    ((Model) obj).getId()),
-                              associatedModelClass);
-                     } else {
-                        querySetAssociatedModels = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    tableName,
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(obj.getClass()),
-                                    ((Model) obj).getId()),
-                              associatedModelClass);
-                     }
-                     field.set(obj, querySetAssociatedModels);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                  if (oneToOneFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                  } else {
-                     fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                  }
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     // Recovers the attribute class.
-                     Class associatedModelClass = Class.forName(field.getType().getName());
-                     manager = new Manager(associatedModelClass);
-                     String s = String.format("%s_id", TableUtil.getColumnName(field));
-                     Object o = resultSet.getObject(s);
-                     Model associatedModel = manager.get("id", o);
-                     // References a model associated by a foreign key.
-                     field.set(obj, associatedModel);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else {
-                  // Sets the fields that aren't Model instances.
-                  if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                        connection.toString().startsWith("oracle")) {
-                     if (resultSet.getObject(TableUtil.getColumnName(field)) == null) {
-                        field.set(obj, 0);
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        BigDecimal bigDecimal = (BigDecimal) resultSet.getObject(columnName);
-                        field.set(obj, bigDecimal.intValue());
-                     }
-                  } else {
-                     Object columnValue = resultSet.getObject(TableUtil.getColumnName(field));
-                     columnValue = convertZeroDateToNull(columnValue);
-                     if (columnValue instanceof java.sql.Date) {
-                        java.sql.Date date = (java.sql.Date) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(date.getTime());
-                        calendar.set(Calendar.HOUR_OF_DAY, 0);
-                        calendar.set(Calendar.MINUTE, 0);
-                        calendar.set(Calendar.SECOND, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof java.sql.Time) {
-                        java.sql.Time time = (java.sql.Time) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(time.getTime());
-                        calendar.set(Calendar.YEAR, 0);
-                        calendar.set(Calendar.MONTH, 0);
-                        calendar.set(Calendar.DAY_OF_MONTH, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof Timestamp) {
-                        Timestamp timestamp = (Timestamp) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(timestamp.getTime());
-                        columnValue = calendar.getTime();
-                     }
-                     field.set(obj, columnValue);
-                  }
+            statement = activeConnection().prepareStatement(sql);
+            resultSet = statement.executeQuery();
+            RowMapper<? extends Model> mapper = ModelRowMapper.of(associatedModelClass, resultSet.getMetaData());
+            while (resultSet.next()) {
+               List<Model> models = associatedModels.get(resultSet.getInt(1));
+               if (models != null) {
+                  models.add(mapper.map(resultSet));
                }
-               manager = null;
-            }
-            T model = (T) obj;
-            if (model != null) {
-               model.setPersisted(true);
             }
-            querySet.add(model);
+            close(resultSet, statement);
          }
-      } catch (Exception e) {
-         e.printStackTrace();
+      } catch (SQLException e) {
+         // Uma falha não deve parecer uma associação vazia.
+         throw new DatabaseException(e);
       } finally {
-         close(resultSet, statement, connection);
+         close(resultSet, statement, activeConnection());
       }
-      return querySet;
+      return associatedModels;
    }
    
-   public <T extends Model> QuerySet<T> all() {
-      return (QuerySet<T>) this.all(this.entity);
+   private static String join(List<Integer> ids) {
+      StringBuilder sb = new StringBuilder();
+      for (Integer id : ids) {
+         if (sb.length() > 0) {
+            sb.append(", ");
+         }
+         sb.append(id);
+      }
+      return sb.toString();
    }
    
    /**
@@ -356,9 +462,6 @@ public class Manager implements IManager {
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       if (fields != null) {
          try {
             String sql = String.format("SELECT * FROM %s WHERE", tableName);
@@ -539,163 +642,16 @@ public class Manager implements IManager {
             if (JediEngine.DEBUG) {
                System.out.println(sql + ";\n");
             }
-            connect();
-            statement = connection.prepareStatement(sql);
+            connect(true);
+            statement = PreparedSql.of(sql).prepare(activeConnection());
             resultSet = statement.executeQuery();
             if (!resultSet.next()) {
                return querySet;
             }
             resultSet.beforeFirst();
+            RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity);
             while (resultSet.next()) {
-               Object obj = entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(obj, ((java.math.BigDecimal) resultSet.getObject(id.getName())).intValue());
-                  } else {
-                     id.set(obj, resultSet.getObject(id.getName()));
-                  }
-               }
-               // Iterates through the fields of the model.
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field field : _fields) {
-                  // Sets private or protected fields as accessible.
-                  field.setAccessible(true);
-                  // Discards non annotated fields
-                  if (!JediEngine.isJediField(field)) {
-                     continue;
-                  }
-                  // Discards the serialVersionUID field.
-                  if (field.getName().equals("serialVersionUID"))
-                     continue;
-                  // Discards the objects field.
-                  if (field.getName().equalsIgnoreCase("objects"))
-                     continue;
-                  // Checks if the field are annotated as OneToOneField,
-                  // ForeignKeyField or ManyToManyField.
-                  oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class superClazz = null;
-                        Class clazz = null;
-                        String packageName = this.entity.getPackage().getName();
-                        String model = manyToManyFieldAnnotation.model().getSimpleName();
-                        model = Model.class.getSimpleName().equals(model) ? "" : model;
-                        if (model.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 model = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        String references = manyToManyFieldAnnotation.references();
-                        if (references == null || references.trim().isEmpty()) {
-                           if (clazz != null) {
-                              references = TableUtil.getTableName(clazz);
-                           } else {
-                              references = TableUtil.getTableName(model);
-                           }
-                        }
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                        manager = new Manager(associatedModelClass);
-                        List<List<Map<String, Object>>> recordSet = null;
-                        // Performs a SQL query.
-                        recordSet = manager.raw(
-                              String.format(
-                                    "SELECT %s_id FROM %s_%s WHERE %s_id = %d",
-                                    TableUtil.getColumnName(model),
-                                    tableName,
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(this.entity),
-                                    ((Model) obj).id()));
-                        String args = recordSet.toString();
-                        args = args.replace("[", "");
-                        args = args.replace("{", "");
-                        args = args.replace("]", "");
-                        args = args.replace("}", "");
-                        args = args.replace("=", "");
-                        args = args.replace(", ", ",");
-                        args = args.replace(String.format("%s_id", TableUtil.getColumnName(model)), "");
-                        args = String.format("id__in=[%s]", args);
-                        QuerySet querySetAssociatedModels = manager._filter(args);
-                        field.set(obj, querySetAssociatedModels);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                     if (oneToOneFieldAnnotation != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     }
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        // If it's recovers the field's class.
-                        Class associatedModelClass = Class.forName(field.getType().getName());
-                        // Instanciates a Model Manager.
-                        manager = new Manager(associatedModelClass);
-                        String columnName = TableUtil.getColumnName(field);
-                        Object id = resultSet.getObject(String.format("%s_id", columnName));
-                        Model associatedModel = manager.get("id", id);
-                        // Calls the get method recursivelly.
-                        // References the model associated by foreign key
-                        // annotation.
-                        field.set(obj, associatedModel);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else {
-                     // Sets fields the aren't Model's instances.
-                     if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        if (resultSet.getObject(TableUtil.getColumnName(field.getName())) == null) {
-                           field.set(obj, 0);
-                        } else {
-                           String columnName = TableUtil.getColumnName(field.getName());
-                           BigDecimal columnValue = (BigDecimal) resultSet.getObject(columnName);
-                           field.set(obj, columnValue.intValue());
-                        }
-                     } else {
-                        String columnName = TableUtil.getColumnName(field.getName());
-                        Object columnValue = resultSet.getObject(columnName);
-                        if (columnValue instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           columnValue = calendar.getTime();
-                        }
-                        field.set(obj, columnValue);
-                     }
-                  }
-                  manager = null;
-               }
+               Object obj = mapper.map(resultSet);
                T model = (T) obj;
                if (model != null) {
                   model.setPersisted(true);
@@ -708,7 +664,7 @@ public class Manager implements IManager {
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(resultSet, statement, connection);
+            close(resultSet, statement, activeConnection());
          }
       }
       return querySet;
@@ -729,6 +685,7 @@ public class Manager implements IManager {
    private <T extends Model> T create(Class<T> modelClass, String... list) {
       Object obj = null;
       PreparedStatement statement = null;
+      ResultSet generatedKeys = null;
       // TODO: verificar como funciona o create com OnetoOneField,
       // ForeignKeyField e ManyToManyField.
       OneToOneField oneToOneFieldAnnotation = null;
@@ -807,12 +764,14 @@ public class Manager implements IManager {
                System.out.println(sql + ";\n");
             }
             connect();
-            statement = connection.prepareStatement(sql);
-            statement.execute();
+            statement = PreparedSql.of(sql).prepareReturningId(activeConnection());
+            statement.executeUpdate();
+            generatedKeys = statement.getGeneratedKeys();
+            int id = generatedKeys != null && generatedKeys.next() ? generatedKeys.getInt(1) : 0;
             commit();
             Field f = jedi.db.models.Model.class.getDeclaredField("id");
             f.setAccessible(true);
-            f.set(obj, this.lastId());
+            f.set(obj, id == 0 ? this.lastId() : id);
             T model = (T) obj;
             if (model != null) {
                model.setPersisted(true);
@@ -821,7 +780,8 @@ public class Manager implements IManager {
             e.printStackTrace();
             rollback();
          } finally {
-            close(statement, connection);
+            close(generatedKeys, statement, activeConnection());
+            QueryCache.invalidate(tableName);
          }
       }
       return (T) obj;
@@ -839,22 +799,9 @@ public class Manager implements IManager {
       PreparedStatement statement = null;
       ResultSet resultSet = null;
       try {
-         String sql = "";
-         String databaseEngine = JediEngine.DATABASE_ENGINE;
-         if (databaseEngine != null) {
-            if (databaseEngine.trim().equalsIgnoreCase("mysql") || databaseEngine.trim().equalsIgnoreCase("postgresql") ||
-                  databaseEngine.trim().equalsIgnoreCase("h2")) {
-               sql = String.format("SELECT id FROM %s ORDER BY id DESC LIMIT 1", tableName);
-            } else if (databaseEngine.trim().equalsIgnoreCase("oracle")) {
-               sql = String.format("SELECT MAX(id) AS id FROM %s", tableName);
-            } else {
-               
-            }
-         } else {
-            return id;
-         }
+         String sql = dialect().lastInsertedId(tableName);
          connect();
-         statement = connection.prepareStatement(sql);
+         statement = activeConnection().prepareStatement(sql);
          resultSet = statement.executeQuery();
          while (resultSet.next()) {
             id = resultSet.getInt("id");
@@ -862,7 +809,7 @@ public class Manager implements IManager {
       } catch (Exception e) {
          e.printStackTrace();
       } finally {
-         close(resultSet, statement, connection);
+         close(resultSet, statement, activeConnection());
       }
       return id;
    }
@@ -1064,8 +1011,8 @@ public class Manager implements IManager {
          if (JediEngine.DEBUG) {
             System.out.println(sql + ";\n");
          }
-         connect();
-         statement = connection.prepareStatement(sql);
+         connect(true);
+         statement = PreparedSql.of(sql).prepare(activeConnection());
          resultSet = statement.executeQuery();
          while (resultSet.next()) {
             rows = resultSet.getInt("rows");
@@ -1073,7 +1020,7 @@ public class Manager implements IManager {
       } catch (Exception e) {
          e.printStackTrace();
       } finally {
-         close(resultSet, statement, connection);
+         close(resultSet, statement, activeConnection());
       }
       return rows;
    }
@@ -1096,9 +1043,6 @@ public class Manager implements IManager {
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       if (fields != null) {
          try {
             String sql = String.format("SELECT * FROM %s WHERE", tableName);
@@ -1280,143 +1224,16 @@ public class Manager implements IManager {
             if (JediEngine.DEBUG) {
                System.out.println(sql + ";\n");
             }
-            connect();
-            statement = connection.prepareStatement(sql);
+            connect(true);
+            statement = PreparedSql.of(sql).prepare(activeConnection());
             resultSet = statement.executeQuery();
             if (!resultSet.next()) {
                return querySet;
             }
             resultSet.beforeFirst();
+            RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity);
             while (resultSet.next()) {
-               Object obj = entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(
-                           obj,
-                           ((java.math.BigDecimal) resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)))
-                                 .intValue());
-                  } else {
-                     id.set(obj, resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)));
-                  }
-               }
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field field : _fields) {
-                  field.setAccessible(true);
-                  if (!JediEngine.isJediField(field)) {
-                     continue;
-                  }
-                  if (field.getName().equals("serialVersionUID")) {
-                     continue;
-                  }
-                  if (field.getName().equals("objects")) {
-                     continue;
-                  }
-                  oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class superClazz = null;
-                        Class clazz = null;
-                        String model = manyToManyFieldAnnotation.model().getSimpleName();
-                        model = Model.class.getSimpleName().equals(model) ? "" : model;
-                        if (model.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 model = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        String references = manyToManyFieldAnnotation.references();
-                        if (references == null || references.trim().isEmpty()) {
-                           if (clazz != null) {
-                              references = TableUtil.getTableName(clazz);
-                           } else {
-                              references = TableUtil.getTableName(model);
-                           }
-                        }
-                        String packageName = this.entity.getPackage().getName();
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet querySetAssociatedModels = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    references,
-                                    model,
-                                    tableName,
-                                    references,
-                                    TableUtil.getColumnName(obj.getClass()),
-                                    ((Model) obj).getId()),
-                              associatedModelClass);
-                        field.set(obj, querySetAssociatedModels);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                     if (oneToOneFieldAnnotation != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     }
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(field.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        Model associatedModel = manager
-                              .get(String.format("id"), resultSet.getObject(String.format("%s_id", TableUtil.getColumnName(field))));
-                        field.set(obj, associatedModel);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else {
-                     if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        if (resultSet.getObject(TableUtil.getColumnName(field)) == null) {
-                           field.set(obj, 0);
-                        } else {
-                           String columnName = TableUtil.getColumnName(field);
-                           BigDecimal bigDecimal = (BigDecimal) resultSet.getObject(columnName);
-                           field.set(obj, bigDecimal.intValue());
-                        }
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        Object columnValue = resultSet.getObject(columnName);
-                        if (columnValue instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           columnValue = calendar.getTime();
-                        }
-                        field.set(obj, columnValue);
-                     }
-                  }
-               }
+               Object obj = mapper.map(resultSet);
                T model = (T) obj;
                if (model != null) {
                   model.setPersisted(true);
@@ -1426,7 +1243,7 @@ public class Manager implements IManager {
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(resultSet, statement, connection);
+            close(resultSet, statement, activeConnection());
          }
       }
       return querySet;
@@ -1459,7 +1276,7 @@ public class Manager implements IManager {
                String _sql = sql.toLowerCase();
                // Returns a navigable ResultSet.
                connect();
-               statement = connection.prepareStatement(sql, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
+               statement = activeConnection().prepareStatement(sql, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
                resultSet = statement.executeQuery();
                ResultSetMetaData tableMetadata = null;
                if (resultSet != null) {
@@ -1488,15 +1305,16 @@ public class Manager implements IManager {
             } else {
                // DML - Data Manipulation Language (INSERT, UPDATE or DELETE).
                connect();
-               statement = connection.prepareStatement(sql);
+               statement = activeConnection().prepareStatement(sql);
                statement.executeUpdate();
                commit();
+               invalidate(sql);
             }
          } catch (Exception e) {
             e.printStackTrace();
             rollback();
          } finally {
-            close(resultSet, statement, connection);
+            close(resultSet, statement, activeConnection());
          }
       }
       return recordSet;
@@ -1509,168 +1327,20 @@ public class Manager implements IManager {
       QuerySet<T> qs = new QuerySet<T>();
       PreparedStatement stmt = null;
       ResultSet rs = null;
-      OneToOneField oofa = null;
-      ForeignKeyField fkfa = null;
-      ManyToManyField mmfa = null;
       sql = sql == null ? "" : sql.trim();
       if (!sql.isEmpty()) {
          try {
             if (JediEngine.DEBUG) {
                System.out.println(sql + ";\n");
             }
-            connect();
-            stmt = connection.prepareStatement(sql);
+            connect(true);
+            stmt = activeConnection().prepareStatement(sql);
             rs = stmt.executeQuery();
             qs = new QuerySet();
             qs.setEntity(clazz);
+            RowMapper<T> mapper = getRowMapper(rs, clazz);
             while (rs.next()) {
-               T o = clazz.newInstance();
-               if (rs.getObject("id") != null) {
-                  Field id = clazz.getSuperclass().getDeclaredField("id");
-                  id.setAccessible(true);
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(o, ((java.math.BigDecimal) rs.getObject(id.getName())).intValue());
-                  } else {
-                     id.set(o, rs.getObject(id.getName()));
-                  }
-               }
-               if (o != null) {
-                  o.setPersisted(true);
-               }
-               for (Field field : clazz.getDeclaredFields()) {
-                  field.setAccessible(true);
-                  if (!JediEngine.isJediField(field)) {
-                     continue;
-                  }
-                  if (field.getName().equals("serialVersionUID")) {
-                     continue;
-                  }
-                  if (field.getName().equalsIgnoreCase("objects")) {
-                     continue;
-                  }
-                  oofa = field.getAnnotation(OneToOneField.class);
-                  fkfa = field.getAnnotation(ForeignKeyField.class);
-                  mmfa = field.getAnnotation(ManyToManyField.class);
-                  FetchType ft = JediEngine.FETCH_TYPE;
-                  String tableName = TableUtil.getTableName(clazz);
-                  String model = null;
-                  String references = null;
-                  Manager manager = null;
-                  if (oofa != null || fkfa != null) {
-                     if (oofa != null) {
-                        ft = ft.equals(FetchType.NONE) ? oofa.fetch_type() : ft;
-                     } else {
-                        ft = ft.equals(FetchType.NONE) ? fkfa.fetch_type() : ft;
-                     }
-                     if (ft.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(field.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        Model associatedModel = manager
-                              .get(String.format("id"), rs.getObject(String.format("%s_id", TableUtil.getColumnName(field))));
-                        field.set(o, associatedModel);
-                     } else {
-                        field.set(o, null);
-                     }
-                  } else if (mmfa != null) {
-                     ft = ft.equals(FetchType.NONE) ? mmfa.fetch_type() : ft;
-                     if (ft.equals(FetchType.EAGER)) {
-                        Class sc = null; // super class
-                        Class c = null; // class
-                        model = mmfa.model().getSimpleName();
-                        model = Model.class.getSimpleName().equals(model) ? "" : model;
-                        if (model.isEmpty()) {
-                           ParameterizedType pt = null; // generic type
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              pt = (ParameterizedType) field.getGenericType();
-                              sc = ((Class) (pt.getActualTypeArguments()[0])).getSuperclass();
-                              if (sc == Model.class) {
-                                 c = (Class) pt.getActualTypeArguments()[0];
-                                 model = c.getSimpleName();
-                              }
-                           }
-                        }
-                        references = mmfa.references();
-                        if (references == null || references.trim().isEmpty()) {
-                           if (c != null) {
-                              references = TableUtil.getTableName(c);
-                           } else {
-                              references = TableUtil.getTableName(model);
-                           }
-                        }
-                        // Associated model class.
-                        Class amc = Class.forName(String.format("%s.%s", this.entity.getPackage().getName(), model));
-                        manager = new Manager(amc);
-                        // Associated model record set.
-                        List<List<Map<String, Object>>> amrs = null;
-                        amrs = manager.raw(
-                              String.format(
-                                    "SELECT %s_id FROM %s_%s WHERE %s_id = %d",
-                                    TableUtil.getColumnName(model),
-                                    tableName,
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(clazz),
-                                    o.id()));
-                        if (amrs != null) {
-                           String args = amrs.toString().toLowerCase();
-                           args = args.replace("[", "");
-                           args = args.replace("{", "");
-                           args = args.replace("]", "");
-                           args = args.replace("}", "");
-                           args = args.replace("=", "");
-                           args = args.replace(", ", ",");
-                           args = args.replace(String.format("%s_id", TableUtil.getColumnName(model)), "");
-                           args = String.format("id__in=[%s]", args);
-                           QuerySet qs1 = manager._filter(args);
-                           field.set(o, qs1);
-                        } else {
-                           field.set(o, new QuerySet<T>());
-                        }
-                     } else {
-                        field.set(o, new QuerySet<T>());
-                     }
-                  } else {
-                     // Configura campos que não são instancias de model.
-                     if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        if (rs.getObject(TableUtil.getColumnName(field)) == null) {
-                           field.set(o, 0);
-                        } else {
-                           String columnName = TableUtil.getColumnName(field);
-                           BigDecimal bigDecimal = (BigDecimal) rs.getObject(columnName);
-                           field.set(o, bigDecimal.intValue());
-                        }
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        Object columnValue = rs.getObject(columnName);
-                        if (columnValue instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           columnValue = calendar.getTime();
-                        }
-                        field.set(o, columnValue);
-                     }
-                  }
-                  manager = null;
-               }
+               T o = mapper.map(rs);
                T model = (T) o;
                if (model != null) {
                   model.setPersisted(true);
@@ -1680,7 +1350,7 @@ public class Manager implements IManager {
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(rs, stmt, connection);
+            close(rs, stmt, activeConnection());
          }
       }
       return qs;
@@ -1704,33 +1374,37 @@ public class Manager implements IManager {
       Object o = null;
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       field = field == null ? "" : field.trim();
+      int id = id(field, value);
+      ModelCache cache = id > 0 ? ModelCache.of(entity) : null;
+      // Versão do cache antes da consulta: uma alteração concorrente
+      // impede que o registro lido seja armazenado.
+      long version = cache == null ? 0 : cache.stamp();
+      if (id > 0) {
+         model = loaded(id);
+         if (model != null) {
+            return model;
+         }
+      }
       if (!field.isEmpty()) {
          try {
             field = TableUtil.getColumnName(field);
             String sql = "SELECT * FROM";
+            List<Object> parameters = new ArrayList<>();
             if (value != null) {
-               sql = String.format("%s %s WHERE %s = '%s'", sql, tableName, field, value.toString());
+               sql = String.format("%s %s WHERE %s = ?", sql, tableName, field);
+               parameters.add(parameter(value));
             } else {
                if (field.equals("id")) {
                   return null;
                }
                sql = String.format("%s %s WHERE %s IS NULL", sql, tableName, field);
             }
-            /*
-             * Se o tipo de dado do valor passado é numérico
-             * o apóstrofe é retirado.
-             */
-            if (Integer.class.isInstance(value) || Float.class.isInstance(value) || Double.class.isInstance(value)) {
-               sql = sql.replaceAll("\'", "");
-            }
-            connect();
-            statement = connection.prepareStatement(sql);
+            PreparedSql select = new PreparedSql(sql, parameters);
+            connect(true);
+            statement = select.prepare(activeConnection());
             if (JediEngine.DEBUG) {
-               System.out.println(sql + ";\n");
+               System.out.println(select + ";\n");
             }
             resultSet = statement.executeQuery();
             int rowCount = resultSet.last() ? resultSet.getRow() : 0;
@@ -1747,184 +1421,22 @@ public class Manager implements IManager {
                            value));
             }
             resultSet.beforeFirst();
+            RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity);
             while (resultSet.next()) {
-               model = (T) entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  o = resultSet.getObject(id.getName());
-                  /*
-                   * Trata o tipo de dado BigDecimal retornado pelo Oracle.
-                   * No MySQL e no PostgreSQL o tipo do dado é Integer.
-                   */
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(model, ((java.math.BigDecimal) o).intValue());
-                  } else {
-                     id.set(model, o);
-                  }
-               }
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field f : _fields) {
-                  f.setAccessible(true);
-                  if (!JediEngine.isJediField(f)) {
-                     continue;
-                  }
-                  if (f.getName().equals("serialVersionUID"))
-                     continue;
-                  if (f.getName().equalsIgnoreCase("objects"))
-                     continue;
-                  oneToOneFieldAnnotation = f.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = f.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = f.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  String referencedModel = null;
-                  String referencedTable = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        if (!manyToManyFieldAnnotation.through().getSimpleName().equals(Model.class.getSimpleName())) {
-                           continue;
-                        }
-                        Class superClazz = null;
-                        Class clazz = null;
-                        referencedModel = manyToManyFieldAnnotation.model().getSimpleName();
-                        referencedModel = Model.class.getSimpleName().equals(referencedModel) ? "" : referencedModel;
-                        if (referencedModel.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(f.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) f.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 referencedModel = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        referencedTable = manyToManyFieldAnnotation.references();
-                        if (referencedTable == null || referencedTable.trim().isEmpty()) {
-                           if (clazz != null) {
-                              referencedTable = TableUtil.getTableName(clazz);
-                           } else {
-                              referencedTable = TableUtil.getTableName(referencedModel);
-                           }
-                        }
-                        String packageName = this.entity.getPackage().getName();
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, referencedModel));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet associatedModelsQuerySet = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    referencedTable,
-                                    referencedModel.toLowerCase(),
-                                    tableName,
-                                    referencedTable,
-                                    TableUtil.getColumnName(model.getClass()),
-                                    model.getId()),
-                              associatedModelClass);
-                        // Configurando o campo (atributo) com a referência
-                        // para o queryset criado anteriormente.
-                        f.set(model, associatedModelsQuerySet);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else if (foreignKeyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        // Caso seja recupera a classe do atributo.
-                        Class associatedModelClass = Class.forName(f.getType().getName());
-                        // Instanciando um model manager.
-                        manager = new Manager(associatedModelClass);
-                        // Chamando o método esse método (get)
-                        // recursivamente.
-                        Model associatedModel = manager.get("id", resultSet.getObject(String.format("%s_id", TableUtil.getColumnName(f))));
-                        // Atributo (campo) referenciando o modelo anotado
-                        // como ForeignKeyField.
-                        f.set(model, associatedModel);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(f.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        columnName = TableUtil.getColumnName(f.getType().getSimpleName());
-                        o = resultSet.getObject(String.format("%s_id", columnName));
-                        Model associatedModel = manager.get("id", o);
-                        f.set(model, associatedModel);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else {
-                     // Configurando campos que não são instancias de
-                     // Model.
-                     if ((f.getType().getSimpleName().equals("int") || f.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        columnName = TableUtil.getColumnName(f.getName());
-                        o = resultSet.getObject(columnName);
-                        if (o == null) {
-                           f.set(model, 0);
-                        } else {
-                           columnName = TableUtil.getColumnName(f.getName());
-                           o = resultSet.getObject(columnName);
-                           f.set(model, ((BigDecimal) o).intValue());
-                        }
-                     } else {
-                        columnName = TableUtil.getColumnName(f.getName());
-                        // Column´s value.
-                        o = resultSet.getObject(columnName);
-                        if (o instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           o = calendar.getTime();
-                        }
-                        if (o instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           o = calendar.getTime();
-                        }
-                        if (o instanceof Timestamp) {
-                           // TODO - Refatoração mudança de jedi.types.DateTime
-                           // para java.util.Date
-                           // o = new DateTime(((Timestamp) o).getTime());
-                           // o = new Date(((Timestamp) o).getTime());
-                           Timestamp timestamp = (Timestamp) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           o = calendar.getTime();
-                        }
-                        f.set(model, o);
-                     }
-                  }
-                  manager = null;
-               }
+               model = (T) mapper.map(resultSet);
             }
             if (model != null) {
                model.setPersisted(true);
+               if (cache != null) {
+                  cache.put(model, version);
+               }
             }
          } catch (SQLException e) {
             e.printStackTrace();
-         } catch (InstantiationException e) {
-            e.printStackTrace();
-         } catch (IllegalAccessException e) {
-            e.printStackTrace();
-         } catch (NoSuchFieldException e) {
-            e.printStackTrace();
          } catch (SecurityException e) {
             e.printStackTrace();
-         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
          } finally {
-            close(resultSet, statement, connection);
+            close(resultSet, statement, activeConnection());
          }
       }
       return model;
@@ -1935,10 +1447,75 @@ public class Manager implements IManager {
    }
    
    /**
-    * Recupera um registro da entidade que satisfaça
-    * as condições passadas como parâmetro.
-    * 
-    * @param clazz
+    * @return o id, se a consulta for pelo id no banco de dados padrão, ou 0.
+    */
+   private int id(String field, Object value) {
+      if (!field.equals("id") || value == null || database != null || !value.toString().trim().matches("\\d{1,9}")) {
+         return 0;
+      }
+      return Integer.parseInt(value.toString().trim());
+   }
+   
+   /**
+    * @return o valor a ser atribuído ao marcador da instrução; datas são
+    *         convertidas em Timestamp e modelos no seu id.
+    */
+   static Object parameter(Object value) {
+      if (value instanceof Model) {
+         return ((Model) value).getId();
+      }
+      if (value instanceof Date && !(value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof java.sql.Timestamp)) {
+         return new java.sql.Timestamp(((Date) value).getTime());
+      }
+      return value;
+   }
+   
+   /**
+    * @return o modelo já carregado no mapa de identidade ou no cache de
+    *         segundo nível ({@link Cacheable}) ou null.
+    */
+   private <T extends Model> T loaded(int id) {
+      IdentityMap identityMap = IdentityMap.current();
+      T model = identityMap == null ? null : (T) identityMap.get(entity, id);
+      if (model == null) {
+         ModelCache cache = ModelCache.of(entity);
+         model = cache == null ? null : cache.get(id);
+         if (model != null && identityMap != null) {
+            model = identityMap.put(model);
+         }
+      }
+      return model;
+   }
+   
+   /**
+    * Descarta os modelos da entidade do cache de segundo nível e do mapa
+    * de identidade após alterações em massa.
+    */
+   private void invalidate() {
+      ModelCache.clear(entity);
+      IdentityMap.clear(entity);
+      QueryCache.invalidate(tableName);
+   }
+   
+   /**
+    * Invalida também os resultados que dependem das tabelas alteradas pela
+    * instrução DML.
+    */
+   private void invalidate(String sql) {
+      invalidate();
+      QueryCache.invalidateSql(sql);
+   }
+   
+   private void invalidate(Class<? extends Model> modelClass, int id) {
+      ModelCache.evict(modelClass, id);
+      IdentityMap.evict(modelClass, id);
+   }
+   
+   /**
+    * Recupera um registro da entidade que satisfaça
+    * as condições passadas como parâmetro.
+    * 
+    * @param clazz
     * @param fieldLookups
     * @return
     * @throws ObjectDoesNotExistException
@@ -1949,6 +1526,7 @@ public class Manager implements IManager {
       T model = null;
       if (fieldLookups != null) {
          StringBuilder _sql = new StringBuilder();
+         List<Object> parameters = new ArrayList<>();
          _sql.append("select\n");
          _sql.append("    *\n");
          _sql.append("from\n");
@@ -1960,18 +1538,17 @@ public class Manager implements IManager {
             if (fieldLookup.matches("and|or")) {
                _sql.append(String.format(" %s\n", fieldLookup));
             } else {
-               _sql.append(String.format("    %s", FieldLookup.translate(fieldLookup).get("where").get(0)));
+               _sql.append(String.format("    %s", FieldLookup.translate(parameters, fieldLookup).get("where").get(0)));
             }
          }
-         String sql = _sql.toString();
-         sql = sql.substring(0, sql.length());
+         PreparedSql sql = new PreparedSql(_sql.toString(), parameters);
          if (JediEngine.DEBUG) {
             System.out.println(sql);
          }
          _fieldLookups = _fieldLookups.substring(0, _fieldLookups.length() - 2);
          try {
-            connect();
-            PreparedStatement stmt = connection.prepareStatement(sql);
+            connect(true);
+            PreparedStatement stmt = sql.prepare(activeConnection());
             ResultSet rs = stmt.executeQuery();
             List<T> list = JediEngine.convert(rs, clazz);
             if (list.size() == 1) {
@@ -2013,11 +1590,8 @@ public class Manager implements IManager {
             // Renomeando o atributo para ficar no mesmo padrão do nome da
             // coluna na tabela associada ao modelo.
             field = TableUtil.getColumnName(field);
-            String sql = String.format("SELECT * FROM %s ORDER BY %s DESC LIMIT 1", tableName, field);
-            if (connection.toString().startsWith("oracle")) {
-               sql = String.format("SELECT * FROM %s WHERE ROWNUM < 2 ORDER BY %s DESC", tableName, field);
-            }
-            connect();
+            String sql = String.format("SELECT * FROM %s ORDER BY %s DESC%s", tableName, field, dialect().limit(1, 0));
+            connect(true);
             QuerySet querySet = this.raw(sql, entity);
             if (querySet != null && !querySet.isEmpty()) {
                model = (T) querySet.get(0);
@@ -2028,7 +1602,7 @@ public class Manager implements IManager {
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(connection);
+            close(activeConnection());
          }
       }
       return model;
@@ -2054,11 +1628,8 @@ public class Manager implements IManager {
       field = field == null ? "" : field.trim();
       if (!field.isEmpty()) {
          try {
-            String sql = String.format("SELECT * FROM %s ORDER BY %s ASC LIMIT 1", tableName, field);
-            if (this.connection.toString().startsWith("oracle")) {
-               sql = String.format("SELECT * FROM %s WHERE ROWNUM < 2 ORDER BY %s ASC", tableName, field);
-            }
-            connect();
+            String sql = String.format("SELECT * FROM %s ORDER BY %s ASC%s", tableName, field, dialect().limit(1, 0));
+            connect(true);
             QuerySet querySet = this.raw(sql, entity);
             if (querySet != null && !querySet.isEmpty()) {
                model = (T) querySet.get(0);
@@ -2069,7 +1640,7 @@ public class Manager implements IManager {
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(connection);
+            close(activeConnection());
          }
       }
       return (T) model;
@@ -2140,56 +1711,263 @@ public class Manager implements IManager {
     * 
     * @param models
     * @return A referência a esse manager.
+    * @see #bulkCreate(List)
     */
    public IManager bulkCreate(Model... models) {
       if (models != null) {
-         for (Model model : models) {
-            if (model != null) {
-               model.save();
-            }
-         }
+         bulkCreate(Arrays.asList(models));
       }
       return this;
    }
    
+   /**
+    * Persiste no banco de dados a lista de entidades passada como parâmetro.
+    * <p>
+    * As entidades novas são agrupadas pelo formato da instrução INSERT e
+    * enviadas em lotes de JediEngine.DATABASE_BATCH_SIZE registros. Os ids
+    * gerados são atribuídos às entidades; um driver que não os retorne faz
+    * a operação falhar. As entidades já persistidas são atualizadas
+    * individualmente.
+    * <p>
+    * As atualizações, as gravações em cascata e as inserções ocorrem em uma
+    * única transação (a da unidade de trabalho aberta, se houver). Com
+    * using ou setConnection, apenas as inserções em lote fazem parte dela.
+    * 
+    * @param models
+    * @return A referência a esse manager.
+    */
    @Override
-   public IManager save(Model... models) {
-      if (models != null) {
+   public IManager bulkCreate(List<? extends Model> models) {
+      if (models == null || models.isEmpty()) {
+         return this;
+      }
+      Map<String, List<BatchRow>> batches = new LinkedHashMap<>();
+      List<BatchRow> rows = new ArrayList<>();
+      PreparedStatement statement = null;
+      ResultSet generatedKeys = null;
+      Statement manyToManyStatement = null;
+      Boolean autoCommit = null;
+      boolean external = connection != null && connectionSource == null;
+      UnitOfWork unitOfWork = database == null && !external ? UnitOfWork.begin() : null;
+      try {
          for (Model model : models) {
-            if (model != null) {
+            if (model == null) {
+               continue;
+            }
+            // Apenas o indicador de persistência: o id não indica se o
+            // modelo foi gravado, pois QuerySet.add o atribui.
+            if (model.persisted) {
                model.save();
+               continue;
+            }
+            model.onPreSave();
+            BatchRow row = new BatchRow(model);
+            rows.add(row);
+            batches.computeIfAbsent(row.insert.getSql(), sql -> new ArrayList<>()).add(row);
+         }
+         if (rows.isEmpty()) {
+            if (unitOfWork != null) {
+               unitOfWork.commit();
+            }
+            return this;
+         }
+         int batchSize = JediEngine.DATABASE_BATCH_SIZE == null || JediEngine.DATABASE_BATCH_SIZE <= 0 ? rows.size() : JediEngine.DATABASE_BATCH_SIZE;
+         connect();
+         autoCommit = activeConnection().getAutoCommit();
+         activeConnection().setAutoCommit(false);
+         for (Map.Entry<String, List<BatchRow>> batch : batches.entrySet()) {
+            List<BatchRow> batchRows = batch.getValue();
+            if (JediEngine.DEBUG) {
+               System.out.println(String.format("%s [%d]\n", batch.getKey(), batchRows.size()));
+            }
+            statement = new PreparedSql(batch.getKey(), null).prepareReturningId(activeConnection());
+            for (int start = 0; start < batchRows.size(); start += batchSize) {
+               List<BatchRow> chunk = batchRows.subList(start, Math.min(start + batchSize, batchRows.size()));
+               for (BatchRow row : chunk) {
+                  PreparedSql.bind(statement, row.insert.getParameters(), dialect());
+                  statement.addBatch();
+               }
+               statement.executeBatch();
+               generatedKeys = statement.getGeneratedKeys();
+               for (BatchRow row : chunk) {
+                  if (generatedKeys == null || !generatedKeys.next()) {
+                     throw new SQLException(String.format("O driver não retornou os ids gerados pelas inserções em lote em %s.", tableName));
+                  }
+                  row.model.id = generatedKeys.getInt(1);
+               }
+               close(generatedKeys);
+               generatedKeys = null;
+            }
+            close(statement);
+            statement = null;
+         }
+         for (BatchRow row : rows) {
+            for (String associatedModelSQL : row.manyToManySQLs) {
+               if (manyToManyStatement == null) {
+                  manyToManyStatement = activeConnection().createStatement();
+               }
+               manyToManyStatement.addBatch(String.format("%s %d)", associatedModelSQL, row.model.id()));
+            }
+         }
+         if (manyToManyStatement != null) {
+            manyToManyStatement.executeBatch();
+         }
+         if (unitOfWork != null) {
+            unitOfWork.commit();
+         } else if (!UnitOfWork.owns(activeConnection())) {
+            activeConnection().commit();
+         }
+         for (BatchRow row : rows) {
+            row.model.setPersisted(true);
+            row.model.onPostSave();
+         }
+      } catch (Exception e) {
+         rollback();
+         for (BatchRow row : rows) {
+            row.model.id = 0;
+         }
+         if (JediEngine.EXCEPTION_HANDLING.equals(ExceptionHandling.PRINT)) {
+            e.printStackTrace();
+         } else {
+            throw new DatabaseException(e);
+         }
+      } finally {
+         if (autoCommit != null) {
+            try {
+               activeConnection().setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+               e.printStackTrace();
+            }
+         }
+         close(generatedKeys, statement, manyToManyStatement, activeConnection());
+         if (unitOfWork != null) {
+            unitOfWork.close();
+         }
+         // As chaves são as instruções INSERT de cada lote.
+         for (String sql : batches.keySet()) {
+            QueryCache.invalidateSql(sql);
+         }
+         for (BatchRow row : rows) {
+            for (String associatedModelSQL : row.manyToManySQLs) {
+               QueryCache.invalidateSql(associatedModelSQL);
             }
          }
       }
       return this;
    }
    
+   /**
+    * Entidade a ser inserida em lote e as instruções correspondentes.
+    */
+   private static final class BatchRow {
+      
+      private final Model model;
+      private final PreparedSql insert;
+      private final List<String> manyToManySQLs = new ArrayList<>();
+      
+      private BatchRow(Model model) throws Exception {
+         this.model = model;
+         this.insert = model.insertSql(manyToManySQLs);
+      }
+      
+   }
+   
+   @Override
+   public IManager save(Model... models) {
+      return bulkCreate(models);
+   }
+   
    @Override
    public IManager save(List<Model> models) {
-      if (models != null) {
-         for (Model model : models) {
-            if (model != null) {
-               model.save();
-            }
-         }
-      }
-      return this;
+      return bulkCreate(models);
    }
    
    public <T extends Model> T getOrCreate(String... args) {
       T obj = null;
       try {
-         obj = get(args);
+         obj = primary().get(args);
       } catch (DoesNotExistException e) {
          obj = create(args);
       }
       return obj;
    }
    
+   /**
+    * Atualiza o registro identificado pelos campos únicos (unique = true
+    * ou id) informados em args ou o cria, caso não exista.
+    * <p>
+    * No MySQL usa INSERT ... ON DUPLICATE KEY UPDATE e no PostgreSQL
+    * INSERT ... ON CONFLICT ... DO UPDATE (apenas com um campo único), em
+    * uma única instrução. Nos demais casos executa um UPDATE e, se nenhum
+    * registro for alterado, um INSERT. Sem campos únicos equivale a
+    * getOrCreate.
+    * 
+    * @param args
+    *           pares campo=valor.
+    * @return o modelo atualizado ou criado.
+    */
    public <T extends Model> T updateOrCreate(String... args) {
-      T obj = null;
-      // TODO
-      return obj;
+      if (args == null || entity == null) {
+         return null;
+      }
+      List<String> keys = new ArrayList<>();
+      List<String> columns = new ArrayList<>();
+      List<String> values = new ArrayList<>();
+      List<String> keyColumns = new ArrayList<>();
+      List<String> valueFields = new ArrayList<>();
+      for (String arg : args) {
+         String[] assignment = assignment(arg);
+         if (assignment == null) {
+            continue;
+         }
+         String name = arg.substring(0, arg.indexOf('=')).trim();
+         FieldMetadata fieldMetadata = ModelMetadata.of(entity).getField(name);
+         columns.add(assignment[0]);
+         values.add(assignment[1]);
+         if (name.equals("id") || (fieldMetadata != null && fieldMetadata.isUnique())) {
+            keys.add(arg.trim());
+            keyColumns.add(assignment[0]);
+         } else {
+            valueFields.add(arg.trim());
+         }
+      }
+      if (keys.isEmpty()) {
+         return getOrCreate(args);
+      }
+      List<String> updateColumns = new ArrayList<>(columns);
+      updateColumns.removeAll(keyColumns);
+      String sql = dialect().upsert(tableName, columns, values, keyColumns, updateColumns);
+      if (sql == null) {
+         if (valueFields.isEmpty() || update(valueFields.toArray(new String[0]), keys.toArray(new String[0])) <= 0) {
+            return getOrCreate(args);
+         }
+         return primary().get(keys.toArray(new String[0]));
+      }
+      int id = 0;
+      PreparedStatement statement = null;
+      ResultSet generatedKeys = null;
+      try {
+         PreparedSql upsert = PreparedSql.of(sql);
+         if (JediEngine.DEBUG) {
+            System.out.println(upsert + ";\n");
+         }
+         connect();
+         statement = upsert.prepareReturningId(activeConnection());
+         statement.executeUpdate();
+         generatedKeys = statement.getGeneratedKeys();
+         if (generatedKeys != null && generatedKeys.next()) {
+            id = generatedKeys.getInt(1);
+         }
+         commit();
+      } catch (Exception e) {
+         rollback();
+         e.printStackTrace();
+      } finally {
+         close(generatedKeys, statement, activeConnection());
+         invalidate();
+      }
+      Manager primary = primary();
+      return id > 0 ? primary.get("id", id) : primary.get(keys.toArray(new String[0]));
    }
    
    /**
@@ -2392,9 +2170,10 @@ public class Manager implements IManager {
                   stmt = this.connection.prepareStatement(sql);
                   stmt.executeUpdate();
                   commit();
+                  invalidate(sql);
                   result = true;
                }
-               close(stmt, connection);
+               close(stmt, activeConnection());
             } catch (SQLException e) {
                e.printStackTrace();
                rollback();
@@ -2413,7 +2192,7 @@ public class Manager implements IManager {
             if (disconnected()) {
                connect();
             }
-            Statement stmt = connection.createStatement();
+            Statement stmt = activeConnection().createStatement();
             while ((line = br.readLine()) != null) {
                line = line.trim();
                if (line.startsWith("--")) {
@@ -2424,6 +2203,7 @@ public class Manager implements IManager {
             stmt.executeBatch();
             br.close();
             stmt.close();
+            QueryCache.clear();
          } catch (FileNotFoundException e) {
             e.printStackTrace();
          } catch (IOException e) {
@@ -2446,7 +2226,7 @@ public class Manager implements IManager {
          return qs;
       if (fields.length == 0)
          return qs;
-      if (connect() == null)
+      if (connect(true) == null)
          return qs;
       try {
          StringBuilder sb = new StringBuilder();
@@ -2477,167 +2257,15 @@ public class Manager implements IManager {
          }
          PreparedStatement stmt = null;
          ResultSet rs = null;
-         OneToOneField oofa = null;
-         ForeignKeyField fkfa = null;
-         ManyToManyField mmfa = null;
          stmt = this.connection.prepareStatement(sql);
          rs = stmt.executeQuery();
          if (!rs.next()) {
             return qs;
          }
          rs.beforeFirst();
+         RowMapper<? extends Model> mapper = getRowMapper(rs, entity);
          while (rs.next()) {
-            Object o = entity.newInstance();
-            Field id = jedi.db.models.Model.class.getDeclaredField("id");
-            id.setAccessible(true);
-            if (this.connection.toString().startsWith("oracle")) {
-               id.set(o, ((java.math.BigDecimal) rs.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1))).intValue());
-            } else {
-               id.set(o, rs.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)));
-            }
-            List<Field> _fields = JediEngine.getAllFields(this.entity);
-            for (Field field : _fields) {
-               field.setAccessible(true);
-               if (!JediEngine.isJediField(field)) {
-                  continue;
-               }
-               if (field.toString().substring(field.toString().lastIndexOf('.') + 1).equals("serialVersionUID")) {
-                  continue;
-               }
-               if (field.getName().equalsIgnoreCase("objects")) {
-                  continue;
-               }
-               oofa = field.getAnnotation(OneToOneField.class);
-               fkfa = field.getAnnotation(ForeignKeyField.class);
-               mmfa = field.getAnnotation(ManyToManyField.class);
-               FetchType ft = JediEngine.FETCH_TYPE;
-               Manager manager = null;
-               if (mmfa != null) {
-                  ft = ft.equals(FetchType.NONE) ? mmfa.fetch_type() : ft;
-                  if (ft.equals(FetchType.EAGER)) {
-                     String packageName = this.entity.getPackage().getName();
-                     String model = mmfa.model().getSimpleName();
-                     model = Model.class.getSimpleName().equals(model) ? "" : model;
-                     Class sc = null; // super class.
-                     Class c = null; // class.
-                     if (model.isEmpty()) {
-                        ParameterizedType pt = null; // generic type.
-                        if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                           pt = (ParameterizedType) field.getGenericType();
-                           sc = ((Class) (pt.getActualTypeArguments()[0])).getSuperclass();
-                           if (sc == Model.class) {
-                              c = (Class) pt.getActualTypeArguments()[0];
-                              model = c.getSimpleName();
-                           }
-                        }
-                     }
-                     String references = mmfa.references();
-                     if (references == null || references.trim().isEmpty()) {
-                        if (c != null) {
-                           references = TableUtil.getTableName(c);
-                        } else {
-                           references = TableUtil.getTableName(model);
-                        }
-                     }
-                     // Intermediate model class name.
-                     String imcn = String.format("%s.%s", packageName, model);
-                     // Associated model class.
-                     Class amc = Class.forName(imcn);
-                     manager = new Manager(amc);
-                     // QuerySet associated model.
-                     QuerySet qsam = null;
-                     // Intermediate model name.
-                     String imn = mmfa.through().getSimpleName();
-                     imn = Model.class.getSimpleName().equals(imn) ? "" : imn;
-                     if (imn != null && !imn.trim().isEmpty()) {
-                        imcn = String.format("%s.%s", packageName, imn);
-                        // Intermediate model class.
-                        Class imc = Class.forName(imcn);
-                        // Intermediate table name.
-                        String itn = ((Model) imc.newInstance()).getTableName();
-                        qsam = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    itn,
-                                    TableUtil.getColumnName(o.getClass()),
-                                    ((Model) o).getId()),
-                              amc);
-                     } else {
-                        qsam = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    tableName,
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(o.getClass()),
-                                    ((Model) o).getId()),
-                              amc);
-                     }
-                     field.set(o, qsam);
-                  } else {
-                     field.set(o, null);
-                  }
-               } else if (oofa != null || fkfa != null) {
-                  if (oofa != null) {
-                     ft = ft.equals(FetchType.NONE) ? oofa.fetch_type() : ft;
-                  } else {
-                     ft = ft.equals(FetchType.NONE) ? fkfa.fetch_type() : ft;
-                  }
-                  if (ft.equals(FetchType.EAGER)) {
-                     Class c = Class.forName(field.getType().getName());
-                     manager = new Manager(c);
-                     String s = String.format("%s_id", TableUtil.getColumnName(field));
-                     Object o1 = rs.getObject(s);
-                     Model m = manager.get("id", o1);
-                     field.set(o, m);
-                  } else {
-                     field.set(o, null);
-                  }
-               } else {
-                  if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                        this.connection.toString().startsWith("oracle")) {
-                     if (rs.getObject(TableUtil.getColumnName(field)) == null) {
-                        field.set(o, 0);
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        BigDecimal bigDecimal = (BigDecimal) rs.getObject(columnName);
-                        field.set(o, bigDecimal.intValue());
-                     }
-                  } else {
-                     Object columnValue = rs.getObject(TableUtil.getColumnName(field));
-                     columnValue = convertZeroDateToNull(columnValue);
-                     if (columnValue instanceof java.sql.Date) {
-                        java.sql.Date date = (java.sql.Date) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(date.getTime());
-                        calendar.set(Calendar.HOUR_OF_DAY, 0);
-                        calendar.set(Calendar.MINUTE, 0);
-                        calendar.set(Calendar.SECOND, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof java.sql.Time) {
-                        java.sql.Time time = (java.sql.Time) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(time.getTime());
-                        calendar.set(Calendar.YEAR, 0);
-                        calendar.set(Calendar.MONTH, 0);
-                        calendar.set(Calendar.DAY_OF_MONTH, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof Timestamp) {
-                        Timestamp timestamp = (Timestamp) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(timestamp.getTime());
-                        columnValue = calendar.getTime();
-                     }
-                     field.set(o, columnValue);
-                  }
-               }
-               manager = null;
-            }
+            Object o = mapper.map(rs);
             T model = (T) o;
             if (model != null) {
                model.setPersisted(true);
@@ -2678,7 +2306,7 @@ public class Manager implements IManager {
          return qs;
       if (fields.length == 0)
          return qs;
-      if (connect() == null)
+      if (connect(true) == null)
          return qs;
       try {
          StringBuilder sb = new StringBuilder();
@@ -2697,178 +2325,28 @@ public class Manager implements IManager {
          }
          String sql = sb.toString();
          sql = sql.substring(0, sql.length() - 2);
+         sql = selectRelated(sql);
          if (JediEngine.DEBUG) {
             System.out.println(sql + ";\n");
          }
          PreparedStatement stmt = null;
          ResultSet rs = null;
-         OneToOneField oofa = null;
-         ForeignKeyField fkfa = null;
-         ManyToManyField mmfa = null;
          stmt = this.connection.prepareStatement(sql);
          rs = stmt.executeQuery();
          if (!rs.next()) {
             return qs;
          }
          rs.beforeFirst();
+         RowMapper<? extends Model> mapper = getRowMapper(rs, entity, true);
          while (rs.next()) {
-            Object o = entity.newInstance();
-            Field id = jedi.db.models.Model.class.getDeclaredField("id");
-            id.setAccessible(true);
-            if (this.connection.toString().startsWith("oracle")) {
-               id.set(o, ((java.math.BigDecimal) rs.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1))).intValue());
-            } else {
-               id.set(o, rs.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)));
-            }
-            List<Field> _fields = JediEngine.getAllFields(this.entity);
-            for (Field field : _fields) {
-               field.setAccessible(true);
-               if (!JediEngine.isJediField(field)) {
-                  continue;
-               }
-               if (field.toString().substring(field.toString().lastIndexOf('.') + 1).equals("serialVersionUID")) {
-                  continue;
-               }
-               if (field.getName().equalsIgnoreCase("objects")) {
-                  continue;
-               }
-               oofa = field.getAnnotation(OneToOneField.class);
-               fkfa = field.getAnnotation(ForeignKeyField.class);
-               mmfa = field.getAnnotation(ManyToManyField.class);
-               FetchType ft = JediEngine.FETCH_TYPE;
-               Manager manager = null;
-               if (mmfa != null) {
-                  ft = ft.equals(FetchType.NONE) ? mmfa.fetch_type() : ft;
-                  if (ft.equals(FetchType.EAGER)) {
-                     String packageName = this.entity.getPackage().getName();
-                     String model = mmfa.model().getSimpleName();
-                     model = Model.class.getSimpleName().equals(model) ? "" : model;
-                     Class sc = null; // super class.
-                     Class c = null; // class.
-                     if (model.isEmpty()) {
-                        ParameterizedType pt = null; // generic type.
-                        if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                           pt = (ParameterizedType) field.getGenericType();
-                           sc = ((Class) (pt.getActualTypeArguments()[0])).getSuperclass();
-                           if (sc == Model.class) {
-                              c = (Class) pt.getActualTypeArguments()[0];
-                              model = c.getSimpleName();
-                           }
-                        }
-                     }
-                     String references = mmfa.references();
-                     if (references == null || references.trim().isEmpty()) {
-                        if (c != null) {
-                           references = TableUtil.getTableName(c);
-                        } else {
-                           references = TableUtil.getTableName(model);
-                        }
-                     }
-                     // Intermediate model class name.
-                     String imcn = String.format("%s.%s", packageName, model);
-                     // Associated model class.
-                     Class amc = Class.forName(imcn);
-                     manager = new Manager(amc);
-                     // QuerySet associated model.
-                     QuerySet qsam = null;
-                     // Intermediate model name.
-                     String imn = mmfa.through().getSimpleName();
-                     imn = Model.class.getSimpleName().equals(imn) ? "" : imn;
-                     if (imn != null && !imn.trim().isEmpty()) {
-                        imcn = String.format("%s.%s", packageName, imn);
-                        // Intermediate model class.
-                        Class imc = Class.forName(imcn);
-                        // Intermediate table name.
-                        String itn = ((Model) imc.newInstance()).getTableName();
-                        qsam = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    itn,
-                                    TableUtil.getColumnName(o.getClass()),
-                                    ((Model) o).getId()),
-                              amc);
-                     } else {
-                        qsam = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(model),
-                                    tableName,
-                                    TableUtil.getTableName(references),
-                                    TableUtil.getColumnName(o.getClass()),
-                                    ((Model) o).getId()),
-                              amc);
-                     }
-                     field.set(o, qsam);
-                  } else {
-                     field.set(o, null);
-                  }
-               } else if (oofa != null || fkfa != null) {
-                  if (oofa != null) {
-                     ft = ft.equals(FetchType.NONE) ? oofa.fetch_type() : ft;
-                  } else {
-                     ft = ft.equals(FetchType.NONE) ? fkfa.fetch_type() : ft;
-                  }
-                  if (ft.equals(FetchType.EAGER)) {
-                     Class c = Class.forName(field.getType().getName());
-                     manager = new Manager(c);
-                     String s = String.format("%s_id", TableUtil.getColumnName(field));
-                     Object o1 = rs.getObject(s);
-                     Model m = manager.get("id", o1);
-                     field.set(o, m);
-                  } else {
-                     field.set(o, null);
-                  }
-               } else {
-                  if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                        this.connection.toString().startsWith("oracle")) {
-                     if (rs.getObject(TableUtil.getColumnName(field)) == null) {
-                        field.set(o, 0);
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        BigDecimal bigDecimal = (BigDecimal) rs.getObject(columnName);
-                        field.set(o, bigDecimal.intValue());
-                     }
-                  } else {
-                     Object columnValue = rs.getObject(TableUtil.getColumnName(field));
-                     columnValue = convertZeroDateToNull(columnValue);
-                     if (columnValue instanceof java.sql.Date) {
-                        java.sql.Date date = (java.sql.Date) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(date.getTime());
-                        calendar.set(Calendar.HOUR_OF_DAY, 0);
-                        calendar.set(Calendar.MINUTE, 0);
-                        calendar.set(Calendar.SECOND, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof java.sql.Time) {
-                        java.sql.Time time = (java.sql.Time) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(time.getTime());
-                        calendar.set(Calendar.YEAR, 0);
-                        calendar.set(Calendar.MONTH, 0);
-                        calendar.set(Calendar.DAY_OF_MONTH, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof Timestamp) {
-                        Timestamp timestamp = (Timestamp) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(timestamp.getTime());
-                        columnValue = calendar.getTime();
-                     }
-                     field.set(o, columnValue);
-                  }
-               }
-               manager = null;
-            }
+            Object o = mapper.map(rs);
             T model = (T) o;
             if (model != null) {
                model.setPersisted(true);
             }
             qs.add(model);
          }
+         prefetch(qs);
       } catch (Exception e) {
          e.printStackTrace();
       }
@@ -2880,20 +2358,135 @@ public class Manager implements IManager {
       return qs;
    }
    
+   /**
+    * Retorna todos os registros sem as colunas dos campos informados (ex.:
+    * TextField, FileField e ImageField extensos). Os campos adiados são
+    * lidos do banco quando acessados por {@link Model#get(String)} ou
+    * carregados por {@link Model#load(String...)}.
+    */
    public <T extends Model> QuerySet<T> defer(String... fields) {
-      QuerySet<T> qs = null;
-      // TODO
-      return qs;
+      QuerySet<T> qs = all();
+      return qs.defer(fields);
    }
    
+   /**
+    * Calcula as agregações sobre todos os registros no banco de dados.
+    * 
+    * @return os resultados pelos nomes das agregações.
+    * @see QuerySet#aggregate(Aggregate...)
+    */
+   @Override
+   public Map<String, Object> aggregate(Aggregate... aggregates) {
+      return all().aggregate(aggregates);
+   }
+   
+   /**
+    * Agrupa os registros pelos campos informados, para o cálculo de
+    * agregações por grupo com annotate.
+    */
+   @Override
+   public <T extends Model> QueryValues<T> values(String... fields) {
+      QuerySet<T> qs = all();
+      return qs.values(fields);
+   }
+   
+   private <T extends Model> QuerySet<T> matching(String... conditions) {
+      return conditions == null || conditions.length == 0 ? all() : filter(conditions);
+   }
+   
+   /**
+    * @return a soma do campo nos registros que satisfazem as condições.
+    */
+   @Override
+   public Number sum(String field, String... conditions) {
+      Aggregate sum = Aggregate.sum(field);
+      return (Number) matching(conditions).aggregate(sum).get(sum.getAlias());
+   }
+   
+   /**
+    * @return a média do campo nos registros que satisfazem as condições.
+    */
+   @Override
+   public Number avg(String field, String... conditions) {
+      Aggregate avg = Aggregate.avg(field);
+      return (Number) matching(conditions).aggregate(avg).get(avg.getAlias());
+   }
+   
+   /**
+    * @return o menor valor do campo nos registros que satisfazem as
+    *         condições.
+    */
+   @Override
+   public <V> V min(String field, String... conditions) {
+      Aggregate min = Aggregate.min(field);
+      return (V) matching(conditions).aggregate(min).get(min.getAlias());
+   }
+   
+   /**
+    * @return o maior valor do campo nos registros que satisfazem as
+    *         condições.
+    */
+   @Override
+   public <V> V max(String field, String... conditions) {
+      Aggregate max = Aggregate.max(field);
+      return (V) matching(conditions).aggregate(max).get(max.getAlias());
+   }
+   
+   /**
+    * Retorna todos os registros com apenas o id e os campos informados; os
+    * demais ficam adiados, como em {@link #defer(String...)}.
+    */
    public <T extends Model> QuerySet<T> only(String... fields) {
-      QuerySet<T> qs = null;
-      // TODO
-      return qs;
+      QuerySet<T> qs = all();
+      return qs.only(fields);
+   }
+   
+   /**
+    * Retorna um Manager que executa leituras e escritas no banco de dados
+    * nomeado no jedi.properties (datasource.&lt;nome&gt;.*), em vez do
+    * roteamento automático entre o banco principal e as réplicas.
+    * 
+    * @param database
+    *           nome do banco de dados (default para o principal e replica
+    *           para uma das réplicas)
+    * @return o novo Manager
+    */
+   public Manager using(String database) {
+      Manager manager = copy();
+      manager.database = database == null || database.trim().isEmpty() ? null : database.trim().toLowerCase();
+      return manager;
+   }
+   
+   /**
+    * Retorna um Manager cujas consultas (filter, count, aggregate, values...)
+    * usam o cache de resultados.
+    * 
+    * @see QueryCache
+    */
+   public Manager cached() {
+      return cached(true);
+   }
+   
+   /**
+    * Retorna um Manager que usa ou não o cache de resultados,
+    * independentemente de query.cache em jedi.properties.
+    */
+   public Manager cached(boolean cached) {
+      Manager manager = copy();
+      manager.queryCache = cached;
+      return manager;
    }
    
-   public void using(String database) {
-      // TODO
+   /**
+    * @return a chave da consulta no cache de resultados ou null se o cache
+    *         não for usado.
+    */
+   private String queryCacheKey(String kind, String sql) {
+      boolean enabled = queryCache != null ? queryCache : Boolean.TRUE.equals(JediEngine.DATABASE_QUERY_CACHE);
+      if (!enabled || rowMapper != null || sql == null) {
+         return null;
+      }
+      return String.format("%s|%s|%s|%s|%s", kind, database, entity.getName(), prefetchRelated, sql);
    }
    
    public <T extends Model> QuerySet<T> none() {
@@ -2909,19 +2502,26 @@ public class Manager implements IManager {
       return latest();
    }
    
-   private Object convertZeroDateToNull(Object date) {
-      if (date instanceof java.sql.Time) {
-         date = date.toString().equals("00:00:00") ? null : date;
-      } else if (date instanceof java.sql.Date) {
-         date = date.toString().equals("0000-00-00 00:00:00") ? null : date;
-      } else if (date instanceof java.sql.Timestamp) {
-         date = date.toString().equals("00000000000000") ? null : date;
+   /**
+    * Retorna o RowMapper usado na conversão dos registros: o informado em
+    * {@link #setRowMapper(RowMapper)} ou o ModelRowMapper compilado para o
+    * formato do ResultSet.
+    */
+   private <T extends Model> RowMapper<T> getRowMapper(ResultSet resultSet, Class<T> modelClass, boolean prefetch) throws SQLException {
+      if (rowMapper != null) {
+         return (RowMapper<T>) rowMapper;
       }
-      return date;
+      return ModelRowMapper.of(modelClass, resultSet.getMetaData(), prefetch ? prefetchRelated : null);
+   }
+   
+   private <T extends Model> RowMapper<T> getRowMapper(ResultSet resultSet, Class<T> modelClass) throws SQLException {
+      return getRowMapper(resultSet, modelClass, false);
    }
    
    /**
-    * Retorna se o Manager tem ou não uma conexão válida com o banco de dados.
+    * Retorna se o Manager tem ou não uma conexão aberta com o banco de dados.
+    * O estado é verificado localmente, sem ida ao banco: a validade da
+    * conexão fica a cargo do pool (ver DataSource.validate).
     * 
     * @return boolean conectado ou não.
     */
@@ -2930,8 +2530,8 @@ public class Manager implements IManager {
       // a conexão existe?
       if (connection != null) {
          try {
-            // a conexão é válida?
-            connected = connection.isValid(DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT);
+            // a conexão está aberta?
+            connected = !connection.isClosed();
          } catch (SQLException e) {
             e.printStackTrace();
          }
@@ -2955,16 +2555,101 @@ public class Manager implements IManager {
    // }
    
    private Connection connect() {
-      if (disconnected()) {
-         connection = DataSource.getConnection();
-      }
-      return connection;
+      return connect(false);
    }
    
-   private void disconnect() throws SQLException {
-      if (connected()) {
-         close(connection);
-      }
+   /**
+    * Manager para leituras que precisam ver as escritas recentes (sem o
+    * atraso de replicação), como as de getOrCreate.
+    */
+   private Manager primary() {
+      boolean external = connection != null && connectionSource == null;
+      return database != null || external || !DataSource.hasReplicas() ? this : using(DataSource.DEFAULT);
+   }
+   
+   /**
+    * Conecta no banco de dados. Sem using, as leituras vão para uma réplica
+    * (se houver) e as escritas para o banco principal. Conexões recebidas
+    * por setConnection são sempre usadas.
+    * 
+    * @param read
+    *           se a operação apenas lê registros
+    */
+   private Connection connect(boolean read) {
+      if (inUnitOfWork()) {
+         // Dentro de uma unidade de trabalho todas as operações, inclusive
+         // as leituras, usam a conexão dela.
+         return UnitOfWork.currentConnection();
+      }
+      String source = source(read);
+      if (connected()) {
+         if (connectionSource == null || (connectionSource.equals(source) && DataSource.validate(connection))) {
+            return connection;
+         }
+         // Devolve ao pool a conexão com o outro banco.
+         close(connection);
+      }
+      connection = DataSource.using(source);
+      connectionSource = source;
+      return connection;
+   }
+   
+   /**
+    * @return se as operações devem usar a conexão da unidade de trabalho
+    *         aberta na thread corrente.
+    */
+   private boolean inUnitOfWork() {
+      boolean external = connection != null && connectionSource == null;
+      return database == null && !external && UnitOfWork.isActive();
+   }
+   
+   /**
+    * Conexão usada pelas operações. A da unidade de trabalho é consultada a
+    * cada chamada e nunca guardada no Manager, que pode ser compartilhado
+    * entre threads (como os managers objects dos modelos).
+    * 
+    * @return a conexão da unidade de trabalho da thread corrente ou a do
+    *         Manager.
+    */
+   private Connection activeConnection() {
+      return inUnitOfWork() ? UnitOfWork.currentConnection() : connection;
+   }
+   
+   /**
+    * @return o banco de dados da operação: o de using, uma réplica (leituras)
+    *         ou o principal.
+    */
+   private String source(boolean read) {
+      return database != null ? database : read && DataSource.hasReplicas() ? DataSource.REPLICA : DataSource.DEFAULT;
+   }
+   
+   /**
+    * @return o dialeto do banco de dados usado pelo Manager.
+    */
+   Dialect dialect() {
+      if (dialect == null) {
+         dialect = DataSource.getDialect(database);
+      }
+      return dialect;
+   }
+   
+   private static final Pattern REGEX_LOOKUP = Pattern.compile("^(.*)__(i?)regex ?= ?(.*)$");
+   
+   /**
+    * Converte os lookups __regex e __iregex na expressão regular do banco.
+    */
+   private String regex(String condition) {
+      Matcher matcher = REGEX_LOOKUP.matcher(condition);
+      if (!matcher.matches()) {
+         return condition;
+      }
+      return " " + dialect().regex(matcher.group(1).trim(), matcher.group(3), matcher.group(2).isEmpty());
+   }
+   
+   private void disconnect() throws SQLException {
+      if (connected()) {
+         close(connection);
+      }
    }
    
    /**
@@ -2973,7 +2658,8 @@ public class Manager implements IManager {
     * @param o
     */
    private void close(Object o) {
-      if (o != null && o instanceof AutoCloseable) {
+      // A conexão da unidade de trabalho é fechada apenas ao final dela.
+      if (o != null && o instanceof AutoCloseable && !UnitOfWork.owns(o)) {
          try {
             ((AutoCloseable) o).close();
          } catch (Exception e) {
@@ -2999,10 +2685,10 @@ public class Manager implements IManager {
    }
    
    private void commit() {
-      if (connected()) {
+      if (!UnitOfWork.owns(activeConnection()) && connected()) {
          try {
             if (!autoCommit()) {
-               connection.commit();
+               activeConnection().commit();
             }
          } catch (SQLException e) {
             e.printStackTrace();
@@ -3011,9 +2697,11 @@ public class Manager implements IManager {
    }
    
    private void rollback() {
-      if (connected()) {
+      if (UnitOfWork.owns(activeConnection())) {
+         UnitOfWork.markRollbackOnly();
+      } else if (connected()) {
          try {
-            connection.rollback();
+            activeConnection().rollback();
          } catch (SQLException e) {
             e.printStackTrace();
          }
@@ -3036,13 +2724,14 @@ public class Manager implements IManager {
             }
             try {
                if (sql.toLowerCase().startsWith("select")) {
-                  stmt = connection.prepareStatement(sql, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                  stmt = activeConnection().prepareStatement(sql, ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
                   rs = stmt.executeQuery();
                   qs = JediEngine.convert(rs, clazz);
                } else {
-                  stmt = connection.prepareStatement(sql);
+                  stmt = activeConnection().prepareStatement(sql);
                   stmt.executeUpdate();
                   commit();
+                  invalidate(sql);
                }
             } catch (SQLException e) {
                e.printStackTrace();
@@ -3050,7 +2739,7 @@ public class Manager implements IManager {
                   rollback();
                }
             } finally {
-               close(stmt, rs, connection);
+               close(stmt, rs, activeConnection());
             }
          }
       }
@@ -3060,10 +2749,9 @@ public class Manager implements IManager {
    @Override
    public <T extends Model> IManager delete(Integer... id) {
       if (id != null) {
-         String sql = String.format("delete from %s where id in %s", tableName, Arrays.toString(id));
-         sql = sql.replace("[", "(");
-         sql = sql.replace("]", ")");
-         this.run(sql);
+         Map<String, List<Integer>> ids = new HashMap<>();
+         ids.put(tableName, Arrays.asList(id));
+         delete(ids);
       }
       return this;
    }
@@ -3071,21 +2759,255 @@ public class Manager implements IManager {
    @Override
    public <T extends Model> IManager delete(Model... models) {
       if (models != null) {
-         for (Model model : models) {
-            if (model != null) {
-               model.delete();
+         delete(Arrays.asList(models));
+      }
+      return this;
+   }
+   
+   /**
+    * Exclui os modelos passados como parâmetro com instruções
+    * DELETE ... WHERE id IN (...), em uma única transação.
+    * <p>
+    * onPreDelete e onPostDelete só são chamados nos modelos que os
+    * sobrescrevem.
+    */
+   @Override
+   public IManager delete(List<? extends Model> models) {
+      if (models == null || models.isEmpty()) {
+         return this;
+      }
+      Map<String, List<Integer>> ids = new LinkedHashMap<>();
+      List<Model> deleted = new ArrayList<>();
+      for (Model model : models) {
+         if (model == null || model.id() == 0) {
+            continue;
+         }
+         if (ModelMetadata.of(model.getClass()).hasDeleteHooks()) {
+            model.onPreDelete();
+         }
+         ids.computeIfAbsent(model.getTableName(), table -> new ArrayList<>()).add(model.id());
+         deleted.add(model);
+      }
+      int rows = delete(ids);
+      for (Model model : deleted) {
+         invalidate(model.getClass(), model.id());
+      }
+      if (rows >= 0) {
+         for (Model model : deleted) {
+            model.setPersisted(false);
+            if (ModelMetadata.of(model.getClass()).hasDeleteHooks()) {
+               model.onPostDelete();
             }
          }
       }
       return this;
    }
    
+   /**
+    * Exclui os registros de cada tabela pelos ids, em lotes de
+    * JediEngine.DATABASE_BATCH_SIZE ids por instrução.
+    * 
+    * @return a quantidade de registros excluídos ou -1 em caso de erro.
+    */
+   private int delete(Map<String, List<Integer>> ids) {
+      int rows = 0;
+      PreparedStatement statement = null;
+      Boolean autoCommit = null;
+      try {
+         connect();
+         autoCommit = activeConnection().getAutoCommit();
+         activeConnection().setAutoCommit(false);
+         for (Map.Entry<String, List<Integer>> table : ids.entrySet()) {
+            List<Integer> tableIds = table.getValue();
+            int batchSize = JediEngine.DATABASE_BATCH_SIZE == null || JediEngine.DATABASE_BATCH_SIZE <= 0 ? tableIds.size() : JediEngine.DATABASE_BATCH_SIZE;
+            // Respeita o limite de itens da lista IN do banco (1000 no Oracle).
+            batchSize = Math.max(1, Math.min(batchSize, dialect().getMaxInListSize()));
+            for (int start = 0; start < tableIds.size(); start += batchSize) {
+               List<Integer> chunk = tableIds.subList(start, Math.min(start + batchSize, tableIds.size()));
+               String sql = String.format("DELETE FROM %s WHERE id IN (%s)", table.getKey(), String.join(", ", Collections.nCopies(chunk.size(), "?")));
+               if (JediEngine.DEBUG) {
+                  System.out.println(new PreparedSql(sql, new ArrayList<Object>(chunk)) + ";\n");
+               }
+               statement = activeConnection().prepareStatement(sql);
+               PreparedSql.bind(statement, new ArrayList<Object>(chunk), dialect());
+               rows += statement.executeUpdate();
+               close(statement);
+               statement = null;
+            }
+         }
+         if (!UnitOfWork.owns(activeConnection())) {
+            activeConnection().commit();
+         }
+      } catch (Exception e) {
+         rollback();
+         rows = -1;
+         e.printStackTrace();
+      } finally {
+         if (autoCommit != null) {
+            try {
+               activeConnection().setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+               e.printStackTrace();
+            }
+         }
+         close(statement, activeConnection());
+         for (Map.Entry<String, List<Integer>> table : ids.entrySet()) {
+            QueryCache.invalidate(table.getKey());
+            if (table.getKey().equals(tableName)) {
+               for (Integer id : table.getValue()) {
+                  invalidate(entity, id);
+               }
+            }
+         }
+      }
+      return rows;
+   }
+   
+   /**
+    * Exclui os registros que atendem às condições de pesquisa (as mesmas
+    * de filter) com uma única instrução DELETE, sem carregá-los. Se o
+    * modelo sobrescrever onPreDelete ou onPostDelete, os registros são
+    * carregados para que os métodos sejam chamados.
+    * 
+    * @param conditions
+    * @return a quantidade de registros excluídos ou -1 em caso de erro.
+    */
+   public int delete(String... conditions) {
+      if (entity != null && ModelMetadata.of(entity).hasDeleteHooks()) {
+         List<Model> models = conditions == null || conditions.length == 0 ? all() : filter(conditions);
+         delete(models);
+         return models.size();
+      }
+      return deleteWhere(whereSql(conditions));
+   }
+   
+   /**
+    * Exclui os registros selecionados pela cláusula WHERE (precedida de um
+    * espaço ou vazia) com uma única instrução DELETE.
+    * 
+    * @return a quantidade de registros excluídos ou -1 em caso de erro.
+    */
+   int deleteWhere(String where) {
+      return executeUpdate(String.format("DELETE FROM %s%s", tableName, where));
+   }
+   
+   /**
+    * Traduz as condições de pesquisa (as mesmas de filter) para a cláusula
+    * WHERE de um UPDATE ou DELETE na tabela da entidade.
+    * 
+    * @return a cláusula, precedida de um espaço, ou vazio se não houver
+    *         condições.
+    */
+   String whereSql(String... conditions) {
+      if (conditions == null || conditions.length == 0) {
+         return "";
+      }
+      String sql = filterSql(conditions);
+      String prefix = String.format("SELECT * FROM %s", tableName);
+      if (sql.startsWith(prefix)) {
+         return sql.substring(prefix.length());
+      }
+      // Com joins, filtra pelos ids da consulta. A tabela derivada evita o
+      // erro 1093 do MySQL (subconsulta na própria tabela alterada).
+      sql = sql.replaceFirst("\\*", entityName + ".id");
+      return String.format(" WHERE id IN (SELECT id FROM (%s) ids)", sql);
+   }
+   
+   /**
+    * Executa um UPDATE ou DELETE parametrizado por PreparedSql.
+    * 
+    * @return a quantidade de registros afetados ou -1 em caso de erro.
+    */
+   private int executeUpdate(String sql) {
+      int rows = 0;
+      PreparedStatement statement = null;
+      try {
+         PreparedSql preparedSql = PreparedSql.of(sql);
+         if (JediEngine.DEBUG) {
+            System.out.println(preparedSql + ";\n");
+         }
+         connect();
+         statement = preparedSql.prepare(activeConnection());
+         rows = statement.executeUpdate();
+         commit();
+      } catch (Exception e) {
+         rollback();
+         rows = -1;
+         e.printStackTrace();
+      } finally {
+         close(statement, activeConnection());
+         invalidate();
+      }
+      return rows;
+   }
+   
+   /**
+    * Atualiza com uma única instrução UPDATE os registros que atendem às
+    * condições de pesquisa (as mesmas de filter), sem carregá-los.
+    * <p>
+    * Exemplo:
+    * <code>Pedido.objects.update(new String[] { "status='done'" }, "data__lt='2017-01-01'")</code>
+    * 
+    * @param fields
+    *           pares campo=valor; o valor é uma expressão SQL e pode
+    *           referenciar colunas (ex.: "visitas=visitas + 1").
+    * @param conditions
+    *           condições de pesquisa; sem condições todos os registros são
+    *           atualizados.
+    * @return a quantidade de registros alterados ou -1 em caso de erro.
+    */
    @Override
-   public <T extends Model> IManager delete() {
-      List<T> records = this.all();
-      for (T record : records) {
-         record.delete();
+   public int update(String[] fields, String... conditions) {
+      return updateWhere(fields, whereSql(conditions));
+   }
+   
+   /**
+    * Atualiza os registros selecionados pela cláusula WHERE (precedida de
+    * um espaço ou vazia) com uma única instrução UPDATE.
+    * 
+    * @return a quantidade de registros alterados ou -1 em caso de erro.
+    */
+   int updateWhere(String[] fields, String where) {
+      String assignments = "";
+      if (fields != null) {
+         for (String field : fields) {
+            String[] assignment = assignment(field);
+            if (assignment != null) {
+               assignments += String.format("%s = %s, ", assignment[0], assignment[1]);
+            }
+         }
+      }
+      if (assignments.isEmpty()) {
+         return 0;
+      }
+      assignments = assignments.substring(0, assignments.lastIndexOf(','));
+      return executeUpdate(String.format("UPDATE %s SET %s%s", tableName, assignments, where));
+   }
+   
+   /**
+    * Separa um par campo=valor em coluna e valor.
+    * 
+    * @return {coluna, valor} ou null se o par não tiver o sinal de igual.
+    */
+   private String[] assignment(String field) {
+      field = field == null ? "" : field.trim();
+      int equals = field.indexOf('=');
+      if (equals <= 0) {
+         return null;
       }
+      String name = field.substring(0, equals).trim();
+      String value = field.substring(equals + 1).trim();
+      FieldMetadata fieldMetadata = entity == null ? null : ModelMetadata.of(entity).getField(name);
+      String column = fieldMetadata == null ? TableUtil.getColumnName(name) : fieldMetadata.getDatabaseColumnName();
+      return new String[] { column, value };
+   }
+   
+   /**
+    * Exclui todos os registros da entidade.
+    */
+   @Override
+   public <T extends Model> IManager delete() {
+      delete(new String[0]);
       return this;
    }
    
@@ -3134,9 +3056,6 @@ public class Manager implements IManager {
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       String sql = String.format("SELECT * FROM %s", tableName);
       String where = "";
       if (conditions != null && conditions.length > 0) {
@@ -3324,149 +3243,16 @@ public class Manager implements IManager {
          if (JediEngine.DEBUG) {
             System.out.println(sql + ";\n");
          }
-         connect();
-         statement = connection.prepareStatement(sql);
+         connect(true);
+         statement = PreparedSql.of(sql).prepare(activeConnection());
          resultSet = statement.executeQuery();
          if (!resultSet.next()) {
             return querySet;
          }
          resultSet.beforeFirst();
+         RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity);
          while (resultSet.next()) {
-            Object obj = entity.newInstance();
-            if (resultSet.getObject("id") != null) {
-               Field id = jedi.db.models.Model.class.getDeclaredField("id");
-               id.setAccessible(true);
-               if (this.connection.toString().startsWith("oracle")) {
-                  id.set(obj, ((java.math.BigDecimal) resultSet.getObject(id.getName())).intValue());
-               } else {
-                  id.set(obj, resultSet.getObject(id.getName()));
-               }
-            }
-            List<Field> _fields = JediEngine.getAllFields(this.entity);
-            for (Field field : _fields) {
-               field.setAccessible(true);
-               if (!JediEngine.isJediField(field)) {
-                  continue;
-               }
-               if (field.getName().equals("serialVersionUID"))
-                  continue;
-               if (field.getName().equalsIgnoreCase("objects"))
-                  continue;
-               oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-               foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-               manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-               FetchType fetchType = JediEngine.FETCH_TYPE;
-               Manager manager = null;
-               if (manyToManyFieldAnnotation != null) {
-                  fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     Class superClazz = null;
-                     Class clazz = null;
-                     String packageName = this.entity.getPackage().getName();
-                     String model = manyToManyFieldAnnotation.model().getSimpleName();
-                     model = Model.class.getSimpleName().equals(model) ? "" : model;
-                     if (model.isEmpty()) {
-                        ParameterizedType genericType = null;
-                        if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                           genericType = (ParameterizedType) field.getGenericType();
-                           superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                           if (superClazz == Model.class) {
-                              clazz = (Class) genericType.getActualTypeArguments()[0];
-                              model = clazz.getSimpleName();
-                           }
-                        }
-                     }
-                     String references = manyToManyFieldAnnotation.references();
-                     if (references == null || references.trim().isEmpty()) {
-                        if (clazz != null) {
-                           references = TableUtil.getTableName(clazz);
-                        } else {
-                           references = TableUtil.getTableName(model);
-                        }
-                     }
-                     Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                     manager = new Manager(associatedModelClass);
-                     List<List<Map<String, Object>>> recordSet = null;
-                     recordSet = manager.raw(
-                           String.format(
-                                 "SELECT %s_id FROM %s_%s WHERE %s_id = %d",
-                                 TableUtil.getColumnName(model),
-                                 tableName,
-                                 TableUtil.getTableName(references),
-                                 TableUtil.getColumnName(this.entity),
-                                 ((Model) obj).id()));
-                     String args = recordSet.toString();
-                     args = args.replace("[", "");
-                     args = args.replace("{", "");
-                     args = args.replace("]", "");
-                     args = args.replace("}", "");
-                     args = args.replace("=", "");
-                     args = args.replace(", ", ",");
-                     args = args.replace(String.format("%s_id", TableUtil.getColumnName(model)), "");
-                     args = String.format("id__in=[%s]", args);
-                     QuerySet querySetAssociatedModels = manager._filter(args);
-                     field.set(obj, querySetAssociatedModels);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                  if (oneToOneFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                  } else {
-                     fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                  }
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     Class associatedModelClass = Class.forName(field.getType().getName());
-                     manager = new Manager(associatedModelClass);
-                     String columnName = TableUtil.getColumnName(field);
-                     Object id = resultSet.getObject(String.format("%s_id", columnName));
-                     Model associatedModel = manager.get("id", id);
-                     field.set(obj, associatedModel);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else {
-                  if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                        this.connection.toString().startsWith("oracle")) {
-                     if (resultSet.getObject(TableUtil.getColumnName(field.getName())) == null) {
-                        field.set(obj, 0);
-                     } else {
-                        String columnName = TableUtil.getColumnName(field.getName());
-                        BigDecimal columnValue = (BigDecimal) resultSet.getObject(columnName);
-                        field.set(obj, columnValue.intValue());
-                     }
-                  } else {
-                     String columnName = TableUtil.getColumnName(field.getName());
-                     Object columnValue = resultSet.getObject(columnName);
-                     if (columnValue instanceof java.sql.Date) {
-                        java.sql.Date date = (java.sql.Date) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(date.getTime());
-                        calendar.set(Calendar.HOUR_OF_DAY, 0);
-                        calendar.set(Calendar.MINUTE, 0);
-                        calendar.set(Calendar.SECOND, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof java.sql.Time) {
-                        java.sql.Time time = (java.sql.Time) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(time.getTime());
-                        calendar.set(Calendar.YEAR, 0);
-                        calendar.set(Calendar.MONTH, 0);
-                        calendar.set(Calendar.DAY_OF_MONTH, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof Timestamp) {
-                        Timestamp timestamp = (Timestamp) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(timestamp.getTime());
-                        columnValue = calendar.getTime();
-                     }
-                     field.set(obj, columnValue);
-                  }
-               }
-               manager = null;
-            }
+            Object obj = mapper.map(resultSet);
             T model = (T) obj;
             if (model != null) {
                model.setPersisted(true);
@@ -3479,7 +3265,7 @@ public class Manager implements IManager {
       } catch (Exception e) {
          e.printStackTrace();
       } finally {
-         close(resultSet, statement, connection);
+         close(resultSet, statement, activeConnection());
       }
       return querySet;
    }
@@ -3527,783 +3313,805 @@ public class Manager implements IManager {
    // um Model
    // TODO - seja feito uma consulta join.
    public <T extends Model> QuerySet<T> filter(Class<T> modelClass, String... fields) {
-      QuerySet<T> querySet = new QuerySet<T>();
+      if (fields == null) {
+         QuerySet<T> querySet = new QuerySet<T>();
+         querySet.setEntity((Class<T>) this.entity);
+         return querySet;
+      }
+      return select(selectRelated(filterSql(fields)));
+   }
+   
+   /**
+    * Executa a instrução SELECT e converte os registros em modelos da
+    * entidade.
+    */
+   <T extends Model> QuerySet<T> select(String sql) {
+      return select(sql, null);
+   }
+   
+   /**
+    * @param parameters
+    *           valores dos marcadores já presentes na instrução (ver
+    *           {@link PreparedSql#of(String, List)})
+    */
+   private <T extends Model> QuerySet<T> select(String sql, List<Object> parameters) {
+      String key = queryCacheKey("select", parameters == null || parameters.isEmpty() ? sql : sql + parameters);
+      QuerySet<T> querySet = QueryCache.get(key);
+      if (querySet != null) {
+         return querySet;
+      }
+      QueryCache.Stamp stamp = key == null ? null : QueryCache.stamp(sql);
+      querySet = new QuerySet<T>();
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
-      if (fields != null) {
-         try {
-            String sql = String.format("SELECT * FROM %s WHERE", tableName);
-            String format = "SELECT\n\t*\nFROM\n\t%s AS %s\n%s%s";
-            String joins = "";
-            String join = "";
-            String where = "";
-            String fieldName = "";
-            String fieldValue = "";
-            // Iterates through the pairs field=value passed.
-            for (int i = 0; i < fields.length; i++) {
-               fields[i] = fields[i] == null ? "" : fields[i].trim();
-               if (fields[i].isEmpty()) {
-                  continue;
-               }
-               join = FieldLookup.translateJoin(entityName + "." + fields[i]);
-               if (!joins.contains(join)) {
-                  joins += join;
-                  if (fields[i].matches("(\\w+\\.)+\\w+__.*")) {
-                     fields[i] = fields[i].replace(fields[i].replaceAll("\\w+\\.\\w+__.*", ""), "");
-                  }
-               }
-               if (fields[i].equalsIgnoreCase("AND")) {
-                  fields[i] = "AND";
-               }
-               if (fields[i].equalsIgnoreCase("OR")) {
-                  fields[i] = "OR";
-               }
-               String[] decomposedEl = FieldLookup.decompose(fields[i]);
-               if (decomposedEl.length > 0) {
-                  Field associationField = JediEngine.getField(decomposedEl[0], entity);
-                  if (JediEngine.isOneToOneField(associationField) || JediEngine.isForeignKeyField(associationField)) {
-                     fields[i] = fields[i].replace(decomposedEl[0], decomposedEl[0] + "_id");
-                  }
-               }
-               // Changes the name of the field to the corresponding pattern
-               // name on the database.
-               if (fields[i].contains("=")) {
-                  fieldName = fields[i].substring(0, fields[i].lastIndexOf("="));
-                  fieldName = TableUtil.getColumnName(fieldName);
-                  fieldValue = fields[i].substring(fields[i].lastIndexOf("="));
-                  fields[i] = String.format("%s%s", fieldName, fieldValue);
-               }
-               // Adds a blank space between the field name and value.
-               fields[i] = fields[i].replace("=", " = ");
-               // Replaces % by \%
-               fields[i] = fields[i].replace("%", "\\%");
-               // Adds a blank space between the values separated by commas.
-               fields[i] = fields[i].replace(",", ", ");
-               // Checks if the current pair contains __startswith, __contains
-               // or __endswith.
-               if (fields[i].indexOf("__startswith") > -1 || fields[i].indexOf("__!startswith") > -1 ||
-                     fields[i].indexOf("__istartswith") > -1 || fields[i].indexOf("__!istartswith") > -1 ||
-                     fields[i].indexOf("__contains") > -1 || fields[i].indexOf("__icontains") > -1 || fields[i].indexOf("__!contains") > -1 ||
-                     fields[i].indexOf("__!icontains") > -1 || fields[i].indexOf("__endswith") > -1 || fields[i].indexOf("__!endswith") > -1 ||
-                     fields[i].indexOf("__iendswith") > -1 || fields[i].indexOf("__!iendswith") > -1) {
-                  // Creates a LIKE statement in SQL.
-                  if (fields[i].indexOf("__startswith") > -1) {
-                     fields[i] = fields[i].replace("__startswith = ", " LIKE ");
-                     // Replaces 'value' by 'value%'.
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\'";
-                  } else if (fields[i].indexOf("__!startswith") > -1) {
-                     fields[i] = fields[i].replace("__!startswith = ", " NOT LIKE ");
-                     // Replaces 'value' by 'value%'.
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\'";
-                  } else if (fields[i].indexOf("__istartswith") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__istartswith *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\')";
-                  } else if (fields[i].indexOf("__!istartswith") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__!istartswith *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\')";
-                  } else if (fields[i].indexOf("__contains") > -1) {
-                     fields[i] = fields[i].replace("__contains = ", " LIKE ");
-                     // Replaces 'value' by '%value%'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\'";
-                  } else if (fields[i].indexOf("__!contains") > -1) {
-                     fields[i] = fields[i].replace("__!contains = ", " NOT LIKE ");
-                     // Replaces 'value' by '%value%'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\'";
-                  } else if (fields[i].indexOf("__icontains") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__icontains *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\')";
-                  } else if (fields[i].indexOf("__!icontains") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__!icontains *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                     fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
-                     fields[i] = fields[i] + "%\')";
-                  } else if (fields[i].indexOf("__endswith") > -1) {
-                     fields[i] = fields[i].replace("__endswith = ", " LIKE ");
-                     // Replaces 'value' by '%value'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                  } else if (fields[i].indexOf("__iendswith") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__iendswith *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
-                     // Replaces 'value' by '%value'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                  } else if (fields[i].indexOf("__!endswith") > -1) {
-                     fields[i] = fields[i].replace("__!endswith = ", " NOT LIKE ");
-                     // Replaces 'value' by '%value'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                  } else if (fields[i].indexOf("__!iendswith") > -1) {
-                     fields[i] = fields[i].replaceAll("^(.*)__!iendswith *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
-                     // Replaces 'value' by '%value'.
-                     fields[i] = fields[i].replaceFirst("\'", "\'%");
-                  }
-               }
-               if (fields[i].indexOf("__in") > -1) {
-                  // Creates a IN statement in SQL.
-                  fields[i] = fields[i].replace("__in = ", " IN ");
-                  // Replaces [] by ()
-                  fields[i] = fields[i].replace("[", "(");
-                  fields[i] = fields[i].replace("]", ")");
-               }
-               if (fields[i].indexOf("__!in") > -1) {
-                  // Creates a IN statement in SQL.
-                  fields[i] = fields[i].replace("__!in = ", " NOT IN ");
-                  // Replaces [] by ()
-                  fields[i] = fields[i].replace("[", "(");
-                  fields[i] = fields[i].replace("]", ")");
-               }
-               if (fields[i].indexOf("__range") > -1) {
-                  // Creates a BETWEEN statement in SQL.
-                  fields[i] = fields[i].replace("__range = ", " BETWEEN ");
-                  // Removes [ or ] characters.
-                  fields[i] = fields[i].replace("[", "");
-                  fields[i] = fields[i].replace("]", "");
-                  // Replaces , (comma character) by AND.
-                  fields[i] = fields[i].replace(", ", " AND ");
-               }
-               if (fields[i].indexOf("__!range") > -1) {
-                  // Creates a BETWEEN statement in SQL.
-                  fields[i] = fields[i].replace("__!range = ", " NOT BETWEEN ");
-                  // Removes [ or ] characters.
-                  fields[i] = fields[i].replace("[", "");
-                  fields[i] = fields[i].replace("]", "");
-                  // Replaces , (comma character) by AND.
-                  fields[i] = fields[i].replace(", ", " AND ");
-               }
-               if (fields[i].indexOf("__regex") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__regex ?= ?(.*)$", " $1 REGEXP BINARY '$2'");
-               }
-               if (fields[i].indexOf("__iregex") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__iregex ?= ?(.*)$", " $1 REGEXP '$2'");
-               }
-               if (fields[i].matches(".*__year__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__lt *= *(\\d{4})$", " $1 < '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?< ?(\\d{4})$", " $1 < '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__!lt *= *(\\d{4})$", " NOT $1 < '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__lte *= *(\\d{4})$", " $1 <= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?<= ?(\\d{4})$", " $1 <= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__!lte *= *(\\d{4})$", " NOT $1 <= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__gt *= *(\\d{4})$", " $1 > '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?> ?(\\d{4})$", " $1 > '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__!gt *= *(\\d{4})$", " NOT $1 > '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__gte *= *(\\d{4})$", " $1 >= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?>= ?(\\d{4})$", " $1 >= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__!gte *= *(\\d{4})$", " NOT $1 >= '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__exact *= *(\\d{4})$", " $1 = '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year__!exact *= *(\\d{4})$", " NOT $1 = '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year *= *(\\d{4})$", " $1 BETWEEN '$2-01-01' AND '$2-12-31'");
-               }
-               if (fields[i].matches(".*__!year *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!year *= *(\\d{4})$", " $1 NOT BETWEEN '$2-01-01' AND '$2-12-31'");
-               }
-               if (fields[i].matches(".*__year ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?!= ?(\\d{4})$", " $1 != '$2-01-01'");
-               }
-               if (fields[i].matches(".*__year ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__year ?<> ?(\\d{4})$", " $1 <> '$2-01-01'");
-               }
-               if (fields[i].matches(".*__month__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__lt *= *(\\d{2})$", " EXTRACT(month FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__month ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?< ?(\\d{2})$", " EXTRACT(month FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__month__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__!lt *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__month__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__lte *= *(\\d{2})$", " EXTRACT(month FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__month ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?<= ?(\\d{2})$", " EXTRACT(month FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__month__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__!lte *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__month__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__gt *= *(\\d{2})$", " EXTRACT(month FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__month ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?> ?(\\d{2})$", " EXTRACT(month FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__month__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__!gt *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__month__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__gte *= *(\\d{2})$", " EXTRACT(month FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__month ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?>= ?(\\d{2})$", " EXTRACT(month FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__month__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__!gte *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__month__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__exact *= *(\\d{2})$", " EXTRACT(month FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__month__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month__!exact *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__month *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month *= *(\\d{2})$", " EXTRACT(month FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__!month *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!month *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__month ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?!= ?(\\d{2})$", " EXTRACT(month FROM $1) != '$2'");
-               }
-               if (fields[i].matches(".*__month ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__month ?<> ?(\\d{2})$", " EXTRACT(month FROM $1) <> '$2'");
-               }
-               if (fields[i].matches(".*__day__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__lt *= *(\\d{2})$", " EXTRACT(day FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__day ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?< ?(\\d{2})$", " EXTRACT(day FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__day__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__!lt *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__day__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__lte *= *(\\d{2})$", " EXTRACT(day FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__day ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?<= ?(\\d{2})$", " EXTRACT(day FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__day__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__!lte *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__day__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__gt *= *(\\d{2})$", " EXTRACT(day FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__day ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?> ?(\\d{2})$", " EXTRACT(day FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__day__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__!gt *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__day__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__gte *= *(\\d{2})$", " EXTRACT(day FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__day ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?>= ?(\\d{2})$", " EXTRACT(day FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__day__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__!gte *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__day__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__exact *= *(\\d{2})$", " EXTRACT(day FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__day__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day__!exact *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__day *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day *= *(\\d{2})$", " EXTRACT(day FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__!day *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!day *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__day ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?!= ?(\\d{2})$", " EXTRACT(month FROM $1) != '$2'");
-               }
-               if (fields[i].matches(".*__day ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__day ?<> ?(\\d{2})$", " EXTRACT(month FROM $1) <> '$2'");
-               }
-               if (fields[i].matches(".*__week_day__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__lt *= *(\\d{2})$", " WEEKDAY($1) < '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?< ?(\\d{2})$", " WEEKDAY($1) < '$2'");
-               }
-               if (fields[i].matches(".*__week_day__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__!lt *= *(\\d{2})$", " NOT WEEKDAY($1) < '$2'");
-               }
-               if (fields[i].matches(".*__week_day__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__lte *= *(\\d{2})$", " WEEKDAY($1) <= '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?<= ?(\\d{2})$", " WEEKDAY($1) <= '$2'");
-               }
-               if (fields[i].matches(".*__week_day__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__!lte *= *(\\d{2})$", " NOT WEEKDAY($1) <= '$2'");
-               }
-               if (fields[i].matches(".*__week_day__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__gt *= *(\\d{2})$", " WEEKDAY($1) > '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?> ?(\\d{2})$", " WEEKDAY($1) > '$2'");
-               }
-               if (fields[i].matches(".*__week_day__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__!gt *= *(\\d{2})$", " NOT WEEKDAY($1) > '$2'");
-               }
-               if (fields[i].matches(".*__week_day__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__gte *= *(\\d{2})$", " WEEKDAY($1) >= '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?>= ?(\\d{2})$", " WEEKDAY($1) >= '$2'");
-               }
-               if (fields[i].matches(".*__week_day__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__!gte *= *(\\d{2})$", " NOT WEEKDAY($1) >= '$2'");
-               }
-               if (fields[i].matches(".*__week_day__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__exact *= *(\\d{2})$", " WEEKDAY($1) = '$2'");
-               }
-               if (fields[i].matches(".*__week_day__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day__exact *= *(\\d{2})$", " NOT WEEKDAY($1) = '$2'");
-               }
-               if (fields[i].matches(".*__week_day *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day *= *(\\d{2})$", " WEEKDAY($1) = '$2'");
-               }
-               if (fields[i].matches(".*__!week_day *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!week_day *= *(\\d{2})$", " NOT WEEKDAY($1) = '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?!= ?(\\d{2})$", " WEEKDAY($1) != '$2'");
-               }
-               if (fields[i].matches(".*__week_day ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__week_day ?<> ?(\\d{2})$", " WEEKDAY($1) <> '$2'");
-               }
-               if (fields[i].matches(".*__hour__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__lt *= *(\\d{2})$", " EXTRACT(hour FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__hour ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?< ?(\\d{2})$", " EXTRACT(hour FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__hour__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__!lt *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__hour__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__lte *= *(\\d{2})$", " EXTRACT(hour FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__hour ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?<= ?(\\d{2})$", " EXTRACT(hour FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__hour__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__!lte *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__hour__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__gt *= *(\\d{2})$", " EXTRACT(hour FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__hour ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?> ?(\\d{2})$", " EXTRACT(hour FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__hour__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__!gt *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__hour__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__gte *= *(\\d{2})$", " EXTRACT(hour FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__hour ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?>= ?(\\d{2})$", " EXTRACT(hour FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__hour__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__!gte *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__hour__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__exact *= *(\\d{2})$", " EXTRACT(hour FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__hour__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour__!exact *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__hour *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour *= *(\\d{2})$", " EXTRACT(hour FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__!hour *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!hour *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__hour ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?!= ?(\\d{2})$", " EXTRACT(hour FROM $1) != '$2'");
-               }
-               if (fields[i].matches(".*__hour ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__hour ?<> ?(\\d{2})$", " EXTRACT(hour FROM $1) <> '$2'");
-               }
-               if (fields[i].matches(".*__minute__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__lt *= *(\\d{2})$", " EXTRACT(minute FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__minute ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?< ?(\\d{2})$", " EXTRACT(minute FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__minute__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__!lt *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__minute__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__lte *= *(\\d{2})$", " EXTRACT(minute FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__minute ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?<= ?(\\d{2})$", " EXTRACT(minute FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__minute__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__!lte *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__minute__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__gt *= *(\\d{2})$", " EXTRACT(minute FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__minute ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?> ?(\\d{2})$", " EXTRACT(minute FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__minute__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__!gt *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__minute__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__gte *= *(\\d{2})$", " EXTRACT(minute FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__minute ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?>= ?(\\d{2})$", " EXTRACT(minute FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__minute__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__!gte *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__minute__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__exact *= *(\\d{2})$", " EXTRACT(minute FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__minute__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute__!exact *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__minute *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute *= *(\\d{2})$", " EXTRACT(minute FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__!minute *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!minute *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__minute ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?!= ?(\\d{2})$", " EXTRACT(minute FROM $1) != '$2'");
-               }
-               if (fields[i].matches(".*__minute ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__minute ?<> ?(\\d{2})$", " EXTRACT(minute FROM $1) <> '$2'");
-               }
-               if (fields[i].matches(".*__second__lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__lt *= *(\\d{2})$", " EXTRACT(second FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__second ?< ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?< ?(\\d{2})$", " EXTRACT(second FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__second__!lt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__!lt *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) < '$2'");
-               }
-               if (fields[i].matches(".*__second__lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__lte *= *(\\d{2})$", " EXTRACT(second FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__second ?<= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?<= ?(\\d{2})$", " EXTRACT(second FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__second__!lte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__!lte *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) <= '$2'");
-               }
-               if (fields[i].matches(".*__second__gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__gt *= *(\\d{2})$", " EXTRACT(second FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__second ?> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?> ?(\\d{2})$", " EXTRACT(second FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__second__!gt.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__!gt *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) > '$2'");
-               }
-               if (fields[i].matches(".*__second__gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__gte *= *(\\d{2})$", " EXTRACT(second FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__second ?>= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?>= ?(\\d{2})$", " EXTRACT(second FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__second__!gte.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__!gte *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) >= '$2'");
-               }
-               if (fields[i].matches(".*__second__exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__exact *= *(\\d{2})$", " EXTRACT(second FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__second__!exact.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second__!exact *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__second *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second *= *(\\d{2})$", " EXTRACT(second FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__!second *= *.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!second *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) = '$2'");
-               }
-               if (fields[i].matches(".*__second ?!= ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?!= ?(\\d{2})$", " EXTRACT(second FROM $1) != '$2'");
-               }
-               if (fields[i].matches(".*__second ?<> ?.*")) {
-                  fields[i] = fields[i].replaceAll("^(.*)__second ?<> ?(\\d{2})$", " EXTRACT(second FROM $1) <> '$2'");
-               }
-               if (fields[i].indexOf("__lt") > -1) {
-                  fields[i] = fields[i].replace("__lt = ", " < ");
-               }
-               if (fields[i].indexOf("__!lt") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!lt *= *(.*)$", "NOT $1 < $2");
-               }
-               if (fields[i].indexOf("__lte") > -1) {
-                  fields[i] = fields[i].replace("__lte = ", " <= ");
-               }
-               if (fields[i].indexOf("__!lte") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!lte *= *(.*)$", "NOT $1 <= $2");
-               }
-               if (fields[i].indexOf("__gt") > -1) {
-                  fields[i] = fields[i].replace("__gt = ", " > ");
-               }
-               if (fields[i].indexOf("__!gt") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!gt *= *(.*)$", "NOT $1 > $2");
-               }
-               if (fields[i].indexOf("__gte") > -1) {
-                  fields[i] = fields[i].replace("__gte = ", " >= ");
-               }
-               if (fields[i].indexOf("__!gte") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__!gte *= *(.*)$", "NOT $1 >= $2");
-               }
-               if (fields[i].indexOf("__exact") > -1) {
-                  fields[i] = fields[i].replace("__exact = ", " = ");
-               }
-               if (fields[i].indexOf("__!exact") > -1) {
-                  fields[i] = fields[i].replace("__!exact = ", " != ");
-               }
-               if (fields[i].indexOf("__isnull") > -1) {
-                  String bool = fields[i].substring(fields[i].indexOf("=") + 1, fields[i].length()).trim();
-                  if (bool.equalsIgnoreCase("true")) {
-                     fields[i] = fields[i].replace("__isnull = ", " IS NULL ");
-                  }
-                  if (bool.equalsIgnoreCase("false")) {
-                     fields[i] = fields[i].replace("__isnull = ", " IS NOT NULL ");
-                  }
-                  fields[i] = fields[i].replace(bool, "");
-               }
-               where += fields[i] + " AND ";
-               where = where.replace(" AND OR AND", " OR");
-               where = where.replace(" AND AND AND", " AND");
+      try {
+         PreparedSql select = PreparedSql.of(sql, parameters);
+         if (JediEngine.DEBUG) {
+            System.out.println(select + ";\n");
+         }
+         connect(true);
+         statement = select.prepare(activeConnection());
+         resultSet = statement.executeQuery();
+         RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity, true);
+         while (resultSet.next()) {
+            Object obj = mapper.map(resultSet);
+            T model = (T) obj;
+            if (model != null) {
+               model.setPersisted(true);
             }
-            where = where.substring(0, where.lastIndexOf("AND"));
-            where = where.trim();
-            if (joins.isEmpty()) {
-               sql = String.format("%s %s", sql, where);
-            } else {
-               sql = String.format(format, tableName, entityName, joins, where.isEmpty() ? "" : "WHERE\n\t" + where);
-               // controla o grau de identação da instrução SQL.
-               sql = sql.replaceAll("\t", "    ");
+            querySet.add(model);
+         }
+         prefetch(querySet);
+         querySet.setPersisted(true);
+         QueryCache.put(key, stamp, querySet);
+      } catch (Exception e) {
+         e.printStackTrace();
+      } finally {
+         close(statement, resultSet, activeConnection());
+      }
+      return querySet;
+   }
+   
+   /**
+    * Executa uma instrução SELECT COUNT e retorna o valor da primeira
+    * coluna.
+    */
+   int selectCount(String sql) {
+      String key = queryCacheKey("count", sql);
+      Integer cached = QueryCache.get(key);
+      if (cached != null) {
+         return cached;
+      }
+      QueryCache.Stamp stamp = key == null ? null : QueryCache.stamp(sql);
+      int rows = 0;
+      PreparedStatement statement = null;
+      ResultSet resultSet = null;
+      try {
+         PreparedSql select = PreparedSql.of(sql);
+         if (JediEngine.DEBUG) {
+            System.out.println(select + ";\n");
+         }
+         connect(true);
+         statement = select.prepare(activeConnection());
+         resultSet = statement.executeQuery();
+         if (resultSet.next()) {
+            rows = resultSet.getInt(1);
+         }
+         QueryCache.put(key, stamp, rows);
+      } catch (Exception e) {
+         e.printStackTrace();
+      } finally {
+         close(statement, resultSet, activeConnection());
+      }
+      return rows;
+   }
+   
+   /**
+    * Executa um SELECT e retorna as linhas com os valores de cada coluna
+    * pelos nomes informados, na ordem das colunas.
+    */
+   List<Map<String, Object>> selectRows(String sql, List<String> labels) {
+      String key = queryCacheKey("rows", sql);
+      List<Map<String, Object>> rows = QueryCache.get(key);
+      if (rows != null) {
+         return rows;
+      }
+      QueryCache.Stamp stamp = key == null ? null : QueryCache.stamp(sql);
+      rows = new ArrayList<>();
+      PreparedStatement statement = null;
+      ResultSet resultSet = null;
+      try {
+         PreparedSql select = PreparedSql.of(sql);
+         if (JediEngine.DEBUG) {
+            System.out.println(select + ";\n");
+         }
+         connect(true);
+         statement = select.prepare(activeConnection());
+         resultSet = statement.executeQuery();
+         while (resultSet.next()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < labels.size(); i++) {
+               row.put(labels.get(i), resultSet.getObject(i + 1));
             }
-            String _sql = likeSqlDateTime(sql);
-            if (!_sql.isEmpty()) {
-               sql = _sql;
+            rows.add(row);
+         }
+         QueryCache.put(key, stamp, rows);
+      } catch (Exception e) {
+         e.printStackTrace();
+      } finally {
+         close(statement, resultSet, activeConnection());
+      }
+      return rows;
+   }
+   
+   /**
+    * Traduz as condições de pesquisa (field lookups) de filter para a
+    * instrução SELECT correspondente.
+    * 
+    * @param fields
+    * @return a instrução SQL
+    */
+   private String filterSql(String... fields) {
+      String sql = String.format("SELECT * FROM %s WHERE", tableName);
+      String format = "SELECT\n\t*\nFROM\n\t%s AS %s\n%s%s";
+      String joins = "";
+      String join = "";
+      String where = "";
+      String fieldName = "";
+      String fieldValue = "";
+      // Iterates through the pairs field=value passed.
+      for (int i = 0; i < fields.length; i++) {
+         fields[i] = fields[i] == null ? "" : fields[i].trim();
+         if (fields[i].isEmpty()) {
+            continue;
+         }
+         join = FieldLookup.translateJoin(entityName + "." + fields[i]);
+         if (!joins.contains(join)) {
+            joins += join;
+            if (fields[i].matches("(\\w+\\.)+\\w+__.*")) {
+               fields[i] = fields[i].replace(fields[i].replaceAll("\\w+\\.\\w+__.*", ""), "");
             }
-            if (JediEngine.DEBUG) {
-               System.out.println(sql + ";\n");
+         }
+         if (fields[i].equalsIgnoreCase("AND")) {
+            fields[i] = "AND";
+         }
+         if (fields[i].equalsIgnoreCase("OR")) {
+            fields[i] = "OR";
+         }
+         String[] decomposedEl = FieldLookup.decompose(fields[i]);
+         if (decomposedEl.length > 0) {
+            Field associationField = JediEngine.getField(decomposedEl[0], entity);
+            if (JediEngine.isOneToOneField(associationField) || JediEngine.isForeignKeyField(associationField)) {
+               fields[i] = fields[i].replace(decomposedEl[0], decomposedEl[0] + "_id");
             }
-            connect();
-            statement = connection.prepareStatement(sql);
-            resultSet = statement.executeQuery();
-            if (!resultSet.next()) {
-               return querySet;
+         }
+         // Changes the name of the field to the corresponding pattern
+         // name on the database.
+         if (fields[i].contains("=")) {
+            fieldName = fields[i].substring(0, fields[i].lastIndexOf("="));
+            fieldName = TableUtil.getColumnName(fieldName);
+            fieldValue = fields[i].substring(fields[i].lastIndexOf("="));
+            fields[i] = String.format("%s%s", fieldName, fieldValue);
+         }
+         // Adds a blank space between the field name and value.
+         fields[i] = fields[i].replace("=", " = ");
+         // Replaces % by \%
+         fields[i] = fields[i].replace("%", "\\%");
+         // Adds a blank space between the values separated by commas.
+         fields[i] = fields[i].replace(",", ", ");
+         // Checks if the current pair contains __startswith, __contains
+         // or __endswith.
+         if (fields[i].indexOf("__startswith") > -1 || fields[i].indexOf("__!startswith") > -1 ||
+               fields[i].indexOf("__istartswith") > -1 || fields[i].indexOf("__!istartswith") > -1 ||
+               fields[i].indexOf("__contains") > -1 || fields[i].indexOf("__icontains") > -1 || fields[i].indexOf("__!contains") > -1 ||
+               fields[i].indexOf("__!icontains") > -1 || fields[i].indexOf("__endswith") > -1 || fields[i].indexOf("__!endswith") > -1 ||
+               fields[i].indexOf("__iendswith") > -1 || fields[i].indexOf("__!iendswith") > -1) {
+            // Creates a LIKE statement in SQL.
+            if (fields[i].indexOf("__startswith") > -1) {
+               fields[i] = fields[i].replace("__startswith = ", " LIKE ");
+               // Replaces 'value' by 'value%'.
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\'";
+            } else if (fields[i].indexOf("__!startswith") > -1) {
+               fields[i] = fields[i].replace("__!startswith = ", " NOT LIKE ");
+               // Replaces 'value' by 'value%'.
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\'";
+            } else if (fields[i].indexOf("__istartswith") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__istartswith *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\')";
+            } else if (fields[i].indexOf("__!istartswith") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__!istartswith *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\')";
+            } else if (fields[i].indexOf("__contains") > -1) {
+               fields[i] = fields[i].replace("__contains = ", " LIKE ");
+               // Replaces 'value' by '%value%'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\'";
+            } else if (fields[i].indexOf("__!contains") > -1) {
+               fields[i] = fields[i].replace("__!contains = ", " NOT LIKE ");
+               // Replaces 'value' by '%value%'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\'";
+            } else if (fields[i].indexOf("__icontains") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__icontains *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\')";
+            } else if (fields[i].indexOf("__!icontains") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__!icontains *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+               fields[i] = fields[i].substring(0, fields[i].lastIndexOf("\'"));
+               fields[i] = fields[i] + "%\')";
+            } else if (fields[i].indexOf("__endswith") > -1) {
+               fields[i] = fields[i].replace("__endswith = ", " LIKE ");
+               // Replaces 'value' by '%value'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+            } else if (fields[i].indexOf("__iendswith") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__iendswith *= *(.*)$", "UPPER($1) LIKE UPPER($2)");
+               // Replaces 'value' by '%value'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+            } else if (fields[i].indexOf("__!endswith") > -1) {
+               fields[i] = fields[i].replace("__!endswith = ", " NOT LIKE ");
+               // Replaces 'value' by '%value'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
+            } else if (fields[i].indexOf("__!iendswith") > -1) {
+               fields[i] = fields[i].replaceAll("^(.*)__!iendswith *= *(.*)$", "UPPER($1) NOT LIKE UPPER($2)");
+               // Replaces 'value' by '%value'.
+               fields[i] = fields[i].replaceFirst("\'", "\'%");
             }
-            resultSet.beforeFirst();
-            while (resultSet.next()) {
-               Object obj = entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(obj, ((java.math.BigDecimal) resultSet.getObject(id.getName())).intValue());
-                  } else {
-                     id.set(obj, resultSet.getObject(id.getName()));
-                  }
-               }
-               // Iterates through the fields of the model.
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field field : _fields) {
-                  // Sets private or protected fields as accessible.
-                  field.setAccessible(true);
-                  // Discards non annotated fields
-                  if (!JediEngine.isJediField(field)) {
-                     continue;
-                  }
-                  // Discards the serialVersionUID field.
-                  if (field.getName().equals("serialVersionUID"))
-                     continue;
-                  // Discards the objects field.
-                  if (field.getName().equalsIgnoreCase("objects"))
-                     continue;
-                  // Checks if the field are annotated as OneToOneField,
-                  // ForeignKeyField or ManyToManyField.
-                  oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class superClazz = null;
-                        Class clazz = null;
-                        String packageName = this.entity.getPackage().getName();
-                        String model = manyToManyFieldAnnotation.model().getSimpleName();
-                        model = Model.class.getSimpleName().equals(model) ? "" : model;
-                        if (model.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 model = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        String references = manyToManyFieldAnnotation.references();
-                        if (references == null || references.trim().isEmpty()) {
-                           if (clazz != null) {
-                              references = TableUtil.getTableName(clazz);
-                           } else {
-                              references = TableUtil.getTableName(model);
-                           }
-                        }
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                        manager = new Manager(associatedModelClass);
-                        List<List<Map<String, Object>>> recordSet = null;
-                        // Performs a SQL query.
-                        recordSet = manager.raw(
-                           String.format(
-                              "SELECT %s_id FROM %s_%s WHERE %s_id = %d",
-                              TableUtil.getColumnName(model),
-                              tableName,
-                              TableUtil.getTableName(references),
-                              TableUtil.getColumnName(this.entity),
-                              ((Model) obj).id()
-                           )
-                        );
-                        String args = recordSet.toString();
-                        args = args.replace("[", "");
-                        args = args.replace("{", "");
-                        args = args.replace("]", "");
-                        args = args.replace("}", "");
-                        args = args.replace("=", "");
-                        args = args.replace(", ", ",");
-                        args = args.replace(String.format("%s_id", TableUtil.getColumnName(model)), "");
-                        args = String.format("id__in=[%s]", args);
-                        QuerySet querySetAssociatedModels = manager._filter(args);
-                        field.set(obj, querySetAssociatedModels);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                     if (oneToOneFieldAnnotation != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     }
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        // If it's recovers the field's class.
-                        Class associatedModelClass = Class.forName(field.getType().getName());
-                        // Instanciates a Model Manager.
-                        manager = new Manager(associatedModelClass);
-                        String columnName = TableUtil.getColumnName(field);
-                        Object id = resultSet.getObject(String.format("%s_id", columnName));
-                        Model associatedModel = manager.get("id", id);
-                        // Calls the get method recursivelly.
-                        // References the model associated by foreign key
-                        // annotation.
-                        field.set(obj, associatedModel);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else {
-                     // Sets fields the aren't Model's instances.
-                     if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        if (resultSet.getObject(TableUtil.getColumnName(field.getName())) == null) {
-                           field.set(obj, 0);
-                        } else {
-                           String columnName = TableUtil.getColumnName(field.getName());
-                           BigDecimal columnValue = (BigDecimal) resultSet.getObject(columnName);
-                           field.set(obj, columnValue.intValue());
-                        }
-                     } else {
-                        String columnName = TableUtil.getColumnName(field.getName());
-                        Object columnValue = resultSet.getObject(columnName);
-                        if (columnValue instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           columnValue = calendar.getTime();
-                        }
-                        field.set(obj, columnValue);
-                     }
-                  }
-                  manager = null;
-               }
-               T model = (T) obj;
-               if (model != null) {
-                  model.setPersisted(true);
-               }
-               querySet.add(model);
+         }
+         if (fields[i].indexOf("__in") > -1) {
+            // Creates a IN statement in SQL.
+            fields[i] = fields[i].replace("__in = ", " IN ");
+            // Replaces [] by ()
+            fields[i] = fields[i].replace("[", "(");
+            fields[i] = fields[i].replace("]", ")");
+         }
+         if (fields[i].indexOf("__!in") > -1) {
+            // Creates a IN statement in SQL.
+            fields[i] = fields[i].replace("__!in = ", " NOT IN ");
+            // Replaces [] by ()
+            fields[i] = fields[i].replace("[", "(");
+            fields[i] = fields[i].replace("]", ")");
+         }
+         if (fields[i].indexOf("__range") > -1) {
+            // Creates a BETWEEN statement in SQL.
+            fields[i] = fields[i].replace("__range = ", " BETWEEN ");
+            // Removes [ or ] characters.
+            fields[i] = fields[i].replace("[", "");
+            fields[i] = fields[i].replace("]", "");
+            // Replaces , (comma character) by AND.
+            fields[i] = fields[i].replace(", ", " AND ");
+         }
+         if (fields[i].indexOf("__!range") > -1) {
+            // Creates a BETWEEN statement in SQL.
+            fields[i] = fields[i].replace("__!range = ", " NOT BETWEEN ");
+            // Removes [ or ] characters.
+            fields[i] = fields[i].replace("[", "");
+            fields[i] = fields[i].replace("]", "");
+            // Replaces , (comma character) by AND.
+            fields[i] = fields[i].replace(", ", " AND ");
+         }
+         if (fields[i].indexOf("regex") > -1) {
+            fields[i] = regex(fields[i]);
+         }
+         if (fields[i].matches(".*__year__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__lt *= *(\\d{4})$", " $1 < '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?< ?(\\d{4})$", " $1 < '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__!lt *= *(\\d{4})$", " NOT $1 < '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__lte *= *(\\d{4})$", " $1 <= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?<= ?(\\d{4})$", " $1 <= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__!lte *= *(\\d{4})$", " NOT $1 <= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__gt *= *(\\d{4})$", " $1 > '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?> ?(\\d{4})$", " $1 > '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__!gt *= *(\\d{4})$", " NOT $1 > '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__gte *= *(\\d{4})$", " $1 >= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?>= ?(\\d{4})$", " $1 >= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__!gte *= *(\\d{4})$", " NOT $1 >= '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__exact *= *(\\d{4})$", " $1 = '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year__!exact *= *(\\d{4})$", " NOT $1 = '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year *= *(\\d{4})$", " $1 BETWEEN '$2-01-01' AND '$2-12-31'");
+         }
+         if (fields[i].matches(".*__!year *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!year *= *(\\d{4})$", " $1 NOT BETWEEN '$2-01-01' AND '$2-12-31'");
+         }
+         if (fields[i].matches(".*__year ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?!= ?(\\d{4})$", " $1 != '$2-01-01'");
+         }
+         if (fields[i].matches(".*__year ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__year ?<> ?(\\d{4})$", " $1 <> '$2-01-01'");
+         }
+         if (fields[i].matches(".*__month__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__lt *= *(\\d{2})$", " EXTRACT(month FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__month ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?< ?(\\d{2})$", " EXTRACT(month FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__month__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__!lt *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__month__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__lte *= *(\\d{2})$", " EXTRACT(month FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__month ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?<= ?(\\d{2})$", " EXTRACT(month FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__month__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__!lte *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__month__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__gt *= *(\\d{2})$", " EXTRACT(month FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__month ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?> ?(\\d{2})$", " EXTRACT(month FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__month__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__!gt *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__month__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__gte *= *(\\d{2})$", " EXTRACT(month FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__month ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?>= ?(\\d{2})$", " EXTRACT(month FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__month__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__!gte *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__month__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__exact *= *(\\d{2})$", " EXTRACT(month FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__month__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month__!exact *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__month *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month *= *(\\d{2})$", " EXTRACT(month FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__!month *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!month *= *(\\d{2})$", " NOT EXTRACT(month FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__month ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?!= ?(\\d{2})$", " EXTRACT(month FROM $1) != '$2'");
+         }
+         if (fields[i].matches(".*__month ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__month ?<> ?(\\d{2})$", " EXTRACT(month FROM $1) <> '$2'");
+         }
+         if (fields[i].matches(".*__day__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__lt *= *(\\d{2})$", " EXTRACT(day FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__day ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?< ?(\\d{2})$", " EXTRACT(day FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__day__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__!lt *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__day__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__lte *= *(\\d{2})$", " EXTRACT(day FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__day ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?<= ?(\\d{2})$", " EXTRACT(day FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__day__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__!lte *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__day__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__gt *= *(\\d{2})$", " EXTRACT(day FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__day ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?> ?(\\d{2})$", " EXTRACT(day FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__day__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__!gt *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__day__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__gte *= *(\\d{2})$", " EXTRACT(day FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__day ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?>= ?(\\d{2})$", " EXTRACT(day FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__day__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__!gte *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__day__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__exact *= *(\\d{2})$", " EXTRACT(day FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__day__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day__!exact *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__day *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day *= *(\\d{2})$", " EXTRACT(day FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__!day *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!day *= *(\\d{2})$", " NOT EXTRACT(day FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__day ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?!= ?(\\d{2})$", " EXTRACT(month FROM $1) != '$2'");
+         }
+         if (fields[i].matches(".*__day ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__day ?<> ?(\\d{2})$", " EXTRACT(month FROM $1) <> '$2'");
+         }
+         if (fields[i].matches(".*__week_day__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__lt *= *(\\d{2})$", " WEEKDAY($1) < '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?< ?(\\d{2})$", " WEEKDAY($1) < '$2'");
+         }
+         if (fields[i].matches(".*__week_day__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__!lt *= *(\\d{2})$", " NOT WEEKDAY($1) < '$2'");
+         }
+         if (fields[i].matches(".*__week_day__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__lte *= *(\\d{2})$", " WEEKDAY($1) <= '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?<= ?(\\d{2})$", " WEEKDAY($1) <= '$2'");
+         }
+         if (fields[i].matches(".*__week_day__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__!lte *= *(\\d{2})$", " NOT WEEKDAY($1) <= '$2'");
+         }
+         if (fields[i].matches(".*__week_day__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__gt *= *(\\d{2})$", " WEEKDAY($1) > '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?> ?(\\d{2})$", " WEEKDAY($1) > '$2'");
+         }
+         if (fields[i].matches(".*__week_day__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__!gt *= *(\\d{2})$", " NOT WEEKDAY($1) > '$2'");
+         }
+         if (fields[i].matches(".*__week_day__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__gte *= *(\\d{2})$", " WEEKDAY($1) >= '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?>= ?(\\d{2})$", " WEEKDAY($1) >= '$2'");
+         }
+         if (fields[i].matches(".*__week_day__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__!gte *= *(\\d{2})$", " NOT WEEKDAY($1) >= '$2'");
+         }
+         if (fields[i].matches(".*__week_day__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__exact *= *(\\d{2})$", " WEEKDAY($1) = '$2'");
+         }
+         if (fields[i].matches(".*__week_day__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day__exact *= *(\\d{2})$", " NOT WEEKDAY($1) = '$2'");
+         }
+         if (fields[i].matches(".*__week_day *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day *= *(\\d{2})$", " WEEKDAY($1) = '$2'");
+         }
+         if (fields[i].matches(".*__!week_day *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!week_day *= *(\\d{2})$", " NOT WEEKDAY($1) = '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?!= ?(\\d{2})$", " WEEKDAY($1) != '$2'");
+         }
+         if (fields[i].matches(".*__week_day ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__week_day ?<> ?(\\d{2})$", " WEEKDAY($1) <> '$2'");
+         }
+         if (fields[i].matches(".*__hour__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__lt *= *(\\d{2})$", " EXTRACT(hour FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__hour ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?< ?(\\d{2})$", " EXTRACT(hour FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__hour__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__!lt *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__hour__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__lte *= *(\\d{2})$", " EXTRACT(hour FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__hour ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?<= ?(\\d{2})$", " EXTRACT(hour FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__hour__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__!lte *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__hour__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__gt *= *(\\d{2})$", " EXTRACT(hour FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__hour ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?> ?(\\d{2})$", " EXTRACT(hour FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__hour__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__!gt *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__hour__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__gte *= *(\\d{2})$", " EXTRACT(hour FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__hour ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?>= ?(\\d{2})$", " EXTRACT(hour FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__hour__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__!gte *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__hour__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__exact *= *(\\d{2})$", " EXTRACT(hour FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__hour__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour__!exact *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__hour *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour *= *(\\d{2})$", " EXTRACT(hour FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__!hour *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!hour *= *(\\d{2})$", " NOT EXTRACT(hour FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__hour ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?!= ?(\\d{2})$", " EXTRACT(hour FROM $1) != '$2'");
+         }
+         if (fields[i].matches(".*__hour ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__hour ?<> ?(\\d{2})$", " EXTRACT(hour FROM $1) <> '$2'");
+         }
+         if (fields[i].matches(".*__minute__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__lt *= *(\\d{2})$", " EXTRACT(minute FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__minute ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?< ?(\\d{2})$", " EXTRACT(minute FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__minute__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__!lt *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__minute__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__lte *= *(\\d{2})$", " EXTRACT(minute FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__minute ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?<= ?(\\d{2})$", " EXTRACT(minute FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__minute__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__!lte *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__minute__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__gt *= *(\\d{2})$", " EXTRACT(minute FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__minute ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?> ?(\\d{2})$", " EXTRACT(minute FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__minute__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__!gt *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__minute__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__gte *= *(\\d{2})$", " EXTRACT(minute FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__minute ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?>= ?(\\d{2})$", " EXTRACT(minute FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__minute__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__!gte *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__minute__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__exact *= *(\\d{2})$", " EXTRACT(minute FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__minute__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute__!exact *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__minute *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute *= *(\\d{2})$", " EXTRACT(minute FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__!minute *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!minute *= *(\\d{2})$", " NOT EXTRACT(minute FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__minute ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?!= ?(\\d{2})$", " EXTRACT(minute FROM $1) != '$2'");
+         }
+         if (fields[i].matches(".*__minute ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__minute ?<> ?(\\d{2})$", " EXTRACT(minute FROM $1) <> '$2'");
+         }
+         if (fields[i].matches(".*__second__lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__lt *= *(\\d{2})$", " EXTRACT(second FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__second ?< ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?< ?(\\d{2})$", " EXTRACT(second FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__second__!lt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__!lt *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) < '$2'");
+         }
+         if (fields[i].matches(".*__second__lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__lte *= *(\\d{2})$", " EXTRACT(second FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__second ?<= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?<= ?(\\d{2})$", " EXTRACT(second FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__second__!lte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__!lte *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) <= '$2'");
+         }
+         if (fields[i].matches(".*__second__gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__gt *= *(\\d{2})$", " EXTRACT(second FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__second ?> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?> ?(\\d{2})$", " EXTRACT(second FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__second__!gt.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__!gt *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) > '$2'");
+         }
+         if (fields[i].matches(".*__second__gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__gte *= *(\\d{2})$", " EXTRACT(second FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__second ?>= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?>= ?(\\d{2})$", " EXTRACT(second FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__second__!gte.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__!gte *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) >= '$2'");
+         }
+         if (fields[i].matches(".*__second__exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__exact *= *(\\d{2})$", " EXTRACT(second FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__second__!exact.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second__!exact *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__second *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second *= *(\\d{2})$", " EXTRACT(second FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__!second *= *.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__!second *= *(\\d{2})$", " NOT EXTRACT(second FROM $1) = '$2'");
+         }
+         if (fields[i].matches(".*__second ?!= ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?!= ?(\\d{2})$", " EXTRACT(second FROM $1) != '$2'");
+         }
+         if (fields[i].matches(".*__second ?<> ?.*")) {
+            fields[i] = fields[i].replaceAll("^(.*)__second ?<> ?(\\d{2})$", " EXTRACT(second FROM $1) <> '$2'");
+         }
+         if (fields[i].indexOf("__lt") > -1) {
+            fields[i] = fields[i].replace("__lt = ", " < ");
+         }
+         if (fields[i].indexOf("__!lt") > -1) {
+            fields[i] = fields[i].replaceAll("^(.*)__!lt *= *(.*)$", "NOT $1 < $2");
+         }
+         if (fields[i].indexOf("__lte") > -1) {
+            fields[i] = fields[i].replace("__lte = ", " <= ");
+         }
+         if (fields[i].indexOf("__!lte") > -1) {
+            fields[i] = fields[i].replaceAll("^(.*)__!lte *= *(.*)$", "NOT $1 <= $2");
+         }
+         if (fields[i].indexOf("__gt") > -1) {
+            fields[i] = fields[i].replace("__gt = ", " > ");
+         }
+         if (fields[i].indexOf("__!gt") > -1) {
+            fields[i] = fields[i].replaceAll("^(.*)__!gt *= *(.*)$", "NOT $1 > $2");
+         }
+         if (fields[i].indexOf("__gte") > -1) {
+            fields[i] = fields[i].replace("__gte = ", " >= ");
+         }
+         if (fields[i].indexOf("__!gte") > -1) {
+            fields[i] = fields[i].replaceAll("^(.*)__!gte *= *(.*)$", "NOT $1 >= $2");
+         }
+         if (fields[i].indexOf("__exact") > -1) {
+            fields[i] = fields[i].replace("__exact = ", " = ");
+         }
+         if (fields[i].indexOf("__!exact") > -1) {
+            fields[i] = fields[i].replace("__!exact = ", " != ");
+         }
+         if (fields[i].indexOf("__isnull") > -1) {
+            String bool = fields[i].substring(fields[i].indexOf("=") + 1, fields[i].length()).trim();
+            if (bool.equalsIgnoreCase("true")) {
+               fields[i] = fields[i].replace("__isnull = ", " IS NULL ");
             }
-            if (querySet != null) {
-               querySet.setPersisted(true);
+            if (bool.equalsIgnoreCase("false")) {
+               fields[i] = fields[i].replace("__isnull = ", " IS NOT NULL ");
             }
-         } catch (Exception e) {
-            e.printStackTrace();
-         } finally {
-            close(statement, resultSet, connection);
+            fields[i] = fields[i].replace(bool, "");
          }
+         where += fields[i] + " AND ";
+         where = where.replace(" AND OR AND", " OR");
+         where = where.replace(" AND AND AND", " AND");
       }
-      return querySet;
+      where = where.substring(0, where.lastIndexOf("AND"));
+      where = where.trim();
+      if (joins.isEmpty()) {
+         sql = String.format("%s %s", sql, where);
+      } else {
+         sql = String.format(format, tableName, entityName, joins, where.isEmpty() ? "" : "WHERE\n\t" + where);
+         // controla o grau de identação da instrução SQL.
+         sql = sql.replaceAll("\t", "    ");
+      }
+      String _sql = likeSqlDateTime(sql);
+      if (!_sql.isEmpty()) {
+         sql = _sql;
+      }
+      return sql;
    }
    
+   /**
+    * Retorna um QuerySet com os registros que atendem às condições de
+    * pesquisa. A consulta só é executada quando o QuerySet é percorrido,
+    * contado ou fatiado, de modo que filter, exclude, orderBy, limit,
+    * slice, first, last e distinct encadeados resultam em uma única
+    * instrução SELECT.
+    */
    public <T extends Model> QuerySet<T> filter(String... fields) {
-      return (QuerySet<T>) this.filter(this.entity, (String[]) fields);
+      if (fields == null) {
+         return (QuerySet<T>) this.filter(this.entity, (String[]) fields);
+      }
+      return new QuerySet<T>(new LazyQuery<T>(copy(), (Class<T>) this.entity).filter(fields));
+   }
+
+   /**
+    * Abre um cursor sobre os registros que atendem às condições de pesquisa
+    * (as mesmas de filter) ou sobre todos, quando nenhuma for informada.
+    * <p>
+    * Os registros são lidos de um ResultSet TYPE_FORWARD_ONLY e
+    * CONCUR_READ_ONLY, com o fetch size de database.fetch.size, e
+    * convertidos um a um, sem montar um QuerySet. O cursor usa uma conexão
+    * própria, liberada ao final da iteração ou em close().
+    *
+    * @param fields
+    * @return o cursor
+    */
+   private <T extends Model> ModelCursor<T> cursor(Class<T> modelClass, String... fields) {
+      String sql;
+      if (fields == null || fields.length == 0) {
+         sql = String.format("SELECT * FROM %s", tableName);
+      } else {
+         sql = filterSql(fields);
+      }
+      sql = selectRelated(sql);
+      if (JediEngine.DEBUG) {
+         System.out.println(sql + ";\n");
+      }
+      // Conexão própria, escolhida como em connect(true).
+      Connection connection = inUnitOfWork() ? UnitOfWork.currentConnection() : DataSource.using(source(true));
+      PreparedStatement statement = null;
+      ResultSet resultSet = null;
+      boolean restoreAutoCommit = false;
+      try {
+         // O driver do PostgreSQL ignora o fetch size em modo auto-commit.
+         if (dialect().isFetchSizeTransactional() && connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            restoreAutoCommit = true;
+         }
+         statement = PreparedSql.of(sql).prepare(connection, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         statement.setFetchSize(ModelCursor.fetchSize(dialect()));
+         resultSet = statement.executeQuery();
+         return new ModelCursor<>(connection, statement, resultSet, getRowMapper(resultSet, modelClass), restoreAutoCommit);
+      } catch (SQLException e) {
+         close(resultSet, statement, connection);
+         throw new DatabaseException(e);
+      }
+   }
+
+   public <T extends Model> ModelCursor<T> cursor(String... fields) {
+      return (ModelCursor<T>) cursor(this.entity, fields);
+   }
+
+   /**
+    * Percorre os registros da entidade sob demanda, em memória constante.
+    * Deve ser usado em try-with-resources para liberar a conexão caso o
+    * Stream não seja consumido até o fim.
+    *
+    * @param fields
+    *           condições de pesquisa, como em filter
+    * @return Stream dos modelos
+    */
+   public <T extends Model> Stream<T> stream(String... fields) {
+      return (Stream<T>) cursor(this.entity, fields).stream();
    }
 
    public <T extends Model> QuerySet<T> filter(String query) {
@@ -4313,7 +4121,7 @@ public class Manager implements IManager {
          query = query.replaceAll(",\\s+", ",");
          query = query.replaceAll("\\s+=\\s+", "=");
          String[] fields = query.split("((?<!')((?<= and)|(?=and ))(?!'))|((?<!')((?<= or)|(?=or ))(?!'))");
-         list = (QuerySet<T>) this.filter(this.entity, (String[]) fields);
+         list = this.filter(fields);
       }
       return list;
    }
@@ -4464,11 +4272,8 @@ public class Manager implements IManager {
                      conditions[i] = conditions[i].replace("]", "");
                      conditions[i] = conditions[i].replace(", ", " AND ");
                   }
-                  if (conditions[i].indexOf("__regex") > -1) {
-                     conditions[i] = conditions[i].replaceAll("^(.*)__regex ?= ?(.*)$", " $1 REGEXP BINARY '$2'");
-                  }
-                  if (conditions[i].indexOf("__iregex") > -1) {
-                     conditions[i] = conditions[i].replaceAll("^(.*)__iregex ?= ?(.*)$", " $1 REGEXP '$2'");
+                  if (conditions[i].indexOf("regex") > -1) {
+                     conditions[i] = regex(conditions[i]);
                   }
                   if (conditions[i].matches(".*__year__lt.*")) {
                      conditions[i] = conditions[i].replaceAll("^(.*)__year__lt *= *(\\d{4})$", " $1 < '$2-01-01'");
@@ -4909,19 +4714,26 @@ public class Manager implements IManager {
          if (!_sql.isEmpty()) {
             sql = _sql;
          }
+         String key = queryCacheKey("count", sql);
+         Integer cached = QueryCache.get(key);
+         if (cached != null) {
+            return cached;
+         }
+         QueryCache.Stamp stamp = key == null ? null : QueryCache.stamp(sql);
          if (JediEngine.DEBUG) {
             System.out.println(sql + ";\n");
          }
-         connect();
-         statement = connection.prepareStatement(sql);
+         connect(true);
+         statement = PreparedSql.of(sql).prepare(activeConnection());
          resultSet = statement.executeQuery();
          while (resultSet.next()) {
             rows = resultSet.getInt("rows");
          }
+         QueryCache.put(key, stamp, rows);
       } catch (Exception e) {
          e.printStackTrace();
       } finally {
-         close(statement, resultSet, connection);
+         close(statement, resultSet, activeConnection());
       }
       return rows;
    }
@@ -4939,9 +4751,6 @@ public class Manager implements IManager {
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       if (fields != null) {
          try {
             String sql = String.format("SELECT * FROM %s WHERE", tableName);
@@ -5089,11 +4898,8 @@ public class Manager implements IManager {
                   // Substituindo o caracter , por AND.
                   fields[i] = fields[i].replace(", ", " AND ");
                }
-               if (fields[i].indexOf("__regex") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__regex ?= ?(.*)$", " $1 REGEXP BINARY '$2'");
-               }
-               if (fields[i].indexOf("__iregex") > -1) {
-                  fields[i] = fields[i].replaceAll("^(.*)__iregex ?= ?(.*)$", " $1 REGEXP '$2'");
+               if (fields[i].indexOf("regex") > -1) {
+                  fields[i] = regex(fields[i]);
                }
                if (fields[i].matches(".*__year__lt.*")) {
                   fields[i] = fields[i].replaceAll("^(.*)__year__lt *= *(\\d{4})$", " $1 < '$2-01-01'");
@@ -5528,156 +5334,31 @@ public class Manager implements IManager {
             if (!_sql.isEmpty()) {
                sql = _sql;
             }
+            sql = selectRelated(sql);
             if (JediEngine.DEBUG) {
                System.out.println(sql + ";\n");
             }
-            connect();
-            statement = connection.prepareStatement(sql);
+            connect(true);
+            statement = PreparedSql.of(sql).prepare(activeConnection());
             resultSet = statement.executeQuery();
             if (!resultSet.next()) {
                return querySet;
             }
             resultSet.beforeFirst();
+            RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity, true);
             while (resultSet.next()) {
-               Object obj = entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(
-                           obj,
-                           ((java.math.BigDecimal) resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)))
-                                 .intValue());
-                  } else {
-                     id.set(obj, resultSet.getObject(id.toString().substring(id.toString().lastIndexOf('.') + 1)));
-                  }
-               }
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field field : _fields) {
-                  field.setAccessible(true);
-                  if (!JediEngine.isJediField(field)) {
-                     continue;
-                  }
-                  if (field.getName().equals("serialVersionUID")) {
-                     continue;
-                  }
-                  if (field.getName().equals("objects")) {
-                     continue;
-                  }
-                  oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class superClazz = null;
-                        Class clazz = null;
-                        String model = manyToManyFieldAnnotation.model().getSimpleName();
-                        model = Model.class.getSimpleName().equals(model) ? "" : model;
-                        if (model.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) field.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 model = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        String references = manyToManyFieldAnnotation.references();
-                        if (references == null || references.trim().isEmpty()) {
-                           if (clazz != null) {
-                              references = TableUtil.getTableName(clazz);
-                           } else {
-                              references = TableUtil.getTableName(model);
-                           }
-                        }
-                        String packageName = this.entity.getPackage().getName();
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet querySetAssociatedModels = manager.raw(
-                              String.format(
-                                    "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                                    references,
-                                    model,
-                                    tableName,
-                                    references,
-                                    TableUtil.getColumnName(obj.getClass()),
-                                    ((Model) obj).getId()),
-                              associatedModelClass);
-                        field.set(obj, querySetAssociatedModels);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                     if (oneToOneFieldAnnotation != null) {
-                        fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     } else {
-                        fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     }
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(field.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        Model associatedModel = manager
-                              .get(String.format("id"), resultSet.getObject(String.format("%s_id", TableUtil.getColumnName(field))));
-                        field.set(obj, associatedModel);
-                     } else {
-                        field.set(obj, null);
-                     }
-                  } else {
-                     if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                           connection.toString().startsWith("oracle")) {
-                        if (resultSet.getObject(TableUtil.getColumnName(field)) == null) {
-                           field.set(obj, 0);
-                        } else {
-                           String columnName = TableUtil.getColumnName(field);
-                           BigDecimal bigDecimal = (BigDecimal) resultSet.getObject(columnName);
-                           field.set(obj, bigDecimal.intValue());
-                        }
-                     } else {
-                        String columnName = TableUtil.getColumnName(field);
-                        Object columnValue = resultSet.getObject(columnName);
-                        if (columnValue instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           columnValue = calendar.getTime();
-                        }
-                        if (columnValue instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) columnValue;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           columnValue = calendar.getTime();
-                        }
-                        field.set(obj, columnValue);
-                     }
-                  }
-               }
+               Object obj = mapper.map(resultSet);
                T model = (T) obj;
                if (model != null) {
                   model.setPersisted(true);
                }
                querySet.add(model);
             }
+            prefetch(querySet);
          } catch (Exception e) {
             e.printStackTrace();
          } finally {
-            close(statement, resultSet, connection);
+            close(statement, resultSet, activeConnection());
          }
       }
       return querySet;
@@ -5693,9 +5374,6 @@ public class Manager implements IManager {
       querySet.setEntity((Class<T>) this.entity);
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       String sql = String.format("SELECT * FROM %s", tableName);
       String where = "";
       String joins = "";
@@ -5842,11 +5520,8 @@ public class Manager implements IManager {
                // Replaces , (comma character) by AND.
                filters[i] = filters[i].replace(", ", " AND ");
             }
-            if (filters[i].indexOf("__regex") > -1) {
-               filters[i] = filters[i].replaceAll("^(.*)__regex ?= ?(.*)$", " $1 REGEXP BINARY '$2'");
-            }
-            if (filters[i].indexOf("__iregex") > -1) {
-               filters[i] = filters[i].replaceAll("^(.*)__iregex ?= ?(.*)$", " $1 REGEXP '$2'");
+            if (filters[i].indexOf("regex") > -1) {
+               filters[i] = regex(filters[i]);
             }
             if (filters[i].matches(".*__year__lt.*")) {
                filters[i] = filters[i].replaceAll("^(.*)__year__lt *= *(\\d{4})$", " $1 < '$2-01-01'");
@@ -6293,165 +5968,34 @@ public class Manager implements IManager {
          if (!_sql.isEmpty()) {
             sql = _sql;
          }
+         sql = selectRelated(sql);
          if (JediEngine.DEBUG) {
             System.out.println(sql + ";\n");
          }
-         connect();
-         statement = connection.prepareStatement(sql);
+         connect(true);
+         statement = PreparedSql.of(sql).prepare(activeConnection());
          resultSet = statement.executeQuery();
          if (!resultSet.next()) {
             return querySet;
          }
          resultSet.beforeFirst();
+         RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity, true);
          while (resultSet.next()) {
-            Object obj = entity.newInstance();
-            if (resultSet.getObject("id") != null) {
-               Field id = jedi.db.models.Model.class.getDeclaredField("id");
-               id.setAccessible(true);
-               if (connection.toString().startsWith("oracle")) {
-                  id.set(obj, ((java.math.BigDecimal) resultSet.getObject(id.getName())).intValue());
-               } else {
-                  id.set(obj, resultSet.getObject(id.getName()));
-               }
-            }
-            List<Field> _fields = JediEngine.getAllFields(this.entity);
-            for (Field field : _fields) {
-               field.setAccessible(true);
-               if (!JediEngine.isJediField(field)) {
-                  continue;
-               }
-               if (field.getName().equals("serialVersionUID"))
-                  continue;
-               if (field.getName().equalsIgnoreCase("objects"))
-                  continue;
-               oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
-               foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
-               manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
-               FetchType fetchType = JediEngine.FETCH_TYPE;
-               Manager manager = null;
-               if (manyToManyFieldAnnotation != null) {
-                  fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     Class superClazz = null;
-                     Class clazz = null;
-                     String packageName = this.entity.getPackage().getName();
-                     String model = manyToManyFieldAnnotation.model().getSimpleName();
-                     model = Model.class.getSimpleName().equals(model) ? "" : model;
-                     if (model.isEmpty()) {
-                        ParameterizedType genericType = null;
-                        if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                           genericType = (ParameterizedType) field.getGenericType();
-                           superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                           if (superClazz == Model.class) {
-                              clazz = (Class) genericType.getActualTypeArguments()[0];
-                              model = clazz.getSimpleName();
-                           }
-                        }
-                     }
-                     String references = manyToManyFieldAnnotation.references();
-                     if (references == null || references.trim().isEmpty()) {
-                        if (clazz != null) {
-                           references = TableUtil.getTableName(clazz);
-                        } else {
-                           references = TableUtil.getTableName(model);
-                        }
-                     }
-                     Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, model));
-                     manager = new Manager(associatedModelClass);
-                     List<List<Map<String, Object>>> recordSet = null;
-                     recordSet = manager.raw(
-                           String.format(
-                                 "SELECT %s_id FROM %s_%s WHERE %s_id = %d",
-                                 TableUtil.getColumnName(model),
-                                 tableName,
-                                 TableUtil.getTableName(references),
-                                 TableUtil.getColumnName(this.entity),
-                                 ((Model) obj).id()));
-                     String args = recordSet.toString();
-                     args = args.replace("[", "");
-                     args = args.replace("{", "");
-                     args = args.replace("]", "");
-                     args = args.replace("}", "");
-                     args = args.replace("=", "");
-                     args = args.replace(", ", ",");
-                     args = args.replace(String.format("%s_id", TableUtil.getColumnName(model)), "");
-                     args = String.format("id__in=[%s]", args);
-                     QuerySet querySetAssociatedModels = manager._filter(args);
-                     field.set(obj, querySetAssociatedModels);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
-                  if (oneToOneFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                  } else {
-                     fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                  }
-                  if (fetchType.equals(FetchType.EAGER)) {
-                     Class associatedModelClass = Class.forName(field.getType().getName());
-                     manager = new Manager(associatedModelClass);
-                     String columnName = TableUtil.getColumnName(field);
-                     Object id = resultSet.getObject(String.format("%s_id", columnName));
-                     Model associatedModel = manager.get("id", id);
-                     field.set(obj, associatedModel);
-                  } else {
-                     field.set(obj, null);
-                  }
-               } else {
-                  if ((field.getType().getSimpleName().equals("int") || field.getType().getSimpleName().equals("Integer")) &&
-                        connection.toString().startsWith("oracle")) {
-                     if (resultSet.getObject(TableUtil.getColumnName(field.getName())) == null) {
-                        field.set(obj, 0);
-                     } else {
-                        String columnName = TableUtil.getColumnName(field.getName());
-                        BigDecimal columnValue = (BigDecimal) resultSet.getObject(columnName);
-                        field.set(obj, columnValue.intValue());
-                     }
-                  } else {
-                     String columnName = TableUtil.getColumnName(field.getName());
-                     Object columnValue = resultSet.getObject(columnName);
-                     if (columnValue instanceof java.sql.Date) {
-                        java.sql.Date date = (java.sql.Date) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(date.getTime());
-                        calendar.set(Calendar.HOUR_OF_DAY, 0);
-                        calendar.set(Calendar.MINUTE, 0);
-                        calendar.set(Calendar.SECOND, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof java.sql.Time) {
-                        java.sql.Time time = (java.sql.Time) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(time.getTime());
-                        calendar.set(Calendar.YEAR, 0);
-                        calendar.set(Calendar.MONTH, 0);
-                        calendar.set(Calendar.DAY_OF_MONTH, 0);
-                        columnValue = calendar.getTime();
-                     }
-                     if (columnValue instanceof Timestamp) {
-                        Timestamp timestamp = (Timestamp) columnValue;
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis(timestamp.getTime());
-                        columnValue = calendar.getTime();
-                     }
-                     field.set(obj, columnValue);
-                  }
-               }
-               manager = null;
-            }
+            Object obj = mapper.map(resultSet);
             T model = (T) obj;
             if (model != null) {
                model.setPersisted(true);
             }
             querySet.add(model);
          }
+         prefetch(querySet);
          if (querySet != null) {
             querySet.setPersisted(true);
          }
       } catch (Exception e) {
          e.printStackTrace();
       } finally {
-         close(resultSet, statement, connection);
+         close(resultSet, statement, activeConnection());
       }
       return querySet;
    }
@@ -6555,14 +6099,21 @@ public class Manager implements IManager {
       return page(pageNumber, pageSize(10), QueryPage.orderBy("id"), (String[]) null);
    }
    
+   /**
+    * @return a ordenação decrescente pelo campo, sem alterar a informada.
+    */
+   private static QueryPageOrder reverse(QueryPageOrder pageOrder) {
+      String field = pageOrder != null ? pageOrder.field() : "";
+      if (field.isEmpty() || field.startsWith("-")) {
+         return pageOrder;
+      }
+      return new QueryPageOrder("-" + field, pageOrder.sortOrder());
+   }
+   
    @Override
    public <T extends Model> QuerySet<T> reversePage(QueryPageStart pageStart, QueryPageSize pageSize, QueryPageOrder pageOrder,
          String... filters) {
-      String field = pageOrder != null ? pageOrder.field() : "";
-      if (!field.isEmpty() && !field.startsWith("-")) {
-         pageOrder.field("-" + field);
-      }
-      return page(pageStart, pageSize, pageOrder, filters);
+      return page(pageStart, pageSize, reverse(pageOrder), filters);
    }
    
    @Override
@@ -6618,11 +6169,7 @@ public class Manager implements IManager {
    @Override
    public <T extends Model> QuerySet<T> reversePage(QueryPageNumber pageNumber, QueryPageSize pageSize, QueryPageOrder pageOrder,
          String... filters) {
-      String field = pageOrder != null ? pageOrder.field() : "";
-      if (!field.isEmpty() && !field.startsWith("-")) {
-         pageOrder.field("-" + field);
-      }
-      return page(pageNumber, pageSize, pageOrder, filters);
+      return page(pageNumber, pageSize, reverse(pageOrder), filters);
    }
    
    @Override
@@ -6650,12 +6197,119 @@ public class Manager implements IManager {
       return reversePage(pageNumber, pageSize(10), QueryPage.orderBy("-id"), (String[]) null);
    }
    
+   /**
+    * Pagina por chave (keyset): em vez de OFFSET, a página começa após o
+    * último registro da anterior, identificado pelo token, com
+    * <code>WHERE (campo, id) &gt; (valor, id) ORDER BY campo, id LIMIT n</code>.
+    * O custo não depende da profundidade da página, desde que haja índice
+    * em (campo, id). O campo de ordenação deve ser NOT NULL.
+    * 
+    * @param pageToken
+    *           token da página anterior ({@link QuerySet#getNextPageToken()})
+    *           ou null para a primeira página
+    * @param pageSize
+    *           quantidade de registros por página
+    * @param pageOrder
+    *           campo de ordenação (o id é usado como desempate)
+    * @param filters
+    *           condições de pesquisa, como em filter
+    * @return a página, com o token da seguinte (null na última)
+    */
+   @Override
+   public <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder,
+         String... filters) {
+      int size = pageSize == null || pageSize.get() == null || pageSize.get() <= 0 ? 10 : pageSize.get();
+      pageOrder = pageOrder == null ? QueryPage.orderBy("id") : pageOrder;
+      String field = pageOrder.field();
+      boolean descending = field.startsWith("-") || SortOrder.isDescending(pageOrder);
+      field = field.replace("-", "");
+      FieldMetadata fieldMetadata = ModelMetadata.of(entity).getField(field);
+      if (!field.equals("id") && (fieldMetadata == null || fieldMetadata.isManyToMany())) {
+         throw new DatabaseException(String.format("O modelo %s não possui o campo %s.", entity.getSimpleName(), field));
+      }
+      String column = field.equals("id") ? "id" : fieldMetadata.getDatabaseColumnName();
+      String where = whereSql(filters);
+      List<Object> parameters = new ArrayList<>();
+      if (pageToken != null && !pageToken.isEmpty()) {
+         if (!pageToken.getField().equals(field) || pageToken.isDescending() != descending) {
+            throw new DatabaseException(String.format("O token de página não corresponde à ordenação por %s.", pageOrder.field()));
+         }
+         String seek = seekSql(column, descending ? "<" : ">", pageToken.getLastValue(), pageToken.getLastId(), parameters);
+         where = where.isEmpty() ? " WHERE " + seek : String.format("%s AND %s", where, seek);
+      }
+      String direction = descending ? "DESC" : "ASC";
+      String orderBy = column.equals("id") ? String.format(" ORDER BY id %s", direction) : String.format(" ORDER BY %s %s, id %s", column, direction, direction);
+      // Um registro a mais indica se existe a página seguinte.
+      String limit = dialect().limit(size + 1, 0);
+      QuerySet<T> querySet = select(selectRelated(String.format("SELECT * FROM %s%s%s%s", tableName, where, orderBy, limit)), parameters);
+      if (querySet.size() > size) {
+         querySet.remove(size);
+         T last = querySet.get(size - 1);
+         Object lastValue = field.equals("id") ? null : fieldMetadata.get(last);
+         querySet.setNextPageToken(QueryPageToken.of(field, descending, lastValue, last.id()));
+      }
+      return querySet;
+   }
+   
+   /**
+    * Condição que seleciona os registros posteriores a (value, id) na
+    * ordenação. O valor é acrescentado aos parâmetros, uma vez para cada
+    * marcador da condição.
+    */
+   private String seekSql(String column, String operator, Object value, int id, List<Object> parameters) {
+      if (column.equals("id")) {
+         return String.format("id %s %d", operator, id);
+      }
+      if (value == null) {
+         return String.format("(%s IS NULL AND id %s %d)", column, operator, id);
+      }
+      if (value instanceof Boolean) {
+         return dialect().seek(column, operator, dialect().literal((Boolean) value), id);
+      }
+      String seek = dialect().seek(column, operator, "?", id);
+      for (int i = seek.indexOf('?'); i >= 0; i = seek.indexOf('?', i + 1)) {
+         parameters.add(parameter(value));
+      }
+      return seek;
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, String... filters) {
+      return page(pageToken, pageSize, QueryPage.orderBy("id"), filters);
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder) {
+      return page(pageToken, pageSize, pageOrder, (String[]) null);
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> page(QueryPageToken pageToken, QueryPageSize pageSize) {
+      return page(pageToken, pageSize, QueryPage.orderBy("id"), (String[]) null);
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize, QueryPageOrder pageOrder,
+         String... filters) {
+      return page(pageToken, pageSize, reverse(pageOrder), filters);
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize, String... filters) {
+      return reversePage(pageToken, pageSize, QueryPage.orderBy("-id"), filters);
+   }
+   
+   @Override
+   public <T extends Model> QuerySet<T> reversePage(QueryPageToken pageToken, QueryPageSize pageSize) {
+      return reversePage(pageToken, pageSize, QueryPage.orderBy("-id"), (String[]) null);
+   }
+   
    public String likeDateTime(String sql) {
       sql = sql == null ? "" : sql;
       if (!sql.isEmpty()) {
          // TODO - substituir '//%', '%//' ou '%//%' por ''
          // TODO - OBS: data vazia busca por todos os registros.
-         Pattern pattern = Pattern.compile(Regex.LIKE_DATETIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+         Pattern pattern = LIKE_DATETIME_PATTERN;
          Matcher matcher = pattern.matcher(sql);
          String regexp = "";
          // System.out.println("SQL (IN): " + sql);
@@ -6685,7 +6339,7 @@ public class Manager implements IManager {
    }
    
    private String likeDate(String sql) {
-      Pattern pattern = Pattern.compile(Regex.LIKE_DATE.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+      Pattern pattern = LIKE_DATE_PATTERN;
       Matcher matcher = pattern.matcher(sql);
       String regexp = "";
       // System.out.println("SQL (IN): " + sql);
@@ -6704,7 +6358,7 @@ public class Manager implements IManager {
    }
    
    private String likeTime(String sql) {
-      Pattern pattern = Pattern.compile(Regex.LIKE_TIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+      Pattern pattern = LIKE_TIME_PATTERN;
       Matcher matcher = pattern.matcher(sql);
       String regexp = "";
       // System.out.println("SQL (IN): " + sql);
@@ -6725,7 +6379,7 @@ public class Manager implements IManager {
    private String likeSqlDateTime(String sql) {
       sql = sql == null ? "" : sql;
       if (!sql.isEmpty()) {
-         Pattern pattern = Pattern.compile(Regex.LIKE_SQL_DATETIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+         Pattern pattern = LIKE_SQL_DATETIME_PATTERN;
          Matcher matcher = pattern.matcher(sql);
          String regexp = "";
          while (matcher.find()) {
@@ -6753,7 +6407,7 @@ public class Manager implements IManager {
    private String likeSqlDate(String sql) {
       sql = sql == null ? "" : sql;
       if (!sql.isEmpty()) {
-         Pattern pattern = Pattern.compile(Regex.LIKE_SQL_DATE.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+         Pattern pattern = LIKE_SQL_DATE_PATTERN;
          Matcher matcher = pattern.matcher(sql);
          String regexp = "";
          while (matcher.find()) {
@@ -6781,7 +6435,7 @@ public class Manager implements IManager {
    private String likeSqlTime(String sql) {
       sql = sql == null ? "" : sql;
       if (!sql.isEmpty()) {
-         Pattern pattern = Pattern.compile(Regex.LIKE_SQL_TIME.getValue(), Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+         Pattern pattern = LIKE_SQL_TIME_PATTERN;
          Matcher matcher = pattern.matcher(sql);
          String regexp = "";
          while (matcher.find()) {
@@ -6914,9 +6568,6 @@ public class Manager implements IManager {
       Object o = null;
       PreparedStatement statement = null;
       ResultSet resultSet = null;
-      OneToOneField oneToOneFieldAnnotation = null;
-      ForeignKeyField foreignKeyFieldAnnotation = null;
-      ManyToManyField manyToManyFieldAnnotation = null;
       field = field == null ? "" : field.trim();
       if (!field.isEmpty()) {
          try {
@@ -6933,8 +6584,8 @@ public class Manager implements IManager {
             if (Integer.class.isInstance(value) || Float.class.isInstance(value) || Double.class.isInstance(value)) {
                sql = sql.replaceAll("\'", "");
             }
-            connect();
-            statement = connection.prepareStatement(sql);
+            connect(true);
+            statement = activeConnection().prepareStatement(sql);
             if (JediEngine.DEBUG) {
                System.out.println(sql + ";\n");
             }
@@ -6944,150 +6595,9 @@ public class Manager implements IManager {
                models = new QuerySet<T>();
             }
             resultSet.beforeFirst();
+            RowMapper<? extends Model> mapper = getRowMapper(resultSet, entity);
             while (resultSet.next()) {
-               model = (T) entity.newInstance();
-               if (resultSet.getObject("id") != null) {
-                  Field id = jedi.db.models.Model.class.getDeclaredField("id");
-                  id.setAccessible(true);
-                  o = resultSet.getObject(id.getName());
-                  if (connection.toString().startsWith("oracle")) {
-                     id.set(model, ((java.math.BigDecimal) o).intValue());
-                  } else {
-                     id.set(model, o);
-                  }
-               }
-               List<Field> _fields = JediEngine.getAllFields(this.entity);
-               for (Field f : _fields) {
-                  f.setAccessible(true);
-                  if (!JediEngine.isJediField(f)) {
-                     continue;
-                  }
-                  if (f.getName().equals("serialVersionUID"))
-                     continue;
-                  if (f.getName().equalsIgnoreCase("objects"))
-                     continue;
-                  oneToOneFieldAnnotation = f.getAnnotation(OneToOneField.class);
-                  foreignKeyFieldAnnotation = f.getAnnotation(ForeignKeyField.class);
-                  manyToManyFieldAnnotation = f.getAnnotation(ManyToManyField.class);
-                  FetchType fetchType = JediEngine.FETCH_TYPE;
-                  Manager manager = null;
-                  String referencedModel = null;
-                  String referencedTable = null;
-                  if (manyToManyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? manyToManyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        if (!manyToManyFieldAnnotation.through().getSimpleName().equals(Model.class.getSimpleName())) {
-                           continue;
-                        }
-                        Class superClazz = null;
-                        Class clazz = null;
-                        referencedModel = manyToManyFieldAnnotation.model().getSimpleName();
-                        referencedModel = Model.class.getSimpleName().equals(referencedModel) ? "" : referencedModel;
-                        if (referencedModel.isEmpty()) {
-                           ParameterizedType genericType = null;
-                           if (ParameterizedType.class.isAssignableFrom(f.getGenericType().getClass())) {
-                              genericType = (ParameterizedType) f.getGenericType();
-                              superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                              if (superClazz == Model.class) {
-                                 clazz = (Class) genericType.getActualTypeArguments()[0];
-                                 referencedModel = clazz.getSimpleName();
-                              }
-                           }
-                        }
-                        referencedTable = manyToManyFieldAnnotation.references();
-                        if (referencedTable == null || referencedTable.trim().isEmpty()) {
-                           if (clazz != null) {
-                              referencedTable = TableUtil.getTableName(clazz);
-                           } else {
-                              referencedTable = TableUtil.getTableName(referencedModel);
-                           }
-                        }
-                        String packageName = this.entity.getPackage().getName();
-                        Class associatedModelClass = Class.forName(String.format("%s.%s", packageName, referencedModel));
-                        manager = new Manager(associatedModelClass);
-                        QuerySet associatedModelsQuerySet = manager.raw(
-                           String.format(
-                              "SELECT * FROM %s WHERE id IN (SELECT %s_id FROM %s_%s WHERE %s_id = %d)",
-                              referencedTable,
-                              referencedModel.toLowerCase(),
-                              tableName,
-                              referencedTable,
-                              TableUtil.getColumnName(model.getClass()),
-                              model.getId()
-                           ),
-                           associatedModelClass
-                        );
-                        f.set(model, associatedModelsQuerySet);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else if (foreignKeyFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? foreignKeyFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(f.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        Model associatedModel = manager.get("id", resultSet.getObject(String.format("%s_id", TableUtil.getColumnName(f))));
-                        f.set(model, associatedModel);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else if (oneToOneFieldAnnotation != null) {
-                     fetchType = fetchType.equals(FetchType.NONE) ? oneToOneFieldAnnotation.fetch_type() : fetchType;
-                     if (fetchType.equals(FetchType.EAGER)) {
-                        Class associatedModelClass = Class.forName(f.getType().getName());
-                        manager = new Manager(associatedModelClass);
-                        columnName = TableUtil.getColumnName(f.getType().getSimpleName());
-                        o = resultSet.getObject(String.format("%s_id", columnName));
-                        Model associatedModel = manager.get("id", o);
-                        f.set(model, associatedModel);
-                     } else {
-                        f.set(model, null);
-                     }
-                  } else {
-                     if ((f.getType().getSimpleName().equals("int") || 
-                          f.getType().getSimpleName().equals("Integer")) && 
-                          connection.toString().startsWith("oracle")) {
-                        columnName = TableUtil.getColumnName(f.getName());
-                        o = resultSet.getObject(columnName);
-                        if (o == null) {
-                           f.set(model, 0);
-                        } else {
-                           columnName = TableUtil.getColumnName(f.getName());
-                           o = resultSet.getObject(columnName);
-                           f.set(model, ((BigDecimal) o).intValue());
-                        }
-                     } else {
-                        columnName = TableUtil.getColumnName(f.getName());
-                        o = resultSet.getObject(columnName);
-                        if (o instanceof java.sql.Date) {
-                           java.sql.Date date = (java.sql.Date) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(date.getTime());
-                           calendar.set(Calendar.HOUR_OF_DAY, 0);
-                           calendar.set(Calendar.MINUTE, 0);
-                           calendar.set(Calendar.SECOND, 0);
-                           o = calendar.getTime();
-                        }
-                        if (o instanceof java.sql.Time) {
-                           java.sql.Time time = (java.sql.Time) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(time.getTime());
-                           calendar.set(Calendar.YEAR, 0);
-                           calendar.set(Calendar.MONTH, 0);
-                           calendar.set(Calendar.DAY_OF_MONTH, 0);
-                           o = calendar.getTime();
-                        }
-                        if (o instanceof Timestamp) {
-                           Timestamp timestamp = (Timestamp) o;
-                           Calendar calendar = Calendar.getInstance();
-                           calendar.setTimeInMillis(timestamp.getTime());
-                           o = calendar.getTime();
-                        }
-                        f.set(model, o);
-                     }
-                  }
-                  manager = null;
-               }
+               model = (T) mapper.map(resultSet);
                models.add(model);
             }
             if (model != null) {
@@ -7095,18 +6605,10 @@ public class Manager implements IManager {
             }
          } catch (SQLException e) {
             e.printStackTrace();
-         } catch (InstantiationException e) {
-            e.printStackTrace();
-         } catch (IllegalAccessException e) {
-            e.printStackTrace();
-         } catch (NoSuchFieldException e) {
-            e.printStackTrace();
          } catch (SecurityException e) {
             e.printStackTrace();
-         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
          } finally {
-            close(resultSet, statement, connection);
+            close(resultSet, statement, activeConnection());
          }
       }
       return models;
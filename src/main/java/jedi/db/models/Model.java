@@ -2,25 +2,33 @@ package jedi.db.models;
 
 import static jedi.db.engine.JediEngine.AUTO_CLOSE;
 import static jedi.db.engine.JediEngine.AUTO_COMMIT;
-import static jedi.db.engine.JediEngine.DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT;
 import static jedi.db.engine.JediEngine.EXCEPTION_HANDLING;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import jedi.db.connection.DataSource;
+import jedi.db.connection.UnitOfWork;
 import jedi.db.engine.JediEngine;
 import jedi.db.exceptions.DatabaseException;
+import jedi.db.sql.PreparedSql;
 import jedi.db.util.TableUtil;
 
 /**
@@ -36,6 +44,8 @@ public class Model implements IModel {
 
    private static final long serialVersionUID = 1L;
    
+   private static final Pattern NUMBER = Pattern.compile("-?\\d{1,18}(\\.\\d+)?");
+   
    private static Class<? extends Model> clazz_;
    
    public static final List<? extends Model> NULL_LIST = null;
@@ -49,10 +59,14 @@ public class Model implements IModel {
    
    protected int id;
    protected transient boolean persisted;
+   private transient Object[] snapshot;
+   private transient Set<String> deferredFields;
+   // Carrega a referência LAZY junto com as irmãs lidas na mesma consulta.
+   private transient LazyLoader loader;
    protected transient String tableName;
    
    public Model() {
-      this.setTableName(TableUtil.tableName(this.getClass()));
+      this.tableName = ModelMetadata.of(this.getClass()).getTableName();
       clazz_ = this.getClass();
    }
    
@@ -102,14 +116,188 @@ public class Model implements IModel {
    }
    
    public void setPersisted(boolean isPersisted) {
-      this.persisted = isPersisted;
+      persisted(isPersisted);
    }
    
    public Model persisted(boolean persisted) {
+      if (!persisted) {
+         snapshot = null;
+      } else if (!this.persisted || snapshot == null) {
+         snapshot();
+      }
       this.persisted = persisted;
       return this;
    }
    
+   /**
+    * Registra os valores atuais dos campos como o estado gravado no banco.
+    * Modelos, datas e listas são guardados pelo id, pelo instante e pelos
+    * ids dos itens, respectivamente.
+    */
+   void snapshot() {
+      List<FieldMetadata> fields = ModelMetadata.of(getClass()).getFields();
+      Object[] values = new Object[fields.size()];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = snapshotValue(fields.get(i).get(this));
+      }
+      snapshot = values;
+   }
+   
+   private static Object snapshotValue(Object value) {
+      if (value instanceof QuerySet && ((QuerySet) value).lazy()) {
+         // Lista LAZY ainda não carregada.
+         return null;
+      } else if (value instanceof Model) {
+         return ((Model) value).id;
+      } else if (value instanceof Date) {
+         return ((Date) value).getTime();
+      } else if (value instanceof Collection) {
+         List<Integer> ids = new ArrayList<>();
+         for (Object item : (Collection) value) {
+            ids.add(item instanceof Model ? ((Model) item).id : null);
+         }
+         return ids;
+      }
+      return value;
+   }
+   
+   /**
+    * Retorna os campos alterados desde que o modelo foi lido ou gravado.
+    * <p>
+    * Listas (ManyToManyField) que não estavam carregadas na leitura só são
+    * consideradas alteradas se contiverem modelos ainda não gravados.
+    *
+    * @return os nomes dos campos alterados ou null se o modelo não tiver
+    *         estado gravado conhecido (ex.: criado com setId).
+    */
+   public Set<String> getDirtyFields() {
+      Object[] values = snapshot;
+      if (values == null) {
+         return null;
+      }
+      Set<String> dirtyFields = new LinkedHashSet<>();
+      List<FieldMetadata> fields = ModelMetadata.of(getClass()).getFields();
+      for (int i = 0; i < values.length; i++) {
+         FieldMetadata field = fields.get(i);
+         Object value = field.get(this);
+         if (values[i] == null && value instanceof Collection && !(value instanceof QuerySet && ((QuerySet) value).lazy())) {
+            for (Object item : (Collection) value) {
+               if (item instanceof Model && ((Model) item).isNotPersisted()) {
+                  dirtyFields.add(field.getName());
+                  break;
+               }
+            }
+         } else if (!Objects.equals(values[i], snapshotValue(value))) {
+            dirtyFields.add(field.getName());
+         }
+      }
+      return dirtyFields;
+   }
+   
+   public boolean isDirty() {
+      Set<String> dirtyFields = getDirtyFields();
+      return dirtyFields == null || !dirtyFields.isEmpty();
+   }
+   
+   /**
+    * Marca os campos que não foram lidos do banco (only, defer).
+    */
+   void defer(Collection<String> fields) {
+      deferredFields = fields == null || fields.isEmpty() ? null : new LinkedHashSet<>(fields);
+   }
+   
+   /**
+    * @return os campos ainda não lidos do banco.
+    */
+   public Set<String> getDeferredFields() {
+      return deferredFields == null ? new LinkedHashSet<String>() : new LinkedHashSet<>(deferredFields);
+   }
+   
+   /**
+    * Lê do banco, em uma única consulta, os campos adiados informados (ou
+    * todos os adiados, se nenhum for informado). Campos já carregados são
+    * ignorados.
+    */
+   public void load(String... fields) throws DatabaseException {
+      if (deferredFields == null || id == 0) {
+         return;
+      }
+      if (loader != null) {
+         // Referência LAZY: carrega o registro inteiro com as irmãs.
+         LazyLoader lazyLoader = loader;
+         loader = null;
+         lazyLoader.load();
+         if (deferredFields == null) {
+            return;
+         }
+      }
+      List<String> names = new ArrayList<>();
+      if (fields == null || fields.length == 0) {
+         names.addAll(deferredFields);
+      } else {
+         for (String field : fields) {
+            if (deferredFields.contains(field)) {
+               names.add(field);
+            }
+         }
+      }
+      if (names.isEmpty()) {
+         return;
+      }
+      ModelMetadata metadata = ModelMetadata.of(getClass());
+      String columns = "id";
+      for (String name : names) {
+         columns += ", " + metadata.getField(name).getDatabaseColumnName();
+      }
+      QuerySet<Model> querySet = new Manager(getClass()).select(String.format("SELECT %s FROM %s WHERE id = %d", columns, tableName, id));
+      if (querySet.isEmpty()) {
+         return;
+      }
+      fill(querySet.get(0), names);
+   }
+   
+   /**
+    * Copia do modelo lido os valores dos campos adiados.
+    */
+   void fill(Model model, Collection<String> names) {
+      if (deferredFields == null || model == this) {
+         return;
+      }
+      ModelMetadata metadata = ModelMetadata.of(getClass());
+      List<FieldMetadata> metadataFields = metadata.getFields();
+      for (String name : new ArrayList<>(names)) {
+         FieldMetadata field = metadata.getField(name);
+         Object value = field.get(model);
+         field.set(this, value);
+         // O valor lido passa a ser o estado gravado do campo.
+         if (snapshot != null) {
+            snapshot[metadataFields.indexOf(field)] = snapshotValue(value);
+         }
+         deferredFields.remove(name);
+      }
+      if (deferredFields.isEmpty()) {
+         deferredFields = null;
+      }
+   }
+   
+   void fill(Model model) {
+      if (deferredFields != null) {
+         fill(model, deferredFields);
+      }
+   }
+   
+   boolean isDeferred() {
+      return deferredFields != null;
+   }
+   
+   LazyLoader getLoader() {
+      return loader;
+   }
+   
+   void setLoader(LazyLoader loader) {
+      this.loader = loader;
+   }
+   
    public String getTableName() {
       return tableName;
    }
@@ -183,259 +371,251 @@ public class Model implements IModel {
     *            java.lang.Exception
     */
    public void insert() throws DatabaseException {
-      Statement statement = null;
+      PreparedStatement statement = null;
+      ResultSet generatedKeys = null;
       try {
-         String sql = "INSERT INTO";
-         String columns = "";
-         String values = "";
-         String defaultValue = "";
-         String references = null;
-         String manyToManySQLFormatter = "INSERT INTO %s_%s (%s_id, %s_id) VALUES (%d,";
-         List<String> manyToManySQLs = new ArrayList<String>();
-         Manager associatedModelManager = null;
-         Annotation annotation = null;
-         Class annotationClass = null;
-         for (Field field : JediEngine.getAllFields(this.getClass())) {
-            field.setAccessible(true);
-            if (!JediEngine.isJediField(field)) {
-               continue;
-            }
-            if (field.getName().equals("serialVersionUID")) continue;
-            if (field.getName().equals("objects")) continue;
-            // Busca a anotação.
-            for (Class class_ : JediEngine.JEDI_FIELD_ANNOTATION_CLASSES) {
-               annotation = field.getAnnotation(class_);
-               if (annotation != null) {
-                  annotationClass = annotation.annotationType();
-                  defaultValue = JediEngine.getDefaultValue(annotation);
-                  break;
-               }
+         List<String> manyToManySQLs = new ArrayList<>();
+         PreparedSql insert = insertSql(manyToManySQLs);
+         if (JediEngine.DEBUG) {
+            System.out.println(insert + "\n");
+         }
+         connect();
+         statement = insert.prepareReturningId(activeConnection());
+         statement.executeUpdate();
+         generatedKeys = statement.getGeneratedKeys();
+         if (generatedKeys != null && generatedKeys.next()) {
+            this.id = generatedKeys.getInt(1);
+         }
+         commit();
+         if (this.id == 0) {
+            // Driver sem suporte a chaves geradas.
+            this.id = new Manager(this.getClass()).getLastInsertedID();
+         }
+         if (!manyToManySQLs.isEmpty()) {
+            insertManyToMany(new Manager(this.getClass()), manyToManySQLs);
+         }
+      } catch (Exception e) {
+         rollback();
+         if (EXCEPTION_HANDLING.equals(ExceptionHandling.PRINT)) {
+            e.printStackTrace();
+         } else {
+            throw new DatabaseException(e);
+         }
+      } finally {
+         close(generatedKeys, statement, activeConnection());
+         QueryCache.invalidate(tableName);
+      }
+   }
+   
+   /**
+    * Monta a instrução INSERT do modelo, salvando antes os relacionamentos
+    * em cascata.
+    * 
+    * @param manyToManySQLs
+    *           recebe as instruções (incompletas) de inserção nas tabelas
+    *           intermediárias, que dependem do id do modelo.
+    * @see #insertManyToMany(Manager, List)
+    */
+   PreparedSql insertSql(List<String> manyToManySQLs) throws Exception {
+      String sql = "INSERT INTO";
+      String columns = "";
+      String values = "";
+      List<Object> parameters = new ArrayList<>();
+      String defaultValue = "";
+      String references = null;
+      String manyToManySQLFormatter = "INSERT INTO %s_%s (%s_id, %s_id) VALUES (%d,";
+      Annotation annotation = null;
+      Class annotationClass = null;
+      for (FieldMetadata fieldMetadata : ModelMetadata.of(this.getClass()).getFields()) {
+         Field field = fieldMetadata.getField();
+         String columnName = fieldMetadata.getColumnName();
+         annotation = fieldMetadata.getAnnotation();
+         annotationClass = fieldMetadata.getAnnotationClass();
+         defaultValue = fieldMetadata.getDefaultValue();
+         CascadeType cascadeType = JediEngine.CASCADE_TYPE;
+         // Treats the columns.
+         if (field.getType().getSuperclass() != null && field.getType().getSuperclass().getSimpleName().equals("Model")) {
+            if (annotationClass == OneToOneField.class || annotationClass == ForeignKeyField.class) {
+               columns += String.format("%s_id, ", columnName);
             }
-            CascadeType cascadeType = JediEngine.CASCADE_TYPE;
-            // Treats the columns.
-            if (field.getType().getSuperclass() != null && field.getType().getSuperclass().getSimpleName().equals("Model")) {
-               if (annotationClass == OneToOneField.class || annotationClass == ForeignKeyField.class) {
-                  columns += String.format("%s_id, ", TableUtil.getColumnName(field));
+         } else if (field.getType().getName().equals("java.util.List") || field.getType().getName().equals("jedi.db.models.QuerySet")) {
+            // Doesn't creates the field here.
+         } else {
+            columns += String.format("%s, ", columnName);
+         }
+         // Treats the values.
+         if (field.getType().getSimpleName().equalsIgnoreCase("boolean")) {
+            values += "?, ";
+            parameters.add(field.get(this).equals(Boolean.FALSE) ? 0 : 1);
+         } else if (field.getType().toString().endsWith("String")) { // Campo texto.
+            if (field.get(this) != null) { // Atributo não nulo.
+               values += "?, ";
+               parameters.add(field.get(this));
+            } else { // Atributo nulo.
+               // Valor padrão não informado.
+               if (defaultValue.equals("\\0")) {
+                  // Remove a coluna da instrução SQL.
+                  columns = columns.replace(String.format("%s, ", columnName), "");
+               } else if (defaultValue.equalsIgnoreCase("null")) {
+                  values += String.format("%s, ", defaultValue.toUpperCase());
+               } else {
+                  values += "?, ";
+                  parameters.add(defaultValue);
                }
-            } else if (field.getType().getName().equals("java.util.List") || field.getType().getName().equals("jedi.db.models.QuerySet")) {
-               // Doesn't creates the field here.
-            } else {
-               columns += String.format("%s, ", TableUtil.getColumnName(field.getName()));
             }
-            // Treats the values.
-            if (field.getType().getSimpleName().equalsIgnoreCase("boolean")) {
-               values += String.format("%s, ", field.get(this).equals(Boolean.FALSE) ? 0 : 1);
-            } else if (field.getType().toString().endsWith("String")) { // Campo texto.
-               if (field.get(this) != null) { // Atributo não nulo.
-                  // Substituindo ' por \' para evitar erro de sintaxe no SQL.
-                  values += String.format("'%s', ", ((String) field.get(this)).replaceAll("'", "\\\\'"));
-               } else { // Atributo nulo.
-                  // Valor padrão não informado.
-                  if (defaultValue.equals("\\0")) {
-                     // Remove a coluna da instrução SQL.
-                     columns = columns.replace(String.format("%s, ", TableUtil.getColumnName(field.getName())), "");
-                  } else if (defaultValue.equalsIgnoreCase("null")) {
-                     values += String.format("%s, ", defaultValue.toUpperCase());
-                  } else {
-                     values += String.format("'%s', ", defaultValue.replaceAll("'", "\\\\'"));
-                  }
-               }
-            } else if (field.getType().toString().endsWith("Date") || field.getType().toString().endsWith("PyDate") ||
-               field.getType().toString().endsWith("DateTime")) {
-               Date date = (Date) field.get(this);
-               if (date != null) {
-                  // Valor da data informado.
-                  Calendar calendar = Calendar.getInstance();
-                  calendar.setTime(date);
-                  if (annotationClass == DateField.class) {
-                     calendar.set(Calendar.HOUR_OF_DAY, 0);
-                     calendar.set(Calendar.MINUTE,  0);
-                     calendar.set(Calendar.SECOND, 0);
+         } else if (field.getType().toString().endsWith("Date") || field.getType().toString().endsWith("PyDate") ||
+            field.getType().toString().endsWith("DateTime")) {
+            Date date = (Date) field.get(this);
+            if (date != null) {
+               // Valor da data informado.
+               Calendar calendar = Calendar.getInstance();
+               calendar.setTime(date);
+               if (annotationClass == DateField.class) {
+                  calendar.set(Calendar.HOUR_OF_DAY, 0);
+                  calendar.set(Calendar.MINUTE,  0);
+                  calendar.set(Calendar.SECOND, 0);
+                  calendar.set(Calendar.MILLISECOND, 0);
+                  date = calendar.getTime();
+                  field.set(this, date);
+                  values += "?, ";
+                  parameters.add(new java.sql.Date(date.getTime()));
+               } else if (annotationClass == TimeField.class) {
+                  calendar.set(Calendar.YEAR, 0);
+                  calendar.set(Calendar.MONTH, 0);
+                  calendar.set(Calendar.DAY_OF_MONTH, 0);
+                  date = calendar.getTime();
+                  field.set(this, date);
+                  values += "?, ";
+                  parameters.add(new Time(date.getTime()));
+               } else if (annotationClass == DateTimeField.class) {
+                  int precision = ((DateTimeField) annotation).precision();
+                  if (precision <= 0) {
                      calendar.set(Calendar.MILLISECOND, 0);
-                     date = calendar.getTime();
-                     field.set(this, date);
-                     values += String.format("'%d-%02d-%02d', ", date.getYear() + 1900, date.getMonth() + 1, date.getDate());
-                  } else if (annotationClass == TimeField.class) {
-                     calendar.set(Calendar.YEAR, 0);
-                     calendar.set(Calendar.MONTH, 0);
-                     calendar.set(Calendar.DAY_OF_MONTH, 0);
-                     date = calendar.getTime();
-                     field.set(this, date);
-                     values += String.format("'%02d:%02d:%02d', ", date.getHours(), date.getMinutes(), date.getSeconds());
-                  } else if (annotationClass == DateTimeField.class) {
-                     int precision = ((DateTimeField) annotation).precision();
-                     if (precision <= 0) {
-                        values += String.format(
-                           "'%d-%02d-%02d %02d:%02d:%02d', ",
-                           date.getYear() + 1900,
-                           date.getMonth() + 1,
-                           date.getDate(),
-                           date.getHours(),
-                           date.getMinutes(),
-                           date.getSeconds()
-                        );
-                     } else {
-                        values += String.format(
-                           "'%d-%02d-%02d %02d:%02d:%02d.%d', ",
-                           date.getYear() + 1900,
-                           date.getMonth() + 1,
-                           date.getDate(),
-                           date.getHours(),
-                           date.getMinutes(),
-                           date.getSeconds(),
-                           calendar.get(Calendar.MILLISECOND)
-                        );
-                     }
-                  } else {
-                  
                   }
+                  values += "?, ";
+                  parameters.add(new Timestamp(calendar.getTimeInMillis()));
                } else {
-                  // Valor da data não informado.
-                  if (annotationClass == DateField.class) {
-                     DateField dateField = (DateField) annotation;
-                     // 1 - Coluna com preenchimento automático ou valor padrão definidos no banco de dados?
-                     if (dateField.auto_now_add() == true || dateField.auto_now() == true || defaultValue.isEmpty() == false) {
-                        // 1.1 - Remove coluna da instrução SQL.
-                        columns = columns.replace(String.format("%s, ", TableUtil.getColumnName(field)), "");
-                     }
-                  } else if (annotationClass == TimeField.class) {
-                     TimeField timeField = (TimeField) annotation;
-                     if (timeField.auto_now_add() == true || timeField.auto_now() == true || defaultValue.isEmpty() == false) {
-                        columns = columns.replace(String.format("%s, ", TableUtil.getColumnName(field)), "");
-                     }
-                  } else if (annotationClass == DateTimeField.class) {
-                     DateTimeField datetimeField = (DateTimeField) annotation;
-                     if (datetimeField.auto_now_add() == true || datetimeField.auto_now() == true || defaultValue.isEmpty() == false) {
-                        columns = columns.replace(String.format("%s, ", TableUtil.getColumnName(field)), "");
-                     }
-                  } else {
-                     values += String.format("'', ", field.get(this));
-                  }
+               
                }
             } else {
-               if (annotationClass == OneToOneField.class || annotationClass == ForeignKeyField.class) {
-                  Model model = (Model) field.get(this);
-                  if (model != null) {
-                     if (cascadeType.equals(CascadeType.NONE)) {
-                        if (annotationClass == OneToOneField.class) {
-                           cascadeType = ((OneToOneField) annotation).cascade_type();
-                        } else {
-                           cascadeType = ((ForeignKeyField) annotation).cascade_type();
-                        }
-                     }
-                     if (cascadeType.equals(CascadeType.INSERT) || cascadeType.equals(CascadeType.SAVE) ||
-                        cascadeType.equals(CascadeType.ALL)) {
-                        if (model != null) {
-                           model.save();
-                        }
-                     }
-                     values += String.format("%s, ", model.getId());
-                  } else {
-                     values += String.format("%s, ", "NULL");
+               // Valor da data não informado.
+               if (annotationClass == DateField.class) {
+                  DateField dateField = (DateField) annotation;
+                  // 1 - Coluna com preenchimento automático ou valor padrão definidos no banco de dados?
+                  if (dateField.auto_now_add() == true || dateField.auto_now() == true || defaultValue.isEmpty() == false) {
+                     // 1.1 - Remove coluna da instrução SQL.
+                     columns = columns.replace(String.format("%s, ", columnName), "");
                   }
-               } else
-                  if ((field.getType().getName().equals("java.util.List") || field.getType().getName().equals("jedi.db.models.QuerySet")) &&
-                     annotationClass == ManyToManyField.class) {
-                  String model = ((ManyToManyField) annotation).model().getSimpleName();
-                  model = Model.class.getSimpleName().equals(model) ? "" : model;
-                  ParameterizedType genericType = null;
-                  Class superClazz = null;
-                  Class clazz = null;
-                  if (model.isEmpty()) {
-                     if (ParameterizedType.class.isAssignableFrom(field.getGenericType().getClass())) {
-                        genericType = (ParameterizedType) field.getGenericType();
-                        superClazz = ((Class) (genericType.getActualTypeArguments()[0])).getSuperclass();
-                        if (superClazz == Model.class) {
-                           clazz = (Class) genericType.getActualTypeArguments()[0];
-                           model = clazz.getSimpleName();
-                        }
-                     }
+               } else if (annotationClass == TimeField.class) {
+                  TimeField timeField = (TimeField) annotation;
+                  if (timeField.auto_now_add() == true || timeField.auto_now() == true || defaultValue.isEmpty() == false) {
+                     columns = columns.replace(String.format("%s, ", columnName), "");
+                  }
+               } else if (annotationClass == DateTimeField.class) {
+                  DateTimeField datetimeField = (DateTimeField) annotation;
+                  if (datetimeField.auto_now_add() == true || datetimeField.auto_now() == true || defaultValue.isEmpty() == false) {
+                     columns = columns.replace(String.format("%s, ", columnName), "");
                   }
-                  references = ((ManyToManyField) annotation).references();
-                  if (references == null || references.trim().isEmpty()) {
-                     if (clazz != null) {
-                        references = TableUtil.getTableName(clazz);
+               } else {
+                  values += "'', ";
+               }
+            }
+         } else {
+            if (annotationClass == OneToOneField.class || annotationClass == ForeignKeyField.class) {
+               Model model = (Model) field.get(this);
+               if (model != null) {
+                  if (cascadeType.equals(CascadeType.NONE)) {
+                     if (annotationClass == OneToOneField.class) {
+                        cascadeType = ((OneToOneField) annotation).cascade_type();
                      } else {
-                        references = TableUtil.getTableName(model);
+                        cascadeType = ((ForeignKeyField) annotation).cascade_type();
                      }
                   }
-                  String packageName = this.getClass().getPackage().getName();
-                  associatedModelManager = new Manager(Class.forName(String.format("%s.%s", packageName, model)));
-                  cascadeType = cascadeType.equals(CascadeType.NONE) ? ((ManyToManyField) annotation).cascade_type() : cascadeType;
                   if (cascadeType.equals(CascadeType.INSERT) || cascadeType.equals(CascadeType.SAVE) ||
                      cascadeType.equals(CascadeType.ALL)) {
-                     Model mo = null;
-                     if (field.getType().getName().equals("java.util.List")) {
-                        if ((List) field.get(this) != null) {
-                           for (Object obj : (List) field.get(this)) {
-                              if (obj == null) continue;
-                              mo = (Model) obj;
-                              if (!mo.persisted) {
-                                 mo.insert();
-                              }
-                              manyToManySQLs.add(
-                                 String.format(
-                                    manyToManySQLFormatter,
-                                    tableName,
-                                    references,
-                                    TableUtil.getColumnName(model),
-                                    TableUtil.getColumnName(this.getClass()),
-                                    mo.id()));
+                     if (model != null) {
+                        model.save();
+                     }
+                  }
+                  values += "?, ";
+                  parameters.add(model.getId());
+               } else {
+                  values += String.format("%s, ", "NULL");
+               }
+            } else
+               if ((field.getType().getName().equals("java.util.List") || field.getType().getName().equals("jedi.db.models.QuerySet")) &&
+                  annotationClass == ManyToManyField.class) {
+               String model = fieldMetadata.getAssociatedModelName();
+               references = fieldMetadata.getReferences();
+               cascadeType = cascadeType.equals(CascadeType.NONE) ? ((ManyToManyField) annotation).cascade_type() : cascadeType;
+               if (cascadeType.equals(CascadeType.INSERT) || cascadeType.equals(CascadeType.SAVE) ||
+                  cascadeType.equals(CascadeType.ALL)) {
+                  Model mo = null;
+                  if (field.getType().getName().equals("java.util.List")) {
+                     if ((List) field.get(this) != null) {
+                        for (Object obj : (List) field.get(this)) {
+                           if (obj == null) continue;
+                           mo = (Model) obj;
+                           if (!mo.persisted) {
+                              mo.insert();
                            }
+                           manyToManySQLs.add(
+                              String.format(
+                                 manyToManySQLFormatter,
+                                 tableName,
+                                 references,
+                                 TableUtil.getColumnName(model),
+                                 TableUtil.getColumnName(this.getClass()),
+                                 mo.id()));
                         }
                      }
-                     if (field.getType().getName().equals("jedi.db.models.QuerySet")) {
-                        if ((QuerySet) field.get(this) != null) {
-                           for (Object obj : (QuerySet) field.get(this)) {
-                              if (obj == null) continue;
-                              mo = (Model) obj;
-                              if (!mo.persisted) {
-                                 mo.insert();
-                              }
-                              manyToManySQLs.add(
-                                 String.format(
-                                    manyToManySQLFormatter,
-                                    tableName,
-                                    references,
-                                    TableUtil.getColumnName(model),
-                                    TableUtil.getColumnName(this.getClass()),
-                                    mo.id()
-                                 )
-                              );
+                  }
+                  if (field.getType().getName().equals("jedi.db.models.QuerySet")) {
+                     if ((QuerySet) field.get(this) != null) {
+                        for (Object obj : (QuerySet) field.get(this)) {
+                           if (obj == null) continue;
+                           mo = (Model) obj;
+                           if (!mo.persisted) {
+                              mo.insert();
                            }
+                           manyToManySQLs.add(
+                              String.format(
+                                 manyToManySQLFormatter,
+                                 tableName,
+                                 references,
+                                 TableUtil.getColumnName(model),
+                                 TableUtil.getColumnName(this.getClass()),
+                                 mo.id()
+                              )
+                           );
                         }
                      }
                   }
+               }
+            } else {
+               Object value = field.get(this);
+               if (value == null) {
+                  values += "NULL, ";
                } else {
-                  values += String.format("%s, ", field.get(this));
+                  values += "?, ";
+                  parameters.add(value);
                }
             }
          }
-         columns = columns.contains(",") ? columns.substring(0, columns.lastIndexOf(',')) : columns;
-         values = values.contains(",") ? values.substring(0, values.lastIndexOf(',')) : values;
-         sql = String.format("%s %s (%s) VALUES (%s);", sql, tableName, columns, values);
-         if (JediEngine.DEBUG) {
-            System.out.println(sql + "\n");
-         }
-         connect();
-         statement = connection.createStatement();
-         statement.executeUpdate(sql);
-         commit();
-         Manager manager = new Manager(this.getClass());
-         this.id = manager.getLastInsertedID();
-         for (String associatedModelSQL : manyToManySQLs) {
-            associatedModelSQL = String.format("%s %d);", associatedModelSQL, this.id());
-            associatedModelManager.raw(associatedModelSQL);
-         }
-      } catch (Exception e) {
-         rollback();
-         if (EXCEPTION_HANDLING.equals(ExceptionHandling.PRINT)) {
-            e.printStackTrace();
-         } else {
-            throw new DatabaseException(e);
-         }
-      } finally {
-         close(statement, connection);
+      }
+      columns = columns.contains(",") ? columns.substring(0, columns.lastIndexOf(',')) : columns;
+      values = values.contains(",") ? values.substring(0, values.lastIndexOf(',')) : values;
+      sql = String.format("%s %s (%s) VALUES (%s)", sql, tableName, columns, values);
+      return new PreparedSql(sql, parameters);
+   }
+   
+   /**
+    * Completa com o id do modelo e executa as instruções montadas por
+    * {@link #insertSql(List)}.
+    */
+   void insertManyToMany(Manager manager, List<String> manyToManySQLs) {
+      for (String associatedModelSQL : manyToManySQLs) {
+         manager.raw(String.format("%s %d);", associatedModelSQL, this.id()));
       }
    }
    
@@ -458,6 +638,7 @@ public class Model implements IModel {
          }
          String sql = "UPDATE";
          String fieldsAndValues = "";
+         List<Object> parameters = new ArrayList<>();
          String defaultValue = "";
          String referencedModel = null;
          String referencedTable = null;
@@ -470,6 +651,12 @@ public class Model implements IModel {
          TimeField timeFieldAnnotation = null;
          DateTimeField dateTimeFieldAnnotation = null;
          if (args.length == 0) {
+            // Sem alterações desde a leitura ou a última gravação não há o
+            // que enviar ao banco.
+            Set<String> dirtyFields = getDirtyFields();
+            if (dirtyFields != null && dirtyFields.isEmpty()) {
+               return;
+            }
             for (Field field : this.getClass().getDeclaredFields()) {
                field.setAccessible(true);
                if (!JediEngine.isJediField(field)) {
@@ -477,6 +664,10 @@ public class Model implements IModel {
                }
                if (field.getName().equals("serialVersionUID")) continue;
                if (field.getName().equals("objects")) continue;
+               boolean changed = dirtyFields == null || dirtyFields.contains(field.getName());
+               String unchangedFieldsAndValues = fieldsAndValues;
+               int unchangedParameters = parameters.size();
+               int unchangedManyToManySQLs = manyToManySQLs.size();
                oneToOneFieldAnnotation = field.getAnnotation(OneToOneField.class);
                foreignKeyFieldAnnotation = field.getAnnotation(ForeignKeyField.class);
                manyToManyFieldAnnotation = field.getAnnotation(ManyToManyField.class);
@@ -579,11 +770,8 @@ public class Model implements IModel {
                   fieldsAndValues += String.format("%s = ", columnName);
                }
                if (field.getType().toString().endsWith("String")) {
-                  if (field.get(this) != null) {
-                     fieldsAndValues += String.format("'%s', ", ((String) field.get(this)).replaceAll("'", "\\\\'"));
-                  } else {
-                     fieldsAndValues += "'', ";
-                  }
+                  fieldsAndValues += "?, ";
+                  parameters.add(field.get(this) != null ? field.get(this) : "");
                } else if (field.getType().toString().endsWith("Date") || field.getType().toString().endsWith("PyDate") ||
                   field.getType().toString().endsWith("DateTime")) {
                   Date date = (Date) field.get(this);
@@ -598,38 +786,23 @@ public class Model implements IModel {
                         calendar.set(Calendar.MILLISECOND, 0);
                         date = calendar.getTime();
                         field.set(this, date);
-                        fieldsAndValues += String.format("'%d-%02d-%02d', ", date.getYear() + 1900, date.getMonth() + 1, date.getDate());
+                        fieldsAndValues += "?, ";
+                        parameters.add(new java.sql.Date(date.getTime()));
                      } else if (timeFieldAnnotation != null) {
                         calendar.set(Calendar.YEAR, 0);
                         calendar.set(Calendar.MONTH, 0);
                         calendar.set(Calendar.DAY_OF_MONTH, 0);
                         date = calendar.getTime();
                         field.set(this, date);
-                        fieldsAndValues += String.format("'%02d:%02d:%02d', ", date.getHours(), date.getMinutes(), date.getSeconds());
+                        fieldsAndValues += "?, ";
+                        parameters.add(new Time(date.getTime()));
                      } else if (dateTimeFieldAnnotation != null) {
                         int precision = dateTimeFieldAnnotation.precision();
                         if (precision <= 0) {
-                           fieldsAndValues += String.format(
-                              "'%d-%02d-%02d %02d:%02d:%02d', ",
-                              date.getYear() + 1900,
-                              date.getMonth() + 1,
-                              date.getDate(),
-                              date.getHours(),
-                              date.getMinutes(),
-                              date.getSeconds()
-                           );
-                        } else {
-                           fieldsAndValues += String.format(
-                              "'%d-%02d-%02d %02d:%02d:%02d.%d', ",
-                              date.getYear() + 1900,
-                              date.getMonth() + 1,
-                              date.getDate(),
-                              date.getHours(),
-                              date.getMinutes(),
-                              date.getSeconds(),
-                              calendar.get(Calendar.MILLISECOND)
-                           );
+                           calendar.set(Calendar.MILLISECOND, 0);
                         }
+                        fieldsAndValues += "?, ";
+                        parameters.add(new Timestamp(calendar.getTimeInMillis()));
                      } else {
                      
                      }
@@ -662,16 +835,37 @@ public class Model implements IModel {
                } else {
                   if (oneToOneFieldAnnotation != null || foreignKeyFieldAnnotation != null) {
                      Model model = (Model) field.get(this);
-                     Object id = model == null ? null : model.id();
-                     fieldsAndValues += String.format("%s, ", id);
+                     if (model == null) {
+                        fieldsAndValues += "NULL, ";
+                     } else {
+                        fieldsAndValues += "?, ";
+                        parameters.add(model.id());
+                     }
                   } else if (manyToManyFieldAnnotation != null) {
                   
+                  } else if (field.get(this) == null) {
+                     fieldsAndValues += "NULL, ";
+                  } else if (field.getType().getSimpleName().equalsIgnoreCase("boolean")) {
+                     fieldsAndValues += "?, ";
+                     parameters.add(field.get(this).equals(Boolean.FALSE) ? 0 : 1);
                   } else {
-                     fieldsAndValues += String.format("%s, ", field.get(this));
+                     fieldsAndValues += "?, ";
+                     parameters.add(field.get(this));
                   }
                }
+               if (!changed) {
+                  // As gravações em cascata dos relacionados são mantidas.
+                  fieldsAndValues = unchangedFieldsAndValues;
+                  parameters.subList(unchangedParameters, parameters.size()).clear();
+                  manyToManySQLs.subList(unchangedManyToManySQLs, manyToManySQLs.size()).clear();
+               }
+            }
+            if (fieldsAndValues.isEmpty() && manyToManySQLs.isEmpty()) {
+               return;
+            }
+            if (!fieldsAndValues.isEmpty()) {
+               fieldsAndValues = fieldsAndValues.substring(0, fieldsAndValues.lastIndexOf(','));
             }
-            fieldsAndValues = fieldsAndValues.substring(0, fieldsAndValues.lastIndexOf(','));
          } else {
             if (args.length > 0) {
                Field field = null;
@@ -714,24 +908,41 @@ public class Model implements IModel {
                      }
                   } else {
                   }
-                  fieldsAndValues += String.format("%s = %s, ", columnName, columnValue);
+                  // O valor informado entre apóstrofos ou numérico é passado
+                  // como parâmetro; os demais (NULL, expressões) são
+                  // mantidos na instrução.
+                  if (!columnValue.equals(fieldValue)) {
+                     fieldsAndValues += String.format("%s = ?, ", columnName);
+                     parameters.add(fieldValue);
+                  } else if (NUMBER.matcher(columnValue).matches()) {
+                     fieldsAndValues += String.format("%s = ?, ", columnName);
+                     parameters.add(columnValue.contains(".") ? new BigDecimal(columnValue) : Long.valueOf(columnValue));
+                  } else {
+                     fieldsAndValues += String.format("%s = %s, ", columnName, columnValue);
+                  }
                }
                fieldsAndValues = fieldsAndValues.substring(0, fieldsAndValues.lastIndexOf(","));
             }
          }
-         sql = String.format("%s %s WHERE id = %s", sql, fieldsAndValues, jedi.db.models.Model.class.getDeclaredField("id").get(this));
-         if (JediEngine.DEBUG) {
-            System.out.println(sql + ";\n");
-         }
+         sql = String.format("%s %s WHERE id = ?", sql, fieldsAndValues);
+         parameters.add(this.id);
+         PreparedSql update = new PreparedSql(sql, parameters);
          connect();
-         statement = connection.prepareStatement(sql);
-         statement.execute();
+         if (!fieldsAndValues.isEmpty()) {
+            if (JediEngine.DEBUG) {
+               System.out.println(update + ";\n");
+            }
+            statement = update.prepare(activeConnection());
+            statement.execute();
+            QueryCache.invalidate(tableName);
+         }
          for (String manyToManySQL : manyToManySQLs) {
             if (JediEngine.DEBUG) {
                System.out.println(manyToManySQL + "\n");
             }
-            statement = connection.prepareStatement(manyToManySQL);
+            statement = activeConnection().prepareStatement(manyToManySQL);
             statement.execute();
+            QueryCache.invalidateSql(manyToManySQL);
          }
          commit();
       } catch (Exception e) {
@@ -742,7 +953,8 @@ public class Model implements IModel {
             throw new DatabaseException(e);
          }
       } finally {
-         close(statement, connection);
+         close(statement, activeConnection());
+         ModelCache.evict(getClass(), id);
       }
    }
    
@@ -754,6 +966,7 @@ public class Model implements IModel {
          this.update();
       }
       persisted = true;
+      snapshot();
       this.onPostSave();
    }
    
@@ -806,6 +1019,7 @@ public class Model implements IModel {
       // TODO - Verificar a viabilidade de CascadeType.DELETE.
       PreparedStatement statement = null;
       try {
+         this.onPreDelete();
          String sql = "DELETE FROM";
          sql = String.format("%s %s WHERE", sql, tableName);
          sql = String.format("%s id = %s", sql, jedi.db.models.Model.class.getDeclaredField("id").get(this));
@@ -813,10 +1027,11 @@ public class Model implements IModel {
             System.out.println(sql + ";\n");
          }
          connect();
-         statement = connection.prepareStatement(sql);
+         statement = activeConnection().prepareStatement(sql);
          statement.execute();
          commit();
          this.setPersisted(false);
+         this.onPostDelete();
       } catch (Exception e) {
          rollback();
          if (EXCEPTION_HANDLING.equals(ExceptionHandling.PRINT)) {
@@ -825,7 +1040,10 @@ public class Model implements IModel {
             throw new DatabaseException(e);
          }
       } finally {
-         close(statement, connection);
+         close(statement, activeConnection());
+         ModelCache.evict(getClass(), id);
+         IdentityMap.evict(getClass(), id);
+         QueryCache.invalidate(tableName);
       }
    }
    
@@ -951,36 +1169,31 @@ public class Model implements IModel {
          identationToListItems += "    ";
       }
       try {
-         json = String.format(
-            "%s{\n%s\"id\": %s,",
-            identationToClass,
-            identationToFields,
-            jedi.db.models.Model.class.getDeclaredField("id").get(this));
-         List<Field> fields = JediEngine.getAllFields(this.getClass());
-         for (Field f : fields) {
-            f.setAccessible(true);
-            if (f.getName().equals("serialVersionUID")) continue;
-            if (f.getName().equalsIgnoreCase("objects")) continue;
-            if (f.getType().getSuperclass() != null && f.getType().getSuperclass().getName().equals("jedi.db.models.Model")) {
-               if (f.get(this) != null) {
-                  json += String.format("\n%s\"%s\": %s,", identationToFields, f.getName(), ((Model) f.get(this)).toJSON(i + 1).trim());
+         json = String.format("%s{\n%s\"id\": %s,", identationToClass, identationToFields, this.id);
+         for (FieldMetadata f : ModelMetadata.of(this.getClass()).getFields()) {
+            Object value = f.get(this);
+            if (Model.class.isAssignableFrom(f.getType())) {
+               if (value != null) {
+                  json += String.format("\n%s\"%s\": %s,", identationToFields, f.getName(), ((Model) value).toJSON(i + 1).trim());
                } else {
                   json += String.format("\n%s\"%s\": null,", identationToFields, f.getName());
                }
-            } else if (f.getType().getName().equals("java.util.List") || f.getType().getName().equals("jedi.db.models.QuerySet")) {
+            } else if (f.isList()) {
                String strItems = "";
-               for (Object item : (List) f.get(this)) {
-                  strItems += String.format("\n%s,", ((Model) item).toJSON((i + 2)));
+               if (value != null) {
+                  for (Object item : (List) value) {
+                     strItems += String.format("\n%s,", ((Model) item).toJSON((i + 2)));
+                  }
                }
                if (strItems.lastIndexOf(",") >= 0) {
                   strItems = strItems.substring(0, strItems.lastIndexOf(","));
                }
                json += String.format("\n%s\"%s\": [%s\n%s],", identationToFields, f.getName(), strItems, identationToFields);
             } else {
-               if (f.get(this) instanceof String) {
-                  json += String.format("\n%s\"%s\": \"%s\",", identationToFields, f.getName(), f.get(this));
+               if (value instanceof String) {
+                  json += String.format("\n%s\"%s\": \"%s\",", identationToFields, f.getName(), value);
                } else {
-                  json += String.format("\n%s\"%s\": %s,", identationToFields, f.getName(), f.get(this));
+                  json += String.format("\n%s\"%s\": %s,", identationToFields, f.getName(), value);
                }
             }
          }
@@ -1260,7 +1473,8 @@ public class Model implements IModel {
    }
    
    /**
-    * Retorna se o Manager tem ou não uma conexão válida com o banco de dados.
+    * Retorna se o Model tem ou não uma conexão aberta com o banco de dados,
+    * sem ida ao banco: a validade da conexão fica a cargo do pool.
     * 
     * @return boolean conectado ou não.
     */
@@ -1268,7 +1482,7 @@ public class Model implements IModel {
       boolean connected = false;
       if (connection != null) { // conexão existe?
          try {
-            connected = connection.isValid(DATABASE_POOL_HIKARI_CHECKOUT_TIMEOUT); // a conexão é válida?
+            connected = !connection.isClosed(); // a conexão está aberta?
          } catch (SQLException e) {
             e.printStackTrace();
          }
@@ -1286,8 +1500,11 @@ public class Model implements IModel {
     * @return Connection conexão com o banco de dados.
     */
    private Connection connect() {
+      if (UnitOfWork.isActive()) {
+         return UnitOfWork.currentConnection();
+      }
       if (JediEngine.Pool.isNotActive()) {
-         if (disconnected()) {
+         if (disconnected() || !DataSource.validate(connection)) {
             connection = DataSource.getConnection();
          }
       } else {
@@ -1296,6 +1513,17 @@ public class Model implements IModel {
       return connection;
    }
    
+   /**
+    * Conexão usada pelas operações. A da unidade de trabalho é consultada a
+    * cada chamada e nunca guardada no modelo.
+    * 
+    * @return a conexão da unidade de trabalho da thread corrente ou a do
+    *         modelo.
+    */
+   private Connection activeConnection() {
+      return UnitOfWork.isActive() ? UnitOfWork.currentConnection() : connection;
+   }
+   
    private void disconnect() throws SQLException {
       if (connected()) {
          close(connection);
@@ -1308,7 +1536,8 @@ public class Model implements IModel {
     * @param o
     */
    private void close(Object o) {
-      if (o != null && o instanceof AutoCloseable) {
+      // A conexão da unidade de trabalho é fechada apenas ao final dela.
+      if (o != null && o instanceof AutoCloseable && !UnitOfWork.owns(o)) {
          try {
             ((AutoCloseable) o).close();
          } catch (Exception e) {
@@ -1334,10 +1563,10 @@ public class Model implements IModel {
    }
    
    private void commit() {
-      if (connected()) {
+      if (!UnitOfWork.owns(activeConnection()) && connected()) {
          try {
             if (!autoCommit()) {
-               connection.commit();
+               activeConnection().commit();
             }
          } catch (SQLException e) {
             e.printStackTrace();
@@ -1346,9 +1575,11 @@ public class Model implements IModel {
    }
    
    private void rollback() {
-      if (connected()) {
+      if (UnitOfWork.owns(activeConnection())) {
+         UnitOfWork.markRollbackOnly();
+      } else if (connected()) {
          try {
-            connection.rollback();
+            activeConnection().rollback();
          } catch (SQLException e) {
             e.printStackTrace();
          }
@@ -1358,6 +1589,10 @@ public class Model implements IModel {
    public void set(String field, Object value) {
       field = field == null ? "" : field;
       if (!field.isEmpty()) {
+         if (deferredFields != null) {
+            // O valor atribuído dispensa a leitura do campo adiado.
+            deferredFields.remove(field);
+         }
          try {
             Field _field = this.getClass().getDeclaredField(field);
             _field.setAccessible(true);
@@ -1378,6 +1613,9 @@ public class Model implements IModel {
       Object o = null;
       field = field == null ? "" : field;
       if (!field.isEmpty()) {
+         if (deferredFields != null && deferredFields.contains(field)) {
+            load(field);
+         }
          try {
             Field _field = this.getClass().getDeclaredField(field);
             _field.setAccessible(true);
@@ -0,0 +1,264 @@
+package jedi.db.models;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jedi.db.connection.UnitOfWork;
+import jedi.db.util.LruCache;
+
+/**
+ * Cache de segundo nível dos modelos anotados com {@link Cacheable},
+ * indexado pelo id.
+ * <p>
+ * Guarda cópias dos modelos e devolve cópias, de modo que alterações em
+ * um modelo obtido do cache não o afetam. Model.save, update e delete
+ * descartam o registro alterado; as alterações em massa do Manager
+ * descartam todo o cache do modelo. Dentro de uma unidade de trabalho o
+ * cache não é preenchido, e os registros alterados são descartados de novo
+ * ao final dela.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class ModelCache {
+
+   private static final ConcurrentMap<Class<?>, ModelCache> CACHES = new ConcurrentHashMap<>();
+   // Marca os modelos sem cache no mapa acima.
+   private static final ModelCache NONE = new ModelCache(null, 0, 0);
+
+   private final Class<? extends Model> modelClass;
+   private final LruCache<Integer, Entry> entries;
+   private final long ttl;
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+   // Incrementado a cada descarte; ver stamp().
+   private final AtomicLong version = new AtomicLong();
+
+   private ModelCache(Class<? extends Model> modelClass, int maxSize, long ttl) {
+      this.modelClass = modelClass;
+      this.entries = new LruCache<>(maxSize);
+      this.ttl = TimeUnit.SECONDS.toNanos(ttl);
+   }
+
+   /**
+    * @return o cache do modelo ou null se o modelo não for
+    *         {@link Cacheable}.
+    */
+   public static ModelCache of(Class<? extends Model> modelClass) {
+      if (modelClass == null) {
+         return null;
+      }
+      ModelCache cache = CACHES.computeIfAbsent(modelClass, c -> {
+         Cacheable cacheable = c.getAnnotation(Cacheable.class);
+         return cacheable == null ? NONE : new ModelCache(modelClass, cacheable.maxSize(), cacheable.ttl());
+      });
+      return cache == NONE ? null : cache;
+   }
+
+   /**
+    * Descarta o registro do cache do modelo (se houver).
+    */
+   public static void evict(Class<? extends Model> modelClass, int id) {
+      ModelCache cache = of(modelClass);
+      if (cache != null) {
+         cache.evict(id);
+         // Descarta de novo ao final da transação, caso outra thread tenha
+         // lido o registro ainda não confirmado.
+         UnitOfWork.afterCompletion(() -> cache.evict(id));
+      }
+   }
+
+   /**
+    * Descarta todos os registros do cache do modelo (se houver).
+    */
+   public static void clear(Class<? extends Model> modelClass) {
+      ModelCache cache = of(modelClass);
+      if (cache != null) {
+         cache.clear();
+         UnitOfWork.afterCompletion(cache::clear);
+      }
+   }
+
+   /**
+    * Descarta os registros de todos os modelos.
+    */
+   public static void clearAll() {
+      for (ModelCache cache : CACHES.values()) {
+         cache.clear();
+      }
+   }
+
+   /**
+    * @return uma cópia do modelo em cache ou null.
+    */
+   @SuppressWarnings("unchecked")
+   public <T extends Model> T get(int id) {
+      Entry entry = entries.get(id);
+      if (entry != null && ttl > 0 && System.nanoTime() - entry.created > ttl) {
+         entries.remove(id);
+         entry = null;
+      }
+      if (entry == null) {
+         misses.incrementAndGet();
+         return null;
+      }
+      hits.incrementAndGet();
+      return (T) copy(entry.model, new IdentityHashMap<>());
+   }
+
+   /**
+    * Armazena uma cópia do modelo persistido.
+    */
+   public void put(Model model) {
+      if (model == null || model.id <= 0 || UnitOfWork.isActive()) {
+         return;
+      }
+      entries.put(model.id, new Entry(copy(model, new IdentityHashMap<>())));
+   }
+
+   /**
+    * @return a versão do cache, a ser obtida antes de consultar o registro
+    *         que será armazenado com {@link #put(Model, long)}.
+    */
+   public long stamp() {
+      return version.get();
+   }
+
+   /**
+    * Armazena uma cópia do modelo lido do banco, exceto se algum registro
+    * foi descartado depois de stamp(), pois o modelo pode estar
+    * desatualizado.
+    */
+   public void put(Model model, long stamp) {
+      if (model == null || model.id <= 0 || UnitOfWork.isActive()) {
+         return;
+      }
+      Entry entry = new Entry(copy(model, new IdentityHashMap<>()));
+      synchronized (version) {
+         if (version.get() == stamp) {
+            entries.put(model.id, entry);
+         }
+      }
+   }
+
+   public void evict(int id) {
+      synchronized (version) {
+         version.incrementAndGet();
+         entries.remove(id);
+      }
+   }
+
+   public void clear() {
+      synchronized (version) {
+         version.incrementAndGet();
+         entries.clear();
+      }
+   }
+
+   public Class<? extends Model> getModelClass() {
+      return modelClass;
+   }
+
+   public int size() {
+      return entries.size();
+   }
+
+   public int getMaxSize() {
+      return entries.getMaxSize();
+   }
+
+   public void setMaxSize(int maxSize) {
+      entries.setMaxSize(maxSize);
+   }
+
+   public long getHits() {
+      return hits.get();
+   }
+
+   public long getMisses() {
+      return misses.get();
+   }
+
+   /**
+    * @return a proporção de acertos (0 a 1).
+    */
+   public double getHitRatio() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+   }
+
+   public void resetStatistics() {
+      hits.set(0);
+      misses.set(0);
+   }
+
+   /**
+    * Copia o modelo, os modelos associados e as listas de modelos.
+    */
+   static Model copy(Model model, Map<Object, Object> copies) {
+      Object copied = copies.get(model);
+      if (copied != null) {
+         return (Model) copied;
+      }
+      ModelMetadata metadata = ModelMetadata.of(model.getClass());
+      Model copy = metadata.newInstance();
+      copies.put(model, copy);
+      copy.id = model.id;
+      for (FieldMetadata field : metadata.getFields()) {
+         field.set(copy, copyValue(field.get(model), copies));
+      }
+      if (model.isDeferred()) {
+         copy.defer(model.getDeferredFields());
+         if (model.getLoader() != null) {
+            copy.setLoader(LazyLoader.of(copy));
+         }
+      }
+      copy.setPersisted(model.isPersisted());
+      return copy;
+   }
+
+   @SuppressWarnings({ "rawtypes", "unchecked" })
+   static Object copyValue(Object value, Map<Object, Object> copies) {
+      if (value instanceof Model) {
+         return copy((Model) value, copies);
+      } else if (value instanceof Date) {
+         return ((Date) value).clone();
+      } else if (value instanceof QuerySet && ((QuerySet) value).lazy()) {
+         return ((QuerySet) value).pendingCopy();
+      } else if (value instanceof QuerySet) {
+         QuerySet querySet = new QuerySet();
+         querySet.setEntity(((QuerySet) value).getEntity());
+         for (Object item : (Collection) value) {
+            querySet.add(copyValue(item, copies));
+         }
+         return querySet;
+      }
+      return value;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("ModelCache[%s, size=%d, hits=%d, misses=%d]", modelClass == null ? null : modelClass.getSimpleName(), size(),
+            getHits(), getMisses());
+   }
+
+   private static final class Entry {
+
+      private final Model model;
+      private final long created = System.nanoTime();
+
+      private Entry(Model model) {
+         this.model = model;
+      }
+
+   }
+
+}
@@ -0,0 +1,144 @@
+package jedi.db.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jedi.db.connection.UnitOfWork;
+import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.sql.Dialect;
+
+/**
+ * Cursor sobre os registros de uma consulta, convertidos um a um em
+ * modelos à medida que são lidos.
+ * <p>
+ * O cursor é dono do ResultSet, do statement e da conexão: todos são
+ * fechados ao final da iteração ou na chamada de {@link #close()}.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see Manager#stream(String...)
+ */
+public final class ModelCursor<T extends Model> implements Iterator<T>, AutoCloseable {
+
+   private final Connection connection;
+   private final PreparedStatement statement;
+   private final ResultSet resultSet;
+   private final RowMapper<T> rowMapper;
+   private final boolean restoreAutoCommit;
+   private T next;
+   private boolean closed;
+
+   ModelCursor(Connection connection, PreparedStatement statement, ResultSet resultSet, RowMapper<T> rowMapper, boolean restoreAutoCommit) {
+      this.connection = connection;
+      this.statement = statement;
+      this.resultSet = resultSet;
+      this.rowMapper = rowMapper;
+      this.restoreAutoCommit = restoreAutoCommit;
+   }
+
+   /**
+    * @return o fetch size configurado em jedi.properties ou o padrão do
+    *         banco de dados.
+    */
+   static int fetchSize(Dialect dialect) {
+      if (JediEngine.DATABASE_FETCH_SIZE != null) {
+         return JediEngine.DATABASE_FETCH_SIZE;
+      }
+      return dialect.getFetchSize();
+   }
+
+   @Override
+   public boolean hasNext() {
+      if (next != null) {
+         return true;
+      }
+      if (closed) {
+         return false;
+      }
+      try {
+         if (resultSet.next()) {
+            // Os modelos do cursor não ficam retidos no mapa de identidade.
+            IdentityMap identityMap = IdentityMap.suspend();
+            try {
+               next = rowMapper.map(resultSet);
+            } finally {
+               IdentityMap.resume(identityMap);
+            }
+            if (next != null) {
+               next.setPersisted(true);
+            }
+            return true;
+         }
+      } catch (SQLException e) {
+         close();
+         throw new DatabaseException(e);
+      }
+      close();
+      return false;
+   }
+
+   @Override
+   public T next() {
+      if (!hasNext()) {
+         throw new NoSuchElementException();
+      }
+      T model = next;
+      next = null;
+      return model;
+   }
+
+   /**
+    * @return um Stream sequencial sobre o cursor, que o fecha em
+    *         {@link Stream#close()}.
+    */
+   public Stream<T> stream() {
+      Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+      return StreamSupport.stream(spliterator, false).onClose(this::close);
+   }
+
+   @Override
+   public void close() {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      next = null;
+      try {
+         resultSet.close();
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+      try {
+         statement.close();
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+      try {
+         if (restoreAutoCommit) {
+            connection.commit();
+            connection.setAutoCommit(true);
+         }
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+      try {
+         // A conexão da unidade de trabalho é fechada apenas ao final dela.
+         if (!UnitOfWork.owns(connection)) {
+            connection.close();
+         }
+      } catch (SQLException e) {
+         e.printStackTrace();
+      }
+   }
+
+}
@@ -0,0 +1,185 @@
+package jedi.db.models;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.util.TableUtil;
+
+/**
+ * Registro de metadados dos modelos.
+ * <p>
+ * Os metadados de cada subclasse de Model são construídos uma única vez, na
+ * primeira consulta ao registro, e compartilhados entre as threads.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class ModelMetadata {
+
+   private static final ConcurrentMap<Class<?>, ModelMetadata> REGISTRY = new ConcurrentHashMap<>();
+
+   private final Class<? extends Model> modelClass;
+   private final String tableName;
+   private final String entityName;
+   private final String columnName;
+   private final FieldMetadata id;
+   private volatile MethodHandle constructor;
+   private final List<FieldMetadata> fields;
+   private final Map<String, FieldMetadata> fieldsByName;
+   private final Map<String, FieldMetadata> fieldsByColumnName;
+   private final boolean deleteHooks;
+
+   private ModelMetadata(Class<? extends Model> modelClass) {
+      this.modelClass = modelClass;
+      this.tableName = TableUtil.getTableName(modelClass);
+      this.entityName = modelClass.getSimpleName().toLowerCase();
+      this.columnName = TableUtil.getColumnName(modelClass);
+      try {
+         this.id = new FieldMetadata(Model.class.getDeclaredField("id"));
+      } catch (NoSuchFieldException e) {
+         throw new DatabaseException(e);
+      }
+      List<FieldMetadata> fields = new ArrayList<>();
+      Map<String, FieldMetadata> fieldsByName = new HashMap<>();
+      Map<String, FieldMetadata> fieldsByColumnName = new HashMap<>();
+      for (Field field : JediEngine.getAllFields(modelClass)) {
+         if (field.getName().equals("serialVersionUID") || field.getName().equals("objects")) {
+            continue;
+         }
+         FieldMetadata fieldMetadata = new FieldMetadata(field);
+         fields.add(fieldMetadata);
+         fieldsByName.put(fieldMetadata.getName(), fieldMetadata);
+         fieldsByColumnName.put(fieldMetadata.getDatabaseColumnName(), fieldMetadata);
+      }
+      this.fields = Collections.unmodifiableList(fields);
+      this.fieldsByName = Collections.unmodifiableMap(fieldsByName);
+      this.fieldsByColumnName = Collections.unmodifiableMap(fieldsByColumnName);
+      this.deleteHooks = overrides(modelClass, "onPreDelete") || overrides(modelClass, "onPostDelete");
+   }
+
+   private static boolean overrides(Class<? extends Model> modelClass, String method) {
+      try {
+         return modelClass.getMethod(method).getDeclaringClass() != Model.class;
+      } catch (NoSuchMethodException e) {
+         return false;
+      }
+   }
+
+   /**
+    * Retorna os metadados do modelo, construindo-os na primeira chamada.
+    *
+    * @param modelClass
+    *           a classe do modelo
+    * @return os metadados do modelo
+    */
+   public static ModelMetadata of(Class<? extends Model> modelClass) {
+      if (modelClass == null) {
+         throw new IllegalArgumentException("A classe do modelo não foi informada.");
+      }
+      ModelMetadata metadata = REGISTRY.get(modelClass);
+      if (metadata == null) {
+         // Não usa computeIfAbsent pois a construção pode consultar o
+         // registro recursivamente (associações).
+         metadata = new ModelMetadata(modelClass);
+         ModelMetadata previous = REGISTRY.putIfAbsent(modelClass, metadata);
+         if (previous != null) {
+            metadata = previous;
+         }
+      }
+      return metadata;
+   }
+
+   /**
+    * Descarta os metadados registrados (ex.: após recarregar as classes dos
+    * modelos).
+    */
+   public static void clear() {
+      REGISTRY.clear();
+   }
+
+   public Class<? extends Model> getModelClass() {
+      return modelClass;
+   }
+
+   public String getTableName() {
+      return tableName;
+   }
+
+   public String getEntityName() {
+      return entityName;
+   }
+
+   public String getColumnName() {
+      return columnName;
+   }
+
+   public FieldMetadata getId() {
+      return id;
+   }
+
+   /**
+    * @return handle do construtor padrão do modelo, do tipo ()Object.
+    *         Resolvido na primeira chamada, pois modelos abstratos também
+    *         possuem metadados.
+    */
+   public MethodHandle getConstructor() {
+      MethodHandle constructor = this.constructor;
+      if (constructor == null) {
+         try {
+            Constructor<? extends Model> defaultConstructor = modelClass.getDeclaredConstructor();
+            defaultConstructor.setAccessible(true);
+            constructor = MethodHandles.lookup()
+                  .unreflectConstructor(defaultConstructor)
+                  .asType(MethodType.methodType(Object.class));
+         } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new DatabaseException(String.format("O modelo %s não possui um construtor padrão.", modelClass.getName()), e);
+         }
+         this.constructor = constructor;
+      }
+      return constructor;
+   }
+
+   public Model newInstance() {
+      try {
+         Object instance = getConstructor().invokeExact();
+         return (Model) instance;
+      } catch (Throwable t) {
+         throw new DatabaseException(t);
+      }
+   }
+
+   public List<FieldMetadata> getFields() {
+      return fields;
+   }
+
+   public FieldMetadata getField(String name) {
+      return name == null ? null : fieldsByName.get(name);
+   }
+
+   public FieldMetadata getFieldByColumnName(String columnName) {
+      return columnName == null ? null : fieldsByColumnName.get(columnName);
+   }
+
+   /**
+    * @return verdadeiro se o modelo sobrescreve onPreDelete ou onPostDelete;
+    *         do contrário as exclusões em massa não precisam carregar os
+    *         registros.
+    */
+   public boolean hasDeleteHooks() {
+      return deleteHooks;
+   }
+
+}
@@ -0,0 +1,380 @@
+package jedi.db.models;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jedi.db.engine.JediEngine;
+import jedi.db.exceptions.DatabaseException;
+import jedi.db.util.TableUtil;
+
+/**
+ * RowMapper padrão dos modelos.
+ * <p>
+ * É compilado uma única vez para cada par (classe do modelo, formato do
+ * ResultSet): as colunas são associadas aos campos por índice, os valores
+ * são lidos com os getters tipados do JDBC (getInt, getLong, getString...)
+ * e escritos através de MethodHandles.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public final class ModelRowMapper<T extends Model> implements RowMapper<T> {
+
+   private static final ConcurrentMap<String, ModelRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+   private final Class<T> modelClass;
+   private final MethodHandle constructor;
+   private final Binding[] bindings;
+   // Índice da coluna id (0 se o ResultSet não a tiver).
+   private final int idIndex;
+   // Campos sem coluna no ResultSet, carregados depois sob demanda.
+   private final List<String> deferred;
+
+   /**
+    * Escreve no modelo o valor de uma coluna (ou de uma associação).
+    */
+   @FunctionalInterface
+   private interface Binding {
+      void bind(ResultSet resultSet, Object model) throws Throwable;
+   }
+
+   private ModelRowMapper(Class<T> modelClass, Map<String, Integer> columns, Collection<String> prefetched) {
+      this.modelClass = modelClass;
+      ModelMetadata metadata = ModelMetadata.of(modelClass);
+      try {
+         this.constructor = metadata.getConstructor();
+         List<Binding> bindings = new ArrayList<>();
+         List<Binding> associations = new ArrayList<>();
+         List<String> deferred = new ArrayList<>();
+         Integer idIndex = columns.get("id");
+         this.idIndex = idIndex == null ? 0 : idIndex;
+         if (idIndex != null) {
+            bindings.add(column(metadata.getId(), idIndex));
+         }
+         for (FieldMetadata field : metadata.getFields()) {
+            if (field.isManyToMany()) {
+               // Associações pré-carregadas são preenchidas pelo Manager.
+               if (idIndex != null && !prefetched.contains(field.getName())) {
+                  associations.add(manyToMany(metadata, field));
+               }
+            } else if (field.isOneToOne() || field.isForeignKey()) {
+               String prefix = String.format("%s__", field.getColumnName());
+               if (columns.containsKey(prefix + "id")) {
+                  // Colunas trazidas por selectRelated (JOIN).
+                  Map<String, Integer> relatedColumns = new HashMap<>();
+                  for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                     if (column.getKey().startsWith(prefix)) {
+                        relatedColumns.put(column.getKey().substring(prefix.length()), column.getValue());
+                     }
+                  }
+                  ModelRowMapper related = new ModelRowMapper(field.getAssociatedModelClass(), relatedColumns, Collections.emptySet());
+                  associations.add(joined(field, columns.get(prefix + "id"), related));
+                  continue;
+               }
+               Integer index = columns.get(field.getDatabaseColumnName());
+               if (index == null) {
+                  // Consultas com junção podem nomear a coluna pelo modelo associado.
+                  index = columns.get(String.format("%s_id", TableUtil.getColumnName(field.getType().getSimpleName())));
+               }
+               if (index != null) {
+                  if (prefetched.contains(field.getName())) {
+                     associations.add(reference(field, index));
+                  } else {
+                     associations.add(association(field, index));
+                  }
+               } else {
+                  deferred.add(field.getName());
+               }
+            } else {
+               Integer index = columns.get(field.getDatabaseColumnName());
+               if (index != null) {
+                  bindings.add(column(field, index));
+               } else {
+                  deferred.add(field.getName());
+               }
+            }
+         }
+         // Sem o id não há como carregar os campos depois.
+         this.deferred = idIndex == null || deferred.isEmpty() ? null : Collections.unmodifiableList(deferred);
+         // As associações dependem do id e dos demais campos já preenchidos.
+         bindings.addAll(associations);
+         this.bindings = bindings.toArray(new Binding[bindings.size()]);
+      } catch (IllegalAccessException e) {
+         throw new DatabaseException(String.format("Não foi possível criar o RowMapper de %s.", modelClass.getName()), e);
+      }
+   }
+
+   /**
+    * Retorna o RowMapper do modelo para o formato do ResultSet informado,
+    * compilando-o na primeira vez em que o formato aparece.
+    *
+    * @param modelClass
+    *           a classe do modelo
+    * @param resultSetMetaData
+    *           os metadados do ResultSet
+    * @param prefetched
+    *           associações que serão carregadas em lote pelo Manager
+    *           (prefetchRelated): as chaves estrangeiras recebem apenas uma
+    *           referência com o id e as many-to-many não são consultadas
+    * @return o RowMapper compilado
+    * @throws SQLException
+    */
+   public static <T extends Model> ModelRowMapper<T> of(Class<T> modelClass, ResultSetMetaData resultSetMetaData,
+         Collection<String> prefetched) throws SQLException {
+      prefetched = prefetched == null ? Collections.<String>emptySet() : prefetched;
+      int columnCount = resultSetMetaData.getColumnCount();
+      StringBuilder key = new StringBuilder(modelClass.getName());
+      Map<String, Integer> columns = new HashMap<>();
+      for (int i = 1; i <= columnCount; i++) {
+         String label = resultSetMetaData.getColumnLabel(i).toLowerCase();
+         key.append('|').append(label);
+         // Mantém a primeira ocorrência, como ResultSet.getObject(String).
+         if (!columns.containsKey(label)) {
+            columns.put(label, i);
+         }
+      }
+      for (String field : prefetched) {
+         key.append('#').append(field);
+      }
+      String shape = key.toString();
+      ModelRowMapper<T> mapper = (ModelRowMapper<T>) MAPPERS.get(shape);
+      if (mapper == null) {
+         mapper = new ModelRowMapper<>(modelClass, columns, prefetched);
+         ModelRowMapper<T> previous = (ModelRowMapper<T>) MAPPERS.putIfAbsent(shape, mapper);
+         if (previous != null) {
+            mapper = previous;
+         }
+      }
+      return mapper;
+   }
+
+   public static <T extends Model> ModelRowMapper<T> of(Class<T> modelClass, ResultSetMetaData resultSetMetaData) throws SQLException {
+      return of(modelClass, resultSetMetaData, null);
+   }
+
+   public static <T extends Model> ModelRowMapper<T> of(Class<T> modelClass, ResultSet resultSet) throws SQLException {
+      return of(modelClass, resultSet.getMetaData(), null);
+   }
+
+   public Class<T> getModelClass() {
+      return modelClass;
+   }
+
+   /**
+    * Converte o registro corrente em modelo. Com um {@link IdentityMap}
+    * aberto, retorna a instância já carregada do registro, se houver.
+    */
+   @Override
+   public T map(ResultSet resultSet) throws SQLException {
+      IdentityMap identityMap = idIndex > 0 ? IdentityMap.current() : null;
+      if (identityMap != null) {
+         T instance = identityMap.get(modelClass, resultSet.getInt(idIndex));
+         if (instance != null) {
+            return instance;
+         }
+      }
+      try {
+         Object model = constructor.invokeExact();
+         for (Binding binding : bindings) {
+            binding.bind(resultSet, model);
+         }
+         if (deferred != null) {
+            ((Model) model).defer(deferred);
+         }
+         ((Model) model).setPersisted(true);
+         return identityMap == null ? (T) model : identityMap.put((T) model);
+      } catch (SQLException | RuntimeException e) {
+         throw e;
+      } catch (Throwable t) {
+         throw new DatabaseException(t);
+      }
+   }
+
+   private static Binding column(FieldMetadata field, int index) throws IllegalAccessException {
+      Class<?> type = field.getType();
+      MethodHandle setter = MethodHandles.lookup().unreflectSetter(field.getField());
+      if (type == int.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getInt(index));
+         };
+      } else if (type == long.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getLong(index));
+         };
+      } else if (type == double.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getDouble(index));
+         };
+      } else if (type == float.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getFloat(index));
+         };
+      } else if (type == short.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, short.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getShort(index));
+         };
+      } else if (type == boolean.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getBoolean(index));
+         };
+      } else if (type == String.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, String.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getString(index));
+         };
+      } else if (type == BigDecimal.class) {
+         MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, BigDecimal.class));
+         return (resultSet, model) -> {
+            handle.invokeExact(model, resultSet.getBigDecimal(index));
+         };
+      } else if (Date.class.isAssignableFrom(type)) {
+         return (resultSet, model) -> field.set(model, toDate(resultSet.getObject(index)));
+      } else {
+         // Wrappers e demais tipos: FieldMetadata converte números e booleanos.
+         return (resultSet, model) -> field.set(model, resultSet.getObject(index));
+      }
+   }
+
+   /**
+    * EAGER consulta o registro associado; LAZY usa uma referência que o
+    * carrega no primeiro acesso (ver {@link LazyLoader}) quando
+    * JediEngine.DATABASE_LAZY_REFERENCES estiver habilitado e null nos
+    * demais casos.
+    */
+   private static Binding association(FieldMetadata field, int index) {
+      Class associatedModelClass = field.getAssociatedModelClass();
+      ModelMetadata related = ModelMetadata.of(associatedModelClass);
+      return (resultSet, model) -> {
+         if (field.isEager()) {
+            IdentityMap identityMap = IdentityMap.current();
+            Model associated = identityMap == null ? null : identityMap.get(associatedModelClass, resultSet.getInt(index));
+            if (associated == null) {
+               associated = new Manager(associatedModelClass).get("id", resultSet.getObject(index));
+            }
+            field.set(model, associated);
+         } else if (field.isLazy() && JediEngine.DATABASE_LAZY_REFERENCES) {
+            int id = resultSet.getInt(index);
+            if (resultSet.wasNull() || id == 0) {
+               field.set(model, null);
+            } else {
+               IdentityMap identityMap = IdentityMap.current();
+               Model associated = identityMap == null ? null : identityMap.get(associatedModelClass, id);
+               field.set(model, associated == null ? LazyLoader.reference(related, id) : associated);
+            }
+         } else {
+            field.set(model, null);
+         }
+      };
+   }
+
+   private static Binding joined(FieldMetadata field, int index, ModelRowMapper related) {
+      return (resultSet, model) -> {
+         if (resultSet.getObject(index) == null) {
+            field.set(model, null);
+         } else {
+            field.set(model, related.map(resultSet));
+         }
+      };
+   }
+
+   /**
+    * Preenche a associação com uma instância que contém apenas o id, a ser
+    * substituída pelo modelo completo no carregamento em lote.
+    */
+   private static Binding reference(FieldMetadata field, int index) {
+      ModelMetadata related = ModelMetadata.of(field.getAssociatedModelClass());
+      return (resultSet, model) -> {
+         int id = resultSet.getInt(index);
+         if (resultSet.wasNull()) {
+            field.set(model, null);
+         } else {
+            Model reference = related.newInstance();
+            reference.setId(id);
+            field.set(model, reference);
+         }
+      };
+   }
+
+   private static Binding manyToMany(ModelMetadata metadata, FieldMetadata field) {
+      Class associatedModelClass = field.getAssociatedModelClass();
+      String references = TableUtil.getTableName(field.getReferences());
+      String intermediateTableName = field.getThroughModelClass() == null
+            ? String.format("%s_%s", metadata.getTableName(), references)
+            : TableUtil.getTableName(field.getThroughModelClass());
+      String predicate = String.format(
+            "id IN (SELECT %s_id FROM %s WHERE %s_id = %%d)",
+            TableUtil.getColumnName(field.getAssociatedModelName()),
+            intermediateTableName,
+            metadata.getColumnName());
+      String sql = String.format("SELECT * FROM %s WHERE %s", references, predicate);
+      return (resultSet, model) -> {
+         if (field.isEager() && associatedModelClass != null) {
+            Manager manager = new Manager(associatedModelClass);
+            field.set(model, manager.raw(String.format(sql, ((Model) model).getId()), associatedModelClass));
+         } else if (field.isLazy() && associatedModelClass != null) {
+            field.set(model, LazyLoader.querySet(associatedModelClass, String.format(predicate, ((Model) model).getId())));
+         } else {
+            field.set(model, null);
+         }
+      };
+   }
+
+   /**
+    * Converte datas do JDBC para java.util.Date, tratando as datas zeradas
+    * do MySQL como null.
+    */
+   static Object toDate(Object value) {
+      if (value instanceof java.sql.Time) {
+         if (value.toString().equals("00:00:00")) {
+            return null;
+         }
+         Calendar calendar = Calendar.getInstance();
+         calendar.setTimeInMillis(((java.sql.Time) value).getTime());
+         calendar.set(Calendar.YEAR, 0);
+         calendar.set(Calendar.MONTH, 0);
+         calendar.set(Calendar.DAY_OF_MONTH, 0);
+         return calendar.getTime();
+      } else if (value instanceof java.sql.Date) {
+         if (value.toString().equals("0000-00-00 00:00:00")) {
+            return null;
+         }
+         Calendar calendar = Calendar.getInstance();
+         calendar.setTimeInMillis(((java.sql.Date) value).getTime());
+         calendar.set(Calendar.HOUR_OF_DAY, 0);
+         calendar.set(Calendar.MINUTE, 0);
+         calendar.set(Calendar.SECOND, 0);
+         return calendar.getTime();
+      } else if (value instanceof Timestamp) {
+         if (value.toString().equals("00000000000000")) {
+            return null;
+         }
+         return new Date(((Timestamp) value).getTime());
+      }
+      return value;
+   }
+
+}
@@ -0,0 +1,398 @@
+package jedi.db.models;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jedi.db.connection.UnitOfWork;
+import jedi.db.engine.JediEngine;
+
+/**
+ * Cache de resultados de consultas (filter, count, aggregate, values...),
+ * indexado pela instrução SQL final, que já contém os parâmetros.
+ * <p>
+ * Cada tabela tem um contador de versão, incrementado a cada escrita feita
+ * pelo Jedi (Model.insert, update e delete, as operações em massa do
+ * Manager e os comandos DML de raw e execute). Um resultado guarda as
+ * versões das tabelas das quais depende (as da consulta e as dos modelos
+ * carregados) e deixa de valer quando qualquer uma muda. Escritas feitas
+ * fora do Jedi não são percebidas.
+ * <p>
+ * O cache é habilitado em jedi.properties (query.cache = true) ou por
+ * consulta com Manager.cached(). O tamanho é limitado pela memória estimada
+ * dos resultados (query.cache.max.memory, em megabytes); os menos usados
+ * recentemente são descartados primeiro. Os modelos são armazenados e
+ * retornados como cópias.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class QueryCache {
+
+   private static final Pattern TABLE_PATTERN = Pattern
+         .compile("\\b(?:FROM|JOIN|INTO|UPDATE|TRUNCATE(?:\\s+TABLE)?)\\s+[`\"]?([A-Za-z_][\\w$]*)", Pattern.CASE_INSENSITIVE);
+   private static final ConcurrentMap<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+   // Incrementado por clear(), invalida os resultados em andamento.
+   private static final AtomicLong EPOCH = new AtomicLong();
+   private static final LinkedHashMap<String, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+   private static final AtomicLong HITS = new AtomicLong();
+   private static final AtomicLong MISSES = new AtomicLong();
+   private static long memoryUsage;
+
+   private QueryCache() {
+
+   }
+
+   /**
+    * Versões das tabelas no início de uma consulta.
+    */
+   static final class Stamp {
+
+      private final String[] tables;
+      private final long[] versions;
+      private final long epoch;
+
+      private Stamp(String[] tables, long[] versions, long epoch) {
+         this.tables = tables;
+         this.versions = versions;
+         this.epoch = epoch;
+      }
+
+   }
+
+   private static final class Entry {
+
+      private final Object value;
+      private final String[] tables;
+      private final long[] versions;
+      private final long epoch;
+      private final long memory;
+
+      private Entry(Object value, String[] tables, long[] versions, long epoch, long memory) {
+         this.value = value;
+         this.tables = tables;
+         this.versions = versions;
+         this.epoch = epoch;
+         this.memory = memory;
+      }
+
+      private boolean isValid() {
+         if (epoch != EPOCH.get()) {
+            return false;
+         }
+         for (int i = 0; i < tables.length; i++) {
+            if (version(tables[i]) != versions[i]) {
+               return false;
+            }
+         }
+         return true;
+      }
+
+   }
+
+   /**
+    * @return uma cópia do resultado em cache ou null.
+    */
+   @SuppressWarnings("unchecked")
+   static <V> V get(String key) {
+      if (key == null) {
+         return null;
+      }
+      Entry entry;
+      synchronized (ENTRIES) {
+         entry = ENTRIES.get(key);
+         if (entry != null && !entry.isValid()) {
+            remove(key);
+            entry = null;
+         }
+      }
+      if (entry == null) {
+         MISSES.incrementAndGet();
+         return null;
+      }
+      HITS.incrementAndGet();
+      return (V) copy(entry.value);
+   }
+
+   /**
+    * Registra as versões das tabelas da consulta antes de executá-la, para
+    * que uma escrita concorrente invalide o resultado.
+    *
+    * @return as versões ou null se o resultado não deve ser armazenado
+    *         (dentro de uma unidade de trabalho, que pode ler dados ainda não
+    *         confirmados).
+    */
+   static Stamp stamp(String sql) {
+      if (UnitOfWork.isActive()) {
+         return null;
+      }
+      long epoch = EPOCH.get();
+      Set<String> tables = tables(sql);
+      return new Stamp(tables.toArray(new String[tables.size()]), versions(tables), epoch);
+   }
+
+   /**
+    * Armazena uma cópia do resultado. As tabelas dos modelos carregados
+    * (associações) passam a fazer parte das dependências.
+    */
+   static void put(String key, Stamp stamp, Object value) {
+      if (key == null || stamp == null || value == null) {
+         return;
+      }
+      Map<Object, Object> copies = new IdentityHashMap<>();
+      Object copy = copyValue(value, copies);
+      Set<String> tables = new LinkedHashSet<>();
+      for (Object o : copies.keySet()) {
+         if (o instanceof Model) {
+            tables.add(((Model) o).getTableName().toLowerCase());
+         }
+      }
+      List<String> names = new ArrayList<>();
+      List<Long> versions = new ArrayList<>();
+      for (int i = 0; i < stamp.tables.length; i++) {
+         names.add(stamp.tables[i]);
+         versions.add(stamp.versions[i]);
+         tables.remove(stamp.tables[i]);
+      }
+      // Tabelas das associações lidas depois do início da consulta.
+      for (String table : tables) {
+         names.add(table);
+         versions.add(version(table));
+      }
+      long[] tableVersions = new long[versions.size()];
+      for (int i = 0; i < tableVersions.length; i++) {
+         tableVersions[i] = versions.get(i);
+      }
+      Entry entry = new Entry(copy, names.toArray(new String[names.size()]), tableVersions, stamp.epoch, memory(key, copy));
+      long maxMemory = getMaxMemory();
+      if (entry.memory > maxMemory || !entry.isValid()) {
+         return;
+      }
+      synchronized (ENTRIES) {
+         remove(key);
+         ENTRIES.put(key, entry);
+         memoryUsage += entry.memory;
+         Iterator<Map.Entry<String, Entry>> iterator = ENTRIES.entrySet().iterator();
+         while (memoryUsage > maxMemory && iterator.hasNext()) {
+            memoryUsage -= iterator.next().getValue().memory;
+            iterator.remove();
+         }
+      }
+   }
+
+   /**
+    * Invalida os resultados que dependem da tabela. Dentro de uma unidade
+    * de trabalho a invalidação é repetida ao final dela.
+    */
+   public static void invalidate(String table) {
+      if (table == null || table.isEmpty()) {
+         return;
+      }
+      String name = table.toLowerCase();
+      VERSIONS.computeIfAbsent(name, t -> new AtomicLong()).incrementAndGet();
+      if (UnitOfWork.isActive()) {
+         UnitOfWork.afterCompletion(() -> VERSIONS.get(name).incrementAndGet());
+      }
+   }
+
+   /**
+    * Invalida os resultados que dependem das tabelas alteradas pela
+    * instrução.
+    */
+   public static void invalidateSql(String sql) {
+      for (String table : tables(sql)) {
+         invalidate(table);
+      }
+   }
+
+   /**
+    * Descarta todos os resultados.
+    */
+   public static void clear() {
+      EPOCH.incrementAndGet();
+      synchronized (ENTRIES) {
+         ENTRIES.clear();
+         memoryUsage = 0;
+      }
+   }
+
+   public static long getHits() {
+      return HITS.get();
+   }
+
+   public static long getMisses() {
+      return MISSES.get();
+   }
+
+   /**
+    * @return a proporção de acertos (0 a 1).
+    */
+   public static double getHitRatio() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+   }
+
+   public static void resetStatistics() {
+      HITS.set(0);
+      MISSES.set(0);
+   }
+
+   /**
+    * @return a quantidade de resultados armazenados.
+    */
+   public static int size() {
+      synchronized (ENTRIES) {
+         return ENTRIES.size();
+      }
+   }
+
+   /**
+    * @return a memória estimada, em bytes, dos resultados armazenados.
+    */
+   public static long getMemoryUsage() {
+      synchronized (ENTRIES) {
+         return memoryUsage;
+      }
+   }
+
+   /**
+    * @return a memória máxima, em bytes.
+    */
+   public static long getMaxMemory() {
+      Integer megabytes = JediEngine.DATABASE_QUERY_CACHE_MAX_MEMORY;
+      return megabytes == null ? 0 : megabytes * 1024L * 1024L;
+   }
+
+   /**
+    * @return as tabelas citadas na instrução (em minúsculas).
+    */
+   static Set<String> tables(String sql) {
+      Set<String> tables = new LinkedHashSet<>();
+      if (sql != null) {
+         Matcher matcher = TABLE_PATTERN.matcher(sql);
+         while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase());
+         }
+      }
+      return tables;
+   }
+
+   private static long version(String table) {
+      AtomicLong version = VERSIONS.get(table);
+      return version == null ? 0 : version.get();
+   }
+
+   private static long[] versions(Collection<String> tables) {
+      long[] versions = new long[tables.size()];
+      int i = 0;
+      for (String table : tables) {
+         versions[i++] = version(table);
+      }
+      return versions;
+   }
+
+   private static void remove(String key) {
+      Entry entry = ENTRIES.remove(key);
+      if (entry != null) {
+         memoryUsage -= entry.memory;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private static Object copy(Object value) {
+      Object copy = copyValue(value, new IdentityHashMap<>());
+      IdentityMap identityMap = IdentityMap.current();
+      if (copy instanceof QuerySet) {
+         QuerySet<Model> querySet = (QuerySet<Model>) copy;
+         if (identityMap != null) {
+            for (int i = 0; i < querySet.size(); i++) {
+               querySet.set(i, identityMap.put(querySet.get(i)));
+            }
+         }
+         querySet.setPersisted(true);
+      }
+      return copy;
+   }
+
+   /**
+    * Copia modelos, listas de modelos e as linhas de values/aggregate.
+    */
+   @SuppressWarnings("unchecked")
+   private static Object copyValue(Object value, Map<Object, Object> copies) {
+      if (value instanceof Map) {
+         Map<String, Object> row = new LinkedHashMap<>();
+         for (Map.Entry<String, Object> column : ((Map<String, Object>) value).entrySet()) {
+            row.put(column.getKey(), copyValue(column.getValue(), copies));
+         }
+         return row;
+      } else if (value instanceof List && !(value instanceof QuerySet)) {
+         List<Object> list = new ArrayList<>();
+         for (Object item : (List<Object>) value) {
+            list.add(copyValue(item, copies));
+         }
+         return list;
+      }
+      return ModelCache.copyValue(value, copies);
+   }
+
+   /**
+    * Estima a memória ocupada pelo resultado.
+    */
+   private static long memory(String key, Object value) {
+      return 64 + 2L * key.length() + memory(value, new IdentityHashMap<>());
+   }
+
+   private static long memory(Object value, Map<Object, Boolean> visited) {
+      if (value == null) {
+         return 0;
+      } else if (value instanceof String) {
+         return 40 + 2L * ((String) value).length();
+      } else if (value instanceof BigDecimal) {
+         return 48;
+      } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+         return 16;
+      } else if (value instanceof Date) {
+         return 24;
+      } else if (visited.put(value, Boolean.TRUE) != null) {
+         return 0;
+      } else if (value instanceof Model) {
+         ModelMetadata metadata = ModelMetadata.of(((Model) value).getClass());
+         long memory = 32;
+         for (FieldMetadata field : metadata.getFields()) {
+            memory += 8 + memory(field.get(value), visited);
+         }
+         return memory;
+      } else if (value instanceof Map) {
+         long memory = 48;
+         for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            memory += 32 + memory(entry.getKey(), visited) + memory(entry.getValue(), visited);
+         }
+         return memory;
+      } else if (value instanceof QuerySet && ((QuerySet<?>) value).lazy()) {
+         return 24;
+      } else if (value instanceof Collection) {
+         long memory = 24;
+         for (Object item : (Collection<?>) value) {
+            memory += 8 + memory(item, visited);
+         }
+         return memory;
+      }
+      return 16;
+   }
+
+}
@@ -8,6 +8,7 @@ package jedi.db.models;
 public class QueryPage {
    
    private QueryPageStart start;
+   private QueryPageToken token;
    private QueryPageSize size;
    private QueryPageOrder sort;
    private String[] filters;
@@ -19,6 +20,13 @@ public class QueryPage {
       this.filters = filters;
    }
    
+   public QueryPage(QueryPageToken token, QueryPageSize size, QueryPageOrder sort, String... filters) {
+      this.token = token;
+      this.size = size;
+      this.sort = sort;
+      this.filters = filters;
+   }
+   
    public QueryPageStart getStart() {
       return start;
    }
@@ -27,6 +35,14 @@ public class QueryPage {
       this.start = start;
    }
    
+   public QueryPageToken getToken() {
+      return token;
+   }
+   
+   public void setToken(QueryPageToken token) {
+      this.token = token;
+   }
+   
    public QueryPageSize getSize() {
       return size;
    }
@@ -67,6 +83,14 @@ public class QueryPage {
       return new QueryPageStart(value);
    }
    
+   public static QueryPageToken token(String value) {
+      return new QueryPageToken(value);
+   }
+   
+   public static QueryPageToken pageToken(String value) {
+      return new QueryPageToken(value);
+   }
+   
    public static QueryPageSize size(Integer value) {
       return new QueryPageSize(value);
    }
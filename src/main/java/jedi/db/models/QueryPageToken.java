@@ -0,0 +1,176 @@
+package jedi.db.models;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import jedi.db.exceptions.DatabaseException;
+
+/**
+ * Token de continuação da paginação por chave (keyset).
+ * <p>
+ * Guarda, de forma opaca, o campo de ordenação, o sentido e os valores
+ * (campo, id) do último registro da página anterior. A página seguinte é
+ * obtida com <code>WHERE (campo, id) &gt; (valor, id)</code> em vez de
+ * OFFSET, de modo que o custo não cresce com a profundidade da página.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see Manager#page(QueryPageToken, QueryPageSize, QueryPageOrder, String...)
+ */
+public class QueryPageToken {
+
+   private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+   private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+   private String value;
+
+   public QueryPageToken(String value) {
+      this.value = value;
+   }
+
+   public QueryPageToken() {
+      this((String) null);
+   }
+
+   /**
+    * Cria o token a partir do último registro de uma página.
+    *
+    * @param field
+    *           o campo de ordenação
+    * @param descending
+    *           se a ordenação é decrescente
+    * @param lastValue
+    *           o valor do campo no último registro (números, textos,
+    *           booleanos, datas ou null)
+    * @param lastId
+    *           o id do último registro
+    */
+   public static QueryPageToken of(String field, boolean descending, Object lastValue, int lastId) {
+      String type;
+      String text;
+      if (lastValue == null) {
+         type = "Z";
+         text = "";
+      } else if (lastValue instanceof Model) {
+         type = "N";
+         text = String.valueOf(((Model) lastValue).getId());
+      } else if (lastValue instanceof Number) {
+         type = "N";
+         text = lastValue.toString();
+      } else if (lastValue instanceof Boolean) {
+         type = "B";
+         text = lastValue.toString();
+      } else if (lastValue instanceof Date) {
+         type = "D";
+         text = String.valueOf(((Date) lastValue).getTime());
+      } else {
+         type = "S";
+         text = lastValue.toString();
+      }
+      return new QueryPageToken(String.format("%s.%s.%s.%s.%d", encode(field), descending ? "D" : "A", type, encode(text), lastId));
+   }
+
+   private static String encode(String text) {
+      return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
+   }
+
+   private String[] parts() {
+      String[] parts = value == null ? new String[0] : value.split("\\.", -1);
+      if (parts.length != 5) {
+         throw new DatabaseException(String.format("Token de página inválido: %s.", value));
+      }
+      return parts;
+   }
+
+   private String decode(String text) {
+      try {
+         return new String(DECODER.decode(text), StandardCharsets.UTF_8);
+      } catch (IllegalArgumentException e) {
+         throw new DatabaseException(String.format("Token de página inválido: %s.", value), e);
+      }
+   }
+
+   /**
+    * @return se o token está vazio, isto é, indica a primeira página.
+    */
+   public boolean isEmpty() {
+      return value == null || value.trim().isEmpty();
+   }
+
+   public String getField() {
+      return decode(parts()[0]);
+   }
+
+   public boolean isDescending() {
+      return parts()[1].equals("D");
+   }
+
+   /**
+    * @return o valor do campo de ordenação no último registro, convertido
+    *         para BigDecimal, Boolean, Date ou String.
+    */
+   public Object getLastValue() {
+      String[] parts = parts();
+      String text = decode(parts[3]);
+      try {
+         switch (parts[2]) {
+            case "Z":
+               return null;
+            case "N":
+               return new BigDecimal(text);
+            case "B":
+               return Boolean.valueOf(text);
+            case "D":
+               return new Date(Long.parseLong(text));
+            case "S":
+               return text;
+            default:
+               throw new DatabaseException(String.format("Token de página inválido: %s.", value));
+         }
+      } catch (NumberFormatException e) {
+         throw new DatabaseException(String.format("Token de página inválido: %s.", value), e);
+      }
+   }
+
+   public int getLastId() {
+      try {
+         return Integer.parseInt(parts()[4]);
+      } catch (NumberFormatException e) {
+         throw new DatabaseException(String.format("Token de página inválido: %s.", value), e);
+      }
+   }
+
+   public String getValue() {
+      return value;
+   }
+
+   public String value() {
+      return getValue();
+   }
+
+   public String get() {
+      return value();
+   }
+
+   public void setValue(String value) {
+      this.value = value;
+   }
+
+   public QueryPageToken value(String value) {
+      setValue(value);
+      return this;
+   }
+
+   public QueryPageToken set(String value) {
+      return value(value);
+   }
+
+   @Override
+   public String toString() {
+      return value == null ? "" : value;
+   }
+
+}
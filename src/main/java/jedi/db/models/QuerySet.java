@@ -7,10 +7,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import jedi.db.engine.JediEngine;
 import jedi.db.exceptions.IndexException;
 import jedi.db.exceptions.SyntaxException;
 import jedi.db.exceptions.ValueException;
@@ -34,6 +42,14 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    private Class<T> entity = null;
    private int offset = 0;
    private transient boolean persited;
+   // Consulta ainda não executada (null quando os registros já foram
+   // carregados ou o QuerySet foi montado em memória).
+   private transient LazyQuery<T> query;
+   // Carrega a consulta pendente junto com a dos QuerySets irmãos
+   // (associações LAZY lidas na mesma consulta).
+   private transient LazyLoader loader;
+   // Continuação da paginação por chave (null na última página).
+   private transient QueryPageToken nextPageToken;
    
    public QuerySet() {}
    
@@ -53,6 +69,73 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
       super(Arrays.asList(collection));
    }
    
+   QuerySet(LazyQuery<T> query) {
+      this.entity = query.getEntity();
+      this.query = query;
+   }
+   
+   /**
+    * @return o token da página seguinte, quando o QuerySet é uma página
+    *         obtida por chave (keyset), ou null se não houver mais registros.
+    */
+   public QueryPageToken getNextPageToken() {
+      return nextPageToken;
+   }
+   
+   void setNextPageToken(QueryPageToken nextPageToken) {
+      this.nextPageToken = nextPageToken;
+   }
+   
+   /**
+    * Executa a consulta pendente, se houver.
+    */
+   private void fetch() {
+      if (query != null && loader != null) {
+         LazyLoader lazyLoader = loader;
+         loader = null;
+         lazyLoader.load();
+      }
+      if (query != null) {
+         LazyQuery<T> pending = query;
+         query = null;
+         super.addAll(pending.fetch());
+         this.persited = true;
+      }
+   }
+   
+   boolean lazy() {
+      return query != null;
+   }
+   
+   void setLoader(LazyLoader loader) {
+      this.loader = loader;
+   }
+   
+   /**
+    * Substitui a consulta pendente pelos registros já carregados.
+    */
+   void resolve(Collection<T> models) {
+      query = null;
+      loader = null;
+      super.addAll(models);
+      this.persited = true;
+   }
+   
+   /**
+    * @return um QuerySet com a mesma consulta pendente.
+    */
+   QuerySet<T> pendingCopy() {
+      return new QuerySet<>(query);
+   }
+   
+   /**
+    * @return a instrução SQL da consulta ainda não executada ou null se os
+    *         registros já tiverem sido carregados.
+    */
+   public String query() {
+      return query == null ? null : query.sql();
+   }
+   
    // Getters
    public Class<T> getEntity() {
       return entity;
@@ -63,7 +146,7 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public boolean isPersited() {
-      return this.persited;
+      return this.persited || lazy();
    }
    
    // Setters
@@ -85,6 +168,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    
    // orderBy
    public QuerySet<T> orderBy(String field) {
+      if (lazy()) {
+         return new QuerySet<T>(query.orderBy(field));
+      }
       QuerySet<T> orderedList = new QuerySet<T>();
       orderedList.setEntity(this.entity);
       if (field != null && !field.equals("") && !this.isEmpty()) {
@@ -162,6 +248,12 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> limit(int... params) {
+      if (lazy() && params != null && params.length == 1) {
+         return new QuerySet<T>(query.limit(params[0]));
+      }
+      if (lazy() && params != null && params.length == 2) {
+         return new QuerySet<T>(query.offset(params[0]).limit(params[1]));
+      }
       QuerySet<T> objs = new QuerySet<T>();
       objs.setEntity(entity);
       if (!this.isEmpty() && params != null) {
@@ -197,6 +289,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> offset(int offset) {
+      if (lazy()) {
+         return new QuerySet<T>(query.offset(offset));
+      }
       QuerySet<T> records = new QuerySet<T>();
       records.setEntity(this.entity);
       this.offset = offset;
@@ -211,43 +306,82 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    
    public QuerySet<T> save() {
       if (!this.isEmpty()) {
-         boolean autoCloseConnection;
-         for (Object o : this) {
-            Model model = (Model) o;
-            autoCloseConnection = model.autoCloseConnection();
-            model.autoCloseConnection(false);
-            model.save();
-            model.autoCloseConnection(autoCloseConnection);
-         }
+         // Os modelos novos são inseridos em lote.
+         new Manager(this.entity, false).bulkCreate(this);
          // Informando que a lista foi persistida.
          this.setPersisted(true);
       }
       return this;
    }
    
+   /**
+    * Atualiza os registros da lista no banco de dados com instruções
+    * UPDATE ... WHERE id IN (...), em lotes de JediEngine.DATABASE_BATCH_SIZE
+    * ids. Os objetos em memória não são alterados. Uma consulta ainda não
+    * executada é atualizada com um único UPDATE, sem carregar os registros.
+    * 
+    * @param fields
+    *           pares campo=valor, como em Manager.update.
+    * @return a quantidade de registros alterados ou -1 em caso de erro.
+    */
+   public int update(String... fields) {
+      if (lazy()) {
+         return query.update(fields);
+      }
+      int rows = 0;
+      Class entity = this.entity;
+      List<Integer> ids = new ArrayList<>();
+      for (T model : this) {
+         if (model != null && model.id() != 0) {
+            ids.add(model.id());
+            entity = entity == null ? model.getClass() : entity;
+         }
+      }
+      if (ids.isEmpty()) {
+         return rows;
+      }
+      Manager manager = new Manager(entity, false);
+      int batchSize = JediEngine.DATABASE_BATCH_SIZE == null || JediEngine.DATABASE_BATCH_SIZE <= 0 ? ids.size() : JediEngine.DATABASE_BATCH_SIZE;
+      for (int start = 0; start < ids.size(); start += batchSize) {
+         List<Integer> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+         int updated = manager.update(fields, "id__in=" + chunk);
+         if (updated < 0) {
+            return -1;
+         }
+         rows += updated;
+      }
+      return rows;
+   }
+   
    public QuerySet<T> delete() {
+      if (lazy()) {
+         // Um único DELETE com as condições da consulta.
+         query.delete();
+         this.clear();
+         this.persited = false;
+         return this;
+      }
       if (!this.isEmpty()) {
-         Model model;
-         for (Object o : this) {
-            model = (Model) o;
-            // Desabilitando o fechamento automático da conexão após
-            // cada operação no banco de dados.
-            model.autoCloseConnection(false);
-            model.delete();
-         }
+         new Manager(this.entity, false).delete(this);
          // Informando que a lista não se encontra persistida no banco de
          // dados.
          this.setPersisted(false);
-         this.removeAll(this);
+         this.clear();
       }
       return this;
    }
    
    public int count() {
+      if (lazy()) {
+         return query.count();
+      }
       return this.size();
    }
    
    public QuerySet<T> all() {
+      if (lazy()) {
+         return new QuerySet<T>(query);
+      }
       QuerySet<T> querySet = new QuerySet<T>();
       querySet.setEntity(this.entity);
       for (int i = 0; i < this.size(); i++) {
@@ -522,6 +656,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> filter(String... queries) {
+      if (lazy()) {
+         return new QuerySet<T>(query.filter(queries));
+      }
       QuerySet<T> querySet = new QuerySet<T>();
       querySet.setEntity(this.entity);
       if (queries != null && !queries.toString().trim().isEmpty()) {
@@ -566,6 +703,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    
    // Funciona como o filter negado.
    public QuerySet<T> exclude(String... queries) {
+      if (lazy()) {
+         return new QuerySet<T>(query.exclude(queries));
+      }
       QuerySet<T> querySet = this.all();
       querySet.entity(this.entity);
       querySet = querySet.remove(querySet.filter(queries));
@@ -579,6 +719,7 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    // models com o id igual a 0.
    // Esse conflito foi solucionado através do atributo is_persisted.
    public boolean add(T model) {
+      fetch();
       if (model != null && model.id() == 0) {
          model.id(this.size() + 1);
       }
@@ -676,6 +817,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> distinct() {
+      if (lazy()) {
+         return new QuerySet<T>(query.distinct());
+      }
       QuerySet<T> querySet = new QuerySet<T>();
       querySet.setEntity(this.entity);
       if (!this.isEmpty()) {
@@ -685,6 +829,62 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
       return querySet;
    }
    
+   /**
+    * Calcula as agregações no banco de dados. Em QuerySets já executados
+    * agrega os registros da lista, pelos seus ids.
+    * 
+    * @return os resultados pelos nomes das agregações.
+    */
+   public Map<String, Object> aggregate(Aggregate... aggregates) {
+      return pending().aggregate(aggregates);
+   }
+   
+   /**
+    * Agrupa os registros pelos campos informados, para o cálculo de
+    * agregações por grupo com annotate.
+    */
+   public QueryValues<T> values(String... fields) {
+      return new QueryValues<>(pending(), fields);
+   }
+   
+   /**
+    * @return a consulta pendente ou, em QuerySets já executados, a consulta
+    *         pelos ids dos registros.
+    */
+   private LazyQuery<T> pending() {
+      if (lazy()) {
+         return query;
+      }
+      List<String> ids = new ArrayList<>();
+      for (T model : this) {
+         ids.add(String.valueOf(model.getId()));
+      }
+      LazyQuery<T> pending = new LazyQuery<>(new Manager(entity, false), entity);
+      return pending.filter(String.format("id__in=[%s]", ids.isEmpty() ? "0" : String.join(", ", ids)));
+   }
+   
+   /**
+    * Restringe a consulta ao id e aos campos informados. Só se aplica a
+    * QuerySets ainda não executados; nos demais retorna o próprio QuerySet.
+    */
+   public QuerySet<T> only(String... fields) {
+      if (lazy()) {
+         return new QuerySet<T>(query.only(fields));
+      }
+      return this;
+   }
+   
+   /**
+    * Adia a leitura dos campos informados. Só se aplica a QuerySets ainda
+    * não executados; nos demais retorna o próprio QuerySet.
+    */
+   public QuerySet<T> defer(String... fields) {
+      if (lazy()) {
+         return new QuerySet<T>(query.defer(fields));
+      }
+      return this;
+   }
+   
    public T earliest() {
       T model = null;
       if (!this.isEmpty()) {
@@ -724,6 +924,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public boolean exists() {
+      if (lazy()) {
+         return !query.slice(0, 1).fetch().isEmpty();
+      }
       if (!this.isEmpty()) {
          return true;
       }
@@ -907,6 +1110,11 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
     * @return Model
     */
    public T first() {
+      if (lazy()) {
+         LazyQuery<T> first = query.isOrdered() ? query : query.orderBy("id");
+         QuerySet<T> querySet = first.slice(0, 1).fetch();
+         return querySet.isEmpty() ? null : querySet.get(0);
+      }
       T obj = null;
       // Verificando se a lista não é vazia.
       if (!this.isEmpty()) {
@@ -924,6 +1132,10 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
     * @return Model
     */
    public T last() {
+      if (lazy()) {
+         QuerySet<T> querySet = query.reverse().slice(0, 1).fetch();
+         return querySet.isEmpty() ? null : querySet.get(0);
+      }
       T obj = null;
       if (!this.isEmpty()) {
          this.orderBy("-id");
@@ -939,6 +1151,9 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> slice(int index) {
+      if (lazy() && index >= 0) {
+         return new QuerySet<T>(query.slice(index, index + 1));
+      }
       QuerySet<T> qs = new QuerySet<T>();
       int size = this.size();
       try {
@@ -958,6 +1173,11 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public QuerySet<T> slice(Integer start, Integer end, Integer step) {
+      // Índices negativos e passos diferentes de 1 dependem do tamanho do
+      // resultado; nesses casos os registros são carregados.
+      if (lazy() && (step == null || step == 1) && (start == null || start >= 0) && (end == null || end >= 0)) {
+         return new QuerySet<T>(query.slice(start, end));
+      }
       QuerySet<T> qs = new QuerySet<T>();
       int size = this.size();
       step = step == null ? 1 : step;
@@ -1050,11 +1270,12 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
    }
    
    public boolean isEmpty() {
+      fetch();
       return super.isEmpty();
    }
    
    public boolean isNotEmpty() {
-      return !super.isEmpty();
+      return !isEmpty();
    }
    
    public boolean empty() {
@@ -1065,5 +1286,179 @@ public class QuerySet<T extends Model> extends ArrayList<T> {
       return isNotEmpty();
    }
    
-   // TODO - Implementar o método query() que irá retornar a instrução SQL correspondente a QuerySet.
+   // Os métodos abaixo carregam os registros da consulta pendente antes de
+   // acessar a lista.
+   
+   @Override
+   public int size() {
+      fetch();
+      return super.size();
+   }
+   
+   @Override
+   public T get(int index) {
+      fetch();
+      return super.get(index);
+   }
+   
+   @Override
+   public T set(int index, T element) {
+      fetch();
+      return super.set(index, element);
+   }
+   
+   @Override
+   public void add(int index, T element) {
+      fetch();
+      super.add(index, element);
+   }
+   
+   @Override
+   public boolean addAll(Collection<? extends T> c) {
+      fetch();
+      return super.addAll(c);
+   }
+   
+   @Override
+   public boolean addAll(int index, Collection<? extends T> c) {
+      fetch();
+      return super.addAll(index, c);
+   }
+   
+   @Override
+   public T remove(int index) {
+      fetch();
+      return super.remove(index);
+   }
+   
+   @Override
+   public boolean remove(Object o) {
+      fetch();
+      return super.remove(o);
+   }
+   
+   @Override
+   public boolean removeAll(Collection<?> c) {
+      fetch();
+      return super.removeAll(c);
+   }
+   
+   @Override
+   public boolean retainAll(Collection<?> c) {
+      fetch();
+      return super.retainAll(c);
+   }
+   
+   @Override
+   public boolean removeIf(Predicate<? super T> filter) {
+      fetch();
+      return super.removeIf(filter);
+   }
+   
+   @Override
+   public void replaceAll(UnaryOperator<T> operator) {
+      fetch();
+      super.replaceAll(operator);
+   }
+   
+   @Override
+   public void sort(Comparator<? super T> c) {
+      fetch();
+      super.sort(c);
+   }
+   
+   @Override
+   public void clear() {
+      query = null;
+      super.clear();
+   }
+   
+   @Override
+   public boolean contains(Object o) {
+      fetch();
+      return super.contains(o);
+   }
+   
+   @Override
+   public int indexOf(Object o) {
+      fetch();
+      return super.indexOf(o);
+   }
+   
+   @Override
+   public int lastIndexOf(Object o) {
+      fetch();
+      return super.lastIndexOf(o);
+   }
+   
+   @Override
+   public Object[] toArray() {
+      fetch();
+      return super.toArray();
+   }
+   
+   @Override
+   public <E> E[] toArray(E[] a) {
+      fetch();
+      return super.toArray(a);
+   }
+   
+   @Override
+   public Iterator<T> iterator() {
+      fetch();
+      return super.iterator();
+   }
+   
+   @Override
+   public ListIterator<T> listIterator() {
+      fetch();
+      return super.listIterator();
+   }
+   
+   @Override
+   public ListIterator<T> listIterator(int index) {
+      fetch();
+      return super.listIterator(index);
+   }
+   
+   @Override
+   public List<T> subList(int fromIndex, int toIndex) {
+      fetch();
+      return super.subList(fromIndex, toIndex);
+   }
+   
+   @Override
+   public void forEach(Consumer<? super T> action) {
+      fetch();
+      super.forEach(action);
+   }
+   
+   @Override
+   public Spliterator<T> spliterator() {
+      fetch();
+      return super.spliterator();
+   }
+   
+   @Override
+   public Object clone() {
+      fetch();
+      return super.clone();
+   }
+   
+   @Override
+   public boolean equals(Object o) {
+      fetch();
+      return super.equals(o);
+   }
+   
+   @Override
+   public int hashCode() {
+      fetch();
+      return super.hashCode();
+   }
+   
+   private Object writeReplace() {
+      fetch();
+      return this;
+   }
 }
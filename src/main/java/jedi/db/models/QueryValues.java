@@ -0,0 +1,75 @@
+package jedi.db.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consulta agrupada por campos, obtida com values(...) em um Manager ou
+ * QuerySet ainda não executado. Com annotate(...) as agregações são
+ * calculadas por grupo no banco de dados (GROUP BY), retornando uma linha
+ * por grupo em vez dos registros.
+ *
+ * <pre>
+ * Pedido.objects.filter("status=pago").values("cliente").annotate(sum("valor").as("total"));
+ * </pre>
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see Aggregate
+ */
+public class QueryValues<T extends Model> {
+
+   private final LazyQuery<T> query;
+   private final String[] fields;
+   private final String[] orderBy;
+
+   QueryValues(LazyQuery<T> query, String... fields) {
+      this(query, fields, new String[0]);
+   }
+
+   private QueryValues(LazyQuery<T> query, String[] fields, String[] orderBy) {
+      this.query = query;
+      this.fields = fields == null ? new String[0] : fields;
+      this.orderBy = orderBy == null ? new String[0] : orderBy;
+   }
+
+   public QueryValues<T> filter(String... fields) {
+      return new QueryValues<>(query.filter(fields), this.fields, orderBy);
+   }
+
+   public QueryValues<T> exclude(String... fields) {
+      return new QueryValues<>(query.exclude(fields), this.fields, orderBy);
+   }
+
+   /**
+    * Ordena os grupos por campos agrupados ou nomes de agregações. O
+    * prefixo - indica ordem decrescente.
+    */
+   public QueryValues<T> orderBy(String... fields) {
+      return new QueryValues<>(query, this.fields, fields);
+   }
+
+   /**
+    * Calcula as agregações por grupo.
+    *
+    * @return uma linha por grupo, com os campos agrupados e as agregações
+    *         pelos seus nomes.
+    */
+   public List<Map<String, Object>> annotate(Aggregate... aggregates) {
+      return query.annotate(fields, orderBy, aggregates);
+   }
+
+   /**
+    * @return os valores distintos dos campos agrupados.
+    */
+   public List<Map<String, Object>> list() {
+      return query.annotate(fields, orderBy);
+   }
+
+   @Override
+   public String toString() {
+      return query.annotateSql(fields, orderBy);
+   }
+
+}
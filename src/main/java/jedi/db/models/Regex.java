@@ -1,5 +1,7 @@
 package jedi.db.models;
 
+import java.util.regex.Pattern;
+
 /**
  * Define as expressões regulares a serem validadas no framework.
  * 
@@ -22,7 +24,7 @@ public enum Regex {
     FIELD_LOOKUP_EXACT_TIME("^\\w+(\\.\\w+)+(__(i|!)?exact)? *= *'?\\d{2}:\\d{2}:\\d{2}'?$"),
     FIELD_LOOKUP_EXACT_DATETIME("^\\w+(\\.\\w+)+(__(i|!)?exact)? *= *'?\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}'?$"),
     FIELD_LOOKUP_CONTAINS("^\\w+(\\.\\w+)+__(i|!)?contains *= *'?[\\p{L}\\d ]+'?$"),
-    FIELD_LOOKUP_IN("^\\w+(\\.\\w+)+__!?in *= *\\[ *'?[\\p{L}\\d ]+'?((, *)'?[\\p{L}\\d ]+'?* *\\]$"),
+    FIELD_LOOKUP_IN("^\\w+(\\.\\w+)+__!?in *= *\\[ *'?[\\p{L}\\d ]+'?((, *)'?[\\p{L}\\d ]+'?)* *\\]$"),
     FIELD_LOOKUP_GT("^\\w+(\\.\\w+)+((__!?gte? *= *)|( *(>|>=) *))\\d+$"),
     FIELD_LOOKUP_LT("^\\w+(\\.\\w+)+((__!?lte? *= *)|( *(<|<=) *))\\d+$"),
     FIELD_LOOKUP_STARTSWITH("^\\w+(\\.\\w+)+__(i|!)?startswith *= *'?[\\p{L}\\d ]+'?$"),
@@ -58,13 +60,26 @@ public enum Regex {
     // TODO iregex
    
     private final String value;
+    private final Pattern pattern;
     
     private Regex(String value) {
         this.value = value;
+        this.pattern = Pattern.compile(value);
     }
     
     public String getValue() {
         return value;
     }
     
+    /**
+     * @return a expressão regular compilada uma única vez, na carga do enum.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+    
+    public boolean matches(CharSequence input) {
+        return input != null && pattern.matcher(input).matches();
+    }
+    
 }
@@ -0,0 +1,27 @@
+package jedi.db.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte o registro corrente de um ResultSet em um objeto.
+ * <p>
+ * O Manager usa por padrão o {@link ModelRowMapper}, mas aceita uma
+ * implementação própria através de {@link Manager#setRowMapper(RowMapper)}.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+   /**
+    * @param resultSet
+    *           ResultSet posicionado no registro a ser convertido
+    * @return o objeto correspondente ao registro
+    * @throws SQLException
+    */
+   T map(ResultSet resultSet) throws SQLException;
+
+}
@@ -0,0 +1,85 @@
+package jedi.db.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Implementação padrão (SQL ANSI) do {@link Dialect}, estendida pelos
+ * dialetos de cada banco de dados.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public abstract class AbstractDialect implements Dialect {
+
+   @Override
+   public String url(String host, String port, String database) {
+      return String.format("jdbc:%s://%s:%s/%s", getName(), host, port, database);
+   }
+
+   @Override
+   public String limit(Integer limit, int offset) {
+      if (limit == null) {
+         return offset > 0 ? String.format(" OFFSET %d", offset) : "";
+      }
+      return offset > 0 ? String.format(" LIMIT %d OFFSET %d", limit, offset) : String.format(" LIMIT %d", limit);
+   }
+
+   @Override
+   public String seek(String column, String operator, String literal, int id) {
+      return String.format("(%s, id) %s (%s, %d)", column, operator, literal, id);
+   }
+
+   @Override
+   public String literal(boolean value) {
+      return value ? "TRUE" : "FALSE";
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      return String.format("%s REGEXP '%s'", column, pattern);
+   }
+
+   @Override
+   public String upsert(String table, List<String> columns, List<String> values, List<String> keyColumns, List<String> updateColumns) {
+      return null;
+   }
+
+   @Override
+   public String lastInsertedId(String table) {
+      return String.format("SELECT id FROM %s ORDER BY id DESC%s", table, limit(1, 0));
+   }
+
+   @Override
+   public int getMaxInListSize() {
+      return Integer.MAX_VALUE;
+   }
+
+   @Override
+   public int getFetchSize() {
+      return 1000;
+   }
+
+   @Override
+   public boolean isFetchSizeTransactional() {
+      return false;
+   }
+
+   @Override
+   public void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+      if (value == null) {
+         statement.setNull(index, Types.NULL);
+      } else {
+         statement.setObject(index, value);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return getName();
+   }
+
+}
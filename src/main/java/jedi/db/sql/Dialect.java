@@ -0,0 +1,122 @@
+package jedi.db.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Particularidades de SQL de cada banco de dados: paginação, upsert, id
+ * gerado, limites de lote, expressões regulares e mapeamento de tipos.
+ * <p>
+ * O dialeto é resolvido uma vez por datasource (ver
+ * jedi.db.connection.DataSource#getDialect), de modo que as consultas não
+ * comparem o nome do engine a cada operação.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public interface Dialect {
+
+   /**
+    * @return o dialeto do engine (mysql, postgresql, oracle, h2 ou sqlite).
+    *         Engines desconhecidos usam o dialeto do MySQL, padrão do Jedi.
+    */
+   static Dialect of(String engine) {
+      engine = engine == null ? "" : engine.trim().toLowerCase();
+      switch (engine) {
+         case "postgresql":
+            return PostgreSQLDialect.INSTANCE;
+         case "oracle":
+            return OracleDialect.INSTANCE;
+         case "h2":
+            return H2Dialect.INSTANCE;
+         case "sqlite":
+            return SQLiteDialect.INSTANCE;
+         default:
+            return MySQLDialect.INSTANCE;
+      }
+   }
+
+   /**
+    * @return o nome do engine.
+    */
+   String getName();
+
+   /**
+    * @return a classe do driver JDBC.
+    */
+   String getDriver();
+
+   /**
+    * @return a porta padrão do servidor ou vazio se não houver.
+    */
+   String getDefaultPort();
+
+   /**
+    * @return a URL JDBC do banco de dados.
+    */
+   String url(String host, String port, String database);
+
+   /**
+    * @param limit
+    *           a quantidade máxima de registros ou null
+    * @param offset
+    *           a quantidade de registros ignorados
+    * @return a cláusula de paginação (iniciada por espaço) ou vazio.
+    */
+   String limit(Integer limit, int offset);
+
+   /**
+    * @return a condição que seleciona os registros posteriores a (value,
+    *         id) na ordenação por column.
+    */
+   String seek(String column, String operator, String literal, int id);
+
+   /**
+    * @return o literal booleano.
+    */
+   String literal(boolean value);
+
+   /**
+    * @param caseSensitive
+    *           se diferencia maiúsculas e minúsculas
+    * @return a condição que compara a coluna com a expressão regular.
+    */
+   String regex(String column, String pattern, boolean caseSensitive);
+
+   /**
+    * Monta o INSERT que atualiza o registro se a chave já existir.
+    *
+    * @return a instrução ou null se o banco não tiver upsert nativo (o
+    *         Manager então tenta UPDATE e INSERT).
+    */
+   String upsert(String table, List<String> columns, List<String> values, List<String> keyColumns, List<String> updateColumns);
+
+   /**
+    * @return a consulta que retorna o maior id (coluna id) da tabela.
+    */
+   String lastInsertedId(String table);
+
+   /**
+    * @return a quantidade máxima de itens em uma lista IN (ou de
+    *         parâmetros em uma instrução).
+    */
+   int getMaxInListSize();
+
+   /**
+    * @return o fetch size padrão dos cursores.
+    */
+   int getFetchSize();
+
+   /**
+    * @return se o driver só respeita o fetch size fora do modo auto-commit.
+    */
+   boolean isFetchSizeTransactional();
+
+   /**
+    * Atribui um parâmetro ao statement.
+    */
+   void bind(PreparedStatement statement, int index, Object value) throws SQLException;
+
+}
@@ -0,0 +1,39 @@
+package jedi.db.sql;
+
+/**
+ * Dialeto do H2.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class H2Dialect extends AbstractDialect {
+
+   static final H2Dialect INSTANCE = new H2Dialect();
+
+   @Override
+   public String getName() {
+      return "h2";
+   }
+
+   @Override
+   public String getDriver() {
+      return "org.h2.Driver";
+   }
+
+   @Override
+   public String getDefaultPort() {
+      return "";
+   }
+
+   @Override
+   public String url(String host, String port, String database) {
+      return String.format("jdbc:h2:~/%s", database);
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      return String.format("REGEXP_LIKE(%s, '%s', '%s')", column, pattern, caseSensitive ? "c" : "i");
+   }
+
+}
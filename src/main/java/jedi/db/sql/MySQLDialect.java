@@ -0,0 +1,63 @@
+package jedi.db.sql;
+
+import java.util.List;
+
+/**
+ * Dialeto do MySQL.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class MySQLDialect extends AbstractDialect {
+
+   static final MySQLDialect INSTANCE = new MySQLDialect();
+
+   @Override
+   public String getName() {
+      return "mysql";
+   }
+
+   @Override
+   public String getDriver() {
+      return "com.mysql.jdbc.Driver";
+   }
+
+   @Override
+   public String getDefaultPort() {
+      return "3306";
+   }
+
+   @Override
+   public String limit(Integer limit, int offset) {
+      if (limit == null && offset > 0) {
+         // O MySQL não aceita OFFSET sem LIMIT.
+         return String.format(" LIMIT 18446744073709551615 OFFSET %d", offset);
+      }
+      return super.limit(limit, offset);
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      return String.format("%s REGEXP %s'%s'", column, caseSensitive ? "BINARY " : "", pattern);
+   }
+
+   @Override
+   public String upsert(String table, List<String> columns, List<String> values, List<String> keyColumns, List<String> updateColumns) {
+      String updates = "";
+      for (String column : updateColumns) {
+         updates += String.format("%s = VALUES(%s), ", column, column);
+      }
+      // LAST_INSERT_ID(id) faz o MySQL devolver o id do registro alterado.
+      return String.format("INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %sid = LAST_INSERT_ID(id)", table,
+            String.join(", ", columns), String.join(", ", values), updates);
+   }
+
+   @Override
+   public int getFetchSize() {
+      // O driver do MySQL só deixa de carregar todo o resultado em memória
+      // com TYPE_FORWARD_ONLY, CONCUR_READ_ONLY e fetch size MIN_VALUE.
+      return Integer.MIN_VALUE;
+   }
+
+}
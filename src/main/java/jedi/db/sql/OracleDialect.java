@@ -0,0 +1,69 @@
+package jedi.db.sql;
+
+/**
+ * Dialeto do Oracle (12c ou superior).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class OracleDialect extends AbstractDialect {
+
+   static final OracleDialect INSTANCE = new OracleDialect();
+
+   @Override
+   public String getName() {
+      return "oracle";
+   }
+
+   @Override
+   public String getDriver() {
+      return "oracle.jdbc.driver.OracleDriver";
+   }
+
+   @Override
+   public String getDefaultPort() {
+      return "1521";
+   }
+
+   @Override
+   public String url(String host, String port, String database) {
+      return String.format("jdbc:oracle:thin:@%s:%s:%s", host, port, database);
+   }
+
+   @Override
+   public String limit(Integer limit, int offset) {
+      if (limit == null && offset <= 0) {
+         return "";
+      }
+      String sql = offset > 0 ? String.format(" OFFSET %d ROWS", offset) : "";
+      return limit == null ? sql : String.format("%s FETCH NEXT %d ROWS ONLY", sql, limit);
+   }
+
+   @Override
+   public String seek(String column, String operator, String literal, int id) {
+      // O Oracle não compara valores de linha com < e >.
+      return String.format("(%s %s %s OR (%s = %s AND id %s %d))", column, operator, literal, column, literal, operator, id);
+   }
+
+   @Override
+   public String literal(boolean value) {
+      return value ? "1" : "0";
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      return String.format("REGEXP_LIKE(%s, '%s', '%s')", column, pattern, caseSensitive ? "c" : "i");
+   }
+
+   @Override
+   public String lastInsertedId(String table) {
+      return String.format("SELECT MAX(id) AS id FROM %s", table);
+   }
+
+   @Override
+   public int getMaxInListSize() {
+      return 1000;
+   }
+
+}
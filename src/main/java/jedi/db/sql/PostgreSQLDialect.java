@@ -0,0 +1,78 @@
+package jedi.db.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Dialeto do PostgreSQL.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class PostgreSQLDialect extends AbstractDialect {
+
+   static final PostgreSQLDialect INSTANCE = new PostgreSQLDialect();
+
+   @Override
+   public String getName() {
+      return "postgresql";
+   }
+
+   @Override
+   public String getDriver() {
+      return "org.postgresql.Driver";
+   }
+
+   @Override
+   public String getDefaultPort() {
+      return "5432";
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      return String.format("%s %s '%s'", column, caseSensitive ? "~" : "~*", pattern);
+   }
+
+   @Override
+   public String upsert(String table, List<String> columns, List<String> values, List<String> keyColumns, List<String> updateColumns) {
+      // ON CONFLICT (a, b) exige um índice único composto por a e b; com
+      // campos únicos independentes o Manager tenta UPDATE e INSERT.
+      if (keyColumns.size() != 1) {
+         return null;
+      }
+      // Com DO NOTHING o PostgreSQL não retornaria o id do registro.
+      List<String> updates = updateColumns.isEmpty() ? keyColumns : updateColumns;
+      String set = "";
+      for (String column : updates) {
+         set += String.format("%s%s = EXCLUDED.%s", set.isEmpty() ? "" : ", ", column, column);
+      }
+      return String.format("INSERT INTO %s (%s) VALUES (%s) ON CONFLICT (%s) DO UPDATE SET %s", table, String.join(", ", columns),
+            String.join(", ", values), String.join(", ", keyColumns), set);
+   }
+
+   @Override
+   public int getMaxInListSize() {
+      // O protocolo limita a instrução a 32767 parâmetros.
+      return 32767;
+   }
+
+   @Override
+   public boolean isFetchSizeTransactional() {
+      return true;
+   }
+
+   @Override
+   public void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+      if (value instanceof String) {
+         // Deixa o PostgreSQL inferir o tipo, como faria com o literal
+         // (ex.: '2017-01-01' comparado a uma coluna date).
+         statement.setObject(index, value, Types.OTHER);
+      } else {
+         super.bind(statement, index, value);
+      }
+   }
+
+}
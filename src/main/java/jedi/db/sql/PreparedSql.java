@@ -0,0 +1,296 @@
+package jedi.db.sql;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jedi.db.connection.DataSource;
+
+/**
+ * Instrução SQL com marcadores (?) e a lista de parâmetros correspondente.
+ * <p>
+ * {@link #of(String)} extrai os literais das posições de valor (após
+ * operadores de comparação, LIKE, IN, BETWEEN, LIMIT, etc.) de uma
+ * instrução já traduzida, de modo que consultas com o mesmo formato gerem
+ * o mesmo texto SQL e reaproveitem o statement em cache no driver e no
+ * pool. Literais em outras posições, como o formato de DATE_FORMAT, são
+ * mantidos no texto.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class PreparedSql {
+
+   private static final Set<String> VALUE_PREFIXES = new HashSet<>(Arrays.asList(
+         "=", "<", ">", "<=", ">=", "!=", "<>", "LIKE", "REGEXP", "BETWEEN", "LIMIT", "OFFSET"));
+
+   private static final Set<String> LIST_PREFIXES = new HashSet<>(Arrays.asList(
+         "IN", "VALUES", "LOWER", "UPPER"));
+
+   private final String sql;
+   private final List<Object> parameters;
+
+   public PreparedSql(String sql, List<Object> parameters) {
+      this.sql = sql == null ? "" : sql;
+      this.parameters = parameters == null ? Collections.emptyList() : Collections.unmodifiableList(parameters);
+   }
+
+   public String getSql() {
+      return sql;
+   }
+
+   public List<Object> getParameters() {
+      return parameters;
+   }
+
+   /**
+    * Substitui os literais em posição de valor por marcadores.
+    *
+    * @param sql
+    *           instrução SQL com os valores literais
+    * @return a instrução parametrizada
+    */
+   public static PreparedSql of(String sql) {
+      return of(sql, null);
+   }
+
+   /**
+    * Substitui os literais em posição de valor por marcadores em uma
+    * instrução que já contém marcadores.
+    *
+    * @param sql
+    *           instrução SQL com marcadores e valores literais
+    * @param bound
+    *           valores dos marcadores já existentes, na ordem em que
+    *           aparecem
+    * @return a instrução parametrizada, com os valores de bound entre os
+    *         literais extraídos
+    */
+   public static PreparedSql of(String sql, List<Object> bound) {
+      if (sql == null || sql.isEmpty()) {
+         return new PreparedSql(sql, bound == null ? null : new ArrayList<>(bound));
+      }
+      StringBuilder out = new StringBuilder(sql.length());
+      List<Object> parameters = new ArrayList<>();
+      // Cada parêntese aberto registra se os itens da lista são valores.
+      Deque<Boolean> lists = new ArrayDeque<>();
+      String previous = "";
+      boolean between = false;
+      int next = 0;
+      int length = sql.length();
+      int i = 0;
+      while (i < length) {
+         char c = sql.charAt(i);
+         boolean value = VALUE_PREFIXES.contains(previous) ||
+               (between && previous.equals("AND")) ||
+               ((previous.equals("(") || previous.equals(",")) && !lists.isEmpty() && lists.peek());
+         if (Character.isWhitespace(c)) {
+            out.append(c);
+            i++;
+         } else if (c == '\'') {
+            StringBuilder literal = new StringBuilder();
+            int end = readLiteral(sql, i, literal);
+            if (end < 0) {
+               // Literal não terminado: mantém o restante sem alterações.
+               out.append(sql, i, length);
+               break;
+            }
+            if (value) {
+               out.append('?');
+               parameters.add(literal.toString());
+            } else {
+               out.append(sql, i, end);
+            }
+            between = between && !previous.equals("AND");
+            previous = "'";
+            i = end;
+         } else if (c == '?' && bound != null && next < bound.size()) {
+            out.append(c);
+            parameters.add(bound.get(next++));
+            between = between && !previous.equals("AND");
+            previous = "?";
+            i++;
+         } else if (c == '"' || c == '`') {
+            int end = sql.indexOf(c, i + 1);
+            end = end < 0 ? length : end + 1;
+            out.append(sql, i, end);
+            previous = "\"";
+            i = end;
+         } else if (Character.isDigit(c) || (c == '-' && value && i + 1 < length && Character.isDigit(sql.charAt(i + 1)))) {
+            int end = i + 1;
+            while (end < length && (Character.isDigit(sql.charAt(end)) || sql.charAt(end) == '.')) {
+               end++;
+            }
+            // Expoente (1e5, 2.5E-3).
+            if (end + 1 < length && (sql.charAt(end) == 'e' || sql.charAt(end) == 'E')) {
+               int exponent = end + 1;
+               if ((sql.charAt(exponent) == '+' || sql.charAt(exponent) == '-') && exponent + 1 < length) {
+                  exponent++;
+               }
+               if (Character.isDigit(sql.charAt(exponent))) {
+                  end = exponent;
+                  while (end < length && Character.isDigit(sql.charAt(end))) {
+                     end++;
+                  }
+               }
+            }
+            String number = sql.substring(i, end);
+            Object parameter = value ? number(number) : null;
+            if (parameter != null) {
+               out.append('?');
+               parameters.add(parameter);
+            } else {
+               out.append(number);
+            }
+            between = between && !previous.equals("AND");
+            previous = "0";
+            i = end;
+         } else if (Character.isLetter(c) || c == '_' || c == '$') {
+            int end = i + 1;
+            while (end < length && (Character.isLetterOrDigit(sql.charAt(end)) || "_$.".indexOf(sql.charAt(end)) >= 0)) {
+               end++;
+            }
+            String word = sql.substring(i, end);
+            out.append(word);
+            previous = word.toUpperCase();
+            if (previous.equals("BETWEEN")) {
+               between = true;
+            }
+            i = end;
+         } else if ("<>=!".indexOf(c) >= 0) {
+            int end = i + 1;
+            while (end < length && "<>=".indexOf(sql.charAt(end)) >= 0) {
+               end++;
+            }
+            previous = sql.substring(i, end);
+            out.append(previous);
+            i = end;
+         } else if (c == '(') {
+            lists.push(LIST_PREFIXES.contains(previous) || VALUE_PREFIXES.contains(previous));
+            out.append(c);
+            previous = "(";
+            i++;
+         } else if (c == ')') {
+            if (!lists.isEmpty()) {
+               lists.pop();
+            }
+            out.append(c);
+            previous = ")";
+            i++;
+         } else {
+            out.append(c);
+            previous = String.valueOf(c);
+            i++;
+         }
+      }
+      return new PreparedSql(out.toString(), parameters);
+   }
+
+   /**
+    * @return o valor do número ou null se for um inteiro que não cabe em um
+    *         long (ex.: o LIMIT máximo do MySQL), que é mantido na instrução.
+    */
+   private static Object number(String number) {
+      if (number.contains(".") || number.toLowerCase().contains("e")) {
+         return new BigDecimal(number);
+      }
+      try {
+         return Long.valueOf(number);
+      } catch (NumberFormatException e) {
+         return null;
+      }
+   }
+   
+   /**
+    * Lê o literal iniciado em start, desfazendo os escapes '' e \' (e \\).
+    * Os demais escapes, como \% e \_ usados no LIKE, são preservados.
+    *
+    * @return a posição seguinte ao literal ou -1 se não estiver terminado
+    */
+   private static int readLiteral(String sql, int start, StringBuilder literal) {
+      int i = start + 1;
+      int length = sql.length();
+      while (i < length) {
+         char c = sql.charAt(i);
+         if (c == '\\' && i + 1 < length) {
+            char next = sql.charAt(i + 1);
+            if (next != '\'' && next != '\\') {
+               literal.append(c);
+            }
+            literal.append(next);
+            i += 2;
+         } else if (c == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+               literal.append(c);
+               i += 2;
+            } else {
+               return i + 1;
+            }
+         } else {
+            literal.append(c);
+            i++;
+         }
+      }
+      return -1;
+   }
+
+   public PreparedStatement prepare(Connection connection) throws SQLException {
+      PreparedStatement statement = connection.prepareStatement(sql);
+      bind(statement, parameters);
+      return statement;
+   }
+
+   public PreparedStatement prepare(Connection connection, int resultSetType, int resultSetConcurrency) throws SQLException {
+      PreparedStatement statement = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+      bind(statement, parameters);
+      return statement;
+   }
+
+   /**
+    * Prepara a instrução pedindo ao driver o valor gerado para a coluna id,
+    * lido depois em getGeneratedKeys(). O MySQL devolve o AUTO_INCREMENT e
+    * o PostgreSQL e o Oracle acrescentam RETURNING id à instrução.
+    */
+   public PreparedStatement prepareReturningId(Connection connection) throws SQLException {
+      PreparedStatement statement = connection.prepareStatement(sql, new String[] { "id" });
+      bind(statement, parameters);
+      return statement;
+   }
+
+   /**
+    * Atribui os parâmetros ao statement, na ordem dos marcadores, com o
+    * dialeto do banco de dados principal.
+    */
+   public static void bind(PreparedStatement statement, List<Object> parameters) throws SQLException {
+      bind(statement, parameters, DataSource.getDialect());
+   }
+
+   /**
+    * Atribui os parâmetros ao statement, na ordem dos marcadores.
+    */
+   public static void bind(PreparedStatement statement, List<Object> parameters, Dialect dialect) throws SQLException {
+      if (parameters == null) {
+         return;
+      }
+      for (int i = 0; i < parameters.size(); i++) {
+         dialect.bind(statement, i + 1, parameters.get(i));
+      }
+   }
+
+   @Override
+   public String toString() {
+      return parameters.isEmpty() ? sql : String.format("%s %s", sql, parameters);
+   }
+
+}
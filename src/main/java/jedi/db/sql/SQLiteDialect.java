@@ -0,0 +1,60 @@
+package jedi.db.sql;
+
+/**
+ * Dialeto do SQLite.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class SQLiteDialect extends AbstractDialect {
+
+   static final SQLiteDialect INSTANCE = new SQLiteDialect();
+
+   @Override
+   public String getName() {
+      return "sqlite";
+   }
+
+   @Override
+   public String getDriver() {
+      return "org.sqlite.JDBC";
+   }
+
+   @Override
+   public String getDefaultPort() {
+      return "";
+   }
+
+   @Override
+   public String url(String host, String port, String database) {
+      return String.format("jdbc:sqlite:%s", database);
+   }
+
+   @Override
+   public String limit(Integer limit, int offset) {
+      if (limit == null && offset > 0) {
+         // O SQLite não aceita OFFSET sem LIMIT.
+         return String.format(" LIMIT -1 OFFSET %d", offset);
+      }
+      return super.limit(limit, offset);
+   }
+
+   @Override
+   public String literal(boolean value) {
+      return value ? "1" : "0";
+   }
+
+   @Override
+   public String regex(String column, String pattern, boolean caseSensitive) {
+      // A função REGEXP do driver usa java.util.regex.
+      return String.format("%s REGEXP '%s%s'", column, caseSensitive ? "" : "(?i)", pattern);
+   }
+
+   @Override
+   public int getMaxInListSize() {
+      // SQLITE_MAX_VARIABLE_NUMBER padrão.
+      return 999;
+   }
+
+}
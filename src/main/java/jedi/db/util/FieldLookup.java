@@ -1,6 +1,7 @@
 package jedi.db.util;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,233 +22,333 @@ public class FieldLookup {
    
    private static final Map<String, List<String>> EMPTY_TRANSLATION_MAP = new HashMap<>();
    
+   private static final Regex[] FIELD_LOOKUP_REGEXES = {
+      Regex.FIELD_LOOKUP_EXACT,
+      Regex.FIELD_LOOKUP_EXACT_DATE,
+      Regex.FIELD_LOOKUP_EXACT_TIME,
+      Regex.FIELD_LOOKUP_EXACT_DATETIME,
+      Regex.FIELD_LOOKUP_CONTAINS,
+      Regex.FIELD_LOOKUP_IN,
+      Regex.FIELD_LOOKUP_GT,
+      Regex.FIELD_LOOKUP_LT,
+      Regex.FIELD_LOOKUP_STARTSWITH,
+      Regex.FIELD_LOOKUP_ENDSWITH,
+      Regex.FIELD_LOOKUP_RANGE_NUMBER,
+      Regex.FIELD_LOOKUP_RANGE_DATE,
+      Regex.FIELD_LOOKUP_RANGE_TIME,
+      Regex.FIELD_LOOKUP_RANGE_DATETIME,
+      Regex.FIELD_LOOKUP_YEAR,
+      Regex.FIELD_LOOKUP_MONTH,
+      Regex.FIELD_LOOKUP_DAY,
+      Regex.FIELD_LOOKUP_WEEK_DAY,
+      Regex.FIELD_LOOKUP_HOUR,
+      Regex.FIELD_LOOKUP_MINUTE,
+      Regex.FIELD_LOOKUP_SECOND,
+      Regex.FIELD_LOOKUP_ISNULL,
+      Regex.FIELD_LOOKUP_AND,
+      Regex.FIELD_LOOKUP_OR
+   };
+   
+   private static final Map<String, Regex[]> FIELD_LOOKUP_REGEXES_BY_OPERATOR = new HashMap<>();
+   
+   static {
+      Regex[] exact = { Regex.FIELD_LOOKUP_EXACT, Regex.FIELD_LOOKUP_EXACT_DATE, Regex.FIELD_LOOKUP_EXACT_TIME, Regex.FIELD_LOOKUP_EXACT_DATETIME };
+      Regex[] range = { Regex.FIELD_LOOKUP_RANGE_NUMBER, Regex.FIELD_LOOKUP_RANGE_DATE, Regex.FIELD_LOOKUP_RANGE_TIME, Regex.FIELD_LOOKUP_RANGE_DATETIME };
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("exact", exact);
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("contains", new Regex[] { Regex.FIELD_LOOKUP_CONTAINS });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("in", new Regex[] { Regex.FIELD_LOOKUP_IN });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("gt", new Regex[] { Regex.FIELD_LOOKUP_GT });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("gte", new Regex[] { Regex.FIELD_LOOKUP_GT });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("lt", new Regex[] { Regex.FIELD_LOOKUP_LT });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("lte", new Regex[] { Regex.FIELD_LOOKUP_LT });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("startswith", new Regex[] { Regex.FIELD_LOOKUP_STARTSWITH });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("endswith", new Regex[] { Regex.FIELD_LOOKUP_ENDSWITH });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("range", range);
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("year", new Regex[] { Regex.FIELD_LOOKUP_YEAR });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("month", new Regex[] { Regex.FIELD_LOOKUP_MONTH });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("day", new Regex[] { Regex.FIELD_LOOKUP_DAY });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("weekday", new Regex[] { Regex.FIELD_LOOKUP_WEEK_DAY });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("hour", new Regex[] { Regex.FIELD_LOOKUP_HOUR });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("minute", new Regex[] { Regex.FIELD_LOOKUP_MINUTE });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("second", new Regex[] { Regex.FIELD_LOOKUP_SECOND });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("isnull", new Regex[] { Regex.FIELD_LOOKUP_ISNULL });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("AND", new Regex[] { Regex.FIELD_LOOKUP_AND });
+      FIELD_LOOKUP_REGEXES_BY_OPERATOR.put("OR", new Regex[] { Regex.FIELD_LOOKUP_OR });
+   }
+   
+   private static final Pattern NUMBER_OR_BOOLEAN = Pattern.compile("^\\d+|(false|true)$");
+   private static final Pattern WORD = Pattern.compile("[\\w ]+");
+   private static final Pattern DIGITS = Pattern.compile("\\d+");
+   private static final Pattern LIST_BRACKETS = Pattern.compile(" *\\[ *| *\\] *");
+   private static final Pattern RANGE_PARENTHESES = Pattern.compile("\\(|\\)");
+   private static final Pattern LIST_SEPARATOR = Pattern.compile(" *, *");
+   private static final Pattern CONNECTOR = Pattern.compile("(and|AND|or|OR)");
+   private static final Pattern JOIN_CONNECTOR = Pattern.compile("^\\w+\\.(and|And|AND|or|Or|OR)$");
+   private static final Pattern JOIN_TAIL = Pattern.compile(
+      "\\.\\w+( *(=|<|<=|>|>=|!=) *.*|__(!?i?(startswith|contains|endswith)|!?(in|range|lte?|gte?|exact)|isnull).*)");
+   private static final Pattern ENTITY_PAIR = Pattern.compile("(\\w+)\\.(\\w+)");
+   private static final Pattern NAVIGATION = Pattern.compile("^(\\w+\\.\\w+.*)+$");
+   private static final Pattern ASSIGNMENT = Pattern.compile("^.*=.*$");
+   private static final Pattern DECOMPOSABLE = Pattern.compile("^\\w+.*(<|<=|=|>|>=|__).*$");
+   private static final Pattern DECOMPOSE_SEPARATOR = Pattern.compile("(<|<=|=|>|>=|__)");
+   
+   /**
+    * Traduções de WHERE por formato da condição e de JOIN por caminho de
+    * entidades. O tamanho é definido por database.lookup.cache.size.
+    */
+   private static final LruCache<String, WhereTemplate> WHERE_CACHE = new LruCache<>(JediEngine.DATABASE_LOOKUP_CACHE_SIZE);
+   private static final LruCache<String, String> JOIN_CACHE = new LruCache<>(JediEngine.DATABASE_LOOKUP_CACHE_SIZE);
+   
    /**
     * Método que valida uma condição de pesquisa (field lookup).
+    * <p>
+    * Testa primeiro as expressões regulares do operador da condição e só
+    * recorre às demais quando nenhuma delas é atendida.
     * 
     * @param lookup
     *           condição de pesquisa.
     * @return false ou true.
     */
    public static boolean isValid(String lookup) {
-      boolean valid = false;
-      if (lookup != null) {
-         lookup = lookup.trim();
-         if (lookup.matches(Regex.FIELD_LOOKUP_EXACT.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_EXACT_DATE.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_EXACT_TIME.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_EXACT_DATETIME.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_CONTAINS.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_IN.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_GT.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_LT.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_STARTSWITH.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_ENDSWITH.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_RANGE_NUMBER.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_RANGE_DATE.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_RANGE_TIME.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_RANGE_DATETIME.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_YEAR.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_MONTH.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_DAY.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_WEEK_DAY.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_HOUR.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_MINUTE.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_SECOND.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_ISNULL.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_AND.getValue())) {
-            return true;
-         } else if (lookup.matches(Regex.FIELD_LOOKUP_OR.getValue())) {
+      if (lookup == null) {
+         return false;
+      }
+      lookup = lookup.trim();
+      Lookup parsed = Lookup.parse(lookup);
+      Regex[] regexes = parsed == null ? null : FIELD_LOOKUP_REGEXES_BY_OPERATOR.get(parsed.isConnector() ? parsed.getConnector() : parsed.getOperator());
+      if (regexes != null) {
+         for (Regex regex : regexes) {
+            if (regex.matches(lookup)) {
+               return true;
+            }
+         }
+      }
+      for (Regex regex : FIELD_LOOKUP_REGEXES) {
+         if (regex.matches(lookup)) {
             return true;
-         } else {
-            
          }
       }
-      return valid;
+      return false;
    }
    
    /**
-    * Método que traduz uma condição de pesquisa (field lookup) para SQL.
+    * Método que traduz uma condição de pesquisa (field lookup) para SQL,
+    * com os valores escritos como literais.
     * 
     * @param lookup
     *           condição de pesquisa.
     * @return condição em SQL.
+    * @see #translateWhere(String, List)
     */
    public static String translateWhere(String lookup) {
-      String sql = "";
-      if (isValid(lookup)) {
-         String _lookup = lookup.trim();
-         String operator = "";
-         _lookup = _lookup.replaceFirst(" *< *", "<");
-         _lookup = _lookup.replaceFirst(" *= *", "=");
-         _lookup = _lookup.replaceFirst(" *> *", ">");
-         _lookup = _lookup.replaceFirst("^pk", "id");
-         _lookup = _lookup.replaceAll("%", "\\%%");
-         if (_lookup.matches("^.*(=|__i?exact=).*$")) {
-            _lookup = _lookup.replaceFirst("__i?exact", "");
-            if (_lookup.endsWith("null")) {
-               operator = "is";
-            } else {
-               operator = "=";
-            }
-         }
-         if (_lookup.matches("^.*<\\d+.*$")) {
-            operator = "<";
-         } else if (_lookup.matches("^.*<=\\d+.*$")) {
-            operator = "<=";
-         } else if (_lookup.matches("^.*>=\\d+.*$")) {
-            operator = ">=";
-         } else if (_lookup.matches("^.*>\\d+.*$")) {
-            operator = ">";
-         } else if (_lookup.matches("^.*__gt=\\d+.*$")) {
-            operator = "gt";
-            _lookup = _lookup.replace("__gt", "");
-         } else if (_lookup.matches("^.*__gte=\\d+.*$")) {
-            operator = "gte";
-            _lookup = _lookup.replace("__gte", "");
-         } else if (_lookup.matches("^.*__lt=\\d+.*$")) {
-            operator = "lt";
-            _lookup = _lookup.replace("__lt", "");
-         } else if (_lookup.matches("^.*__lte=\\d+.*$")) {
-            operator = "lte";
-            _lookup = _lookup.replace("__lte", "");
-         } else if (_lookup.matches("^.*__i?(startswith|contains|endswith)=.*$")) {
-            operator = "like";
-            _lookup = _lookup.replaceFirst("__i?(startswith|contains|endswith)", "");
-         } else if (_lookup.matches("^.*__range=.*$")) {
-            operator = "between";
-            _lookup = _lookup.replace("__range", "");
-         } else if (_lookup.matches("^.*__isnull=.*$")) {
-            operator = "is";
-            _lookup = _lookup.replace("__isnull", "");
-         } else if (_lookup.matches("^.*__in=.*$")) {
-            operator = "in";
-            _lookup = _lookup.replace("__in", "");
+      List<Object> parameters = new ArrayList<>();
+      return inline(translateWhere(lookup, parameters), parameters);
+   }
+   
+   /**
+    * Método que traduz uma condição de pesquisa (field lookup) para SQL
+    * parametrizado.
+    * <p>
+    * A coluna e o operador SQL são guardados em cache pelo formato da
+    * condição (ver {@link Lookup#getShape()}); os valores são substituídos
+    * por marcadores (?) e acrescentados, na mesma ordem, aos parâmetros.
+    * 
+    * @param lookup
+    *           condição de pesquisa.
+    * @param parameters
+    *           recebe os valores da condição.
+    * @return condição em SQL.
+    */
+   public static String translateWhere(String lookup, List<Object> parameters) {
+      if (!isValid(lookup)) {
+         return "";
+      }
+      Lookup parsed = Lookup.parse(lookup.trim());
+      if (parsed == null) {
+         return "";
+      }
+      if (parsed.isConnector()) {
+         return parsed.getConnector();
+      }
+      return WHERE_CACHE.get(parsed.getShape(), shape -> new WhereTemplate(parsed)).render(parsed.getValue(), parameters);
+   }
+   
+   /**
+    * Substitui os marcadores de uma condição traduzida pelos parâmetros
+    * escritos como literais.
+    */
+   private static String inline(String sql, List<Object> parameters) {
+      StringBuilder out = new StringBuilder(sql.length());
+      int parameter = 0;
+      for (int i = 0; i < sql.length(); i++) {
+         char c = sql.charAt(i);
+         if (c == '?' && parameter < parameters.size()) {
+            Object value = parameters.get(parameter++);
+            out.append(value instanceof Number ? value : String.format("'%s'", value.toString().replace("'", "''")));
          } else {
-            _lookup = _lookup.replace("__year", "");
-            _lookup = _lookup.replace("__month", "");
-            _lookup = _lookup.replace("__day", "");
-            _lookup = _lookup.replace("__weekday", "");
-            _lookup = _lookup.replace("__hour", "");
-            _lookup = _lookup.replace("__minute", "");
-            _lookup = _lookup.replace("__second", "");
+            out.append(c);
          }
-         Object[] lookupComponents = new Object[2];
-         if (operator.matches("<|<=|=|>=|>")) {
-            lookupComponents = _lookup.split(operator);
-         } else {
-            lookupComponents = _lookup.split("=");
-            switch (operator) {
-               case "lt":
-                  operator = "<";
-                  break;
-               case "lte":
-                  operator = "<=";
-                  break;
-               case "gte":
-                  operator = ">=";
-                  break;
-               case "gt":
-                  operator = ">";
-                  break;
-            }
+      }
+      return out.toString();
+   }
+   
+   /**
+    * Coluna e operador SQL de um formato de condição de pesquisa.
+    */
+   private static final class WhereTemplate {
+      
+      private final String column;
+      private final String operator;
+      private final String sqlOperator;
+      private final boolean negated;
+      private final boolean caseInsensitive;
+      
+      WhereTemplate(Lookup lookup) {
+         StringBuilder column = new StringBuilder();
+         for (String entity : lookup.getPath()) {
+            column.append(entity).append('.');
+         }
+         this.column = TableUtil.getColumnName(column.append(lookup.getField()).toString());
+         this.operator = lookup.getOperator();
+         this.negated = lookup.isNegated();
+         this.caseInsensitive = lookup.isCaseInsensitive();
+         switch (operator) {
+            case "lt":
+               sqlOperator = "<";
+               break;
+            case "lte":
+               sqlOperator = "<=";
+               break;
+            case "gt":
+               sqlOperator = ">";
+               break;
+            case "gte":
+               sqlOperator = ">=";
+               break;
+            case "contains":
+            case "startswith":
+            case "endswith":
+               sqlOperator = "LIKE";
+               break;
+            case "in":
+               sqlOperator = "IN";
+               break;
+            case "range":
+               sqlOperator = "BETWEEN";
+               break;
+            case "isnull":
+               sqlOperator = "IS";
+               break;
+            default:
+               sqlOperator = "=";
          }
-         Object field = lookupComponents[0];
-         Object value = lookupComponents[1];
-         field = TableUtil.getColumnName(field.toString());
-         value = value.toString().trim();
-         if (!value.toString().matches("^\\d+|(false|true)$")) {
-            if (!value.equals("null")) {
-               if (value.toString().matches("[\\w ]+")) {
-                  operator = "like";
+      }
+      
+      String render(String value, List<Object> parameters) {
+         String column = this.column;
+         String operator = this.sqlOperator;
+         String placeholder = "?";
+         if (!NUMBER_OR_BOOLEAN.matcher(value).matches()) {
+            if (value.equals("null")) {
+               operator = operator.equals("=") ? "IS" : operator;
+               placeholder = "NULL";
+            } else {
+               if (WORD.matcher(value).matches()) {
+                  operator = "LIKE";
                }
-               if (lookup.matches(".*__iexact.*")) {
-                  field = String.format("LOWER(%s)", field);
-                  value = String.format("LOWER('%s')", value);
-               } else if (lookup.matches(".*__i?contains.*")) {
-                  if (lookup.contains("__icontains")) {
-                     field = String.format("LOWER(%s)", field);
-                     value = String.format("LOWER('%%%s%%')", value);
-                  } else {
-                     value = String.format("'%%%s%%'", value);
-                  }
-               } else if (lookup.contains("__in")) {
-                  operator = "in";
-                  String _value = value.toString();
-                  _value = _value.replaceAll(" *\\[ *| *\\] *", "");
-                  _value = _value.replaceAll(", *", ", ");
-                  if (!_value.matches("\\d+(, \\d+)*")) {
-                     _value = _value.replaceAll(", ", ",");
-                     _value = _value.replaceAll("([\\p{L}\\d ]+)", "'$1'");
-                     _value = _value.replaceAll(",", ", ");
-                  }
-                  value = _value;
-                  value = String.format("(%s)", value);
-               } else if (lookup.contains("__startswith")) {
-                  value = String.format("'%s%%'", value);
-               } else if (lookup.contains("__istartswith")) {
-                  field = String.format("LOWER(%s)", field);
-                  value = String.format("LOWER('%s%%')", value);
-               } else if (lookup.contains("__endswith")) {
-                  value = String.format("'%%%s'", value);
-               } else if (lookup.contains("__iendswith")) {
-                  field = String.format("LOWER(%s)", field);
-                  value = String.format("LOWER('%%%s')", value);
-               } else if (lookup.contains("__range")) {
-                  String _value = value.toString();
-                  _value = _value.replaceFirst(" *, *", ",");
-                  _value = _value.replaceAll("\\(|\\)", "");
-                  String[] values = _value.split(",");
-                  if (!values[0].matches("\\d+")) {
-                     values[0] = String.format("'%s'", values[0]);
-                  }
-                  if (!values[1].matches("\\d+")) {
-                     values[1] = String.format("'%s'", values[1]);
-                  }
-                  value = String.format("%s and %s", values[0], values[1]);
-               } else {
-                  value = String.format("'%s'", value);
+               switch (this.operator) {
+                  case "contains":
+                     placeholder = like(String.format("%%%s%%", value), parameters);
+                     column = caseInsensitive ? String.format("LOWER(%s)", column) : column;
+                     break;
+                  case "startswith":
+                     placeholder = like(String.format("%s%%", value), parameters);
+                     column = caseInsensitive ? String.format("LOWER(%s)", column) : column;
+                     break;
+                  case "endswith":
+                     placeholder = like(String.format("%%%s", value), parameters);
+                     column = caseInsensitive ? String.format("LOWER(%s)", column) : column;
+                     break;
+                  case "in":
+                     operator = "IN";
+                     placeholder = list(value, parameters);
+                     break;
+                  case "range":
+                     operator = "BETWEEN";
+                     placeholder = range(value, parameters);
+                     break;
+                  case "exact":
+                     placeholder = like(value, parameters);
+                     column = caseInsensitive ? String.format("LOWER(%s)", column) : column;
+                     break;
+                  default:
+                     parameters.add(value);
                }
             }
+         } else if (this.operator.equals("isnull")) {
+            operator = value.equals("false") ? "IS NOT" : "IS";
+            placeholder = "NULL";
+         } else if (operator.equals("LIKE")) {
+            parameters.add(value);
+         } else if (value.equals("true") || value.equals("false")) {
+            // Mantido como literal, pois nem todos os bancos de dados
+            // comparam um parâmetro booleano com a coluna.
+            placeholder = value;
          } else {
-            if (lookup.contains("__isnull")) {
-               value = "NULL";
-               if (lookup.endsWith("false")) {
-                  operator = "IS NOT";
-               }
-            }
-            if (operator.equalsIgnoreCase("like")) {
-               value = String.format("'%s'", value);
-            }
+            parameters.add(number(value));
          }
-         if (lookup.matches("and|or")) {
-            sql = lookup.toUpperCase();
-         } else {
-            sql = String.format("%s %s %s", field, operator.toUpperCase(), value);
+         String sql = String.format("%s %s %s", column, operator, placeholder);
+         return negated ? String.format("NOT %s", sql) : sql;
+      }
+      
+      private String like(String value, List<Object> parameters) {
+         parameters.add(value);
+         return caseInsensitive ? "LOWER(?)" : "?";
+      }
+      
+      private static String list(String value, List<Object> parameters) {
+         String[] items = LIST_SEPARATOR.split(LIST_BRACKETS.matcher(value).replaceAll(""));
+         boolean numbers = true;
+         for (int i = 0; i < items.length; i++) {
+            items[i] = unquote(items[i].trim());
+            numbers = numbers && DIGITS.matcher(items[i]).matches();
          }
+         StringBuilder list = new StringBuilder("(");
+         for (int i = 0; i < items.length; i++) {
+            list.append(i == 0 ? "?" : ", ?");
+            parameters.add(numbers ? number(items[i]) : items[i]);
+         }
+         return list.append(")").toString();
+      }
+      
+      private static String range(String value, List<Object> parameters) {
+         String[] values = LIST_SEPARATOR.split(RANGE_PARENTHESES.matcher(value).replaceAll(""), 2);
+         for (int i = 0; i < values.length; i++) {
+            values[i] = unquote(values[i].trim());
+            parameters.add(DIGITS.matcher(values[i]).matches() ? number(values[i]) : values[i]);
+         }
+         return values.length < 2 ? "?" : "? AND ?";
+      }
+      
+      /**
+       * @return o número como Long ou, se não couber em um long, como
+       *         BigDecimal.
+       */
+      private static Object number(String value) {
+         try {
+            return Long.valueOf(value);
+         } catch (NumberFormatException e) {
+            return new BigDecimal(value);
+         }
+      }
+      
+      private static String unquote(String value) {
+         if (value.length() > 1 && value.startsWith("'") && value.endsWith("'")) {
+            return value.substring(1, value.length() - 1);
+         }
+         return value;
       }
-      return sql;
+      
    }
    
    /**
@@ -255,24 +356,23 @@ public class FieldLookup {
     * @return
     */
    public static String translateJoin(String fieldLookup) {
-      StringBuilder join = new StringBuilder();
       fieldLookup = fieldLookup == null ? "" : fieldLookup.trim();
-      if (!fieldLookup.isEmpty()) {
-         if (fieldLookup.contains(".") && !fieldLookup.matches("^\\w+\\.(and|And|AND|or|Or|OR)$")) {
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+ *(=|<|<=|>|>=|!=) *.*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(startswith|istartswith|!startswith|!istartswith).*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(contains|icontains|!contains|!icontains).*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(endswith|iendswith|!endswith|!iendswith).*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(in|!in|range|!range).*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(lt|!lt|lte|!lte|gt|!gt|gte|!gte|exact|!exact).*)", "");
-            fieldLookup = fieldLookup.replaceAll("(\\.\\w+__(isnull).*)", "");
-            String[] entities = fieldLookup.split("\\.");
-            for (int i = 0; i < entities.length - 1; i++) {
-               join.append(FieldLookup.getJoin(String.format("%s.%s", entities[i], entities[i + 1])));
-               if (i != entities.length - 2) {
-                  join.append("\n");
-               }
-            }
+      if (fieldLookup.isEmpty() || !fieldLookup.contains(".") || JOIN_CONNECTOR.matcher(fieldLookup).matches()) {
+         return "";
+      }
+      // Remove o campo, o operador e o valor, restando as entidades
+      // navegadas, que são a chave do cache.
+      String path = JOIN_TAIL.matcher(fieldLookup).replaceAll("");
+      return JOIN_CACHE.get(path, FieldLookup::join);
+   }
+   
+   private static String join(String path) {
+      StringBuilder join = new StringBuilder();
+      String[] entities = path.split("\\.");
+      for (int i = 0; i < entities.length - 1; i++) {
+         join.append(FieldLookup.getJoin(String.format("%s.%s", entities[i], entities[i + 1])));
+         if (i != entities.length - 2) {
+            join.append("\n");
          }
       }
       return join.toString();
@@ -323,6 +423,21 @@ public class FieldLookup {
     * @return
     */
    public static Map<String, List<String>> translate(String... lookups) {
+      return translate((List<Object>) null, lookups);
+   }
+   
+   /**
+    * Traduz as condições de pesquisa, acrescentando os valores das
+    * condições WHERE aos parâmetros (ver
+    * {@link #translateWhere(String, List)}).
+    * 
+    * @param parameters
+    *           recebe os valores das condições ou null para escrevê-los
+    *           como literais.
+    * @param lookups
+    * @return
+    */
+   public static Map<String, List<String>> translate(List<Object> parameters, String... lookups) {
       if (lookups != null) {
          Map<String, List<String>> map = new HashMap<>();
          List<String> joins = new ArrayList<>();
@@ -331,7 +446,7 @@ public class FieldLookup {
          String previousJoin = "";
          for (String lookup : lookups) {
             lookup = lookup.trim();
-            if (lookup.matches("(and|AND|or|OR)")) {
+            if (CONNECTOR.matcher(lookup).matches()) {
                map.get("where").add(lookup.toUpperCase());
             } else {
                if (lookup.contains(".")) {
@@ -349,10 +464,10 @@ public class FieldLookup {
                      previousJoin = join;
                   }
                   if (!map.containsValue(where)) {
-                     map.get("where").add(translateWhere(where));
+                     map.get("where").add(parameters == null ? translateWhere(where) : translateWhere(where, parameters));
                   }
                } else {
-                  map.get("where").add(translateWhere(lookup));
+                  map.get("where").add(parameters == null ? translateWhere(lookup) : translateWhere(lookup, parameters));
                }
             }
          }
@@ -393,11 +508,9 @@ public class FieldLookup {
    
    public static <T extends Model> Map<String, List<String>> translate(Class<T> clazz, String... lookups) {
       if (lookups != null) {
-         Pattern pattern1 = Pattern.compile("^(\\w+\\.\\w+.*)+$");
-         Pattern pattern2 = Pattern.compile("^.*=.*$");
          for (int i = 0; i < lookups.length; i++) {
-            Matcher matcher1 = pattern1.matcher(lookups[i]);
-            Matcher matcher2 = pattern2.matcher(lookups[i]);
+            Matcher matcher1 = NAVIGATION.matcher(lookups[i]);
+            Matcher matcher2 = ASSIGNMENT.matcher(lookups[i]);
             if (matcher1.matches()) {
                String className = clazz.getSimpleName().toLowerCase();
                lookups[i] = lookups[i].replaceAll("(\\w+\\.\\w+)", className + ".$1");
@@ -439,9 +552,7 @@ public class FieldLookup {
    public static String getJoin(String fieldLookup) {
       fieldLookup = fieldLookup == null ? "" : fieldLookup.trim();
       if (!fieldLookup.isEmpty()) {
-         String regex = "(\\w+)\\.(\\w+)";
-         Pattern pattern = Pattern.compile(regex);
-         Matcher matcher = pattern.matcher(fieldLookup);
+         Matcher matcher = ENTITY_PAIR.matcher(fieldLookup);
          String format = "INNER JOIN\n\t%s AS %s ON %s.%s_id = %s.id\n";
          if (matcher.matches()) {
             String parentName = matcher.group(1);
@@ -462,8 +573,8 @@ public class FieldLookup {
     */
    public static String[] decompose(String el) {
       el = el == null ? "" : el;
-      if (el.matches("^\\w+.*(<|<=|=|>|>=|__).*$")) {
-         return el.split("(<|<=|=|>|>=|__)");
+      if (DECOMPOSABLE.matcher(el).matches()) {
+         return DECOMPOSE_SEPARATOR.split(el);
       }
       return new String[] {};
    }
@@ -0,0 +1,173 @@
+package jedi.db.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Árvore sintática (imutável) de uma condição de pesquisa (field lookup).
+ * <p>
+ * Exemplo: <code>pessoa.cidade.nome__!istartswith='Sao'</code> resulta em
+ * path [pessoa, cidade], field nome, operator startswith, negated,
+ * caseInsensitive e value Sao. Os conectores and e or resultam em um
+ * Lookup com {@link #isConnector()} verdadeiro.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ * @see FieldLookup
+ */
+public final class Lookup {
+
+   private static final String NAME = "[A-Za-z0-9]+(?:_[A-Za-z0-9]+)*";
+
+   private static final Pattern LOOKUP = Pattern.compile(
+         "^\\s*(" + NAME + "(?:\\." + NAME + ")*)" +
+         "(?:__(!)?(i)?(exact|contains|startswith|endswith|in|range|isnull|gte|gt|lte|lt|year|month|day|weekday|hour|minute|second))?" +
+         "\\s*(<=|>=|<|>|=)\\s*(.*?)\\s*$");
+
+   private static final Pattern CONNECTOR = Pattern.compile("^\\s*(and|or)\\s*$", Pattern.CASE_INSENSITIVE);
+
+   private final List<String> path;
+   private final String field;
+   private final String operator;
+   private final boolean negated;
+   private final boolean caseInsensitive;
+   private final String value;
+   private final String connector;
+
+   private Lookup(List<String> path, String field, String operator, boolean negated, boolean caseInsensitive, String value, String connector) {
+      this.path = path;
+      this.field = field;
+      this.operator = operator;
+      this.negated = negated;
+      this.caseInsensitive = caseInsensitive;
+      this.value = value;
+      this.connector = connector;
+   }
+
+   /**
+    * Analisa a condição de pesquisa.
+    *
+    * @param lookup
+    *           condição de pesquisa
+    * @return a árvore correspondente ou null se a sintaxe não for reconhecida
+    */
+   public static Lookup parse(String lookup) {
+      if (lookup == null) {
+         return null;
+      }
+      Matcher matcher = CONNECTOR.matcher(lookup);
+      if (matcher.matches()) {
+         return new Lookup(Collections.<String> emptyList(), "", "", false, false, "", matcher.group(1).toUpperCase());
+      }
+      matcher = LOOKUP.matcher(lookup);
+      if (!matcher.matches()) {
+         return null;
+      }
+      String[] names = matcher.group(1).split("\\.");
+      List<String> path = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(names, names.length - 1)));
+      String field = names[names.length - 1];
+      String operator = matcher.group(4);
+      String symbol = matcher.group(5);
+      if (operator == null) {
+         switch (symbol) {
+            case "<":
+               operator = "lt";
+               break;
+            case "<=":
+               operator = "lte";
+               break;
+            case ">":
+               operator = "gt";
+               break;
+            case ">=":
+               operator = "gte";
+               break;
+            default:
+               operator = "exact";
+         }
+      } else if (!symbol.equals("=")) {
+         return null;
+      }
+      return new Lookup(path, field, operator, matcher.group(2) != null, matcher.group(3) != null, unquote(matcher.group(6)), null);
+   }
+
+   private static String unquote(String value) {
+      if (value.length() > 1 && value.startsWith("'") && value.endsWith("'")) {
+         return value.substring(1, value.length() - 1);
+      }
+      return value;
+   }
+
+   /**
+    * @return as entidades navegadas antes do campo (ex.: [pessoa, cidade]).
+    */
+   public List<String> getPath() {
+      return path;
+   }
+
+   public String getField() {
+      return field;
+   }
+
+   /**
+    * @return o operador sem prefixos (exact, contains, in, gt, year, etc.);
+    *         os símbolos &lt;, &lt;=, &gt; e &gt;= são convertidos em lt,
+    *         lte, gt e gte.
+    */
+   public String getOperator() {
+      return operator;
+   }
+
+   public boolean isNegated() {
+      return negated;
+   }
+
+   public boolean isCaseInsensitive() {
+      return caseInsensitive;
+   }
+
+   public String getValue() {
+      return value;
+   }
+
+   public boolean isConnector() {
+      return connector != null;
+   }
+
+   public String getConnector() {
+      return connector;
+   }
+
+   /**
+    * @return o formato da condição, sem o valor (ex.:
+    *         pessoa.nome__!istartswith). Condições com o mesmo formato são
+    *         traduzidas da mesma maneira.
+    */
+   public String getShape() {
+      if (isConnector()) {
+         return connector;
+      }
+      StringBuilder shape = new StringBuilder();
+      for (String entity : path) {
+         shape.append(entity).append('.');
+      }
+      shape.append(field).append("__");
+      if (negated) {
+         shape.append('!');
+      }
+      if (caseInsensitive) {
+         shape.append('i');
+      }
+      return shape.append(operator).toString();
+   }
+
+   @Override
+   public String toString() {
+      return isConnector() ? connector : String.format("%s=%s", getShape(), value);
+   }
+
+}
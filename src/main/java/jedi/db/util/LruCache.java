@@ -0,0 +1,86 @@
+package jedi.db.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache de tamanho limitado que descarta o item usado há mais tempo.
+ * <p>
+ * Os acessos são sincronizados; o valor é calculado fora do bloqueio, de
+ * modo que duas threads podem calcular o mesmo item ao mesmo tempo, mas
+ * nenhuma fica esperando pela outra.
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public final class LruCache<K, V> {
+
+   private final Map<K, V> map;
+   private volatile int maxSize;
+
+   public LruCache(int maxSize) {
+      this.maxSize = maxSize;
+      this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > LruCache.this.maxSize;
+         }
+
+      };
+   }
+
+   public synchronized V get(K key) {
+      return map.get(key);
+   }
+
+   public synchronized void put(K key, V value) {
+      if (maxSize > 0) {
+         map.put(key, value);
+      }
+   }
+
+   /**
+    * Retorna o valor em cache ou o calcula e o armazena. Valores nulos não
+    * são armazenados.
+    */
+   public V get(K key, Function<? super K, ? extends V> loader) {
+      V value = get(key);
+      if (value == null) {
+         value = loader.apply(key);
+         if (value != null) {
+            put(key, value);
+         }
+      }
+      return value;
+   }
+
+   public synchronized V remove(K key) {
+      return map.remove(key);
+   }
+
+   public synchronized int size() {
+      return map.size();
+   }
+
+   public int getMaxSize() {
+      return maxSize;
+   }
+
+   public synchronized void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+      while (map.size() > Math.max(maxSize, 0)) {
+         K eldest = map.keySet().iterator().next();
+         map.remove(eldest);
+      }
+   }
+
+   public synchronized void clear() {
+      map.clear();
+   }
+
+}
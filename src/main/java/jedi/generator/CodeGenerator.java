@@ -145,6 +145,9 @@ public abstract class CodeGenerator {
          code.put("referencedEntityFile", JediEngine.getModelFile(clazz).toString());
          referrerEntityCode.append("\n    // Generated by Jedi ORM\n");
          referrerEntityCode.append(String.format("    public %s get%s() {\n", clazz.getSimpleName(), clazz.getSimpleName()));
+         referrerEntityCode.append(String.format("        if (%s != null) {\n", field.getName()));
+         referrerEntityCode.append(String.format("            %s.load();\n", field.getName()));
+         referrerEntityCode.append("        }\n");
          referrerEntityCode.append(String.format("        return %s;\n", field.getName()));
          referrerEntityCode.append("    }\n");
          referencedEntityCode.append("\n    // Generated by Jedi ORM\n");
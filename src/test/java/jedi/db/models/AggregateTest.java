@@ -0,0 +1,45 @@
+package jedi.db.models;
+
+import static jedi.db.models.Aggregate.avg;
+import static jedi.db.models.Aggregate.count;
+import static jedi.db.models.Aggregate.sum;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import jedi.db.exceptions.DatabaseException;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class AggregateTest {
+
+   @Test
+   public void testAlias() {
+      assertEquals("preco__sum", sum("preco").getAlias());
+      assertEquals("id__count", count().getAlias());
+      assertEquals("total", sum("preco").as("total").getAlias());
+   }
+
+   @Test
+   public void testSql() {
+      assertEquals("SUM(preco)", sum("preco").sql("preco"));
+      assertEquals("AVG(DISTINCT nota)", avg("nota").distinct().sql("nota"));
+      assertEquals("COUNT(id)", count().sql("id"));
+   }
+
+   @Test
+   public void testInvalidAlias() {
+      boolean invalid = false;
+      try {
+         sum("preco").as("total; DROP TABLE x");
+      } catch (DatabaseException e) {
+         invalid = true;
+      }
+      assertTrue(invalid);
+   }
+
+}
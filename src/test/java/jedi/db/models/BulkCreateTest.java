@@ -0,0 +1,104 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jedi.db.connection.DataSource;
+import jedi.db.connection.UnitOfWork;
+
+/**
+ * Inserção em lote pelo QuerySet.save no H2 em memória (ver
+ * src/test/resources/jedi.properties).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class BulkCreateTest {
+
+   public static class Produto extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+      @CharField(max_length = 30)
+      private String nome;
+
+      public Produto() {
+
+      }
+
+      public Produto(String nome) {
+         this.nome = nome;
+      }
+
+   }
+
+   @Before
+   public void setUp() throws SQLException {
+      execute("DROP TABLE IF EXISTS produtos");
+      execute("CREATE TABLE produtos (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(30))");
+   }
+
+   @Test
+   public void testSaveQuerySet() throws SQLException {
+      QuerySet<Produto> produtos = new QuerySet<>();
+      produtos.setEntity(Produto.class);
+      for (int i = 0; i < 5; i++) {
+         produtos.add(new Produto("produto " + i));
+      }
+      produtos.save();
+      assertEquals(5, count());
+      Set<Integer> ids = new HashSet<>();
+      for (Produto produto : produtos) {
+         assertTrue(produto.persisted());
+         ids.add(produto.getId());
+      }
+      assertEquals(5, ids.size());
+      // Os modelos já gravados são atualizados, não inseridos novamente.
+      produtos.save();
+      assertEquals(5, count());
+   }
+
+   @Test
+   public void testUnitOfWorkConnectionIsNotKept() throws SQLException {
+      Manager manager = new Manager(Produto.class, false);
+      try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+         manager.bulkCreate(Arrays.asList(new Produto("a"), new Produto("b")));
+         // O Manager pode ser compartilhado entre threads.
+         assertNotSame(unitOfWork.getConnection(), manager.getConnection());
+         unitOfWork.commit();
+      }
+      assertEquals(2, count());
+   }
+
+   private static int count() throws SQLException {
+      try (Connection connection = DataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM produtos")) {
+         resultSet.next();
+         return resultSet.getInt(1);
+      }
+   }
+
+   private static void execute(String sql) throws SQLException {
+      try (Connection connection = DataSource.getConnection(); Statement statement = connection.createStatement()) {
+         statement.execute(sql);
+         if (!connection.getAutoCommit()) {
+            connection.commit();
+         }
+      }
+   }
+
+}
@@ -0,0 +1,55 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class IdentityMapTest {
+
+   public static class Cliente extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+   }
+
+   private static Cliente cliente(int id) {
+      Cliente cliente = new Cliente();
+      cliente.id = id;
+      return cliente;
+   }
+
+   @Test
+   public void testPut() {
+      try (IdentityMap identityMap = IdentityMap.begin()) {
+         Cliente cliente = cliente(1);
+         assertSame(cliente, identityMap.put(cliente));
+         assertSame(cliente, identityMap.put(cliente(1)));
+         assertSame(cliente, identityMap.get(Cliente.class, 1));
+         assertNull(identityMap.get(Cliente.class, 2));
+         IdentityMap.evict(Cliente.class, 1);
+         assertNull(identityMap.get(Cliente.class, 1));
+      }
+   }
+
+   @Test
+   public void testNested() {
+      try (IdentityMap identityMap = IdentityMap.begin()) {
+         Cliente cliente = identityMap.put(cliente(1));
+         try (IdentityMap inner = IdentityMap.begin()) {
+            assertSame(cliente, inner.get(Cliente.class, 1));
+         }
+         assertSame(identityMap, IdentityMap.current());
+         assertEquals(1, identityMap.size());
+      }
+      assertFalse(IdentityMap.isActive());
+   }
+
+}
@@ -0,0 +1,43 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class LazyQueryTest {
+
+   public static class Produto extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+      @CharField(max_length = 30)
+      private String nome;
+
+   }
+
+   private static LazyQuery<Produto> query() {
+      return new LazyQuery<>(new Manager(Produto.class, false), Produto.class);
+   }
+
+   @Test
+   public void testFilterAfterLimitKeepsOrder() {
+      assertEquals(
+            "SELECT * FROM produtos WHERE id IN (SELECT id FROM (SELECT id FROM produtos ORDER BY nome DESC LIMIT 2) jedi_slice) " +
+                  "AND (nome = 'a') ORDER BY nome DESC",
+            query().orderBy("-nome").limit(2).filter("nome='a'").sql());
+   }
+
+   @Test
+   public void testExcludeAfterLimitKeepsFields() {
+      assertEquals(
+            "SELECT produtos.id, produtos.nome FROM produtos WHERE id IN (SELECT id FROM (SELECT id FROM produtos LIMIT 2) jedi_slice) " +
+                  "AND NOT (nome = 'a')",
+            query().only("nome").limit(2).exclude("nome='a'").sql());
+   }
+
+}
@@ -0,0 +1,102 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jedi.db.connection.DataSource;
+import jedi.db.engine.JediEngine;
+
+/**
+ * Chaves estrangeiras LAZY no H2 em memória (ver
+ * src/test/resources/jedi.properties).
+ *
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class LazyReferenceTest {
+
+   public static class Editora extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+      @CharField(max_length = 30)
+      private String nome;
+
+   }
+
+   public static class Livro extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+      @CharField(max_length = 30)
+      private String titulo;
+
+      @ForeignKeyField(fetch_type = FetchType.LAZY)
+      private Editora editora;
+
+      public Editora getEditora() {
+         return editora;
+      }
+
+   }
+
+   private FetchType fetchType;
+   private Boolean lazyReferences;
+
+   @Before
+   public void setUp() throws SQLException {
+      fetchType = JediEngine.FETCH_TYPE;
+      lazyReferences = JediEngine.DATABASE_LAZY_REFERENCES;
+      JediEngine.FETCH_TYPE = FetchType.NONE;
+      execute("DROP TABLE IF EXISTS livros");
+      execute("DROP TABLE IF EXISTS editoras");
+      execute("CREATE TABLE editoras (id INT AUTO_INCREMENT PRIMARY KEY, nome VARCHAR(30))");
+      execute("CREATE TABLE livros (id INT AUTO_INCREMENT PRIMARY KEY, titulo VARCHAR(30), editora_id INT)");
+      execute("INSERT INTO editoras (nome) VALUES ('Globo')");
+      execute("INSERT INTO livros (titulo, editora_id) VALUES ('Dom Casmurro', 1)");
+   }
+
+   @After
+   public void tearDown() {
+      JediEngine.FETCH_TYPE = fetchType;
+      JediEngine.DATABASE_LAZY_REFERENCES = lazyReferences;
+   }
+
+   @Test
+   public void testNullWithoutLazyReferences() {
+      JediEngine.DATABASE_LAZY_REFERENCES = false;
+      Livro livro = new Manager(Livro.class).<Livro> all().get(0);
+      assertNull(livro.getEditora());
+   }
+
+   @Test
+   public void testReference() {
+      JediEngine.DATABASE_LAZY_REFERENCES = true;
+      Livro livro = new Manager(Livro.class).<Livro> all().get(0);
+      Editora editora = livro.getEditora();
+      assertEquals(1, editora.getId());
+      // Getter escrito à mão: os campos só são lidos após load().
+      assertNull(editora.nome);
+      editora.load();
+      assertEquals("Globo", editora.nome);
+   }
+
+   private static void execute(String sql) throws SQLException {
+      try (Connection connection = DataSource.getConnection(); Statement statement = connection.createStatement()) {
+         statement.execute(sql);
+         if (!connection.getAutoCommit()) {
+            connection.commit();
+         }
+      }
+   }
+
+}
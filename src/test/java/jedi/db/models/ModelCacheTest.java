@@ -0,0 +1,85 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class ModelCacheTest {
+
+   @Cacheable(maxSize = 2)
+   public static class Produto extends Model {
+
+      private static final long serialVersionUID = 1L;
+
+      @CharField(max_length = 30)
+      private String nome;
+
+   }
+
+   private static Produto produto(int id, String nome) {
+      Produto produto = new Produto();
+      produto.id = id;
+      produto.nome = nome;
+      produto.setPersisted(true);
+      return produto;
+   }
+
+   @Test
+   public void testNotCacheable() {
+      assertNull(ModelCache.of(Model.class));
+   }
+
+   @Test
+   public void testCopyOnReadAndWrite() {
+      ModelCache cache = ModelCache.of(Produto.class);
+      cache.clear();
+      Produto produto = produto(1, "caneta");
+      cache.put(produto);
+      produto.nome = "lápis";
+      Produto cached = cache.get(1);
+      assertEquals("caneta", cached.nome);
+      assertTrue(cached.isPersisted());
+      cached.nome = "borracha";
+      assertNotSame(cached, cache.get(1));
+      assertEquals("caneta", ((Produto) cache.get(1)).nome);
+   }
+
+   @Test
+   public void testEvictionAndCounters() {
+      ModelCache cache = ModelCache.of(Produto.class);
+      cache.clear();
+      cache.resetStatistics();
+      cache.put(produto(1, "a"));
+      cache.put(produto(2, "b"));
+      cache.get(1);
+      cache.put(produto(3, "c"));
+      assertEquals(2, cache.size());
+      assertNull(cache.get(2));
+      ModelCache.evict(Produto.class, 1);
+      assertNull(cache.get(1));
+      assertEquals(1, cache.getHits());
+      assertEquals(2, cache.getMisses());
+   }
+
+   @Test
+   public void testStalePut() {
+      ModelCache cache = ModelCache.of(Produto.class);
+      cache.clear();
+      long stamp = cache.stamp();
+      // Alteração entre a consulta e o armazenamento.
+      ModelCache.evict(Produto.class, 1);
+      cache.put(produto(1, "antigo"), stamp);
+      assertNull(cache.get(1));
+      cache.put(produto(1, "novo"), cache.stamp());
+      assertEquals("novo", ((Produto) cache.get(1)).nome);
+   }
+
+}
@@ -0,0 +1,79 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class QueryCacheTest {
+
+   @Test
+   public void testTables() {
+      assertEquals(Arrays.asList("pedidos", "clientes", "itens"), Arrays.asList(QueryCache
+            .tables("SELECT * FROM pedidos AS p LEFT JOIN clientes c ON c.id = p.cliente_id WHERE p.id IN (SELECT pedido_id FROM `itens`)")
+            .toArray()));
+      assertEquals(Arrays.asList("pedidos"), Arrays.asList(QueryCache.tables("UPDATE pedidos SET status = 'pago'").toArray()));
+      assertEquals(Arrays.asList("pedidos_produtos"),
+            Arrays.asList(QueryCache.tables("INSERT INTO pedidos_produtos (pedido_id, produto_id) VALUES (1, 2)").toArray()));
+      assertEquals(Arrays.asList("pedidos"), Arrays.asList(QueryCache.tables("TRUNCATE TABLE pedidos").toArray()));
+      assertEquals(Arrays.asList("pedidos"), Arrays.asList(QueryCache.tables("truncate pedidos").toArray()));
+   }
+
+   @Test
+   public void testInvalidateTruncate() {
+      String sql = "SELECT COUNT(*) FROM query_cache_truncate_test";
+      QueryCache.put(sql, QueryCache.stamp(sql), 10);
+      QueryCache.invalidateSql("TRUNCATE TABLE query_cache_truncate_test");
+      assertNull(QueryCache.get(sql));
+   }
+
+   @Test
+   public void testInvalidate() {
+      String sql = "SELECT COUNT(*) FROM query_cache_test";
+      QueryCache.put(sql, QueryCache.stamp(sql), 10);
+      assertEquals(Integer.valueOf(10), QueryCache.get(sql));
+      QueryCache.invalidate("other_table");
+      assertEquals(Integer.valueOf(10), QueryCache.get(sql));
+      QueryCache.invalidate("QUERY_CACHE_TEST");
+      assertNull(QueryCache.get(sql));
+   }
+
+   @Test
+   public void testInvalidateInsert() {
+      String sql = "SELECT * FROM query_cache_insert_test WHERE idade >= 18";
+      QueryCache.put(sql, QueryCache.stamp(sql), 10);
+      // Instrução de um lote de bulkCreate.
+      QueryCache.invalidateSql("INSERT INTO query_cache_insert_test (nome, idade) VALUES (?, ?)");
+      assertNull(QueryCache.get(sql));
+   }
+
+   @Test
+   public void testStaleStamp() {
+      String sql = "SELECT COUNT(*) FROM query_cache_stamp_test";
+      QueryCache.Stamp stamp = QueryCache.stamp(sql);
+      // Escrita concorrente durante a consulta.
+      QueryCache.invalidateSql("DELETE FROM query_cache_stamp_test");
+      QueryCache.put(sql, stamp, 10);
+      assertNull(QueryCache.get(sql));
+   }
+
+   @Test
+   public void testMemoryUsage() {
+      QueryCache.clear();
+      String sql = "SELECT COUNT(*) FROM query_cache_memory_test";
+      QueryCache.put(sql, QueryCache.stamp(sql), 10);
+      assertEquals(1, QueryCache.size());
+      assertTrue(QueryCache.getMemoryUsage() > 0);
+      QueryCache.clear();
+      assertEquals(0, QueryCache.getMemoryUsage());
+   }
+
+}
@@ -0,0 +1,58 @@
+package jedi.db.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.Test;
+
+import jedi.db.exceptions.DatabaseException;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class QueryPageTokenTest {
+
+   @Test
+   public void testRoundTrip() {
+      QueryPageToken token = QueryPageToken.of("nome", true, "D'Ávila. Jr", 42);
+      QueryPageToken parsed = QueryPage.token(token.get());
+      assertEquals("nome", parsed.getField());
+      assertTrue(parsed.isDescending());
+      assertEquals("D'Ávila. Jr", parsed.getLastValue());
+      assertEquals(42, parsed.getLastId());
+   }
+
+   @Test
+   public void testTypedValues() {
+      assertEquals(new BigDecimal("10.5"), QueryPageToken.of("preco", false, 10.5, 1).getLastValue());
+      assertEquals(Boolean.TRUE, QueryPageToken.of("ativo", false, true, 1).getLastValue());
+      assertEquals(new Date(1000L), QueryPageToken.of("criado", false, new Date(1000L), 1).getLastValue());
+      assertNull(QueryPageToken.of("apelido", false, null, 1).getLastValue());
+      assertFalse(QueryPageToken.of("id", false, null, 1).isDescending());
+   }
+
+   @Test
+   public void testEmpty() {
+      assertTrue(new QueryPageToken().isEmpty());
+      assertTrue(QueryPage.token(" ").isEmpty());
+   }
+
+   @Test
+   public void testInvalid() {
+      boolean invalid = false;
+      try {
+         QueryPage.token("abc").getLastId();
+      } catch (DatabaseException e) {
+         invalid = true;
+      }
+      assertTrue(invalid);
+   }
+
+}
@@ -0,0 +1,64 @@
+package jedi.db.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class DialectTest {
+
+   @Test
+   public void testOf() {
+      assertEquals("mysql", Dialect.of("MySQL").getName());
+      assertEquals("postgresql", Dialect.of("postgresql").getName());
+      assertEquals("oracle", Dialect.of(" oracle ").getName());
+      assertEquals("mysql", Dialect.of(null).getName());
+   }
+
+   @Test
+   public void testLimit() {
+      assertEquals(" LIMIT 10 OFFSET 20", Dialect.of("postgresql").limit(10, 20));
+      assertEquals(" LIMIT 18446744073709551615 OFFSET 5", Dialect.of("mysql").limit(null, 5));
+      assertEquals(" LIMIT -1 OFFSET 5", Dialect.of("sqlite").limit(null, 5));
+      assertEquals(" FETCH NEXT 1 ROWS ONLY", Dialect.of("oracle").limit(1, 0));
+      assertEquals(" OFFSET 5 ROWS FETCH NEXT 1 ROWS ONLY", Dialect.of("oracle").limit(1, 5));
+      assertEquals("", Dialect.of("h2").limit(null, 0));
+   }
+
+   @Test
+   public void testRegex() {
+      assertEquals("nome REGEXP BINARY '^A'", Dialect.of("mysql").regex("nome", "^A", true));
+      assertEquals("nome ~* '^A'", Dialect.of("postgresql").regex("nome", "^A", false));
+      assertEquals("REGEXP_LIKE(nome, '^A', 'c')", Dialect.of("oracle").regex("nome", "^A", true));
+   }
+
+   @Test
+   public void testUpsert() {
+      assertEquals(
+            "INSERT INTO pessoas (cpf, nome) VALUES ('1', 'A') ON DUPLICATE KEY UPDATE nome = VALUES(nome), id = LAST_INSERT_ID(id)",
+            Dialect.of("mysql").upsert("pessoas", Arrays.asList("cpf", "nome"), Arrays.asList("'1'", "'A'"), Arrays.asList("cpf"),
+                  Arrays.asList("nome")));
+      assertEquals("INSERT INTO pessoas (cpf) VALUES ('1') ON CONFLICT (cpf) DO UPDATE SET cpf = EXCLUDED.cpf",
+            Dialect.of("postgresql").upsert("pessoas", Arrays.asList("cpf"), Arrays.asList("'1'"), Arrays.asList("cpf"),
+                  Collections.<String> emptyList()));
+      assertNull(Dialect.of("oracle").upsert("pessoas", Arrays.asList("cpf"), Arrays.asList("'1'"), Arrays.asList("cpf"),
+            Collections.<String> emptyList()));
+      assertNull(Dialect.of("postgresql").upsert("pessoas", Arrays.asList("cpf", "email"), Arrays.asList("'1'", "'a@b'"),
+            Arrays.asList("cpf", "email"), Collections.<String> emptyList()));
+   }
+
+   @Test
+   public void testSeek() {
+      assertEquals("(nome, id) > ('A', 3)", Dialect.of("mysql").seek("nome", ">", "'A'", 3));
+      assertEquals("(nome > 'A' OR (nome = 'A' AND id > 3))", Dialect.of("oracle").seek("nome", ">", "'A'", 3));
+   }
+
+}
@@ -0,0 +1,76 @@
+package jedi.db.sql;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class PreparedSqlTest {
+   
+   @Test
+   public void testComparisons() {
+      PreparedSql sql = PreparedSql.of("SELECT * FROM pessoas WHERE nome LIKE 'Thi%' AND idade >= 18 AND nota < -1.5");
+      assertEquals("SELECT * FROM pessoas WHERE nome LIKE ? AND idade >= ? AND nota < ?", sql.getSql());
+      assertEquals(Arrays.asList("Thi%", 18L, new BigDecimal("-1.5")), sql.getParameters());
+   }
+   
+   @Test
+   public void testInBetweenAndLimit() {
+      PreparedSql sql = PreparedSql.of("SELECT * FROM pessoas WHERE id IN (1, 2) AND idade BETWEEN 18 AND 30 LIMIT 10 OFFSET 20");
+      assertEquals("SELECT * FROM pessoas WHERE id IN (?, ?) AND idade BETWEEN ? AND ? LIMIT ? OFFSET ?", sql.getSql());
+      assertEquals(Arrays.asList(1L, 2L, 18L, 30L, 10L, 20L), sql.getParameters());
+   }
+   
+   @Test
+   public void testExponent() {
+      PreparedSql sql = PreparedSql.of("SELECT * FROM pessoas WHERE a = 1e5 AND b > 2.5E-3");
+      assertEquals("SELECT * FROM pessoas WHERE a = ? AND b > ?", sql.getSql());
+      assertEquals(Arrays.asList(new BigDecimal("1e5"), new BigDecimal("2.5E-3")), sql.getParameters());
+   }
+   
+   @Test
+   public void testOffsetWithoutLimit() {
+      String query = "SELECT * FROM pessoas" + Dialect.of("mysql").limit(null, 5);
+      PreparedSql sql = PreparedSql.of(query);
+      assertEquals("SELECT * FROM pessoas LIMIT 18446744073709551615 OFFSET ?", sql.getSql());
+      assertEquals(Arrays.asList(5L), sql.getParameters());
+   }
+   
+   @Test
+   public void testEscapes() {
+      PreparedSql sql = PreparedSql.of("SELECT * FROM pessoas WHERE UPPER(nome) LIKE UPPER('o''brien\\%') OR nome = 'd\\'arc'");
+      assertEquals("SELECT * FROM pessoas WHERE UPPER(nome) LIKE UPPER(?) OR nome = ?", sql.getSql());
+      assertEquals(Arrays.asList("o'brien\\%", "d'arc"), sql.getParameters());
+   }
+   
+   @Test
+   public void testKeepsNonValueLiterals() {
+      String query = "SELECT * FROM pessoas_2 WHERE DATE_FORMAT(data, '%Y') REGEXP '^2017' ORDER BY 1";
+      PreparedSql sql = PreparedSql.of(query);
+      assertEquals("SELECT * FROM pessoas_2 WHERE DATE_FORMAT(data, '%Y') REGEXP ? ORDER BY 1", sql.getSql());
+      assertEquals(Arrays.asList("^2017"), sql.getParameters());
+   }
+   
+   @Test
+   public void testSameShapeSameSql() {
+      assertEquals(
+         PreparedSql.of("SELECT * FROM pessoas WHERE nome = 'Ana'").getSql(),
+         PreparedSql.of("SELECT * FROM pessoas WHERE nome = 'Bia'").getSql());
+   }
+   
+   @Test
+   public void testBoundPlaceholders() {
+      PreparedSql sql = PreparedSql.of("SELECT * FROM pessoas WHERE nome = 'Ana' AND (nascimento, id) < (?, 16) LIMIT 11",
+            Arrays.<Object> asList("1980-01-17"));
+      assertEquals("SELECT * FROM pessoas WHERE nome = ? AND (nascimento, id) < (?, ?) LIMIT ?", sql.getSql());
+      assertEquals(Arrays.<Object> asList("Ana", "1980-01-17", 16L, 11L), sql.getParameters());
+   }
+   
+}
@@ -0,0 +1,34 @@
+package jedi.db.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class FieldLookupTest {
+
+   @Test
+   public void testTranslateWhereParameters() {
+      List<Object> parameters = new ArrayList<>();
+      assertEquals("LOWER(pessoa.nome) LIKE LOWER(?)", FieldLookup.translateWhere("pessoa.nome__icontains=an", parameters));
+      assertEquals("pessoa.id IN (?, ?, ?)", FieldLookup.translateWhere("pessoa.id__in=[1, 2, 3]", parameters));
+      assertEquals("pessoa.nascimento < ?", FieldLookup.translateWhere("pessoa.nascimento__lt='2020-01-01'", parameters));
+      assertEquals("pessoa.nome IS NULL", FieldLookup.translateWhere("pessoa.nome=null", parameters));
+      assertEquals(Arrays.<Object> asList("%an%", 1L, 2L, 3L, "2020-01-01"), parameters);
+   }
+
+   @Test
+   public void testTranslateWhereLiterals() {
+      assertEquals("pessoa.idade BETWEEN 1 AND 5", FieldLookup.translateWhere("pessoa.idade__range=(1, 5)"));
+      assertEquals("pessoa.nome IN ('a', 'b')", FieldLookup.translateWhere("pessoa.nome__in=['a', 'b']"));
+   }
+
+}
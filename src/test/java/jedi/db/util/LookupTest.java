@@ -0,0 +1,51 @@
+package jedi.db.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author thiago
+ * @version v1.0.0 18/10/2026
+ * @since v1.0.0
+ */
+public class LookupTest {
+   
+   @Test
+   public void testParse() {
+      Lookup lookup = Lookup.parse("pessoa.cidade.nome__!istartswith = 'Sao'");
+      assertEquals(Arrays.asList("pessoa", "cidade"), lookup.getPath());
+      assertEquals("nome", lookup.getField());
+      assertEquals("startswith", lookup.getOperator());
+      assertTrue(lookup.isNegated());
+      assertTrue(lookup.isCaseInsensitive());
+      assertEquals("Sao", lookup.getValue());
+   }
+   
+   @Test
+   public void testSymbols() {
+      assertEquals("lte", Lookup.parse("pessoa.idade<=30").getOperator());
+      assertEquals("gt", Lookup.parse("pessoa.idade > 30").getOperator());
+      assertEquals("exact", Lookup.parse("pessoa.home_city_id=1").getOperator());
+      assertEquals("home_city_id", Lookup.parse("pessoa.home_city_id=1").getField());
+   }
+   
+   @Test
+   public void testShapeIgnoresValue() {
+      assertEquals(Lookup.parse("pessoa.nome__icontains=Ana").getShape(), Lookup.parse("pessoa.nome__icontains=Bia").getShape());
+      assertEquals("pessoa.nome__icontains", Lookup.parse("pessoa.nome__icontains=Ana").getShape());
+   }
+   
+   @Test
+   public void testConnectorsAndInvalid() {
+      assertEquals("AND", Lookup.parse(" and ").getConnector());
+      assertEquals("OR", Lookup.parse("Or").getConnector());
+      assertNull(Lookup.parse("pessoa.idade__gt<30"));
+      assertNull(Lookup.parse("nome"));
+   }
+   
+}